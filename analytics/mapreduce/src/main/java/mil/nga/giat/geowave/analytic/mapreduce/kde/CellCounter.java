@@ -5,4 +5,9 @@ public interface CellCounter
 	public void increment(
 			long cellId,
 			double weight );
+
+	/**
+	 * Write any counts that have been summed but not yet written
+	 */
+	public void flush();
 }
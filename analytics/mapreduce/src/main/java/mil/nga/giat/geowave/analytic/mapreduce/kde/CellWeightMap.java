@@ -0,0 +1,150 @@
+package mil.nga.giat.geowave.analytic.mapreduce.kde;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map from cell ID to the summed weight of the cell,
+ * using primitive arrays so that summing the many contributions of each point
+ * within a mapper does not allocate an object per contribution.
+ */
+public class CellWeightMap
+{
+	public static interface CellWeightVisitor
+	{
+		public void visit(
+				long cellId,
+				double weight )
+				throws IOException,
+				InterruptedException;
+	}
+
+	private static final int DEFAULT_CAPACITY = 1024;
+	private static final double LOAD_FACTOR = 0.75;
+
+	private long[] cellIds;
+	private double[] weights;
+	private boolean[] used;
+	private int size = 0;
+
+	public CellWeightMap() {
+		this(
+				DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity
+	 *            the initial capacity, rounded up to a power of two
+	 */
+	public CellWeightMap(
+			final int capacity ) {
+		allocate(Integer.highestOneBit(Math.max(
+				2,
+				capacity - 1)) << 1);
+	}
+
+	private void allocate(
+			final int capacity ) {
+		cellIds = new long[capacity];
+		weights = new double[capacity];
+		used = new boolean[capacity];
+	}
+
+	/**
+	 * Add the weight to the sum of the cell
+	 */
+	public void add(
+			final long cellId,
+			final double weight ) {
+		if ((size + 1) > (cellIds.length * LOAD_FACTOR)) {
+			resize(cellIds.length << 1);
+		}
+		final int index = indexOf(cellId);
+		if (used[index]) {
+			weights[index] += weight;
+		}
+		else {
+			used[index] = true;
+			cellIds[index] = cellId;
+			weights[index] = weight;
+			size++;
+		}
+	}
+
+	/**
+	 * @return the summed weight of the cell, or 0 if the cell has no weight
+	 */
+	public double get(
+			final long cellId ) {
+		final int index = indexOf(cellId);
+		return used[index] ? weights[index] : 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Visit each cell and its summed weight, in no particular order
+	 */
+	public void visit(
+			final CellWeightVisitor visitor )
+			throws IOException,
+			InterruptedException {
+		for (int i = 0; i < used.length; i++) {
+			if (used[i]) {
+				visitor.visit(
+						cellIds[i],
+						weights[i]);
+			}
+		}
+	}
+
+	/**
+	 * Remove every cell, keeping the capacity for reuse
+	 */
+	public void clear() {
+		Arrays.fill(
+				used,
+				false);
+		size = 0;
+	}
+
+	private int indexOf(
+			final long cellId ) {
+		final int mask = cellIds.length - 1;
+		int index = hash(cellId) & mask;
+		while (used[index] && (cellIds[index] != cellId)) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+
+	private void resize(
+			final int capacity ) {
+		final long[] oldCellIds = cellIds;
+		final double[] oldWeights = weights;
+		final boolean[] oldUsed = used;
+		allocate(capacity);
+		for (int i = 0; i < oldUsed.length; i++) {
+			if (oldUsed[i]) {
+				final int index = indexOf(oldCellIds[i]);
+				used[index] = true;
+				cellIds[index] = oldCellIds[i];
+				weights[index] = oldWeights[i];
+			}
+		}
+	}
+
+	private static int hash(
+			final long cellId ) {
+		// neighboring cells have consecutive IDs, so spread the bits
+		long h = cellId * 0x9E3779B97F4A7C15L;
+		h ^= (h >>> 32);
+		return (int) (h ^ (h >>> 16));
+	}
+}
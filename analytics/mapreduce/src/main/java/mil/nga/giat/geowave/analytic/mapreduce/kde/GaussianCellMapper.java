@@ -23,10 +23,19 @@ public class GaussianCellMapper extends
 {
 	private final static Logger LOGGER = Logger.getLogger(GaussianCellMapper.class);
 	protected static final String CQL_FILTER_KEY = "CQL_FILTER";
+	/**
+	 * The memory, in bytes, that a mapper uses to sum the weights of cells
+	 * before writing them
+	 */
+	public static final String CELL_BUFFER_BYTES_KEY = "CELL_BUFFER_BYTES";
+	private static final long DEFAULT_CELL_BUFFER_BYTES = 64 * 1024 * 1024;
+	// a cell's ID, weight and slot within the hash map, with room to grow
+	private static final int BYTES_PER_CELL = 32;
 	protected int minLevel;
 	protected int maxLevel;
 	protected Filter filter;
 	protected Map<Integer, LevelStore> levelStoreMap;
+	protected int maxBufferedCells;
 
 	@Override
 	protected void setup(
@@ -53,6 +62,15 @@ public class GaussianCellMapper extends
 			}
 		}
 		levelStoreMap = new HashMap<Integer, LevelStore>();
+		// the buffer is shared evenly by the counters of every level
+		final long cellBufferBytes = context.getConfiguration().getLong(
+				CELL_BUFFER_BYTES_KEY,
+				DEFAULT_CELL_BUFFER_BYTES);
+		maxBufferedCells = (int) Math.max(
+				1,
+				Math.min(
+						Integer.MAX_VALUE / 2,
+						cellBufferBytes / ((long) BYTES_PER_CELL * ((maxLevel - minLevel) + 1) * getCountersPerLevel())));
 
 		for (int level = maxLevel; level >= minLevel; level--) {
 			final int numXPosts = (int) Math.pow(
@@ -84,7 +102,26 @@ public class GaussianCellMapper extends
 								context,
 								level,
 								minLevel,
-								maxLevel)));
+								maxLevel,
+								maxBufferedCells)));
+	}
+
+	/**
+	 * @return the number of cell counters populated for each level
+	 */
+	protected int getCountersPerLevel() {
+		return 1;
+	}
+
+	@Override
+	protected void cleanup(
+			final Context context )
+			throws IOException,
+			InterruptedException {
+		for (final LevelStore levelStore : levelStoreMap.values()) {
+			levelStore.counter.flush();
+		}
+		super.cleanup(context);
 	}
 
 	@Override
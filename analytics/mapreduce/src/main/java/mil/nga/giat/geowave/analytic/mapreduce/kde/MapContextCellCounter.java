@@ -8,6 +8,11 @@ import org.apache.hadoop.mapreduce.Mapper.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Sums the weights of each cell within the mapper and writes the sums to the
+ * context once the number of cells reaches a threshold, and when flushed at
+ * the end of the map task, rather than writing every contribution.
+ */
 public class MapContextCellCounter implements
 		CellCounter
 {
@@ -18,16 +23,41 @@ public class MapContextCellCounter implements
 	private final long maxLevel;
 	private final long numLevels;
 	private final long level;
+	private final int maxBufferedCells;
+	private final CellWeightMap cellWeights = new CellWeightMap();
+	private final LongWritable outputKey = new LongWritable();
+	private final DoubleWritable outputValue = new DoubleWritable();
 
 	public MapContextCellCounter(
 			final Context context,
 			final long level,
 			final long minLevel,
 			final long maxLevel ) {
+		this(
+				context,
+				level,
+				minLevel,
+				maxLevel,
+				1);
+	}
+
+	/**
+	 * @param maxBufferedCells
+	 *            the number of cells to sum before writing them to the context
+	 */
+	public MapContextCellCounter(
+			final Context context,
+			final long level,
+			final long minLevel,
+			final long maxLevel,
+			final int maxBufferedCells ) {
 		this.context = context;
 		this.level = level;
 		this.minLevel = minLevel;
 		this.maxLevel = maxLevel;
+		this.maxBufferedCells = Math.max(
+				1,
+				maxBufferedCells);
 		numLevels = (maxLevel - minLevel) + 1;
 	}
 
@@ -36,21 +66,41 @@ public class MapContextCellCounter implements
 			final long cellId,
 			final double weight ) {
 		if (weight > 0) {
-			try {
-				context.write(
-						new LongWritable(
-								getCellId(cellId)),
-						new DoubleWritable(
-								weight));
-			}
-			catch (IOException | InterruptedException e) {
-				LOGGER.error(
-						"Unable to write",
-						e);
+			cellWeights.add(
+					getCellId(cellId),
+					weight);
+			if (cellWeights.size() >= maxBufferedCells) {
+				flush();
 			}
 		}
 	}
 
+	@Override
+	public void flush() {
+		try {
+			cellWeights.visit(new CellWeightMap.CellWeightVisitor() {
+				@Override
+				public void visit(
+						final long cellId,
+						final double weight )
+						throws IOException,
+						InterruptedException {
+					outputKey.set(cellId);
+					outputValue.set(weight);
+					context.write(
+							outputKey,
+							outputValue);
+				}
+			});
+		}
+		catch (IOException | InterruptedException e) {
+			LOGGER.error(
+					"Unable to write",
+					e);
+		}
+		cellWeights.clear();
+	}
+
 	protected long getCellId(
 			final long cellId ) {
 		return (cellId * numLevels) + (level - minLevel);
@@ -51,7 +51,25 @@ public class ComparisonGaussianCellMapper extends
 								context,
 								level,
 								minLevel,
-								maxLevel)));
+								maxLevel,
+								maxBufferedCells)));
+	}
+
+	@Override
+	protected int getCountersPerLevel() {
+		// a counter each for winter and summer
+		return 2;
+	}
+
+	@Override
+	protected void cleanup(
+			final Context context )
+			throws IOException,
+			InterruptedException {
+		for (final LevelStore levelStore : winterLevelStoreMap.values()) {
+			levelStore.counter.flush();
+		}
+		super.cleanup(context);
 	}
 
 	@Override
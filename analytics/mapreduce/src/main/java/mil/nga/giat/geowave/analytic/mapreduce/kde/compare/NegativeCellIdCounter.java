@@ -20,6 +20,20 @@ public class NegativeCellIdCounter extends
 				maxLevel);
 	}
 
+	public NegativeCellIdCounter(
+			final Context context,
+			final long level,
+			final long minLevel,
+			final long maxLevel,
+			final int maxBufferedCells ) {
+		super(
+				context,
+				level,
+				minLevel,
+				maxLevel,
+				maxBufferedCells);
+	}
+
 	@Override
 	protected long getCellId(
 			final long cellId ) {
@@ -0,0 +1,70 @@
+package mil.nga.giat.geowave.analytic.mapreduce.kde;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CellWeightMapTest
+{
+	@Test
+	public void testSumsWeightsPerCell()
+			throws IOException,
+			InterruptedException {
+		final CellWeightMap map = new CellWeightMap(
+				4);
+		final Map<Long, Double> expected = new HashMap<Long, Double>();
+		// enough cells to resize, with negative IDs as comparison KDE uses
+		for (long cellId = -5000; cellId < 5000; cellId++) {
+			for (int i = 0; i < 3; i++) {
+				map.add(
+						cellId,
+						0.5);
+			}
+			expected.put(
+					cellId,
+					1.5);
+		}
+		Assert.assertEquals(
+				expected.size(),
+				map.size());
+		Assert.assertEquals(
+				1.5,
+				map.get(-5000),
+				0);
+		Assert.assertEquals(
+				0,
+				map.get(5000),
+				0);
+
+		final Map<Long, Double> actual = new HashMap<Long, Double>();
+		map.visit(new CellWeightMap.CellWeightVisitor() {
+			@Override
+			public void visit(
+					final long cellId,
+					final double weight ) {
+				actual.put(
+						cellId,
+						weight);
+			}
+		});
+		Assert.assertEquals(
+				expected,
+				actual);
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		map.add(
+				0,
+				2);
+		Assert.assertEquals(
+				1,
+				map.size());
+		Assert.assertEquals(
+				2,
+				map.get(0),
+				0);
+	}
+}
@@ -0,0 +1,36 @@
+package mil.nga.giat.geowave.core.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the GeoWave benchmarks, accepting the standard JMH command line
+ * options. Unless a result format is given, the results are published as JSON
+ * so that they can be compared across releases.
+ */
+public class BenchmarkRunner
+{
+	public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+	public static void main(
+			final String[] args )
+			throws RunnerException,
+			CommandLineOptionException {
+		final CommandLineOptions commandLineOptions = new CommandLineOptions(
+				args);
+		final ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+		if (!commandLineOptions.getResultFormat().hasValue()) {
+			options.resultFormat(ResultFormatType.JSON);
+		}
+		if (!commandLineOptions.getResult().hasValue()) {
+			options.result(DEFAULT_RESULT_FILE);
+		}
+		new Runner(
+				options.build()).run();
+	}
+}
@@ -0,0 +1,113 @@
+package mil.nga.giat.geowave.core.benchmarks;
+
+import java.util.Random;
+
+import mil.nga.giat.geowave.core.index.dimension.BasicDimensionDefinition;
+import mil.nga.giat.geowave.core.index.dimension.NumericDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.SFCDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.data.BasicNumericDataset;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericValue;
+
+/**
+ * Fixtures shared by the benchmarks. Inputs are generated from a fixed seed so
+ * that results are comparable between runs.
+ */
+public class BenchmarkUtils
+{
+	/**
+	 * The number of inputs to cycle through, a power of two so that the next
+	 * input can be selected with a mask
+	 */
+	public static final int SAMPLE_COUNT = 1024;
+	private static final long SEED = 1234L;
+
+	public static NumericDimensionDefinition[] createLongitudeLatitudeDefinitions() {
+		return new NumericDimensionDefinition[] {
+			new BasicDimensionDefinition(
+					-180,
+					180),
+			new BasicDimensionDefinition(
+					-90,
+					90)
+		};
+	}
+
+	public static SFCDimensionDefinition[] createSFCDimensionDefinitions(
+			final int bitsPerDimension ) {
+		final NumericDimensionDefinition[] baseDefinitions = createLongitudeLatitudeDefinitions();
+		final SFCDimensionDefinition[] sfcDefinitions = new SFCDimensionDefinition[baseDefinitions.length];
+		for (int d = 0; d < baseDefinitions.length; d++) {
+			sfcDefinitions[d] = new SFCDimensionDefinition(
+					baseDefinitions[d],
+					bitsPerDimension);
+		}
+		return sfcDefinitions;
+	}
+
+	/**
+	 *
+	 * @return random longitude and latitude values
+	 */
+	public static double[][] createPoints() {
+		final Random random = new Random(
+				SEED);
+		final double[][] points = new double[SAMPLE_COUNT][];
+		for (int i = 0; i < SAMPLE_COUNT; i++) {
+			points[i] = new double[] {
+				(random.nextDouble() * 360) - 180,
+				(random.nextDouble() * 180) - 90
+			};
+		}
+		return points;
+	}
+
+	/**
+	 *
+	 * @return random points within the longitude and latitude bounds
+	 */
+	public static MultiDimensionalNumericData[] createPointData() {
+		final double[][] points = createPoints();
+		final MultiDimensionalNumericData[] pointData = new MultiDimensionalNumericData[points.length];
+		for (int i = 0; i < points.length; i++) {
+			pointData[i] = new BasicNumericDataset(
+					new NumericData[] {
+						new NumericValue(
+								points[i][0]),
+						new NumericValue(
+								points[i][1])
+					});
+		}
+		return pointData;
+	}
+
+	/**
+	 *
+	 * @param size
+	 *            the width and height of each box in degrees
+	 * @return random boxes of the given size within the longitude and latitude
+	 *         bounds
+	 */
+	public static MultiDimensionalNumericData[] createBoxes(
+			final double size ) {
+		final Random random = new Random(
+				SEED);
+		final MultiDimensionalNumericData[] boxes = new MultiDimensionalNumericData[SAMPLE_COUNT];
+		for (int i = 0; i < SAMPLE_COUNT; i++) {
+			final double minX = (random.nextDouble() * (360 - size)) - 180;
+			final double minY = (random.nextDouble() * (180 - size)) - 90;
+			boxes[i] = new BasicNumericDataset(
+					new NumericData[] {
+						new NumericRange(
+								minX,
+								minX + size),
+						new NumericRange(
+								minY,
+								minY + size)
+					});
+		}
+		return boxes;
+	}
+}
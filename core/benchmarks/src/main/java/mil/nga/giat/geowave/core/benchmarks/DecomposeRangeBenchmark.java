@@ -0,0 +1,107 @@
+package mil.nga.giat.geowave.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.core.index.sfc.RangeDecomposition;
+import mil.nga.giat.geowave.core.index.sfc.RangeDecompositionCache;
+import mil.nga.giat.geowave.core.index.sfc.SFCFactory;
+import mil.nga.giat.geowave.core.index.sfc.SFCFactory.SFCType;
+import mil.nga.giat.geowave.core.index.sfc.SpaceFillingCurve;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+
+/**
+ * Measures decomposing query boxes into ranges of a space filling curve for
+ * varying precision and maximum numbers of ranges. The shared range
+ * decomposition cache is disabled unless explicitly enabled, so that the
+ * decomposition itself is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecomposeRangeBenchmark
+{
+	@Param({
+		"HILBERT",
+		"ZORDER"
+	})
+	private SFCType sfcType;
+
+	@Param({
+		"16",
+		"31",
+		"48"
+	})
+	private int bitsPerDimension;
+
+	@Param({
+		"1",
+		"16",
+		"256"
+	})
+	private int maxRanges;
+
+	/**
+	 * the width and height of each query box in degrees
+	 */
+	@Param({
+		"0.1",
+		"10"
+	})
+	private double boxSize;
+
+	@Param({
+		"false",
+		"true"
+	})
+	private boolean cacheEnabled;
+
+	private SpaceFillingCurve sfc;
+	private MultiDimensionalNumericData[] boxes;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		sfc = SFCFactory.createSpaceFillingCurve(
+				BenchmarkUtils.createSFCDimensionDefinitions(bitsPerDimension),
+				sfcType);
+		boxes = BenchmarkUtils.createBoxes(boxSize);
+		final RangeDecompositionCache cache = RangeDecompositionCache.getInstance();
+		cache.clear();
+		// when enabled, size the cache to hold every query so that the cached
+		// path is measured rather than eviction
+		cache.setMaxSize(cacheEnabled ? BenchmarkUtils.SAMPLE_COUNT * 2 : 0);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		final RangeDecompositionCache cache = RangeDecompositionCache.getInstance();
+		cache.setMaxSize(RangeDecompositionCache.DEFAULT_MAX_SIZE);
+		cache.clear();
+	}
+
+	@Benchmark
+	public RangeDecomposition decomposeRange() {
+		index = (index + 1) & (BenchmarkUtils.SAMPLE_COUNT - 1);
+		return sfc.decomposeRange(
+				boxes[index],
+				true,
+				maxRanges);
+	}
+}
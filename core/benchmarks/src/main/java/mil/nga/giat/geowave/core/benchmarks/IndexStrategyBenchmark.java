@@ -0,0 +1,143 @@
+package mil.nga.giat.geowave.core.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
+import mil.nga.giat.geowave.core.index.CompoundIndexStrategy;
+import mil.nga.giat.geowave.core.index.NumericIndexStrategy;
+import mil.nga.giat.geowave.core.index.simple.HashKeyIndexStrategy;
+import mil.nga.giat.geowave.core.index.simple.RoundRobinKeyIndexStrategy;
+import mil.nga.giat.geowave.core.index.sfc.RangeDecompositionCache;
+import mil.nga.giat.geowave.core.index.sfc.SFCFactory.SFCType;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.tiered.TieredSFCIndexFactory;
+
+/**
+ * Measures computing insertion IDs and query ranges for a tiered Hilbert index
+ * strategy, alone and compounded with the partitioning strategies. The shared
+ * range decomposition cache is disabled so that the decomposition is measured
+ * for every query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexStrategyBenchmark
+{
+	public static enum IndexStrategyType {
+		TIERED,
+		COMPOUND_ROUND_ROBIN,
+		COMPOUND_HASH
+	}
+
+	@Param({
+		"TIERED",
+		"COMPOUND_ROUND_ROBIN",
+		"COMPOUND_HASH"
+	})
+	private IndexStrategyType strategyType;
+
+	@Param({
+		"20",
+		"31"
+	})
+	private int bitsPerDimension;
+
+	/**
+	 * the width and height of each box in degrees, used both for inserted
+	 * ranges and query boxes
+	 */
+	@Param({
+		"0.1",
+		"10"
+	})
+	private double boxSize;
+
+	@Param({
+		"16",
+		"256"
+	})
+	private int maxRanges;
+
+	private NumericIndexStrategy strategy;
+	private MultiDimensionalNumericData[] points;
+	private MultiDimensionalNumericData[] boxes;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		final NumericIndexStrategy tieredStrategy = TieredSFCIndexFactory.createFullIncrementalTieredStrategy(
+				BenchmarkUtils.createLongitudeLatitudeDefinitions(),
+				new int[] {
+					bitsPerDimension,
+					bitsPerDimension
+				},
+				SFCType.HILBERT);
+		switch (strategyType) {
+			case COMPOUND_ROUND_ROBIN:
+				strategy = new CompoundIndexStrategy(
+						new RoundRobinKeyIndexStrategy(),
+						tieredStrategy);
+				break;
+			case COMPOUND_HASH:
+				strategy = new CompoundIndexStrategy(
+						new HashKeyIndexStrategy(),
+						tieredStrategy);
+				break;
+			case TIERED:
+			default:
+				strategy = tieredStrategy;
+				break;
+		}
+		points = BenchmarkUtils.createPointData();
+		boxes = BenchmarkUtils.createBoxes(boxSize);
+		RangeDecompositionCache.getInstance().setMaxSize(
+				0);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		RangeDecompositionCache.getInstance().setMaxSize(
+				RangeDecompositionCache.DEFAULT_MAX_SIZE);
+	}
+
+	private int nextIndex() {
+		index = (index + 1) & (BenchmarkUtils.SAMPLE_COUNT - 1);
+		return index;
+	}
+
+	@Benchmark
+	public List<ByteArrayId> getPointInsertionIds() {
+		return strategy.getInsertionIds(points[nextIndex()]);
+	}
+
+	@Benchmark
+	public List<ByteArrayId> getRangeInsertionIds() {
+		return strategy.getInsertionIds(boxes[nextIndex()]);
+	}
+
+	@Benchmark
+	public List<ByteArrayRange> getQueryRanges() {
+		return strategy.getQueryRanges(
+				boxes[nextIndex()],
+				maxRanges);
+	}
+}
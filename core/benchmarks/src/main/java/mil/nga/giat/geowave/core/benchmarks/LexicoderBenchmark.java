@@ -0,0 +1,109 @@
+package mil.nga.giat.geowave.core.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.core.index.lexicoder.Lexicoders;
+
+/**
+ * Measures encoding and decoding of each of the lexicoders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LexicoderBenchmark
+{
+	private short[] shorts;
+	private int[] ints;
+	private long[] longs;
+	private double[] doubles;
+	private byte[][] encodedShorts;
+	private byte[][] encodedInts;
+	private byte[][] encodedLongs;
+	private byte[][] encodedDoubles;
+	private int index;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(
+				1234L);
+		final int count = BenchmarkUtils.SAMPLE_COUNT;
+		shorts = new short[count];
+		ints = new int[count];
+		longs = new long[count];
+		doubles = new double[count];
+		encodedShorts = new byte[count][];
+		encodedInts = new byte[count][];
+		encodedLongs = new byte[count][];
+		encodedDoubles = new byte[count][];
+		for (int i = 0; i < count; i++) {
+			shorts[i] = (short) random.nextInt();
+			ints[i] = random.nextInt();
+			longs[i] = random.nextLong();
+			doubles[i] = (random.nextDouble() - 0.5) * Double.MAX_VALUE;
+			encodedShorts[i] = Lexicoders.SHORT.toByteArray(shorts[i]);
+			encodedInts[i] = Lexicoders.INT.toByteArray(ints[i]);
+			encodedLongs[i] = Lexicoders.LONG.toByteArray(longs[i]);
+			encodedDoubles[i] = Lexicoders.DOUBLE.toByteArray(doubles[i]);
+		}
+	}
+
+	private int nextIndex() {
+		index = (index + 1) & (BenchmarkUtils.SAMPLE_COUNT - 1);
+		return index;
+	}
+
+	@Benchmark
+	public byte[] encodeShort() {
+		return Lexicoders.SHORT.toByteArray(shorts[nextIndex()]);
+	}
+
+	@Benchmark
+	public Short decodeShort() {
+		return Lexicoders.SHORT.fromByteArray(encodedShorts[nextIndex()]);
+	}
+
+	@Benchmark
+	public byte[] encodeInt() {
+		return Lexicoders.INT.toByteArray(ints[nextIndex()]);
+	}
+
+	@Benchmark
+	public Integer decodeInt() {
+		return Lexicoders.INT.fromByteArray(encodedInts[nextIndex()]);
+	}
+
+	@Benchmark
+	public byte[] encodeLong() {
+		return Lexicoders.LONG.toByteArray(longs[nextIndex()]);
+	}
+
+	@Benchmark
+	public Long decodeLong() {
+		return Lexicoders.LONG.fromByteArray(encodedLongs[nextIndex()]);
+	}
+
+	@Benchmark
+	public byte[] encodeDouble() {
+		return Lexicoders.DOUBLE.toByteArray(doubles[nextIndex()]);
+	}
+
+	@Benchmark
+	public Double decodeDouble() {
+		return Lexicoders.DOUBLE.fromByteArray(encodedDoubles[nextIndex()]);
+	}
+}
@@ -0,0 +1,84 @@
+package mil.nga.giat.geowave.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import mil.nga.giat.geowave.core.index.sfc.SFCFactory;
+import mil.nga.giat.geowave.core.index.sfc.SFCFactory.SFCType;
+import mil.nga.giat.geowave.core.index.sfc.SpaceFillingCurve;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+
+/**
+ * Measures encoding values to IDs and decoding IDs for each type of space
+ * filling curve. Precision beyond 31 bits per dimension exercises the
+ * unbounded Hilbert operations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpaceFillingCurveBenchmark
+{
+	@Param({
+		"HILBERT",
+		"ZORDER"
+	})
+	private SFCType sfcType;
+
+	@Param({
+		"16",
+		"31",
+		"48"
+	})
+	private int bitsPerDimension;
+
+	private SpaceFillingCurve sfc;
+	private double[][] points;
+	private byte[][] ids;
+	private int index;
+
+	@Setup
+	public void setup() {
+		sfc = SFCFactory.createSpaceFillingCurve(
+				BenchmarkUtils.createSFCDimensionDefinitions(bitsPerDimension),
+				sfcType);
+		points = BenchmarkUtils.createPoints();
+		ids = new byte[points.length][];
+		for (int i = 0; i < points.length; i++) {
+			ids[i] = sfc.getId(points[i]);
+		}
+	}
+
+	private int nextIndex() {
+		index = (index + 1) & (BenchmarkUtils.SAMPLE_COUNT - 1);
+		return index;
+	}
+
+	@Benchmark
+	public byte[] getId() {
+		return sfc.getId(points[nextIndex()]);
+	}
+
+	@Benchmark
+	public MultiDimensionalNumericData getRanges() {
+		return sfc.getRanges(ids[nextIndex()]);
+	}
+
+	@Benchmark
+	public long[] getCoordinates() {
+		return sfc.getCoordinates(ids[nextIndex()]);
+	}
+}
@@ -21,6 +21,7 @@ import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
 
 import com.google.common.collect.Interner;
 import com.google.common.collect.Interners;
+import com.vividsolutions.jts.geom.Envelope;
 import com.vividsolutions.jts.geom.Geometry;
 import com.vividsolutions.jts.geom.prep.PreparedGeometry;
 import com.vividsolutions.jts.geom.prep.PreparedGeometryFactory;
@@ -45,6 +46,16 @@ public class SpatialQueryFilter extends
 				final PreparedGeometry constraintGeometry );
 
 		public BasicQueryCompareOperation getBaseCompareOp();
+
+		/**
+		 * A cheap test of the envelopes of the geometries to perform before
+		 * the full comparison
+		 *
+		 * @return false if the comparison must fail given the envelopes alone
+		 */
+		public boolean envelopesMayPass(
+				final Envelope dataEnvelope,
+				final Envelope constraintEnvelope );
 	}
 
 	public enum CompareOperation
@@ -62,6 +73,13 @@ public class SpatialQueryFilter extends
 			public BasicQueryCompareOperation getBaseCompareOp() {
 				return BasicQueryCompareOperation.CONTAINS;
 			}
+
+			@Override
+			public boolean envelopesMayPass(
+					final Envelope dataEnvelope,
+					final Envelope constraintEnvelope ) {
+				return constraintEnvelope.covers(dataEnvelope);
+			}
 		},
 		OVERLAPS {
 
@@ -115,6 +133,13 @@ public class SpatialQueryFilter extends
 			public BasicQueryCompareOperation getBaseCompareOp() {
 				return BasicQueryCompareOperation.WITHIN;
 			}
+
+			@Override
+			public boolean envelopesMayPass(
+					final Envelope dataEnvelope,
+					final Envelope constraintEnvelope ) {
+				return dataEnvelope.covers(constraintEnvelope);
+			}
 		},
 		DISJOINT {
 			@Override
@@ -128,6 +153,14 @@ public class SpatialQueryFilter extends
 			public BasicQueryCompareOperation getBaseCompareOp() {
 				return BasicQueryCompareOperation.DISJOINT;
 			}
+
+			@Override
+			public boolean envelopesMayPass(
+					final Envelope dataEnvelope,
+					final Envelope constraintEnvelope ) {
+				// disjoint geometries may have intersecting envelopes
+				return true;
+			}
 		},
 		CROSSES {
 			@Override
@@ -156,6 +189,23 @@ public class SpatialQueryFilter extends
 			public BasicQueryCompareOperation getBaseCompareOp() {
 				return BasicQueryCompareOperation.EQUALS;
 			}
+
+			@Override
+			public boolean envelopesMayPass(
+					final Envelope dataEnvelope,
+					final Envelope constraintEnvelope ) {
+				return constraintEnvelope.equals(dataEnvelope);
+			}
+		};
+
+		/**
+		 * By default, the comparison requires the geometries to intersect
+		 */
+		@Override
+		public boolean envelopesMayPass(
+				final Envelope dataEnvelope,
+				final Envelope constraintEnvelope ) {
+			return constraintEnvelope.intersects(dataEnvelope);
 		}
 	};
 
@@ -297,6 +347,13 @@ public class SpatialQueryFilter extends
 			return false;
 		}
 		if (preparedGeometryImage != null) {
+			// the envelopes are cached by the geometries, so this is much
+			// cheaper than the full comparison for complex query geometries
+			if (!compareOperation.envelopesMayPass(
+					dataGeometry.getEnvelopeInternal(),
+					preparedGeometryImage.preparedGeometry.getGeometry().getEnvelopeInternal())) {
+				return false;
+			}
 			return compareOperation.compare(
 					dataGeometry,
 					preparedGeometryImage.preparedGeometry);
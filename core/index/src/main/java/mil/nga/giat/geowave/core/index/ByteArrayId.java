@@ -1,5 +1,7 @@
 package mil.nga.giat.geowave.core.index;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
@@ -7,14 +9,29 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 /**
  * This class is a wrapper around a byte array to ensure equals and hashcode
- * operations use the values of the bytes rather than explicit object identity
+ * operations use the values of the bytes rather than explicit object identity.
+ * 
+ * An ID can also be a view over a slice of a larger shared buffer, such as a
+ * row key, in which case no copy is made until {@link #getBytes()} is called.
+ * The hash code is computed once and cached, so the underlying bytes must not
+ * be modified after the ID is used as a key.
  */
 public class ByteArrayId implements
 		java.io.Serializable,
 		Comparable<ByteArrayId>
 {
 	private static final long serialVersionUID = 1L;
-	private final byte[] id;
+	// for slices this is lazily materialized, and it is materialized before
+	// serializing so that only the bytes of the slice are serialized
+	private byte[] id;
+	@SuppressFBWarnings("SE_TRANSIENT_FIELD_NOT_RESTORED")
+	private transient byte[] buffer;
+	@SuppressFBWarnings("SE_TRANSIENT_FIELD_NOT_RESTORED")
+	private transient int offset;
+	@SuppressFBWarnings("SE_TRANSIENT_FIELD_NOT_RESTORED")
+	private transient int length;
+	@SuppressFBWarnings("SE_TRANSIENT_FIELD_NOT_RESTORED")
+	private transient int hashCode;
 	@SuppressFBWarnings("SE_TRANSIENT_FIELD_NOT_RESTORED")
 	private transient String stringId;
 
@@ -23,19 +40,86 @@ public class ByteArrayId implements
 		this.id = id;
 	}
 
+	/**
+	 * Create an ID that is a view over a slice of the given buffer without
+	 * copying it
+	 * 
+	 * @param buffer
+	 *            the shared buffer
+	 * @param offset
+	 *            the start of the ID within the buffer
+	 * @param length
+	 *            the length of the ID
+	 */
+	public ByteArrayId(
+			final byte[] buffer,
+			final int offset,
+			final int length ) {
+		if ((offset == 0) && (length == buffer.length)) {
+			id = buffer;
+		}
+		else {
+			this.buffer = buffer;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
 	public ByteArrayId(
 			final String id ) {
 		this.id = StringUtils.stringToBinary(id);
 		stringId = id;
 	}
 
+	private void writeObject(
+			final ObjectOutputStream out )
+			throws IOException {
+		// the slice fields are transient, so copy the slice into the ID
+		getBytes();
+		out.defaultWriteObject();
+	}
+
 	public byte[] getBytes() {
+		if ((id == null) && (buffer != null)) {
+			id = Arrays.copyOfRange(
+					buffer,
+					offset,
+					offset + length);
+		}
 		return id;
 	}
 
+	/**
+	 * 
+	 * @return the array backing this ID, which may be larger than the ID
+	 *         itself when this ID is a slice
+	 */
+	public byte[] getBackingArray() {
+		return buffer == null ? id : buffer;
+	}
+
+	/**
+	 * 
+	 * @return the start of this ID within the backing array
+	 */
+	public int getOffset() {
+		return buffer == null ? 0 : offset;
+	}
+
+	/**
+	 * 
+	 * @return the number of bytes in this ID
+	 */
+	public int getLength() {
+		if (buffer == null) {
+			return id == null ? 0 : id.length;
+		}
+		return length;
+	}
+
 	public String getString() {
 		if (stringId == null) {
-			stringId = StringUtils.stringFromBinary(id);
+			stringId = StringUtils.stringFromBinary(getBytes());
 		}
 		return stringId;
 	}
@@ -43,7 +127,7 @@ public class ByteArrayId implements
 	public String getHexString() {
 
 		StringBuffer str = new StringBuffer();
-		for (byte b : id) {
+		for (byte b : getBytes()) {
 			str.append(String.format(
 					"%02X ",
 					b));
@@ -58,10 +142,22 @@ public class ByteArrayId implements
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = (prime * result) + Arrays.hashCode(id);
-		return result;
+		int h = hashCode;
+		if (h == 0) {
+			// this is equivalent to 31 + Arrays.hashCode(bytes)
+			final byte[] array = getBackingArray();
+			int result = 0;
+			if (array != null) {
+				final int end = getOffset() + getLength();
+				result = 1;
+				for (int i = getOffset(); i < end; i++) {
+					result = (31 * result) + array[i];
+				}
+			}
+			h = 31 + result;
+			hashCode = h;
+		}
+		return h;
 	}
 
 	@Override
@@ -77,22 +173,38 @@ public class ByteArrayId implements
 			return false;
 		}
 		final ByteArrayId other = (ByteArrayId) obj;
-		return Arrays.equals(
-				id,
-				other.id);
+		if ((getBackingArray() == null) || (other.getBackingArray() == null)) {
+			return getBackingArray() == other.getBackingArray();
+		}
+		if (getLength() != other.getLength()) {
+			return false;
+		}
+		if (((hashCode != 0) && (other.hashCode != 0)) && (hashCode != other.hashCode)) {
+			return false;
+		}
+		return ByteArrayUtils.compare(
+				getBackingArray(),
+				getOffset(),
+				getLength(),
+				other.getBackingArray(),
+				other.getOffset(),
+				other.getLength()) == 0;
 	}
 
 	public static byte[] toBytes(
 			final ByteArrayId[] ids ) {
 		int len = 4;
 		for (ByteArrayId id : ids) {
-			len += (id.id.length + 4);
+			len += (id.getLength() + 4);
 		}
 		final ByteBuffer buffer = ByteBuffer.allocate(len);
 		buffer.putInt(ids.length);
 		for (ByteArrayId id : ids) {
-			buffer.putInt(id.id.length);
-			buffer.put(id.id);
+			buffer.putInt(id.getLength());
+			buffer.put(
+					id.getBackingArray(),
+					id.getOffset(),
+					id.getLength());
 		}
 		return buffer.array();
 	}
@@ -115,15 +227,12 @@ public class ByteArrayId implements
 	@Override
 	public int compareTo(
 			ByteArrayId o ) {
-
-		for (int i = 0, j = 0; i < id.length && j < o.id.length; i++, j++) {
-			int a = (id[i] & 0xff);
-			int b = (o.id[j] & 0xff);
-			if (a != b) {
-				return a - b;
-			}
-		}
-		return id.length - o.id.length;
-
+		return ByteArrayUtils.compare(
+				getBackingArray(),
+				getOffset(),
+				getLength(),
+				o.getBackingArray(),
+				o.getOffset(),
+				o.getLength());
 	}
 }
@@ -1,6 +1,7 @@
 package mil.nga.giat.geowave.core.index;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.UUID;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -114,6 +115,60 @@ public class ByteArrayUtils
 		return value[0] != 0;
 	}
 
+	/**
+	 * Get the smallest array that is greater than every array starting with
+	 * the given prefix, comparing bytes as unsigned.
+	 * 
+	 * @param prefix
+	 *            the prefix
+	 * @return the next prefix, or null if there is none because every byte of
+	 *         the prefix is 0xFF
+	 */
+	public static byte[] getNextPrefix(
+			final byte[] prefix ) {
+		for (int i = prefix.length - 1; i >= 0; i--) {
+			if (prefix[i] != (byte) 0xFF) {
+				final byte[] nextPrefix = Arrays.copyOf(
+						prefix,
+						i + 1);
+				nextPrefix[i]++;
+				return nextPrefix;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Compare two byte array slices lexicographically, treating each byte as
+	 * unsigned, which is consistent with the sort order of keys in the
+	 * underlying data stores.
+	 * 
+	 * @return a negative integer, zero, or a positive integer as the first
+	 *         slice is less than, equal to, or greater than the second
+	 */
+	public static int compare(
+			final byte[] array1,
+			final int offset1,
+			final int length1,
+			final byte[] array2,
+			final int offset2,
+			final int length2 ) {
+		if ((array1 == array2) && (offset1 == offset2) && (length1 == length2)) {
+			return 0;
+		}
+		final int minLength = Math.min(
+				length1,
+				length2);
+		for (int i = 0; i < minLength; i++) {
+			final int a = (array1[offset1 + i] & 0xff);
+			final int b = (array2[offset2 + i] & 0xff);
+			if (a != b) {
+				return a - b;
+			}
+		}
+		return length1 - length2;
+	}
+
 	/**
 	 * Converts a UUID to a byte array
 	 * 
@@ -0,0 +1,229 @@
+package mil.nga.giat.geowave.core.index.sfc;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, least-recently-used cache of range decompositions that is shared
+ * by all space filling curves in the JVM. Because curves are compared by their
+ * dimension definitions, separately deserialized instances of the same index
+ * (and the same tier within a tiered index) share cached decompositions. This
+ * is particularly useful when the same bounding boxes are queried repeatedly,
+ * such as when rendering tiles.
+ *
+ * Cached decompositions are shared, so the ranges must not be modified by the
+ * caller.
+ */
+public class RangeDecompositionCache
+{
+	public static final int DEFAULT_MAX_SIZE = 1000;
+	private static final RangeDecompositionCache INSTANCE = new RangeDecompositionCache(
+			DEFAULT_MAX_SIZE);
+
+	private final Map<Key, RangeDecomposition> cache;
+	private volatile int maxSize;
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	public RangeDecompositionCache(
+			final int maxSize ) {
+		this.maxSize = maxSize;
+		cache = new LinkedHashMap<Key, RangeDecomposition>(
+				16,
+				.75F,
+				true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public boolean removeEldestEntry(
+					final Map.Entry<Key, RangeDecomposition> eldest ) {
+				if (size() > RangeDecompositionCache.this.maxSize) {
+					evictionCount.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public static RangeDecompositionCache getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 *
+	 * @param key
+	 *            the key identifying the curve and query
+	 * @return the cached decomposition, or null if it is not cached
+	 */
+	public RangeDecomposition get(
+			final Key key ) {
+		final RangeDecomposition decomposition;
+		synchronized (cache) {
+			decomposition = cache.get(key);
+		}
+		if (decomposition == null) {
+			missCount.incrementAndGet();
+		}
+		else {
+			hitCount.incrementAndGet();
+		}
+		return decomposition;
+	}
+
+	public void put(
+			final Key key,
+			final RangeDecomposition decomposition ) {
+		if (maxSize <= 0) {
+			return;
+		}
+		synchronized (cache) {
+			cache.put(
+					key,
+					decomposition);
+		}
+	}
+
+	/**
+	 * Set the maximum number of decompositions to retain. A value less than
+	 * or equal to zero disables caching.
+	 *
+	 * @param maxSize
+	 *            the maximum number of cached decompositions
+	 */
+	public void setMaxSize(
+			final int maxSize ) {
+		this.maxSize = maxSize;
+		synchronized (cache) {
+			if (maxSize <= 0) {
+				cache.clear();
+			}
+		}
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public int size() {
+		synchronized (cache) {
+			return cache.size();
+		}
+	}
+
+	public void clear() {
+		synchronized (cache) {
+			cache.clear();
+		}
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	/**
+	 *
+	 * @return the ratio of hits to requests, or 0 if there have been no
+	 *         requests
+	 */
+	public double getHitRate() {
+		final long hits = hitCount.get();
+		final long requests = hits + missCount.get();
+		return requests == 0 ? 0 : (double) hits / (double) requests;
+	}
+
+	public void resetStatistics() {
+		hitCount.set(0);
+		missCount.set(0);
+		evictionCount.set(0);
+	}
+
+	@Override
+	public String toString() {
+		return "RangeDecompositionCache [size=" + size() + ", maxSize=" + maxSize + ", hitCount=" + getHitCount()
+				+ ", missCount=" + getMissCount() + ", evictionCount=" + getEvictionCount() + "]";
+	}
+
+	/**
+	 * Identifies a decomposition by the curve and the query bounds. The bounds
+	 * should be normalized by the curve as far as possible, so that queries
+	 * that cover the same cells of the curve share a decomposition.
+	 */
+	public static class Key
+	{
+		private final SpaceFillingCurve sfc;
+		private final long[] bounds;
+		private final boolean overInclusiveOnEdge;
+		private final int maxRanges;
+		private final int hashCode;
+
+		public Key(
+				final SpaceFillingCurve sfc,
+				final long[] bounds,
+				final boolean overInclusiveOnEdge,
+				final int maxRanges ) {
+			this.sfc = sfc;
+			this.bounds = bounds;
+			this.overInclusiveOnEdge = overInclusiveOnEdge;
+			this.maxRanges = maxRanges;
+			// the curve's hash code is computed from its dimension definitions
+			// so it is only worth computing once
+			final int prime = 31;
+			int result = 1;
+			result = (prime * result) + Arrays.hashCode(bounds);
+			result = (prime * result) + maxRanges;
+			result = (prime * result) + (overInclusiveOnEdge ? 1231 : 1237);
+			result = (prime * result) + ((sfc == null) ? 0 : sfc.hashCode());
+			hashCode = result;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(
+				final Object obj ) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null) {
+				return false;
+			}
+			if (getClass() != obj.getClass()) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			if (hashCode != other.hashCode) {
+				return false;
+			}
+			if (maxRanges != other.maxRanges) {
+				return false;
+			}
+			if (overInclusiveOnEdge != other.overInclusiveOnEdge) {
+				return false;
+			}
+			if (!Arrays.equals(
+					bounds,
+					other.bounds)) {
+				return false;
+			}
+			if (sfc == null) {
+				return other.sfc == null;
+			}
+			return (sfc == other.sfc) || sfc.equals(other.sfc);
+		}
+	}
+}
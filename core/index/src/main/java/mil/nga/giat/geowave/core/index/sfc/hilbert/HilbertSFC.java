@@ -4,9 +4,7 @@ import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 
 import com.google.uzaygezen.core.CompactHilbertCurve;
 import com.google.uzaygezen.core.MultiDimensionalSpec;
@@ -14,6 +12,7 @@ import com.google.uzaygezen.core.MultiDimensionalSpec;
 import mil.nga.giat.geowave.core.index.ByteArrayUtils;
 import mil.nga.giat.geowave.core.index.PersistenceUtils;
 import mil.nga.giat.geowave.core.index.sfc.RangeDecomposition;
+import mil.nga.giat.geowave.core.index.sfc.RangeDecompositionCache;
 import mil.nga.giat.geowave.core.index.sfc.SFCDimensionDefinition;
 import mil.nga.giat.geowave.core.index.sfc.SpaceFillingCurve;
 import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
@@ -25,81 +24,6 @@ import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
 public class HilbertSFC implements
 		SpaceFillingCurve
 {
-	private static class QueryCacheKey
-	{
-		private final double[] minsPerDimension;
-		private final double[] maxesPerDimension;
-		private final boolean overInclusiveOnEdge;
-		private final int maxFilteredIndexedRanges;
-
-		public QueryCacheKey(
-				final double[] minsPerDimension,
-				final double[] maxesPerDimension,
-				final boolean overInclusiveOnEdge,
-				final int maxFilteredIndexedRanges ) {
-			this.minsPerDimension = minsPerDimension;
-			this.maxesPerDimension = maxesPerDimension;
-			this.overInclusiveOnEdge = overInclusiveOnEdge;
-			this.maxFilteredIndexedRanges = maxFilteredIndexedRanges;
-		}
-
-		@Override
-		public int hashCode() {
-			final int prime = 31;
-			int result = 1;
-			result = (prime * result) + maxFilteredIndexedRanges;
-			result = (prime * result) + Arrays.hashCode(maxesPerDimension);
-			result = (prime * result) + Arrays.hashCode(minsPerDimension);
-			result = (prime * result) + (overInclusiveOnEdge ? 1231 : 1237);
-			return result;
-		}
-
-		@Override
-		public boolean equals(
-				final Object obj ) {
-			if (this == obj) {
-				return true;
-			}
-			if (obj == null) {
-				return false;
-			}
-			if (getClass() != obj.getClass()) {
-				return false;
-			}
-			final QueryCacheKey other = (QueryCacheKey) obj;
-			if (maxFilteredIndexedRanges != other.maxFilteredIndexedRanges) {
-				return false;
-			}
-			if (!Arrays.equals(
-					maxesPerDimension,
-					other.maxesPerDimension)) {
-				return false;
-			}
-			if (!Arrays.equals(
-					minsPerDimension,
-					other.minsPerDimension)) {
-				return false;
-			}
-			if (overInclusiveOnEdge != other.overInclusiveOnEdge) {
-				return false;
-			}
-			return true;
-		}
-	}
-
-	private static final int MAX_CACHED_QUERIES = 500;
-	private final Map<QueryCacheKey, RangeDecomposition> queryDecompositionCache = new LinkedHashMap<QueryCacheKey, RangeDecomposition>(
-			MAX_CACHED_QUERIES + 1,
-			.75F,
-			true) {
-		private static final long serialVersionUID = 1L;
-
-		@Override
-		public boolean removeEldestEntry(
-				final Map.Entry<QueryCacheKey, RangeDecomposition> eldest ) {
-			return size() > MAX_CACHED_QUERIES;
-		}
-	};
 	protected CompactHilbertCurve compactHilbertCurve;
 	protected SFCDimensionDefinition[] dimensionDefinitions;
 	protected int totalPrecision;
@@ -196,6 +120,39 @@ public class HilbertSFC implements
 				dimensionDefinitions);
 	}
 
+	/**
+	 * Write the ID of the values into the supplied buffer rather than
+	 * allocating a new array. The ID is written as the same bytes as
+	 * {@link #getId(double[])}.
+	 *
+	 * @param values
+	 *            the value of each dimension
+	 * @param buffer
+	 *            the buffer to write into, which must have room for
+	 *            {@link #getIdByteCount()} bytes after the offset
+	 * @param offset
+	 *            the position in the buffer to start writing
+	 */
+	public void getId(
+			final double[] values,
+			final byte[] buffer,
+			final int offset ) {
+		getIdOperations.convertToHilbert(
+				values,
+				compactHilbertCurve,
+				dimensionDefinitions,
+				buffer,
+				offset);
+	}
+
+	/**
+	 *
+	 * @return the number of bytes of each ID
+	 */
+	public int getIdByteCount() {
+		return (totalPrecision + 7) / 8;
+	}
+
 	/***
 	 * {@inheritDoc}
 	 */
@@ -220,12 +177,15 @@ public class HilbertSFC implements
 		if (maxFilteredIndexedRanges == -1) {
 			maxFilteredIndexedRanges = Integer.MAX_VALUE;
 		}
-		final QueryCacheKey key = new QueryCacheKey(
-				query.getMinValuesPerDimension(),
-				query.getMaxValuesPerDimension(),
+		final RangeDecompositionCache cache = RangeDecompositionCache.getInstance();
+		final RangeDecompositionCache.Key key = new RangeDecompositionCache.Key(
+				this,
+				getNormalizedQueryBounds(
+						query,
+						overInclusiveOnEdge),
 				overInclusiveOnEdge,
 				maxFilteredIndexedRanges);
-		RangeDecomposition rangeDecomp = queryDecompositionCache.get(key);
+		RangeDecomposition rangeDecomp = cache.get(key);
 		if (rangeDecomp == null) {
 			rangeDecomp = decomposeQueryOperations.decomposeRange(
 					query.getDataPerDimension(),
@@ -235,13 +195,35 @@ public class HilbertSFC implements
 					maxFilteredIndexedRanges,
 					REMOVE_VACUUM,
 					overInclusiveOnEdge);
-			queryDecompositionCache.put(
+			cache.put(
 					key,
 					rangeDecomp);
 		}
 		return rangeDecomp;
 	}
 
+	private long[] getNormalizedQueryBounds(
+			final MultiDimensionalNumericData query,
+			final boolean overInclusiveOnEdge ) {
+		if (decomposeQueryOperations instanceof PrimitiveHilbertSFCOperations) {
+			// the primitive decomposition only depends on the cells covered
+			// by the query, so queries covering the same cells share a cache
+			// entry
+			return ((PrimitiveHilbertSFCOperations) decomposeQueryOperations).normalizeQueryRange(
+					query.getDataPerDimension(),
+					dimensionDefinitions,
+					overInclusiveOnEdge);
+		}
+		final double[] mins = query.getMinValuesPerDimension();
+		final double[] maxes = query.getMaxValuesPerDimension();
+		final long[] bounds = new long[mins.length * 2];
+		for (int d = 0; d < mins.length; d++) {
+			bounds[2 * d] = Double.doubleToLongBits(mins[d]);
+			bounds[(2 * d) + 1] = Double.doubleToLongBits(maxes[d]);
+		}
+		return bounds;
+	}
+
 	protected static byte[] fitExpectedByteCount(
 			final int expectedByteCount,
 			final byte[] bytes ) {
@@ -45,6 +45,31 @@ public interface HilbertSFCOperations
 			CompactHilbertCurve compactHilbertCurve,
 			SFCDimensionDefinition[] dimensionDefinitions );
 
+	/**
+	 * Convert the raw values (ordered per dimension) to a single SFC value,
+	 * writing it into the supplied buffer rather than allocating a new array
+	 *
+	 * @param values
+	 *            a raw value per dimension in order
+	 * @param compactHilbertCurve
+	 *            the compact Hilbert curve to use for the conversion
+	 * @param dimensionDefinitions
+	 *            a set of dimension definitions to use to normalize the raw
+	 *            values
+	 * @param buffer
+	 *            the buffer to write the hilbert value into, which must have
+	 *            room for the number of bytes of the hilbert value after the
+	 *            offset
+	 * @param offset
+	 *            the position in the buffer to start writing
+	 */
+	public void convertToHilbert(
+			double[] values,
+			CompactHilbertCurve compactHilbertCurve,
+			SFCDimensionDefinition[] dimensionDefinitions,
+			byte[] buffer,
+			int offset );
+
 	/**
 	 * Convert the single SFC value to the ranges of raw values that it
 	 * represents
@@ -3,6 +3,7 @@ package mil.nga.giat.geowave.core.index.sfc.hilbert;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import com.google.common.base.Functions;
@@ -37,7 +38,8 @@ import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
  * support up to certain levels of precision. For getID() operations it is
  * currently used if no single dimension is more than 48 bits of precision, and
  * for query decomposition it is currently used if the total precision is <= 62
- * bits.
+ * bits. If the total precision is <= 62 bits, IDs are also encoded and decoded
+ * directly on primitive longs without allocating intermediate bit vectors.
  *
  *
  */
@@ -52,22 +54,57 @@ public class PrimitiveHilbertSFCOperations implements
 	protected long minHilbertValue;
 	protected long maxHilbertValue;
 
+	/**
+	 * Hilbert indices of up to 62 bits are computed directly on longs rather
+	 * than through the bit vectors of the compact hilbert curve, which avoids
+	 * allocations and synchronizing on the shared curve
+	 */
+	protected final static int MAX_PRIMITIVE_INDEX_BITS = 62;
+	protected boolean primitiveIndexing;
+	protected int totalPrecision;
+	protected int maxBitsPerDimension;
+	protected int hilbertByteCount;
+	// per level of the curve, the dimensions that have bits at that level,
+	// with the first dimension in the highest bit as in the compact hilbert
+	// curve's masks
+	protected long[] levelMasks;
+	protected int[] levelCardinalities;
+	private final ThreadLocal<long[]> normalizedValuesBuffer = new ThreadLocal<long[]>();
+
 	@Override
 	public void init(
 			final SFCDimensionDefinition[] dimensionDefs ) {
 		binsPerDimension = new long[dimensionDefs.length];
-		int totalPrecision = 0;
+		totalPrecision = 0;
+		maxBitsPerDimension = 0;
 		for (int d = 0; d < dimensionDefs.length; d++) {
 			final SFCDimensionDefinition dimension = dimensionDefs[d];
 			binsPerDimension[d] = (long) Math.pow(
 					2,
 					dimension.getBitsOfPrecision());
 			totalPrecision += dimension.getBitsOfPrecision();
+			maxBitsPerDimension = Math.max(
+					maxBitsPerDimension,
+					dimension.getBitsOfPrecision());
 		}
 		minHilbertValue = 0;
 		maxHilbertValue = (long) (Math.pow(
 				2,
 				totalPrecision) - 1);
+		hilbertByteCount = (totalPrecision + 7) / 8;
+		primitiveIndexing = (dimensionDefs.length > 0) && (totalPrecision <= MAX_PRIMITIVE_INDEX_BITS);
+		if (primitiveIndexing) {
+			levelMasks = new long[maxBitsPerDimension];
+			levelCardinalities = new int[maxBitsPerDimension];
+			for (int i = 0; i < maxBitsPerDimension; i++) {
+				for (int d = 0; d < dimensionDefs.length; d++) {
+					if (dimensionDefs[d].getBitsOfPrecision() > i) {
+						levelMasks[i] |= 1L << (dimensionDefs.length - d - 1);
+						levelCardinalities[i]++;
+					}
+				}
+			}
+		}
 	}
 
 	@Override
@@ -76,6 +113,16 @@ public class PrimitiveHilbertSFCOperations implements
 			final CompactHilbertCurve compactHilbertCurve,
 			final SFCDimensionDefinition[] dimensionDefinitions ) {
 
+		if (primitiveIndexing) {
+			final byte[] hilbertValue = new byte[hilbertByteCount];
+			convertToHilbert(
+					values,
+					compactHilbertCurve,
+					dimensionDefinitions,
+					hilbertValue,
+					0);
+			return hilbertValue;
+		}
 		final List<Long> dimensionValues = new ArrayList<Long>();
 
 		// Compare the number of dimensions to the number of values sent in
@@ -105,6 +152,264 @@ public class PrimitiveHilbertSFCOperations implements
 		return hilbertBitVector.toBigEndianByteArray();
 	}
 
+	@Override
+	public void convertToHilbert(
+			final double[] values,
+			final CompactHilbertCurve compactHilbertCurve,
+			final SFCDimensionDefinition[] dimensionDefinitions,
+			final byte[] buffer,
+			final int offset ) {
+		if (!primitiveIndexing) {
+			final byte[] hilbertValue = convertToHilbert(
+					values,
+					compactHilbertCurve,
+					dimensionDefinitions);
+			System.arraycopy(
+					hilbertValue,
+					0,
+					buffer,
+					offset,
+					hilbertValue.length);
+			return;
+		}
+		// Compare the number of dimensions to the number of values sent in
+		if (dimensionDefinitions.length != values.length) {
+			throw new ArrayIndexOutOfBoundsException(
+					"Number of dimensions supplied (" + values.length + ") is different than initialized ("
+							+ dimensionDefinitions.length + ").");
+		}
+		long[] normalizedValues = normalizedValuesBuffer.get();
+		if ((normalizedValues == null) || (normalizedValues.length != values.length)) {
+			normalizedValues = new long[values.length];
+			normalizedValuesBuffer.set(normalizedValues);
+		}
+		for (int i = 0; i < dimensionDefinitions.length; i++) {
+			normalizedValues[i] = normalizeDimension(
+					dimensionDefinitions[i],
+					values[i],
+					binsPerDimension[i],
+					false,
+					false);
+		}
+		long hilbertValue = hilbertIndex(normalizedValues);
+		// write the index big endian, matching BitVector.toBigEndianByteArray()
+		for (int i = hilbertByteCount; --i >= 0;) {
+			buffer[offset + i] = (byte) hilbertValue;
+			hilbertValue >>>= 8;
+		}
+	}
+
+	/**
+	 * Computes the compact hilbert index of the normalized values. This
+	 * follows the algorithm of {@link CompactHilbertCurve#index}, with each bit
+	 * vector represented by a long.
+	 *
+	 * @param normalizedValues
+	 *            the normalized value of each dimension
+	 * @return the compact hilbert index
+	 */
+	protected long hilbertIndex(
+			final long[] normalizedValues ) {
+		final int n = normalizedValues.length;
+		final long mask = -1L >>> (64 - n);
+		long index = 0;
+		int d = 0;
+		long e = 0;
+		int k = totalPrecision;
+		for (int i = maxBitsPerDimension; --i >= 0;) {
+			final long mu = rotate(
+					levelMasks[i],
+					d,
+					n,
+					mask);
+			// copy one bit from each dimension
+			long w = 0;
+			for (int j = 0; j < n; j++) {
+				w |= ((normalizedValues[j] >>> i) & 1L) << (n - j - 1);
+			}
+			w = grayCodeInverse(rotate(
+					w ^ e,
+					d,
+					n,
+					mask));
+			k -= levelCardinalities[i];
+			index |= grayCodeRank(
+					mu,
+					w) << k;
+			final int oldD = d;
+			d = (d + lowestDifferentBit(
+					w,
+					mask) + 1) % n;
+			e ^= rotate(
+					smallerEvenAndGrayCode(w),
+					-oldD,
+					n,
+					mask);
+		}
+		return index;
+	}
+
+	/**
+	 * Computes the normalized value of each dimension from a compact hilbert
+	 * index. This follows the algorithm of
+	 * {@link CompactHilbertCurve#indexInverse}, with each bit vector
+	 * represented by a long.
+	 *
+	 * @param index
+	 *            the compact hilbert index
+	 * @param normalizedValues
+	 *            the output normalized value of each dimension
+	 */
+	protected void hilbertIndexInverse(
+			final long index,
+			final long[] normalizedValues ) {
+		final int n = normalizedValues.length;
+		final long mask = -1L >>> (64 - n);
+		Arrays.fill(
+				normalizedValues,
+				0L);
+		int d = 0;
+		long e = 0;
+		int k = totalPrecision;
+		for (int i = maxBitsPerDimension; --i >= 0;) {
+			final long mu = rotate(
+					levelMasks[i],
+					d,
+					n,
+					mask);
+			final int start = k - levelCardinalities[i];
+			final long r = (index >>> start) & ((1L << levelCardinalities[i]) - 1);
+			final long w = grayCodeRankInverse(
+					mu,
+					rotate(
+							e,
+							d,
+							n,
+							mask) & ~mu,
+					r);
+			final long t = rotate(
+					w ^ (w >>> 1),
+					-d,
+					n,
+					mask) ^ e;
+			// copy one bit to each dimension where set
+			for (int j = 0; j < n; j++) {
+				normalizedValues[j] |= ((t >>> (n - j - 1)) & 1L) << i;
+			}
+			final int oldD = d;
+			d = (d + lowestDifferentBit(
+					w,
+					mask) + 1) % n;
+			k = start;
+			e ^= rotate(
+					smallerEvenAndGrayCode(w),
+					-oldD,
+					n,
+					mask);
+		}
+	}
+
+	private static long rotate(
+			final long value,
+			int count,
+			final int size,
+			final long mask ) {
+		count %= size;
+		if (count > 0) {
+			return ((value >>> count) | (value << (size - count))) & mask;
+		}
+		return ((value >>> (size + count)) | (value << -count)) & mask;
+	}
+
+	private static long grayCodeInverse(
+			long value ) {
+		value ^= value >>> 1;
+		value ^= value >>> 2;
+		value ^= value >>> 4;
+		value ^= value >>> 8;
+		value ^= value >>> 16;
+		value ^= value >>> 32;
+		return value;
+	}
+
+	private static long grayCodeRank(
+			final long mu,
+			final long w ) {
+		long rank = 0;
+		long rankBit = 1L;
+		for (long remainingMu = mu; remainingMu != 0; remainingMu &= remainingMu - 1) {
+			final long muBit = Long.lowestOneBit(remainingMu);
+			if ((w & muBit) != 0) {
+				rank |= rankBit;
+			}
+			rankBit <<= 1;
+		}
+		return rank;
+	}
+
+	private static long grayCodeRankInverse(
+			final long mu,
+			final long known,
+			final long r ) {
+		long value = 0;
+		int pos = 0;
+		for (long remainingMu = mu; remainingMu != 0; remainingMu &= remainingMu - 1) {
+			if (((r >>> pos) & 1L) != 0) {
+				value |= Long.lowestOneBit(remainingMu);
+			}
+			pos++;
+		}
+		final int muLength = 64 - Long.numberOfLeadingZeros(mu);
+		final int knownLength = 64 - Long.numberOfLeadingZeros(known);
+		for (int k = Math.max(
+				muLength - 1,
+				knownLength); --k >= 0;) {
+			final long bit = 1L << k;
+			if (((mu & bit) == 0) && (((known & bit) ^ ((value >> 1) & bit)) != 0)) {
+				value |= bit;
+			}
+		}
+		return value;
+	}
+
+	private static int lowestDifferentBit(
+			final long value,
+			final long mask ) {
+		if ((value & 1L) == 0) {
+			return value == 0 ? 0 : Long.numberOfTrailingZeros(value);
+		}
+		return value == mask ? 0 : Long.numberOfTrailingZeros(~value);
+	}
+
+	private static long smallerEvenAndGrayCode(
+			final long value ) {
+		if ((value & 1L) == 1) {
+			return value ^ (value >>> 1) ^ 1L;
+		}
+		if (value != 0) {
+			final long valueMinusTwo = value - 2;
+			return valueMinusTwo ^ (valueMinusTwo >>> 1);
+		}
+		return value;
+	}
+
+	private long[] primitiveIndicesFromHilbert(
+			final byte[] hilbertValue ) {
+		if (hilbertValue.length != hilbertByteCount) {
+			throw new IllegalArgumentException(
+					"Hilbert value length must be " + hilbertByteCount + ".");
+		}
+		long index = 0;
+		for (final byte b : hilbertValue) {
+			index = (index << 8) | (b & 0xFF);
+		}
+		final long[] normalizedValues = new long[binsPerDimension.length];
+		hilbertIndexInverse(
+				index,
+				normalizedValues);
+		return normalizedValues;
+	}
+
 	/***
 	 * Converts the incoming values (one per dimension) into a BitVector using
 	 * the Compact Hilbert instance. BitVector is a wrapper to allow values
@@ -143,6 +448,9 @@ public class PrimitiveHilbertSFCOperations implements
 			final byte[] hilbertValue,
 			final CompactHilbertCurve compactHilbertCurve,
 			final SFCDimensionDefinition[] dimensionDefinitions ) {
+		if (primitiveIndexing) {
+			return primitiveIndicesFromHilbert(hilbertValue);
+		}
 		// because it returns an array of longs right now, just use a static
 		// method that the unbounded operations can use as well
 		return internalIndicesFromHilbert(
@@ -171,7 +479,7 @@ public class PrimitiveHilbertSFCOperations implements
 			final byte[] hilbertValue,
 			final CompactHilbertCurve compactHilbertCurve,
 			final SFCDimensionDefinition[] dimensionDefinitions ) {
-		final BitVector[] perDimensionBitVectors = indexInverse(
+		final long[] normalizedValues = indicesFromHilbert(
 				hilbertValue,
 				compactHilbertCurve,
 				dimensionDefinitions);
@@ -179,7 +487,7 @@ public class PrimitiveHilbertSFCOperations implements
 		for (int i = 0; i < retVal.length; i++) {
 			retVal[i] = denormalizeDimension(
 					dimensionDefinitions[i],
-					perDimensionBitVectors[i].toExactLong(),
+					normalizedValues[i],
 					binsPerDimension[i]);
 		}
 		return new BasicNumericDataset(
@@ -322,26 +630,13 @@ public class PrimitiveHilbertSFCOperations implements
 				0L);
 		final List<LongRange> region = new ArrayList<LongRange>(
 				dimensionDefinitions.length);
+		final long[] normalizedRange = normalizeQueryRange(
+				rangePerDimension,
+				dimensionDefinitions,
+				overInclusiveOnEdge);
 		for (int d = 0; d < dimensionDefinitions.length; d++) {
-
-			final long normalizedMin = normalizeDimension(
-					dimensionDefinitions[d],
-					rangePerDimension[d].getMin(),
-					binsPerDimension[d],
-					true,
-					overInclusiveOnEdge);
-			long normalizedMax = normalizeDimension(
-					dimensionDefinitions[d],
-					rangePerDimension[d].getMax(),
-					binsPerDimension[d],
-					false,
-					overInclusiveOnEdge);
-			if (normalizedMin > normalizedMax) {
-				// if they're both equal, which is possible because we treat max
-				// as exclusive, set bin max to bin min (ie. treat it as
-				// inclusive in this case)
-				normalizedMax = normalizedMin;
-			}
+			final long normalizedMin = normalizedRange[2 * d];
+			final long normalizedMax = normalizedRange[(2 * d) + 1];
 			minRangeList.add(normalizedMin);
 			maxRangeList.add(normalizedMax);
 			region.add(LongRange.of(
@@ -435,6 +730,43 @@ public class PrimitiveHilbertSFCOperations implements
 		return rangeDecomposition;
 	}
 
+	/**
+	 * Normalize a query to the cells of the curve that it covers. The range
+	 * decomposition depends only on these cells, so any queries with the same
+	 * normalized range will result in the same decomposition.
+	 *
+	 * @return the normalized minimum and maximum of each dimension in order
+	 */
+	public long[] normalizeQueryRange(
+			final NumericData[] rangePerDimension,
+			final SFCDimensionDefinition[] dimensionDefinitions,
+			final boolean overInclusiveOnEdge ) {
+		final long[] normalizedRange = new long[dimensionDefinitions.length * 2];
+		for (int d = 0; d < dimensionDefinitions.length; d++) {
+			final long normalizedMin = normalizeDimension(
+					dimensionDefinitions[d],
+					rangePerDimension[d].getMin(),
+					binsPerDimension[d],
+					true,
+					overInclusiveOnEdge);
+			long normalizedMax = normalizeDimension(
+					dimensionDefinitions[d],
+					rangePerDimension[d].getMax(),
+					binsPerDimension[d],
+					false,
+					overInclusiveOnEdge);
+			if (normalizedMin > normalizedMax) {
+				// if they're both equal, which is possible because we treat max
+				// as exclusive, set bin max to bin min (ie. treat it as
+				// inclusive in this case)
+				normalizedMax = normalizedMin;
+			}
+			normalizedRange[2 * d] = normalizedMin;
+			normalizedRange[(2 * d) + 1] = normalizedMax;
+		}
+		return normalizedRange;
+	}
+
 	private static long clamp(
 			final long min,
 			final long max,
@@ -102,6 +102,25 @@ public class UnboundedHilbertSFCOperations implements
 		return hilbertBitVector.toBigEndianByteArray();
 	}
 
+	@Override
+	public void convertToHilbert(
+			final double[] values,
+			final CompactHilbertCurve compactHilbertCurve,
+			final SFCDimensionDefinition[] dimensionDefinitions,
+			final byte[] buffer,
+			final int offset ) {
+		final byte[] hilbertValue = convertToHilbert(
+				values,
+				compactHilbertCurve,
+				dimensionDefinitions);
+		System.arraycopy(
+				hilbertValue,
+				0,
+				buffer,
+				offset,
+				hilbertValue.length);
+	}
+
 	/***
 	 * Converts the incoming values (one per dimension) into a BitVector using
 	 * the Compact Hilbert instance. BitVector is a wrapper to allow values
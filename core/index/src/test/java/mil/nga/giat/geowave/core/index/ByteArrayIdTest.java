@@ -0,0 +1,141 @@
+package mil.nga.giat.geowave.core.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class ByteArrayIdTest
+{
+
+	@Test
+	public void testSliceEquality() {
+		final byte[] buffer = StringUtils.stringToBinary("prefix_abc_suffix");
+		final ByteArrayId slice = new ByteArrayId(
+				buffer,
+				7,
+				3);
+		final ByteArrayId id = new ByteArrayId(
+				"abc");
+		assertEquals(
+				3,
+				slice.getLength());
+		assertEquals(
+				id,
+				slice);
+		assertEquals(
+				slice,
+				id);
+		assertEquals(
+				id.hashCode(),
+				slice.hashCode());
+		assertEquals(
+				31 + Arrays.hashCode(id.getBytes()),
+				slice.hashCode());
+		assertEquals(
+				0,
+				slice.compareTo(id));
+		assertArrayEquals(
+				id.getBytes(),
+				slice.getBytes());
+		assertEquals(
+				"abc",
+				slice.getString());
+	}
+
+	@Test
+	public void testSliceOrdering() {
+		final byte[] buffer = new byte[] {
+			0,
+			1,
+			(byte) 0xFF,
+			2,
+			1
+		};
+		final ByteArrayId unsignedHigh = new ByteArrayId(
+				buffer,
+				2,
+				1);
+		final ByteArrayId low = new ByteArrayId(
+				buffer,
+				1,
+				1);
+		final ByteArrayId prefix = new ByteArrayId(
+				buffer,
+				0,
+				1);
+		final ByteArrayId longer = new ByteArrayId(
+				buffer,
+				0,
+				2);
+		// bytes are compared as unsigned values
+		assertTrue(unsignedHigh.compareTo(low) > 0);
+		// a prefix sorts before the longer array
+		assertTrue(prefix.compareTo(longer) < 0);
+		assertFalse(prefix.equals(longer));
+		final ByteArrayRange range = new ByteArrayRange(
+				low,
+				unsignedHigh);
+		assertTrue(range.intersects(new ByteArrayRange(
+				new ByteArrayId(
+						buffer,
+						3,
+						1),
+				new ByteArrayId(
+						buffer,
+						3,
+						1))));
+	}
+
+	@Test
+	public void testSerializeSlice() {
+		final byte[] buffer = StringUtils.stringToBinary("xxidyy");
+		final ByteArrayId[] ids = ByteArrayId.fromBytes(ByteArrayId.toBytes(new ByteArrayId[] {
+			new ByteArrayId(
+					buffer,
+					2,
+					2)
+		}));
+		assertEquals(
+				new ByteArrayId(
+						"id"),
+				ids[0]);
+	}
+
+	@Test
+	public void testJavaSerializeSlice()
+			throws IOException,
+			ClassNotFoundException {
+		final byte[] buffer = StringUtils.stringToBinary("xxidyy");
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(
+				bytes)) {
+			out.writeObject(new ByteArrayId(
+					buffer,
+					2,
+					2));
+		}
+		final ByteArrayId id;
+		try (ObjectInputStream in = new ObjectInputStream(
+				new ByteArrayInputStream(
+						bytes.toByteArray()))) {
+			id = (ByteArrayId) in.readObject();
+		}
+		assertEquals(
+				new ByteArrayId(
+						"id"),
+				id);
+		assertArrayEquals(
+				StringUtils.stringToBinary("id"),
+				id.getBytes());
+	}
+}
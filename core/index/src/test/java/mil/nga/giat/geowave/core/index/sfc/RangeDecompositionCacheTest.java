@@ -0,0 +1,176 @@
+package mil.nga.giat.geowave.core.index.sfc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
+import mil.nga.giat.geowave.core.index.dimension.BasicDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.SFCFactory.SFCType;
+import mil.nga.giat.geowave.core.index.sfc.data.BasicNumericDataset;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
+
+public class RangeDecompositionCacheTest
+{
+	private final RangeDecompositionCache sharedCache = RangeDecompositionCache.getInstance();
+
+	@Before
+	public void setUp() {
+		sharedCache.clear();
+		sharedCache.resetStatistics();
+	}
+
+	@After
+	public void tearDown() {
+		sharedCache.setMaxSize(RangeDecompositionCache.DEFAULT_MAX_SIZE);
+		sharedCache.clear();
+		sharedCache.resetStatistics();
+	}
+
+	@Test
+	public void testEquivalentCurvesShareDecomposition() {
+		final SpaceFillingCurve sfc = createCurve();
+		final SpaceFillingCurve equivalentSfc = createCurve();
+		final BasicNumericDataset query = createQuery(
+				-10.5,
+				20.5);
+		final RangeDecomposition decomposition = sfc.decomposeRange(
+				query,
+				true,
+				-1);
+		assertEquals(
+				1,
+				sharedCache.getMissCount());
+		assertSame(
+				decomposition,
+				equivalentSfc.decomposeRange(
+						query,
+						true,
+						-1));
+		assertEquals(
+				1,
+				sharedCache.getHitCount());
+		// the query is normalized to cells so a query within the same cells
+		// hits the cache
+		assertSame(
+				decomposition,
+				sfc.decomposeRange(
+						createQuery(
+								-10.50001,
+								20.50001),
+						true,
+						-1));
+		assertEquals(
+				2,
+				sharedCache.getHitCount());
+		// a different maximum number of ranges is a separate decomposition
+		sfc.decomposeRange(
+				query,
+				true,
+				5);
+		assertEquals(
+				2,
+				sharedCache.getMissCount());
+		assertEquals(
+				2,
+				sharedCache.size());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		final RangeDecompositionCache cache = new RangeDecompositionCache(
+				2);
+		final SpaceFillingCurve sfc = createCurve();
+		final RangeDecompositionCache.Key key1 = createKey(
+				sfc,
+				1);
+		final RangeDecompositionCache.Key key2 = createKey(
+				sfc,
+				2);
+		final RangeDecompositionCache.Key key3 = createKey(
+				sfc,
+				3);
+		final RangeDecomposition decomposition = new RangeDecomposition(
+				new ByteArrayRange[] {});
+		cache.put(
+				key1,
+				decomposition);
+		cache.put(
+				key2,
+				decomposition);
+		// access the first key so that the second is least recently used
+		cache.get(key1);
+		cache.put(
+				key3,
+				decomposition);
+		assertEquals(
+				2,
+				cache.size());
+		assertEquals(
+				1,
+				cache.getEvictionCount());
+		assertNull(cache.get(key2));
+		assertSame(
+				decomposition,
+				cache.get(key1));
+		assertSame(
+				decomposition,
+				cache.get(key3));
+		cache.setMaxSize(0);
+		cache.put(
+				key2,
+				decomposition);
+		assertEquals(
+				0,
+				cache.size());
+	}
+
+	private static RangeDecompositionCache.Key createKey(
+			final SpaceFillingCurve sfc,
+			final long bound ) {
+		return new RangeDecompositionCache.Key(
+				sfc,
+				new long[] {
+					bound,
+					bound
+				},
+				true,
+				Integer.MAX_VALUE);
+	}
+
+	private static SpaceFillingCurve createCurve() {
+		return SFCFactory.createSpaceFillingCurve(
+				new SFCDimensionDefinition[] {
+					new SFCDimensionDefinition(
+							new BasicDimensionDefinition(
+									-180,
+									180),
+							10),
+					new SFCDimensionDefinition(
+							new BasicDimensionDefinition(
+									-90,
+									90),
+							10)
+				},
+				SFCType.HILBERT);
+	}
+
+	private static BasicNumericDataset createQuery(
+			final double min,
+			final double max ) {
+		return new BasicNumericDataset(
+				new NumericData[] {
+					new NumericRange(
+							min,
+							max),
+					new NumericRange(
+							min,
+							max)
+				});
+	}
+}
@@ -0,0 +1,161 @@
+package mil.nga.giat.geowave.core.index.sfc.hilbert;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.uzaygezen.core.BitVector;
+import com.google.uzaygezen.core.BitVectorFactories;
+import com.google.uzaygezen.core.CompactHilbertCurve;
+import com.google.uzaygezen.core.MultiDimensionalSpec;
+
+import mil.nga.giat.geowave.core.index.dimension.BasicDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.SFCDimensionDefinition;
+
+public class PrimitiveHilbertSFCOperationsTest
+{
+	private static final int SAMPLE_COUNT = 2000;
+
+	@Test
+	public void testMatchesBitVectorEncoding() {
+		// even, uneven and single dimension precisions up to 62 bits total
+		assertMatchesBitVectorEncoding(new int[] {
+			31,
+			31
+		});
+		assertMatchesBitVectorEncoding(new int[] {
+			20,
+			31,
+			11
+		});
+		assertMatchesBitVectorEncoding(new int[] {
+			3,
+			17,
+			1,
+			9
+		});
+		assertMatchesBitVectorEncoding(new int[] {
+			48,
+			14
+		});
+		assertMatchesBitVectorEncoding(new int[] {
+			40
+		});
+		assertMatchesBitVectorEncoding(new int[] {
+			5,
+			5,
+			5,
+			5,
+			5,
+			5,
+			5
+		});
+	}
+
+	@Test
+	public void testWriteToBuffer() {
+		final SFCDimensionDefinition[] dimensions = createDimensions(new int[] {
+			12,
+			12
+		});
+		final HilbertSFC sfc = new HilbertSFC(
+				dimensions);
+		final double[] values = new double[] {
+			0.25,
+			0.75
+		};
+		final byte[] buffer = new byte[sfc.getIdByteCount() + 2];
+		sfc.getId(
+				values,
+				buffer,
+				1);
+		final byte[] id = sfc.getId(values);
+		assertEquals(
+				3,
+				id.length);
+		for (int i = 0; i < id.length; i++) {
+			assertEquals(
+					id[i],
+					buffer[i + 1]);
+		}
+		assertEquals(
+				0,
+				buffer[0]);
+		assertEquals(
+				0,
+				buffer[buffer.length - 1]);
+	}
+
+	private static void assertMatchesBitVectorEncoding(
+			final int[] bitsPerDimension ) {
+		final SFCDimensionDefinition[] dimensions = createDimensions(bitsPerDimension);
+		final List<Integer> bits = new ArrayList<Integer>();
+		for (final int b : bitsPerDimension) {
+			bits.add(b);
+		}
+		final CompactHilbertCurve compactHilbertCurve = new CompactHilbertCurve(
+				new MultiDimensionalSpec(
+						bits));
+		final PrimitiveHilbertSFCOperations primitiveOperations = new PrimitiveHilbertSFCOperations();
+		primitiveOperations.init(dimensions);
+		final Random random = new Random(
+				1234);
+		final double[] values = new double[dimensions.length];
+		final BitVector[] bitVectors = new BitVector[dimensions.length];
+		final BitVector hilbertBitVector = BitVectorFactories.OPTIMAL.apply(compactHilbertCurve
+				.getSpec()
+				.sumBitsPerDimension());
+		for (int s = 0; s < SAMPLE_COUNT; s++) {
+			for (int d = 0; d < values.length; d++) {
+				// include the edges of each dimension
+				values[d] = (s < 2) ? s : random.nextDouble();
+				bitVectors[d] = BitVectorFactories.OPTIMAL.apply(bitsPerDimension[d]);
+				bitVectors[d].copyFrom(primitiveOperations.normalizeDimension(
+						dimensions[d],
+						values[d],
+						1L << bitsPerDimension[d],
+						false,
+						false));
+			}
+			compactHilbertCurve.index(
+					bitVectors,
+					0,
+					hilbertBitVector);
+			final byte[] expected = hilbertBitVector.toBigEndianByteArray();
+			final byte[] actual = primitiveOperations.convertToHilbert(
+					values,
+					compactHilbertCurve,
+					dimensions);
+			assertArrayEquals(
+					expected,
+					actual);
+			assertArrayEquals(
+					PrimitiveHilbertSFCOperations.internalIndicesFromHilbert(
+							expected,
+							compactHilbertCurve,
+							dimensions),
+					primitiveOperations.indicesFromHilbert(
+							actual,
+							compactHilbertCurve,
+							dimensions));
+		}
+	}
+
+	private static SFCDimensionDefinition[] createDimensions(
+			final int[] bitsPerDimension ) {
+		final SFCDimensionDefinition[] dimensions = new SFCDimensionDefinition[bitsPerDimension.length];
+		for (int d = 0; d < bitsPerDimension.length; d++) {
+			dimensions[d] = new SFCDimensionDefinition(
+					new BasicDimensionDefinition(
+							0,
+							1),
+					bitsPerDimension[d]);
+		}
+		return dimensions;
+	}
+}
@@ -36,7 +36,9 @@ public interface MapReduceDataStore extends
 			DataStatisticsStore statsStore,
 			IndexStore indexStore,
 			Integer minSplits,
-			Integer maxSplits )
+			Integer maxSplits,
+			Long targetRowsPerSplit,
+			Integer maxSplitsPerLocation )
 			throws IOException,
 			InterruptedException;
 }
@@ -23,6 +23,8 @@ public class GeoWaveInputConfigurator extends
 		QUERY_OPTIONS,
 		MIN_SPLITS,
 		MAX_SPLITS,
+		TARGET_ROWS_PER_SPLIT,
+		MAX_SPLITS_PER_LOCATION,
 		OUTPUT_WRITABLE, // used to inform the input format to output a Writable
 							// from the HadoopDataAdapter
 		AUTHORIZATION
@@ -80,6 +82,29 @@ public class GeoWaveInputConfigurator extends
 				InputConfig.MAX_SPLITS);
 	}
 
+	private static Long getTargetRowsPerSplitInternal(
+			final Class<?> implementingClass,
+			final Configuration configuration ) {
+		final String str = configuration.get(
+				enumToConfKey(
+						implementingClass,
+						InputConfig.TARGET_ROWS_PER_SPLIT),
+				"");
+		if ((str != null) && !str.isEmpty()) {
+			return Long.parseLong(str);
+		}
+		return null;
+	}
+
+	private static Integer getMaximumSplitsPerLocationInternal(
+			final Class<?> implementingClass,
+			final Configuration configuration ) {
+		return getIntegerConfigInternal(
+				implementingClass,
+				configuration,
+				InputConfig.MAX_SPLITS_PER_LOCATION);
+	}
+
 	private static Integer getIntegerConfigInternal(
 			final Class<?> implementingClass,
 			final Configuration configuration,
@@ -214,4 +239,56 @@ public class GeoWaveInputConfigurator extends
 					InputConfig.MAX_SPLITS));
 		}
 	}
-}
\ No newline at end of file
+
+	public static Long getTargetRowsPerSplit(
+			final Class<?> implementingClass,
+			final JobContext context ) {
+		return getTargetRowsPerSplitInternal(
+				implementingClass,
+				getConfiguration(context));
+	}
+
+	public static void setTargetRowsPerSplit(
+			final Class<?> implementingClass,
+			final Configuration config,
+			final Long targetRowsPerSplit ) {
+		if (targetRowsPerSplit != null) {
+			config.set(
+					enumToConfKey(
+							implementingClass,
+							InputConfig.TARGET_ROWS_PER_SPLIT),
+					targetRowsPerSplit.toString());
+		}
+		else {
+			config.unset(enumToConfKey(
+					implementingClass,
+					InputConfig.TARGET_ROWS_PER_SPLIT));
+		}
+	}
+
+	public static Integer getMaximumSplitsPerLocation(
+			final Class<?> implementingClass,
+			final JobContext context ) {
+		return getMaximumSplitsPerLocationInternal(
+				implementingClass,
+				getConfiguration(context));
+	}
+
+	public static void setMaximumSplitsPerLocation(
+			final Class<?> implementingClass,
+			final Configuration config,
+			final Integer maxSplitsPerLocation ) {
+		if (maxSplitsPerLocation != null) {
+			config.set(
+					enumToConfKey(
+							implementingClass,
+							InputConfig.MAX_SPLITS_PER_LOCATION),
+					maxSplitsPerLocation.toString());
+		}
+		else {
+			config.unset(enumToConfKey(
+					implementingClass,
+					InputConfig.MAX_SPLITS_PER_LOCATION));
+		}
+	}
+}
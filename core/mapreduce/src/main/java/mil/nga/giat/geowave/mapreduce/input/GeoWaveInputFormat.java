@@ -105,6 +105,28 @@ public class GeoWaveInputFormat<T> extends
 				maxSplits);
 	}
 
+	/**
+	 * Cut the ranges of each tablet or region into equi-depth splits of about
+	 * this many rows, as estimated from the row range histograms
+	 */
+	public static void setTargetRowsPerSplit(
+			final Configuration config,
+			final Long targetRowsPerSplit ) {
+		GeoWaveInputConfigurator.setTargetRowsPerSplit(
+				CLASS,
+				config,
+				targetRowsPerSplit);
+	}
+
+	public static void setMaximumSplitsPerLocation(
+			final Configuration config,
+			final Integer maxSplitsPerLocation ) {
+		GeoWaveInputConfigurator.setMaximumSplitsPerLocation(
+				CLASS,
+				config,
+				maxSplitsPerLocation);
+	}
+
 	public static void setIsOutputWritable(
 			final Configuration config,
 			final Boolean isOutputWritable ) {
@@ -206,6 +228,20 @@ public class GeoWaveInputFormat<T> extends
 				context);
 	}
 
+	protected static Long getTargetRowsPerSplit(
+			final JobContext context ) {
+		return GeoWaveInputConfigurator.getTargetRowsPerSplit(
+				CLASS,
+				context);
+	}
+
+	protected static Integer getMaximumSplitsPerLocation(
+			final JobContext context ) {
+		return GeoWaveInputConfigurator.getMaximumSplitsPerLocation(
+				CLASS,
+				context);
+	}
+
 	@Override
 	public RecordReader<GeoWaveInputKey, T> createRecordReader(
 			final InputSplit split,
@@ -302,7 +338,9 @@ public class GeoWaveInputFormat<T> extends
 					getJobContextDataStatisticsStore(context),
 					getJobContextIndexStore(context),
 					getMinimumSplitCount(context),
-					getMaximumSplitCount(context));
+					getMaximumSplitCount(context),
+					getTargetRowsPerSplit(context),
+					getMaximumSplitsPerLocation(context));
 		}
 		LOGGER.error("Data Store does not support map reduce");
 		throw new IOException(
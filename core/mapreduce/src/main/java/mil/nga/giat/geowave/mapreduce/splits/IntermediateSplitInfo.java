@@ -316,6 +316,98 @@ public class IntermediateSplitInfo implements
 				splitsProvider);
 	}
 
+	/**
+	 * Side effect: Break up this split.
+	 *
+	 * Cut each range whose estimated cardinality exceeds the target at the
+	 * quantiles of its histogram, so that each piece holds about the target
+	 * cardinality, and then pack consecutive pieces into splits of about the
+	 * target cardinality, folding a last split of less than half the target
+	 * into the one before it. Ranges never cross this split's ranges, so they
+	 * stay within the tablet or region this split was created from.
+	 *
+	 * @return the equi-depth splits that replace this split
+	 */
+	synchronized List<IntermediateSplitInfo> splitByCardinality(
+			final Map<PrimaryIndex, RowRangeHistogramStatistics<?>> statsCache,
+			final double targetCardinality ) {
+		final List<IndexRangeLocation> pieces = new ArrayList<IndexRangeLocation>();
+		for (final Entry<PrimaryIndex, List<RangeLocationPair>> ranges : splitInfo.entrySet()) {
+			final RowRangeHistogramStatistics<?> stats = statsCache.get(ranges.getKey());
+			for (final RangeLocationPair p : ranges.getValue()) {
+				final IndexRangeLocation remainder = new IndexRangeLocation(
+						p,
+						ranges.getKey());
+				while ((stats != null) && (remainder.rangeLocationPair.getCardinality() > targetCardinality)
+						&& (remainder.rangeLocationPair.getRange().getStartKey() != null)
+						&& (remainder.rangeLocationPair.getRange().getEndKey() != null)) {
+					final double cardinality = remainder.rangeLocationPair.getCardinality();
+					final IndexRangeLocation piece = remainder.split(
+							stats,
+							0,
+							targetCardinality);
+					if (piece == null) {
+						break;
+					}
+					pieces.add(piece);
+					// stats can be too coarse to cut narrow ranges any further
+					if (remainder.rangeLocationPair.getCardinality() >= cardinality) {
+						break;
+					}
+				}
+				pieces.add(remainder);
+			}
+		}
+
+		final List<IntermediateSplitInfo> splits = new ArrayList<IntermediateSplitInfo>();
+		Map<PrimaryIndex, List<RangeLocationPair>> currentSplitInfo = new HashMap<PrimaryIndex, List<RangeLocationPair>>();
+		double currentCardinality = 0;
+		for (final IndexRangeLocation piece : pieces) {
+			final double pieceCardinality = piece.rangeLocationPair.getCardinality();
+			if (!currentSplitInfo.isEmpty() && ((currentCardinality + pieceCardinality) > targetCardinality)) {
+				splits.add(new IntermediateSplitInfo(
+						currentSplitInfo,
+						splitsProvider));
+				currentSplitInfo = new HashMap<PrimaryIndex, List<RangeLocationPair>>();
+				currentCardinality = 0;
+			}
+			addPairForIndex(
+					currentSplitInfo,
+					piece.rangeLocationPair,
+					piece.index);
+			currentCardinality += pieceCardinality;
+		}
+		if (!currentSplitInfo.isEmpty()) {
+			final IntermediateSplitInfo lastSplit = new IntermediateSplitInfo(
+					currentSplitInfo,
+					splitsProvider);
+			// the remainder of a range is often a sliver, which is better read
+			// by the split before it than by a split of its own
+			if (!splits.isEmpty() && (currentCardinality < (targetCardinality / 2))) {
+				splits.get(
+						splits.size() - 1).merge(
+						lastSplit);
+			}
+			else {
+				splits.add(lastSplit);
+			}
+		}
+		return splits;
+	}
+
+	/**
+	 * @return the location of this split's first range, which for the splits
+	 *         of a single tablet or region is the location of all of them
+	 */
+	synchronized String getLocation() {
+		for (final List<RangeLocationPair> pairList : splitInfo.values()) {
+			for (final RangeLocationPair pair : pairList) {
+				return pair.getLocation();
+			}
+		}
+		return null;
+	}
+
 	private void addPairForIndex(
 			final Map<PrimaryIndex, List<RangeLocationPair>> otherSplitInfo,
 			final RangeLocationPair pair,
@@ -433,7 +525,7 @@ public class IntermediateSplitInfo implements
 		return true;
 	}
 
-	private synchronized double getTotalRangeAtCardinality() {
+	synchronized double getTotalRangeAtCardinality() {
 		double sum = 0.0;
 		for (final List<RangeLocationPair> pairList : splitInfo.values()) {
 			for (final RangeLocationPair pair : pairList) {
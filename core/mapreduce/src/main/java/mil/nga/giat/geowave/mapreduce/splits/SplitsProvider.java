@@ -49,6 +49,46 @@ public abstract class SplitsProvider
 			final Integer maxSplits )
 			throws IOException,
 			InterruptedException {
+		return getSplits(
+				operations,
+				query,
+				queryOptions,
+				adapterStore,
+				statsStore,
+				indexStore,
+				adapterIndexMappingStore,
+				minSplits,
+				maxSplits,
+				null,
+				null);
+	}
+
+	/**
+	 * Read the metadata table to get tablets and match up ranges to them. If a
+	 * target number of rows per split is given, the ranges of each tablet are
+	 * cut at the quantiles of the row range histograms into equi-depth splits
+	 * of about that many rows.
+	 *
+	 * @param targetRowsPerSplit
+	 *            the estimated rows for each split, or null to only split by
+	 *            tablet and to the minimum and maximum splits
+	 * @param maxSplitsPerLocation
+	 *            the maximum splits at any one location, or null for no limit
+	 */
+	public List<InputSplit> getSplits(
+			final DataStoreOperations operations,
+			final DistributableQuery query,
+			final QueryOptions queryOptions,
+			final AdapterStore adapterStore,
+			final DataStatisticsStore statsStore,
+			final IndexStore indexStore,
+			final AdapterIndexMappingStore adapterIndexMappingStore,
+			final Integer minSplits,
+			final Integer maxSplits,
+			final Long targetRowsPerSplit,
+			final Integer maxSplitsPerLocation )
+			throws IOException,
+			InterruptedException {
 
 		final Map<PrimaryIndex, RowRangeHistogramStatistics<?>> statsCache = new HashMap<PrimaryIndex, RowRangeHistogramStatistics<?>>();
 
@@ -74,6 +114,22 @@ public abstract class SplitsProvider
 					queryOptions.getAuthorizations());
 		}
 
+		if (!statsCache.isEmpty() && !splits.isEmpty() && (targetRowsPerSplit != null) && (targetRowsPerSplit > 0)) {
+			final List<IntermediateSplitInfo> tabletSplits = new ArrayList<IntermediateSplitInfo>(
+					splits);
+			splits.clear();
+			for (final IntermediateSplitInfo tabletSplit : tabletSplits) {
+				splits.addAll(tabletSplit.splitByCardinality(
+						statsCache,
+						targetRowsPerSplit));
+			}
+		}
+		if ((maxSplitsPerLocation != null) && (maxSplitsPerLocation > 0)) {
+			mergeSplitsPerLocation(
+					splits,
+					maxSplitsPerLocation);
+		}
+
 		// this is an incremental algorithm, it may be better use the target
 		// split count to drive it (ie. to get 3 splits this will split 1
 		// large
@@ -114,12 +170,66 @@ public abstract class SplitsProvider
 			while (splits.size() > maxSplits);
 		}
 
+		if (!statsCache.isEmpty() && !splits.isEmpty()) {
+			LOGGER.info(getSkewReport(splits));
+		}
+
 		for (final IntermediateSplitInfo split : splits) {
 			retVal.add(split.toFinalSplit());
 		}
 		return retVal;
 	}
 
+	private static void mergeSplitsPerLocation(
+			final TreeSet<IntermediateSplitInfo> splits,
+			final int maxSplitsPerLocation ) {
+		final Map<String, TreeSet<IntermediateSplitInfo>> locationSplits = new HashMap<String, TreeSet<IntermediateSplitInfo>>();
+		for (final IntermediateSplitInfo split : splits) {
+			TreeSet<IntermediateSplitInfo> splitsAtLocation = locationSplits.get(split.getLocation());
+			if (splitsAtLocation == null) {
+				splitsAtLocation = new TreeSet<IntermediateSplitInfo>();
+				locationSplits.put(
+						split.getLocation(),
+						splitsAtLocation);
+			}
+			splitsAtLocation.add(split);
+		}
+		splits.clear();
+		for (final TreeSet<IntermediateSplitInfo> splitsAtLocation : locationSplits.values()) {
+			// merge the two smallest splits at the location, which keeps the
+			// merged splits local
+			while (splitsAtLocation.size() > maxSplitsPerLocation) {
+				final IntermediateSplitInfo lowestSplit = splitsAtLocation.pollFirst();
+				final IntermediateSplitInfo nextLowestSplit = splitsAtLocation.pollFirst();
+				lowestSplit.merge(nextLowestSplit);
+				splitsAtLocation.add(lowestSplit);
+			}
+			splits.addAll(splitsAtLocation);
+		}
+	}
+
+	/**
+	 * @return the number of splits and the spread of their estimated rows,
+	 *         with the skew as the ratio of the largest split to the mean
+	 */
+	protected static String getSkewReport(
+			final TreeSet<IntermediateSplitInfo> splits ) {
+		final double min = splits.first().getTotalRangeAtCardinality();
+		final double max = splits.last().getTotalRangeAtCardinality();
+		double total = 0;
+		for (final IntermediateSplitInfo split : splits) {
+			total += split.getTotalRangeAtCardinality();
+		}
+		final double mean = total / splits.size();
+		return String.format(
+				"Planned %d splits with estimated rows min %.0f, mean %.0f, max %.0f (skew %.2f)",
+				splits.size(),
+				min,
+				mean,
+				max,
+				mean > 0 ? max / mean : 1.0);
+	}
+
 	protected abstract TreeSet<IntermediateSplitInfo> populateIntermediateSplits(
 			TreeSet<IntermediateSplitInfo> splits,
 			DataStoreOperations operations,
@@ -23,6 +23,27 @@ public class BaseDataStoreOptions implements
 	@Parameter(names = "--enableBlockCache", hidden = true, arity = 1)
 	protected boolean enableBlockCache = true;
 
+	@Parameter(names = "--enableParallelQuery", hidden = true, arity = 1, description = "Scan all indices touched by a query concurrently rather than one after another")
+	protected boolean enableParallelQuery = false;
+
+	@Parameter(names = "--parallelQueryThreads", hidden = true, description = "The maximum number of concurrent index scans shared by all parallel queries")
+	protected int parallelQueryThreads = 8;
+
+	@Parameter(names = "--parallelQueryBufferSize", hidden = true, description = "The number of results buffered between the concurrent index scans and the consumer of a parallel query")
+	protected int parallelQueryBufferSize = 1000;
+
+	@Parameter(names = "--writeEncodeThreads", hidden = true, description = "The number of threads each index writer uses to encode entries concurrently, 0 to encode on the writing thread")
+	protected int writeEncodeThreads = 0;
+
+	@Parameter(names = "--writeEncodeBufferSize", hidden = true, description = "The maximum number of entries each index writer holds while they are encoded concurrently")
+	protected int writeEncodeBufferSize = 1000;
+
+	@Parameter(names = "--statsCacheTtl", hidden = true, description = "The time in milliseconds that statistics are cached before checking whether they have been updated, 0 disables the statistics cache")
+	protected long statsCacheTtl = 0;
+
+	@Parameter(names = "--costBasedIndexSelection", hidden = true, arity = 1, description = "Query the index of each adapter with the lowest cost estimated from statistics, rather than the first index. Estimates without row range histograms are coarse, so this is off by default")
+	protected boolean costBasedIndexSelection = false;
+
 	@Override
 	public boolean isPersistDataStatistics() {
 		return persistDataStatistics;
@@ -83,4 +104,73 @@ public class BaseDataStoreOptions implements
 		this.enableBlockCache = enableBlockCache;
 	}
 
+	@Override
+	public boolean isEnableParallelQuery() {
+		return enableParallelQuery;
+	}
+
+	public void setEnableParallelQuery(
+			final boolean enableParallelQuery ) {
+		this.enableParallelQuery = enableParallelQuery;
+	}
+
+	@Override
+	public int getParallelQueryThreads() {
+		return parallelQueryThreads;
+	}
+
+	public void setParallelQueryThreads(
+			final int parallelQueryThreads ) {
+		this.parallelQueryThreads = parallelQueryThreads;
+	}
+
+	@Override
+	public int getParallelQueryBufferSize() {
+		return parallelQueryBufferSize;
+	}
+
+	public void setParallelQueryBufferSize(
+			final int parallelQueryBufferSize ) {
+		this.parallelQueryBufferSize = parallelQueryBufferSize;
+	}
+
+	@Override
+	public int getWriteEncodeThreads() {
+		return writeEncodeThreads;
+	}
+
+	public void setWriteEncodeThreads(
+			final int writeEncodeThreads ) {
+		this.writeEncodeThreads = writeEncodeThreads;
+	}
+
+	@Override
+	public int getWriteEncodeBufferSize() {
+		return writeEncodeBufferSize;
+	}
+
+	public void setWriteEncodeBufferSize(
+			final int writeEncodeBufferSize ) {
+		this.writeEncodeBufferSize = writeEncodeBufferSize;
+	}
+
+	@Override
+	public long getStatsCacheTtl() {
+		return statsCacheTtl;
+	}
+
+	public void setStatsCacheTtl(
+			final long statsCacheTtl ) {
+		this.statsCacheTtl = statsCacheTtl;
+	}
+
+	@Override
+	public boolean isCostBasedIndexSelection() {
+		return costBasedIndexSelection;
+	}
+
+	public void setCostBasedIndexSelection(
+			final boolean costBasedIndexSelection ) {
+		this.costBasedIndexSelection = costBasedIndexSelection;
+	}
 }
@@ -4,7 +4,9 @@ import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
 import mil.nga.giat.geowave.core.store.adapter.exceptions.MismatchedIndexToAdapterMapping;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.query.Query;
+import mil.nga.giat.geowave.core.store.query.QueryExplanation;
 import mil.nga.giat.geowave.core.store.query.QueryOptions;
+import mil.nga.giat.geowave.core.store.query.reactive.QueryPublisher;
 
 /**
  * A DataStore can both ingest and query data based on persisted indices and
@@ -50,6 +52,57 @@ public interface DataStore
 			final QueryOptions queryOptions,
 			final Query query );
 
+	/**
+	 * Returns a publisher of all data in this data store that matches the
+	 * query parameter, with the same semantics as
+	 * {@link #query(QueryOptions, Query)}. The query is run for each
+	 * subscriber once it first requests results, and results are prefetched
+	 * ahead of the subscriber's demand up to the buffer size. Cancelling a
+	 * subscription closes the underlying scanners.
+	 * 
+	 * @param queryOptions
+	 *            additional options for the processing the query
+	 * @param the
+	 *            data constraints for the query
+	 * @param bufferSize
+	 *            the maximum number of results to prefetch for each subscriber
+	 * @return A publisher of all results that match the query.
+	 */
+	public <T> QueryPublisher<T> queryPublisher(
+			final QueryOptions queryOptions,
+			final Query query,
+			final int bufferSize );
+
+	/**
+	 * Explains the query without running it: the estimated cost of each
+	 * candidate index, and for each index that would be scanned, the adapters
+	 * queried, the number of ranges and where each filter runs.
+	 * 
+	 * @param queryOptions
+	 *            additional options for the processing the query
+	 * @param the
+	 *            data constraints for the query
+	 * @return the explanation of the query
+	 */
+	public QueryExplanation explain(
+			final QueryOptions queryOptions,
+			final Query query );
+
+	/**
+	 * Explains the query as {@link #explain(QueryOptions, Query)} does, then
+	 * runs it to completion and attaches the profile of its execution. The
+	 * results are discarded.
+	 * 
+	 * @param queryOptions
+	 *            additional options for the processing the query
+	 * @param the
+	 *            data constraints for the query
+	 * @return the explanation of the query, including its profile
+	 */
+	public QueryExplanation profile(
+			final QueryOptions queryOptions,
+			final Query query );
+
 /**
 	 * Delete all data in this data store that matches the query parameter
 	 * within the index described by the index passed in and matches the adapter
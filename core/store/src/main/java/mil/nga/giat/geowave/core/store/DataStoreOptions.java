@@ -13,4 +13,18 @@ public interface DataStoreOptions
 	public boolean isCreateTable();
 
 	public boolean isEnableBlockCache();
+
+	public boolean isEnableParallelQuery();
+
+	public int getParallelQueryThreads();
+
+	public int getParallelQueryBufferSize();
+
+	public int getWriteEncodeThreads();
+
+	public int getWriteEncodeBufferSize();
+
+	public long getStatsCacheTtl();
+
+	public boolean isCostBasedIndexSelection();
 }
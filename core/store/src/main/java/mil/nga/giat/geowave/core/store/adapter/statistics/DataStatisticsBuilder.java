@@ -3,6 +3,7 @@ package mil.nga.giat.geowave.core.store.adapter.statistics;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import org.apache.log4j.Logger;
 
@@ -60,6 +61,29 @@ public class DataStatisticsBuilder<T> implements
 		return statisticsMap.values();
 	}
 
+	/**
+	 * Merge the statistics accumulated by another builder of the same
+	 * statistics type into this builder, leaving the other builder empty
+	 *
+	 * @param other
+	 *            the builder to merge, such as one used by another thread
+	 */
+	public void merge(
+			final DataStatisticsBuilder<T> other ) {
+		for (final Entry<ByteArrayId, DataStatistics<T>> otherEntry : other.statisticsMap.entrySet()) {
+			final DataStatistics<T> statistics = statisticsMap.get(otherEntry.getKey());
+			if (statistics == null) {
+				statisticsMap.put(
+						otherEntry.getKey(),
+						otherEntry.getValue());
+			}
+			else {
+				statistics.merge(otherEntry.getValue());
+			}
+		}
+		other.statisticsMap.clear();
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public void entryDeleted(
@@ -0,0 +1,254 @@
+package mil.nga.giat.geowave.core.store.adapter.statistics;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.PersistenceUtils;
+
+/**
+ * A read-through cache of statistics keyed by adapter, statistics ID and
+ * authorizations, for statistics stores that may be updated by other
+ * processes. Cached statistics are returned without reading the store until
+ * their time to live has passed. After that, the adapter's version, which
+ * writers change with every update of the adapter's statistics, is read from
+ * the store, and the statistics are only read again if the version has changed
+ * since they were cached. Writes
+ * through the store that owns the cache should invalidate it directly.
+ */
+public class DataStatisticsCache
+{
+	public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+	/**
+	 * Reads the statistics version of an adapter from the store
+	 */
+	public static interface StatisticsVersionReader
+	{
+		/**
+		 * @param adapterId
+		 *            the adapter whose statistics version is read
+		 * @return the current version, or null if it cannot be determined, in
+		 *         which case cached statistics are read again once their time
+		 *         to live has passed
+		 */
+		public Long readVersion(
+				ByteArrayId adapterId );
+	}
+
+	/**
+	 * Reads statistics from the store on a cache miss
+	 */
+	public static interface StatisticsReader
+	{
+		public DataStatistics<?> readStatistics();
+	}
+
+	private final long ttlNanos;
+	private final StatisticsVersionReader versionReader;
+	private final Map<CacheKey, CacheEntry> cache;
+	// incremented with each invalidation, so that statistics read before an
+	// invalidation are not cached after it
+	private long generation = 0;
+
+	public DataStatisticsCache(
+			final long ttlMillis,
+			final StatisticsVersionReader versionReader ) {
+		this(
+				ttlMillis,
+				DEFAULT_MAX_ENTRIES,
+				versionReader);
+	}
+
+	public DataStatisticsCache(
+			final long ttlMillis,
+			final int maxEntries,
+			final StatisticsVersionReader versionReader ) {
+		ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+		this.versionReader = versionReader;
+		cache = new LinkedHashMap<CacheKey, CacheEntry>(
+				16,
+				0.75f,
+				true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					final Map.Entry<CacheKey, CacheEntry> eldest ) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * Get statistics from the cache, reading them from the store if they are
+	 * not cached or may have changed. The statistics returned are a copy that
+	 * the caller may modify.
+	 *
+	 * @param adapterId
+	 *            the adapter ID
+	 * @param statisticsId
+	 *            the statistics ID
+	 * @param authorizations
+	 *            the authorizations the statistics are read with
+	 * @param reader
+	 *            reads the statistics from the store
+	 * @return the statistics, or null if they do not exist
+	 */
+	public DataStatistics<?> getDataStatistics(
+			final ByteArrayId adapterId,
+			final ByteArrayId statisticsId,
+			final String[] authorizations,
+			final StatisticsReader reader ) {
+		final CacheKey key = new CacheKey(
+				adapterId,
+				statisticsId,
+				authorizations);
+		final CacheEntry entry;
+		final long readGeneration;
+		synchronized (cache) {
+			entry = cache.get(key);
+			readGeneration = generation;
+		}
+		if ((entry != null) && ((System.nanoTime() - entry.validatedNanos) < ttlNanos)) {
+			return copy(entry.statistics);
+		}
+		// read the version before the statistics, so that an update made
+		// while they are read changes the version they are cached with
+		final Long version = versionReader.readVersion(adapterId);
+		if ((entry != null) && (version != null) && version.equals(entry.version)) {
+			entry.validatedNanos = System.nanoTime();
+			return copy(entry.statistics);
+		}
+		final DataStatistics<?> statistics = reader.readStatistics();
+		synchronized (cache) {
+			if (readGeneration == generation) {
+				cache.put(
+						key,
+						new CacheEntry(
+								version,
+								copy(statistics)));
+			}
+		}
+		return statistics;
+	}
+
+	/**
+	 * Remove the cached statistics of an adapter
+	 *
+	 * @param adapterId
+	 *            the adapter ID
+	 */
+	public void invalidate(
+			final ByteArrayId adapterId ) {
+		synchronized (cache) {
+			generation++;
+			final Iterator<CacheKey> it = cache.keySet().iterator();
+			while (it.hasNext()) {
+				if (adapterId.equals(it.next().adapterId)) {
+					it.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Remove all cached statistics
+	 */
+	public void invalidateAll() {
+		synchronized (cache) {
+			generation++;
+			cache.clear();
+		}
+	}
+
+	private static DataStatistics<?> copy(
+			final DataStatistics<?> statistics ) {
+		if (statistics == null) {
+			return null;
+		}
+		final DataStatistics<?> copy = PersistenceUtils.fromBinary(
+				PersistenceUtils.toBinary(statistics),
+				DataStatistics.class);
+		copy.setDataAdapterId(statistics.getDataAdapterId());
+		copy.setVisibility(statistics.getVisibility());
+		return copy;
+	}
+
+	private static class CacheEntry
+	{
+		private final Long version;
+		private final DataStatistics<?> statistics;
+		private volatile long validatedNanos;
+
+		public CacheEntry(
+				final Long version,
+				final DataStatistics<?> statistics ) {
+			this.version = version;
+			this.statistics = statistics;
+			validatedNanos = System.nanoTime();
+		}
+	}
+
+	private static class CacheKey
+	{
+		private final ByteArrayId adapterId;
+		private final ByteArrayId statisticsId;
+		private final String[] authorizations;
+
+		public CacheKey(
+				final ByteArrayId adapterId,
+				final ByteArrayId statisticsId,
+				final String[] authorizations ) {
+			this.adapterId = adapterId;
+			this.statisticsId = statisticsId;
+			// the order of the authorizations does not matter
+			this.authorizations = (authorizations == null) ? new String[0] : authorizations.clone();
+			Arrays.sort(this.authorizations);
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = (prime * result) + ((adapterId == null) ? 0 : adapterId.hashCode());
+			result = (prime * result) + ((statisticsId == null) ? 0 : statisticsId.hashCode());
+			result = (prime * result) + Arrays.hashCode(authorizations);
+			return result;
+		}
+
+		@Override
+		public boolean equals(
+				final Object obj ) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			final CacheKey other = (CacheKey) obj;
+			if (adapterId == null) {
+				if (other.adapterId != null) {
+					return false;
+				}
+			}
+			else if (!adapterId.equals(other.adapterId)) {
+				return false;
+			}
+			if (statisticsId == null) {
+				if (other.statisticsId != null) {
+					return false;
+				}
+			}
+			else if (!statisticsId.equals(other.statisticsId)) {
+				return false;
+			}
+			return Arrays.equals(
+					authorizations,
+					other.authorizations);
+		}
+	}
+}
@@ -0,0 +1,272 @@
+package mil.nga.giat.geowave.core.store.adapter.statistics;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+
+/**
+ * Writes statistics to their statistics stores in the background. Statistics
+ * submitted by all writers in the JVM are coalesced per store by adapter,
+ * statistics ID and visibility, so that each is written once per flush rather
+ * than once per writer flush. Pending statistics are written after the flush
+ * interval, or as soon as the number of pending statistics reaches the
+ * maximum. Callers that need to read their own statistics call
+ * {@link #flush()}, which returns once everything submitted before it is
+ * written. Statistics that fail to be written remain pending and are retried
+ * by the next flush.
+ */
+public class StatisticsFlushService
+{
+	private final static Logger LOGGER = Logger.getLogger(StatisticsFlushService.class);
+	public static final String FLUSH_INTERVAL_PROPERTY = "StatisticsFlushService.flushIntervalMillis";
+	public static final String MAX_PENDING_PROPERTY = "StatisticsFlushService.maxPendingStatistics";
+	public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5000;
+	public static final int DEFAULT_MAX_PENDING_STATISTICS = 10000;
+	private static StatisticsFlushService instance;
+
+	private final int maxPendingStatistics;
+	private final ScheduledExecutorService flushExecutor;
+	// guards the pending statistics
+	private final Object pendingLock = new Object();
+	// serializes writes, so a flush waits for a write in progress
+	private final Object writeLock = new Object();
+	private Map<DataStatisticsStore, Map<StatisticsKey, DataStatistics<?>>> pendingStatistics = new IdentityHashMap<DataStatisticsStore, Map<StatisticsKey, DataStatistics<?>>>();
+	private int pendingCount = 0;
+	private boolean flushScheduled = false;
+
+	public StatisticsFlushService(
+			final long flushIntervalMillis,
+			final int maxPendingStatistics ) {
+		this.maxPendingStatistics = Math.max(
+				1,
+				maxPendingStatistics);
+		flushExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setDaemon(
+				true).setNameFormat(
+				"geowave-statistics-flush-%d").build());
+		flushExecutor.scheduleWithFixedDelay(
+				new Runnable() {
+					@Override
+					public void run() {
+						flushQuietly();
+					}
+				},
+				flushIntervalMillis,
+				flushIntervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return the service shared by the JVM, configured by the
+	 *         {@link #FLUSH_INTERVAL_PROPERTY} and {@link #MAX_PENDING_PROPERTY}
+	 *         system properties. Pending statistics are written when the JVM
+	 *         shuts down.
+	 */
+	public static synchronized StatisticsFlushService getInstance() {
+		if (instance == null) {
+			instance = new StatisticsFlushService(
+					Long.getLong(
+							FLUSH_INTERVAL_PROPERTY,
+							DEFAULT_FLUSH_INTERVAL_MILLIS),
+					Integer.getInteger(
+							MAX_PENDING_PROPERTY,
+							DEFAULT_MAX_PENDING_STATISTICS));
+			final StatisticsFlushService service = instance;
+			Runtime.getRuntime().addShutdownHook(
+					new Thread(
+							new Runnable() {
+								@Override
+								public void run() {
+									service.flushQuietly();
+								}
+							},
+							"geowave-statistics-flush-shutdown"));
+		}
+		return instance;
+	}
+
+	/**
+	 * Submit statistics to be written to a store. The service takes ownership
+	 * of the statistics, which may be merged with statistics submitted by
+	 * other writers.
+	 *
+	 * @param statisticsStore
+	 *            the store to write the statistics to
+	 * @param statistics
+	 *            the statistics
+	 */
+	public void incorporateStatistics(
+			final DataStatisticsStore statisticsStore,
+			final DataStatistics<?> statistics ) {
+		synchronized (pendingLock) {
+			addPending(
+					statisticsStore,
+					statistics);
+			if ((pendingCount >= maxPendingStatistics) && !flushScheduled) {
+				flushScheduled = true;
+				flushExecutor.execute(new Runnable() {
+					@Override
+					public void run() {
+						flushQuietly();
+					}
+				});
+			}
+		}
+	}
+
+	// must hold the pending lock
+	private void addPending(
+			final DataStatisticsStore statisticsStore,
+			final DataStatistics<?> statistics ) {
+		Map<StatisticsKey, DataStatistics<?>> storeStatistics = pendingStatistics.get(statisticsStore);
+		if (storeStatistics == null) {
+			storeStatistics = new LinkedHashMap<StatisticsKey, DataStatistics<?>>();
+			pendingStatistics.put(
+					statisticsStore,
+					storeStatistics);
+		}
+		final StatisticsKey key = new StatisticsKey(
+				statistics);
+		final DataStatistics<?> pending = storeStatistics.get(key);
+		if (pending == null) {
+			storeStatistics.put(
+					key,
+					statistics);
+			pendingCount++;
+		}
+		else {
+			pending.merge(statistics);
+		}
+	}
+
+	/**
+	 * Write all pending statistics, returning once all statistics submitted
+	 * before this call have been written. Statistics that fail to be written
+	 * are kept pending, to be retried by the next flush, and the first failure
+	 * is then thrown.
+	 */
+	public void flush() {
+		synchronized (writeLock) {
+			final Map<DataStatisticsStore, Map<StatisticsKey, DataStatistics<?>>> statisticsToWrite;
+			synchronized (pendingLock) {
+				statisticsToWrite = pendingStatistics;
+				pendingStatistics = new IdentityHashMap<DataStatisticsStore, Map<StatisticsKey, DataStatistics<?>>>();
+				pendingCount = 0;
+				flushScheduled = false;
+			}
+			RuntimeException failure = null;
+			final Map<DataStatisticsStore, List<DataStatistics<?>>> failedStatistics = new IdentityHashMap<DataStatisticsStore, List<DataStatistics<?>>>();
+			for (final Entry<DataStatisticsStore, Map<StatisticsKey, DataStatistics<?>>> storeStatistics : statisticsToWrite.entrySet()) {
+				for (final DataStatistics<?> statistics : storeStatistics.getValue().values()) {
+					try {
+						storeStatistics.getKey().incorporateStatistics(
+								statistics);
+					}
+					catch (final RuntimeException e) {
+						if (failure == null) {
+							failure = e;
+						}
+						List<DataStatistics<?>> storeFailures = failedStatistics.get(storeStatistics.getKey());
+						if (storeFailures == null) {
+							storeFailures = new ArrayList<DataStatistics<?>>();
+							failedStatistics.put(
+									storeStatistics.getKey(),
+									storeFailures);
+						}
+						storeFailures.add(statistics);
+					}
+				}
+			}
+			if (failure != null) {
+				// merge the statistics that were not written with any
+				// submitted since, so that the next flush retries them
+				synchronized (pendingLock) {
+					for (final Entry<DataStatisticsStore, List<DataStatistics<?>>> storeFailures : failedStatistics.entrySet()) {
+						for (final DataStatistics<?> statistics : storeFailures.getValue()) {
+							addPending(
+									storeFailures.getKey(),
+									statistics);
+						}
+					}
+				}
+				throw failure;
+			}
+		}
+	}
+
+	public int getPendingCount() {
+		synchronized (pendingLock) {
+			return pendingCount;
+		}
+	}
+
+	private void flushQuietly() {
+		try {
+			flush();
+		}
+		catch (final RuntimeException e) {
+			LOGGER.error(
+					"Unable to write statistics, they will be retried by the next flush",
+					e);
+		}
+	}
+
+	private static class StatisticsKey
+	{
+		private final ByteArrayId adapterId;
+		private final ByteArrayId statisticsId;
+		private final ByteArrayId visibility;
+
+		public StatisticsKey(
+				final DataStatistics<?> statistics ) {
+			adapterId = statistics.getDataAdapterId();
+			statisticsId = statistics.getStatisticsId();
+			visibility = new ByteArrayId(
+					(statistics.getVisibility() == null) ? new byte[0] : statistics.getVisibility());
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = 1;
+			result = (prime * result) + ((adapterId == null) ? 0 : adapterId.hashCode());
+			result = (prime * result) + ((statisticsId == null) ? 0 : statisticsId.hashCode());
+			result = (prime * result) + visibility.hashCode();
+			return result;
+		}
+
+		@Override
+		public boolean equals(
+				final Object obj ) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			final StatisticsKey other = (StatisticsKey) obj;
+			return equals(
+					adapterId,
+					other.adapterId) && equals(
+					statisticsId,
+					other.statisticsId) && visibility.equals(other.visibility);
+		}
+
+		private static boolean equals(
+				final ByteArrayId id1,
+				final ByteArrayId id2 ) {
+			return (id1 == null) ? (id2 == null) : id1.equals(id2);
+		}
+	}
+}
@@ -5,6 +5,7 @@ import java.io.Flushable;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.log4j.Logger;
 
@@ -20,6 +21,17 @@ import mil.nga.giat.geowave.core.store.callback.ScanCallback;
  * null or the provided data adapter does not implement
  * {@link DataStatisticsStore}.
  * 
+ * Threads accumulate statistics in a fixed number of stripes of builders,
+ * chosen by thread, so that threads ingesting concurrently rarely contend on a
+ * single lock. The statistics of a stripe are merged into the shared builders
+ * once it has had more than {@link #FLUSH_STATS_THRESHOLD} updates, and the
+ * statistics of all stripes are merged when the tool is flushed.
+ * 
+ * If the StatsCompositionTool.asyncFlush system property is true, flushed
+ * statistics are handed to the {@link StatisticsFlushService} to be coalesced
+ * with those of other writers and written in the background, and closing the
+ * tool waits for them to be written.
+ * 
  * @param <T>
  *            Entry type
  */
@@ -33,12 +45,21 @@ public class StatsCompositionTool<T> implements
 {
 	private final static Logger LOGGER = Logger.getLogger(StatsCompositionTool.class);
 	public static final int FLUSH_STATS_THRESHOLD = 16384;
+	private static final int MAX_STRIPES = 16;
 
-	int updateCount = 0;
 	DataStatisticsStore statisticsStore;
+	StatisticsProvider<T> statisticsProvider;
 	List<DataStatisticsBuilder<T>> statisticsBuilders = null;
 	final Object MUTEX = new Object();
 	protected boolean skipFlush = false;
+	// hand statistics to the statistics flush service rather than writing them
+	protected boolean asyncFlush = false;
+	// the stripes are always locked before the MUTEX, and are created when a
+	// thread first uses them
+	private final AtomicReferenceArray<StatisticsStripe<T>> stripes = new AtomicReferenceArray<StatisticsStripe<T>>(
+			Math.min(
+					MAX_STRIPES,
+					Runtime.getRuntime().availableProcessors()));
 
 	public StatsCompositionTool() {
 		statisticsStore = null;
@@ -59,14 +80,8 @@ public class StatsCompositionTool<T> implements
 
 	private void init(
 			final StatisticsProvider<T> statisticsProvider ) {
-		final ByteArrayId[] statisticsIds = statisticsProvider.getSupportedStatisticsTypes();
-		statisticsBuilders = new ArrayList<DataStatisticsBuilder<T>>(
-				statisticsIds.length);
-		for (final ByteArrayId id : statisticsIds) {
-			statisticsBuilders.add(new DataStatisticsBuilder<T>(
-					statisticsProvider,
-					id));
-		}
+		this.statisticsProvider = statisticsProvider;
+		statisticsBuilders = createBuilders();
 		try {
 			final Object v = System.getProperty("StatsCompositionTool.skipFlush");
 			skipFlush = ((v != null) && v.toString().equalsIgnoreCase(
@@ -77,6 +92,7 @@ public class StatsCompositionTool<T> implements
 					"Unable to determine property AccumuloIndexWriter.skipFlush",
 					ex);
 		}
+		asyncFlush = Boolean.getBoolean("StatsCompositionTool.asyncFlush");
 	}
 
 	@Override
@@ -86,14 +102,15 @@ public class StatsCompositionTool<T> implements
 		if (statisticsBuilders == null) {
 			return;
 		}
-		synchronized (MUTEX) {
-			for (final DataStatisticsBuilder<T> builder : statisticsBuilders) {
+		final StatisticsStripe<T> stripe = getStripe();
+		synchronized (stripe) {
+			for (final DataStatisticsBuilder<T> builder : stripe.builders) {
 				builder.entryDeleted(
 						entryInfo,
 						entry);
 			}
-			updateCount++;
-			checkStats();
+			stripe.updateCount++;
+			checkStats(stripe);
 		}
 
 	}
@@ -106,14 +123,15 @@ public class StatsCompositionTool<T> implements
 			return;
 		}
 
-		synchronized (MUTEX) {
-			for (final DataStatisticsBuilder<T> builder : statisticsBuilders) {
+		final StatisticsStripe<T> stripe = getStripe();
+		synchronized (stripe) {
+			for (final DataStatisticsBuilder<T> builder : stripe.builders) {
 				builder.entryScanned(
 						entryInfo,
 						entry);
 			}
-			updateCount++;
-			checkStats();
+			stripe.updateCount++;
+			checkStats(stripe);
 		}
 
 	}
@@ -127,11 +145,27 @@ public class StatsCompositionTool<T> implements
 			return;
 		}
 
+		for (int i = 0; i < stripes.length(); i++) {
+			final StatisticsStripe<T> stripe = stripes.get(i);
+			if (stripe == null) {
+				continue;
+			}
+			synchronized (stripe) {
+				mergeStripe(stripe);
+			}
+		}
 		synchronized (MUTEX) {
 			for (final DataStatisticsBuilder<T> builder : statisticsBuilders) {
 				final Collection<DataStatistics<T>> statistics = builder.getStatistics();
 				for (final DataStatistics<T> s : statistics) {
-					statisticsStore.incorporateStatistics(s);
+					if (asyncFlush) {
+						StatisticsFlushService.getInstance().incorporateStatistics(
+								statisticsStore,
+								s);
+					}
+					else {
+						statisticsStore.incorporateStatistics(s);
+					}
 				}
 				statistics.clear();
 			}
@@ -146,6 +180,18 @@ public class StatsCompositionTool<T> implements
 			return;
 		}
 
+		for (int i = 0; i < stripes.length(); i++) {
+			final StatisticsStripe<T> stripe = stripes.get(i);
+			if (stripe == null) {
+				continue;
+			}
+			synchronized (stripe) {
+				for (final DataStatisticsBuilder<T> builder : stripe.builders) {
+					builder.getStatistics().clear();
+				}
+				stripe.updateCount = 0;
+			}
+		}
 		synchronized (MUTEX) {
 			for (final DataStatisticsBuilder<T> builder : statisticsBuilders) {
 				final Collection<DataStatistics<T>> statistics = builder.getStatistics();
@@ -162,20 +208,28 @@ public class StatsCompositionTool<T> implements
 			return;
 		}
 
-		synchronized (MUTEX) {
-			for (final DataStatisticsBuilder<T> builder : statisticsBuilders) {
+		final StatisticsStripe<T> stripe = getStripe();
+		synchronized (stripe) {
+			for (final DataStatisticsBuilder<T> builder : stripe.builders) {
 				builder.entryIngested(
 						entryInfo,
 						entry);
 			}
-			updateCount++;
-			checkStats();
+			stripe.updateCount++;
+			checkStats(stripe);
 		}
 	}
 
+	/**
+	 * Update statistics store, waiting for the statistics to be written if
+	 * they are flushed asynchronously
+	 */
 	@Override
 	public void close() {
 		flush();
+		if (asyncFlush && (statisticsBuilders != null)) {
+			StatisticsFlushService.getInstance().flush();
+		}
 	}
 
 	public void setStatisticsStore(
@@ -183,9 +237,66 @@ public class StatsCompositionTool<T> implements
 		this.statisticsStore = statisticsStore;
 	}
 
-	private void checkStats() {
-		if (!skipFlush && (updateCount > FLUSH_STATS_THRESHOLD)) {
-			updateCount = 0;
+	private List<DataStatisticsBuilder<T>> createBuilders() {
+		final ByteArrayId[] statisticsIds = statisticsProvider.getSupportedStatisticsTypes();
+		final List<DataStatisticsBuilder<T>> builders = new ArrayList<DataStatisticsBuilder<T>>(
+				statisticsIds.length);
+		for (final ByteArrayId id : statisticsIds) {
+			builders.add(new DataStatisticsBuilder<T>(
+					statisticsProvider,
+					id));
+		}
+		return builders;
+	}
+
+	private StatisticsStripe<T> getStripe() {
+		final int index = (int) (Thread.currentThread().getId() % stripes.length());
+		StatisticsStripe<T> stripe = stripes.get(index);
+		if (stripe == null) {
+			stripes.compareAndSet(
+					index,
+					null,
+					new StatisticsStripe<T>(
+							createBuilders()));
+			stripe = stripes.get(index);
+		}
+		return stripe;
+	}
+
+	private void checkStats(
+			final StatisticsStripe<T> stripe ) {
+		if (!skipFlush && (stripe.updateCount > FLUSH_STATS_THRESHOLD)) {
+			mergeStripe(stripe);
+		}
+	}
+
+	/**
+	 * Merge the statistics of a stripe into the shared builders, the caller
+	 * must hold the lock of the stripe
+	 */
+	private void mergeStripe(
+			final StatisticsStripe<T> stripe ) {
+		synchronized (MUTEX) {
+			for (int i = 0; i < statisticsBuilders.size(); i++) {
+				statisticsBuilders.get(
+						i).merge(
+						stripe.builders.get(i));
+			}
+		}
+		stripe.updateCount = 0;
+	}
+
+	/**
+	 * The statistics accumulated by the threads of one stripe
+	 */
+	private static class StatisticsStripe<T>
+	{
+		private final List<DataStatisticsBuilder<T>> builders;
+		private int updateCount = 0;
+
+		public StatisticsStripe(
+				final List<DataStatisticsBuilder<T>> builders ) {
+			this.builders = builders;
 		}
 	}
 
@@ -7,18 +7,21 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.log4j.Logger;
 
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.AdapterToIndexMapping;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.CloseableIteratorWrapper;
+import mil.nga.giat.geowave.core.store.DataStore;
 import mil.nga.giat.geowave.core.store.DataStoreOperations;
 import mil.nga.giat.geowave.core.store.DataStoreOptions;
 import mil.nga.giat.geowave.core.store.IndexWriter;
@@ -45,12 +48,19 @@ import mil.nga.giat.geowave.core.store.index.writer.IndexCompositeWriter;
 import mil.nga.giat.geowave.core.store.memory.MemoryAdapterStore;
 import mil.nga.giat.geowave.core.store.query.DataIdQuery;
 import mil.nga.giat.geowave.core.store.query.EverythingQuery;
+import mil.nga.giat.geowave.core.store.query.IndexQueryCost;
 import mil.nga.giat.geowave.core.store.query.PrefixIdQuery;
 import mil.nga.giat.geowave.core.store.query.Query;
+import mil.nga.giat.geowave.core.store.query.QueryExplanation;
 import mil.nga.giat.geowave.core.store.query.QueryOptions;
+import mil.nga.giat.geowave.core.store.query.QueryProfile;
 import mil.nga.giat.geowave.core.store.query.RowIdQuery;
+import mil.nga.giat.geowave.core.store.query.reactive.CloseableIteratorPublisher;
+import mil.nga.giat.geowave.core.store.query.reactive.QueryPublisher;
+import mil.nga.giat.geowave.core.store.util.ParallelCloseableIterator;
 
-public abstract class BaseDataStore
+public abstract class BaseDataStore implements
+		DataStore
 {
 	private final static Logger LOGGER = Logger.getLogger(BaseDataStore.class);
 
@@ -63,6 +73,8 @@ public abstract class BaseDataStore
 	protected final AdapterIndexMappingStore indexMappingStore;
 	private final DataStoreOperations baseOperations;
 	private final DataStoreOptions baseOptions;
+	private ExecutorService queryExecutor;
+	private ExecutorService publisherExecutor;
 
 	public BaseDataStore(
 			final IndexStore indexStore,
@@ -163,6 +175,27 @@ public abstract class BaseDataStore
 
 	}
 
+	/**
+	 * The publisher runs the same query as
+	 * {@link #query(QueryOptions, Query)} for each subscriber, so every backend
+	 * closes its scanners when a subscription is cancelled.
+	 */
+	public <T> QueryPublisher<T> queryPublisher(
+			final QueryOptions queryOptions,
+			final Query query,
+			final int bufferSize ) {
+		return new CloseableIteratorPublisher<T>(
+				getPublisherExecutor(),
+				bufferSize) {
+			@Override
+			protected CloseableIterator<T> openIterator() {
+				return query(
+						queryOptions,
+						query);
+			}
+		};
+	}
+
 	/*
 	 * Since this general-purpose method crosses multiple adapters, the type of
 	 * result cannot be assumed.
@@ -184,17 +217,18 @@ public abstract class BaseDataStore
 		final QueryOptions sanitizedQueryOptions = (queryOptions == null) ? new QueryOptions() : queryOptions;
 		final Query sanitizedQuery = (query == null) ? new EverythingQuery() : query;
 
-		final DedupeFilter filter = new DedupeFilter();
+		final DedupeFilter filter = sanitizedQueryOptions.isApproximateDedupe() ? new DedupeFilter(
+				sanitizedQueryOptions.getDedupeExpectedEntries(),
+				sanitizedQueryOptions.getDedupeFalsePositiveProbability()) : new DedupeFilter();
 		MemoryAdapterStore tempAdapterStore;
 		try {
 			tempAdapterStore = new MemoryAdapterStore(
 					sanitizedQueryOptions.getAdaptersArray(adapterStore));
 
-			for (final Pair<PrimaryIndex, List<DataAdapter<Object>>> indexAdapterPair : sanitizedQueryOptions
-					.getAdaptersWithMinimalSetOfIndices(
-							tempAdapterStore,
-							indexMappingStore,
-							indexStore)) {
+			for (final Pair<PrimaryIndex, List<DataAdapter<Object>>> indexAdapterPair : getIndexAdapterPairs(
+					sanitizedQueryOptions,
+					tempAdapterStore,
+					sanitizedQuery)) {
 				final List<ByteArrayId> adapterIdsToQuery = new ArrayList<>();
 				for (final DataAdapter<Object> adapter : indexAdapterPair.getRight()) {
 					if (sanitizedQuery instanceof RowIdQuery) {
@@ -256,6 +290,15 @@ public abstract class BaseDataStore
 					"Failed to resolve adapter or index for query",
 					e1);
 		}
+		if (baseOptions.isEnableParallelQuery() && (results.size() > 1)) {
+			// each index is scanned on its own thread and the shared dedupe
+			// filter is safe for concurrent use
+			return new ParallelCloseableIterator<T>(
+					Lists.newArrayList(new CastIterator<T>(
+							results.iterator())),
+					getQueryExecutor(),
+					baseOptions.getParallelQueryBufferSize());
+		}
 		return new CloseableIteratorWrapper<T>(
 				new Closeable() {
 					@Override
@@ -270,6 +313,108 @@ public abstract class BaseDataStore
 						results.iterator())));
 	}
 
+	public QueryExplanation explain(
+			final QueryOptions queryOptions,
+			final Query query ) {
+		final QueryOptions sanitizedQueryOptions = (queryOptions == null) ? new QueryOptions() : queryOptions;
+		final Query sanitizedQuery = (query == null) ? new EverythingQuery() : query;
+		try {
+			final MemoryAdapterStore tempAdapterStore = new MemoryAdapterStore(
+					sanitizedQueryOptions.getAdaptersArray(adapterStore));
+			final List<Pair<PrimaryIndex, List<DataAdapter<Object>>>> indexAdapterPairs = getIndexAdapterPairs(
+					sanitizedQueryOptions,
+					tempAdapterStore,
+					sanitizedQuery);
+			final List<IndexQueryCost> indexCosts = sanitizedQueryOptions.explainIndexSelection(
+					tempAdapterStore,
+					indexMappingStore,
+					indexStore,
+					statisticsStore,
+					sanitizedQuery);
+			return QueryExplanation.explain(
+					indexAdapterPairs,
+					indexCosts,
+					sanitizedQuery,
+					getServerSideFiltering());
+		}
+		catch (final IOException e) {
+			LOGGER.error(
+					"Failed to resolve adapter or index for query",
+					e);
+		}
+		return new QueryExplanation(
+				new ArrayList<IndexQueryCost>(),
+				new ArrayList<QueryExplanation.IndexPlan>());
+	}
+
+	public QueryExplanation profile(
+			final QueryOptions queryOptions,
+			final Query query ) {
+		final QueryExplanation explanation = explain(
+				queryOptions,
+				query);
+		explanation.setProfile(QueryProfile.profile(
+				this,
+				queryOptions,
+				query,
+				explanation));
+		return explanation;
+	}
+
+	private List<Pair<PrimaryIndex, List<DataAdapter<Object>>>> getIndexAdapterPairs(
+			final QueryOptions sanitizedQueryOptions,
+			final MemoryAdapterStore tempAdapterStore,
+			final Query sanitizedQuery )
+			throws IOException {
+		if (baseOptions.isCostBasedIndexSelection()) {
+			return sanitizedQueryOptions.getAdaptersWithMinimalSetOfIndices(
+					tempAdapterStore,
+					indexMappingStore,
+					indexStore,
+					statisticsStore,
+					sanitizedQuery);
+		}
+		return sanitizedQueryOptions.getAdaptersWithMinimalSetOfIndices(
+				tempAdapterStore,
+				indexMappingStore,
+				indexStore);
+	}
+
+	/**
+	 * @return where distributable filters run within the data store, as
+	 *         reported by {@link #explain(QueryOptions, Query)}, or null if
+	 *         they run on the client
+	 */
+	protected String getServerSideFiltering() {
+		return null;
+	}
+
+	/**
+	 * The executor is shared by all parallel queries on this data store so that
+	 * the number of concurrent index scans is bounded regardless of the number
+	 * of concurrent queries. Its threads exit when idle, so data stores that
+	 * are created per request do not hold on to threads.
+	 */
+	protected synchronized ExecutorService getQueryExecutor() {
+		if (queryExecutor == null) {
+			queryExecutor = ParallelCloseableIterator.createExecutor(
+					baseOptions.getParallelQueryThreads(),
+					"geowave-query-%d");
+		}
+		return queryExecutor;
+	}
+
+	/**
+	 * Publisher producers block while their subscriber's buffer is full, so
+	 * they are not run on the bounded query executor.
+	 */
+	protected synchronized ExecutorService getPublisherExecutor() {
+		if (publisherExecutor == null) {
+			publisherExecutor = CloseableIteratorPublisher.createExecutor("geowave-query-publisher-%d");
+		}
+		return publisherExecutor;
+	}
+
 	@SuppressWarnings("unchecked")
 	protected CloseableIterator<Object> getEntries(
 			final PrimaryIndex index,
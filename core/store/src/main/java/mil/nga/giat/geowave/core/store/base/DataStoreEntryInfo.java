@@ -1,5 +1,6 @@
 package mil.nga.giat.geowave.core.store.base;
 
+import java.util.Arrays;
 import java.util.List;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
@@ -11,7 +12,10 @@ public class DataStoreEntryInfo
 	{
 		private final PersistentValue<T> dataValue;
 		private final byte[] visibility;
-		private final byte[] writtenValue;
+		private byte[] writtenValue;
+		private final byte[] buffer;
+		private final int offset;
+		private final int length;
 
 		public FieldInfo(
 				final PersistentValue<T> dataValue,
@@ -20,6 +24,26 @@ public class DataStoreEntryInfo
 			this.dataValue = dataValue;
 			this.writtenValue = writtenValue;
 			this.visibility = visibility;
+			buffer = null;
+			offset = 0;
+			length = 0;
+		}
+
+		/**
+		 * A field whose written value is a region of a larger buffer, which is
+		 * only copied if the written value is requested
+		 */
+		public FieldInfo(
+				final PersistentValue<T> dataValue,
+				final byte[] buffer,
+				final int offset,
+				final int length,
+				final byte[] visibility ) {
+			this.dataValue = dataValue;
+			this.buffer = buffer;
+			this.visibility = visibility;
+			this.offset = offset;
+			this.length = length;
 		}
 
 		public PersistentValue<T> getDataValue() {
@@ -27,6 +51,12 @@ public class DataStoreEntryInfo
 		}
 
 		public byte[] getWrittenValue() {
+			if ((writtenValue == null) && (buffer != null)) {
+				writtenValue = Arrays.copyOfRange(
+						buffer,
+						offset,
+						offset + length);
+			}
 			return writtenValue;
 		}
 
@@ -0,0 +1,123 @@
+package mil.nga.giat.geowave.core.store.data;
+
+import java.util.Arrays;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
+import mil.nga.giat.geowave.core.store.data.field.FieldReader;
+import mil.nga.giat.geowave.core.store.index.CommonIndexValue;
+
+/**
+ * This is a persistent value that retains the binary form of the value it was
+ * read from, and only deserializes it the first time it is accessed. Rows that
+ * are rejected by a filter, or fields that are never requested, are then never
+ * deserialized. The binary form may be a region of a larger buffer, such as the
+ * value of a row holding several fields, which a {@link BufferedFieldReader}
+ * reads without copying the region.
+ *
+ * @param <T>
+ *            The binding class for this value
+ */
+public class DeferredReadPersistentValue<T> extends
+		PersistentValue<T>
+{
+	private FieldReader<T> reader;
+	private byte[] binaryValue;
+	private final int offset;
+	private final int length;
+	private final byte[] visibility;
+	private T value;
+
+	/**
+	 * @param id
+	 *            the field ID
+	 * @param reader
+	 *            the reader to deserialize the value with
+	 * @param binaryValue
+	 *            the binary value
+	 * @param visibility
+	 *            the visibility to set on a common index value when it is
+	 *            read, or null if the value is not indexed
+	 */
+	public DeferredReadPersistentValue(
+			final ByteArrayId id,
+			final FieldReader<T> reader,
+			final byte[] binaryValue,
+			final byte[] visibility ) {
+		this(
+				id,
+				reader,
+				binaryValue,
+				0,
+				binaryValue.length,
+				visibility);
+	}
+
+	/**
+	 * @param id
+	 *            the field ID
+	 * @param reader
+	 *            the reader to deserialize the value with
+	 * @param buffer
+	 *            the buffer containing the binary value, which must not be
+	 *            modified until the value is read
+	 * @param offset
+	 *            the offset of the binary value within the buffer
+	 * @param length
+	 *            the length of the binary value
+	 * @param visibility
+	 *            the visibility to set on a common index value when it is
+	 *            read, or null if the value is not indexed
+	 */
+	public DeferredReadPersistentValue(
+			final ByteArrayId id,
+			final FieldReader<T> reader,
+			final byte[] buffer,
+			final int offset,
+			final int length,
+			final byte[] visibility ) {
+		super(
+				id,
+				null);
+		this.reader = reader;
+		binaryValue = buffer;
+		this.offset = offset;
+		this.length = length;
+		this.visibility = visibility;
+	}
+
+	/**
+	 * @return whether the value has been deserialized
+	 */
+	public boolean isRead() {
+		return reader == null;
+	}
+
+	@Override
+	public T getValue() {
+		if (reader != null) {
+			if (reader instanceof BufferedFieldReader) {
+				value = ((BufferedFieldReader<T>) reader).readField(
+						binaryValue,
+						offset,
+						length);
+			}
+			else if ((offset == 0) && (length == binaryValue.length)) {
+				value = reader.readField(binaryValue);
+			}
+			else {
+				value = reader.readField(Arrays.copyOfRange(
+						binaryValue,
+						offset,
+						offset + length));
+			}
+			if ((visibility != null) && (value instanceof CommonIndexValue)) {
+				((CommonIndexValue) value).setVisibility(visibility);
+			}
+			// release the binary value, the value itself is retained
+			reader = null;
+			binaryValue = null;
+		}
+		return value;
+	}
+}
@@ -11,7 +11,9 @@ import mil.nga.giat.geowave.core.index.ByteArrayId;
 /**
  * This is a basic mapping of field ID to native field type. "Native" in this
  * sense can be to either the data adapter or the common index, depending on
- * whether it is in the common index or is an extended field.
+ * whether it is in the common index or is an extended field. Values that are
+ * added as a {@link DeferredReadPersistentValue} are only deserialized when
+ * they are first requested.
  * 
  * @param <T>
  *            The most specific generalization for the type for all of the
@@ -20,6 +22,7 @@ import mil.nga.giat.geowave.core.index.ByteArrayId;
 public class PersistentDataset<T>
 {
 	private final Map<ByteArrayId, T> fieldIdToValueMap;
+	private Map<ByteArrayId, DeferredReadPersistentValue<T>> deferredValues = null;
 
 	public PersistentDataset() {
 		fieldIdToValueMap = new HashMap<ByteArrayId, T>();
@@ -44,6 +47,19 @@ public class PersistentDataset<T>
 	 */
 	public void addValue(
 			final PersistentValue<T> value ) {
+		if ((value instanceof DeferredReadPersistentValue) && !((DeferredReadPersistentValue<T>) value).isRead()) {
+			if (deferredValues == null) {
+				deferredValues = new HashMap<ByteArrayId, DeferredReadPersistentValue<T>>();
+			}
+			fieldIdToValueMap.remove(value.getId());
+			deferredValues.put(
+					value.getId(),
+					(DeferredReadPersistentValue<T>) value);
+			return;
+		}
+		if (deferredValues != null) {
+			deferredValues.remove(value.getId());
+		}
 		fieldIdToValueMap.put(
 				value.getId(),
 				value.getValue());
@@ -59,6 +75,16 @@ public class PersistentDataset<T>
 	 */
 	public T getValue(
 			final ByteArrayId fieldId ) {
+		if (deferredValues != null) {
+			final DeferredReadPersistentValue<T> deferredValue = deferredValues.remove(fieldId);
+			if (deferredValue != null) {
+				final T value = deferredValue.getValue();
+				fieldIdToValueMap.put(
+						fieldId,
+						value);
+				return value;
+			}
+		}
 		return fieldIdToValueMap.get(fieldId);
 	}
 
@@ -68,6 +94,7 @@ public class PersistentDataset<T>
 	 * @return all of the value
 	 */
 	public List<PersistentValue<T>> getValues() {
+		readDeferredValues();
 		final List<PersistentValue<T>> values = new ArrayList<PersistentValue<T>>(
 				fieldIdToValueMap.size());
 		for (final Entry<ByteArrayId, T> entry : fieldIdToValueMap.entrySet()) {
@@ -77,4 +104,15 @@ public class PersistentDataset<T>
 		}
 		return values;
 	}
+
+	private void readDeferredValues() {
+		if ((deferredValues != null) && !deferredValues.isEmpty()) {
+			for (final DeferredReadPersistentValue<T> deferredValue : deferredValues.values()) {
+				fieldIdToValueMap.put(
+						deferredValue.getId(),
+						deferredValue.getValue());
+			}
+			deferredValues.clear();
+		}
+	}
 }
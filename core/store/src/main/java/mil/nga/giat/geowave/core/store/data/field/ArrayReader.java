@@ -74,8 +74,10 @@ public class ArrayReader<FieldType> implements
 
 				if ((header & mask) != 0) {
 					if (buff.remaining() > 0) {
-						buff.get(data);
-						result.add(reader.readField(data));
+						result.add(readEntry(
+								buff,
+								bytesPerEntry,
+								data));
 					}
 					else {
 						break;
@@ -112,9 +114,10 @@ public class ArrayReader<FieldType> implements
 		while (buff.remaining() >= 4) {
 			final int size = buff.getInt();
 			if (size > 0) {
-				final byte[] bytes = new byte[size];
-				buff.get(bytes);
-				result.add(reader.readField(bytes));
+				result.add(readEntry(
+						buff,
+						size,
+						null));
 			}
 			else {
 				result.add(null);
@@ -128,6 +131,30 @@ public class ArrayReader<FieldType> implements
 		return result.toArray(resultArray);
 	}
 
+	/**
+	 * Read the next entry, directly from the field's buffer if the reader
+	 * supports it and otherwise by copying it into an array of its own
+	 * 
+	 * @param entryBuffer
+	 *            an array of the entry's length that can be reused, or null
+	 */
+	private FieldType readEntry(
+			final ByteBuffer buff,
+			final int length,
+			final byte[] entryBuffer ) {
+		if (reader instanceof BufferedFieldReader) {
+			final int position = buff.position();
+			buff.position(position + length);
+			return ((BufferedFieldReader<FieldType>) reader).readField(
+					buff.array(),
+					buff.arrayOffset() + position,
+					length);
+		}
+		final byte[] entry = (entryBuffer != null) ? entryBuffer : new byte[length];
+		buff.get(entry);
+		return reader.readField(entry);
+	}
+
 	public static class FixedSizeObjectArrayReader<FieldType> extends
 			ArrayReader<FieldType>
 	{
@@ -55,15 +55,21 @@ abstract public class ArrayWriter<RowType, FieldType> implements
 
 		final byte[][] byteData = getBytes(fieldValue);
 
-		final ByteBuffer buf = ByteBuffer.allocate(5 + (int) Math.ceil(fieldValue.length / 8.0) + getLength(byteData));
+		final ByteBuffer buf = ByteBuffer.allocate(5 + (int) Math.ceil(fieldValue.length / 8.0) + getLength(
+				fieldValue,
+				byteData));
 
 		// this is a header value to indicate how data should be read/written
 		buf.put(Encoding.FIXED_SIZE_ENCODING.getByteEncoding());
 
 		int bytesPerEntry = 0;
-		for (final byte[] bytes : byteData) {
-			if (bytes.length > 0) {
-				bytesPerEntry = bytes.length;
+		for (int i = 0; i < fieldValue.length; i++) {
+			final int length = getLength(
+					fieldValue,
+					byteData,
+					i);
+			if (length > 0) {
+				bytesPerEntry = length;
 			}
 		}
 
@@ -85,7 +91,11 @@ abstract public class ArrayWriter<RowType, FieldType> implements
 					header = header & mask;
 				}
 				else {
-					buf.put(byteData[i + j]);
+					put(
+							buf,
+							fieldValue,
+							byteData,
+							i + j);
 				}
 			}
 
@@ -104,16 +114,23 @@ abstract public class ArrayWriter<RowType, FieldType> implements
 		}
 
 		final byte[][] bytes = getBytes(fieldValue);
-		final ByteBuffer buf = ByteBuffer.allocate(1 + (4 * fieldValue.length) + getLength(bytes));
+		final ByteBuffer buf = ByteBuffer.allocate(1 + (4 * fieldValue.length) + getLength(
+				fieldValue,
+				bytes));
 
 		// this is a header value to indicate how data should be read/written
 		buf.put(Encoding.VARIABLE_SIZE_ENCODING.getByteEncoding());
 
-		for (final byte[] entry : bytes) {
-			buf.putInt(entry.length);
-			if (entry.length > 0) {
-				buf.put(entry);
-			}
+		for (int i = 0; i < fieldValue.length; i++) {
+			buf.putInt(getLength(
+					fieldValue,
+					bytes,
+					i));
+			put(
+					buf,
+					fieldValue,
+					bytes,
+					i);
 		}
 
 		return buf.array();
@@ -133,9 +150,18 @@ abstract public class ArrayWriter<RowType, FieldType> implements
 		return new byte[] {};
 	}
 
+	/**
+	 * Writers that can serialize directly into the array's buffer are not
+	 * asked for a copy of each entry's serialization
+	 * 
+	 * @return the serialization of each entry, or null if the entries are
+	 *         written directly
+	 */
 	private byte[][] getBytes(
 			final FieldType[] fieldData ) {
-
+		if (writer instanceof BufferedFieldWriter) {
+			return null;
+		}
 		final byte[][] bytes = new byte[fieldData.length][];
 		for (int i = 0; i < fieldData.length; i++) {
 			if (fieldData[i] == null) {
@@ -149,14 +175,48 @@ abstract public class ArrayWriter<RowType, FieldType> implements
 	}
 
 	private int getLength(
+			final FieldType[] fieldData,
 			final byte[][] bytes ) {
 		int length = 0;
-		for (final byte[] entry : bytes) {
-			length += entry.length;
+		for (int i = 0; i < fieldData.length; i++) {
+			length += getLength(
+					fieldData,
+					bytes,
+					i);
 		}
 		return length;
 	}
 
+	private int getLength(
+			final FieldType[] fieldData,
+			final byte[][] bytes,
+			final int index ) {
+		if (bytes != null) {
+			return bytes[index].length;
+		}
+		if (fieldData[index] == null) {
+			return 0;
+		}
+		return ((BufferedFieldWriter<RowType, FieldType>) writer).getEncodedLength(fieldData[index]);
+	}
+
+	private void put(
+			final ByteBuffer buf,
+			final FieldType[] fieldData,
+			final byte[][] bytes,
+			final int index ) {
+		if (bytes != null) {
+			buf.put(bytes[index]);
+		}
+		else if (fieldData[index] != null) {
+			final int length = ((BufferedFieldWriter<RowType, FieldType>) writer).writeField(
+					fieldData[index],
+					buf.array(),
+					buf.arrayOffset() + buf.position());
+			buf.position(buf.position() + length);
+		}
+	}
+
 	public static class FixedSizeObjectArrayWriter<RowType, FieldType> extends
 			ArrayWriter<RowType, FieldType>
 	{
@@ -0,0 +1,28 @@
+package mil.nga.giat.geowave.core.store.data.field;
+
+/**
+ * A field reader that can deserialize a field directly from a region of a
+ * larger buffer, so that the bytes of the field do not need to be copied into
+ * their own array first
+ * 
+ * @param <FieldType>
+ */
+public interface BufferedFieldReader<FieldType> extends
+		FieldReader<FieldType>
+{
+	/**
+	 * Deserializes the field from a region of binary data
+	 * 
+	 * @param buffer
+	 *            The buffer containing the binary serialization of the field
+	 * @param offset
+	 *            The offset of the field within the buffer
+	 * @param length
+	 *            The length of the field's serialization
+	 * @return The deserialization of the entry
+	 */
+	public FieldType readField(
+			byte[] buffer,
+			int offset,
+			int length );
+}
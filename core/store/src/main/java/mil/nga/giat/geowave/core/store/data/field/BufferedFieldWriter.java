@@ -0,0 +1,38 @@
+package mil.nga.giat.geowave.core.store.data.field;
+
+/**
+ * A field writer that can serialize a field's value directly into a region of
+ * a larger buffer, so that the buffer can be reused across fields and rows
+ * 
+ * @param <RowType>
+ * @param <FieldType>
+ */
+public interface BufferedFieldWriter<RowType, FieldType> extends
+		FieldWriter<RowType, FieldType>
+{
+	/**
+	 * @param fieldValue
+	 *            The data object to serialize
+	 * @return The number of bytes of the binary serialization of the data
+	 *         object
+	 */
+	public int getEncodedLength(
+			FieldType fieldValue );
+
+	/**
+	 * Serializes the entry into a buffer, which must have at least the encoded
+	 * length of the entry remaining after the offset
+	 * 
+	 * @param fieldValue
+	 *            The data object to serialize
+	 * @param buffer
+	 *            The buffer to serialize the data object into
+	 * @param offset
+	 *            The offset within the buffer to write the serialization
+	 * @return The number of bytes written
+	 */
+	public int writeField(
+			FieldType fieldValue,
+			byte[] buffer,
+			int offset );
+}
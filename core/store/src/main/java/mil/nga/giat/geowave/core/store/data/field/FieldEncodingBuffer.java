@@ -0,0 +1,136 @@
+package mil.nga.giat.geowave.core.store.data.field;
+
+import java.util.Arrays;
+
+import mil.nga.giat.geowave.core.store.data.field.base.BigEndianUtils;
+
+/**
+ * A growable output buffer that fields can be serialized into one after
+ * another. The buffer is meant to be reset and reused for each row, so that
+ * its backing array is only reallocated when a row is larger than any before
+ * it.
+ */
+public class FieldEncodingBuffer
+{
+	private byte[] buffer;
+	private int length = 0;
+
+	public FieldEncodingBuffer() {
+		this(
+				256);
+	}
+
+	public FieldEncodingBuffer(
+			final int initialCapacity ) {
+		buffer = new byte[Math.max(
+				1,
+				initialCapacity)];
+	}
+
+	/**
+	 * Serialize a field's value to the end of the buffer
+	 * 
+	 * @param writer
+	 *            the writer for the field
+	 * @param fieldValue
+	 *            the value of the field
+	 * @return the offset of the field's serialization within the buffer
+	 */
+	public <FieldType> int write(
+			final FieldWriter<?, FieldType> writer,
+			final FieldType fieldValue ) {
+		final int offset = length;
+		if (writer instanceof BufferedFieldWriter) {
+			final BufferedFieldWriter<?, FieldType> bufferedWriter = (BufferedFieldWriter<?, FieldType>) writer;
+			ensureCapacity(bufferedWriter.getEncodedLength(fieldValue));
+			length += bufferedWriter.writeField(
+					fieldValue,
+					buffer,
+					offset);
+		}
+		else {
+			write(writer.writeField(fieldValue));
+		}
+		return offset;
+	}
+
+	/**
+	 * Append binary data to the end of the buffer
+	 * 
+	 * @param bytes
+	 *            the data
+	 * @return the offset of the data within the buffer
+	 */
+	public int write(
+			final byte[] bytes ) {
+		final int offset = length;
+		ensureCapacity(bytes.length);
+		System.arraycopy(
+				bytes,
+				0,
+				buffer,
+				offset,
+				bytes.length);
+		length += bytes.length;
+		return offset;
+	}
+
+	/**
+	 * Append an int in big-endian byte order to the end of the buffer
+	 * 
+	 * @param value
+	 *            the value
+	 * @return the offset of the value within the buffer
+	 */
+	public int writeInt(
+			final int value ) {
+		final int offset = length;
+		ensureCapacity(4);
+		BigEndianUtils.putInt(
+				buffer,
+				offset,
+				value);
+		length += 4;
+		return offset;
+	}
+
+	/**
+	 * Discard the contents of the buffer while retaining its capacity
+	 */
+	public void reset() {
+		length = 0;
+	}
+
+	/**
+	 * @return the backing array, only valid up to the length of the buffer and
+	 *         until the buffer is next written to
+	 */
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	/**
+	 * @return a copy of the contents of the buffer
+	 */
+	public byte[] toByteArray() {
+		return Arrays.copyOf(
+				buffer,
+				length);
+	}
+
+	private void ensureCapacity(
+			final int additionalLength ) {
+		final int required = length + additionalLength;
+		if (required > buffer.length) {
+			buffer = Arrays.copyOf(
+					buffer,
+					Math.max(
+							required,
+							buffer.length * 2));
+		}
+	}
+}
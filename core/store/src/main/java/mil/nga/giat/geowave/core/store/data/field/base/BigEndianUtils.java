@@ -0,0 +1,63 @@
+package mil.nga.giat.geowave.core.store.data.field.base;
+
+/**
+ * Reads and writes primitives in big-endian byte order, the order used by
+ * ByteBuffer and therefore by all of the base field serializations, directly
+ * on byte arrays so that no buffer is allocated per value
+ */
+public class BigEndianUtils
+{
+	public static short getShort(
+			final byte[] buffer,
+			final int offset ) {
+		return (short) (((buffer[offset] & 0xFF) << 8) | (buffer[offset + 1] & 0xFF));
+	}
+
+	public static void putShort(
+			final byte[] buffer,
+			final int offset,
+			final short value ) {
+		buffer[offset] = (byte) (value >>> 8);
+		buffer[offset + 1] = (byte) value;
+	}
+
+	public static int getInt(
+			final byte[] buffer,
+			final int offset ) {
+		return ((buffer[offset] & 0xFF) << 24) | ((buffer[offset + 1] & 0xFF) << 16) | ((buffer[offset + 2] & 0xFF) << 8) | (buffer[offset + 3] & 0xFF);
+	}
+
+	public static void putInt(
+			final byte[] buffer,
+			final int offset,
+			final int value ) {
+		buffer[offset] = (byte) (value >>> 24);
+		buffer[offset + 1] = (byte) (value >>> 16);
+		buffer[offset + 2] = (byte) (value >>> 8);
+		buffer[offset + 3] = (byte) value;
+	}
+
+	public static long getLong(
+			final byte[] buffer,
+			final int offset ) {
+		return ((getInt(
+				buffer,
+				offset) & 0xFFFFFFFFL) << 32) | (getInt(
+				buffer,
+				offset + 4) & 0xFFFFFFFFL);
+	}
+
+	public static void putLong(
+			final byte[] buffer,
+			final int offset,
+			final long value ) {
+		putInt(
+				buffer,
+				offset,
+				(int) (value >>> 32));
+		putInt(
+				buffer,
+				offset + 4,
+				(int) value);
+	}
+}
@@ -1,6 +1,7 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
@@ -21,7 +22,7 @@ public class BooleanSerializationProvider implements
 	}
 
 	private static class BooleanReader implements
-			FieldReader<Boolean>
+			BufferedFieldReader<Boolean>
 	{
 		@SuppressFBWarnings(value = {
 			"NP_BOOLEAN_RETURN_NULL"
@@ -34,6 +35,20 @@ public class BooleanSerializationProvider implements
 			}
 			return fieldData[0] > 0;
 		}
+
+		@SuppressFBWarnings(value = {
+			"NP_BOOLEAN_RETURN_NULL"
+		}, justification = "matches pattern of other read* methods")
+		@Override
+		public Boolean readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 1) {
+				return null;
+			}
+			return buffer[offset] > 0;
+		}
 	}
 
 	private static class BooleanWriter implements
@@ -1,6 +1,7 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
@@ -19,7 +20,7 @@ public class ByteSerializationProvider implements
 	}
 
 	private static class ByteReader implements
-			FieldReader<Byte>
+			BufferedFieldReader<Byte>
 	{
 		@Override
 		public Byte readField(
@@ -29,6 +30,17 @@ public class ByteSerializationProvider implements
 			}
 			return fieldData[0];
 		}
+
+		@Override
+		public Byte readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 1) {
+				return null;
+			}
+			return buffer[offset];
+		}
 	}
 
 	public static class ByteWriter implements
@@ -1,8 +1,8 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
-import java.nio.ByteBuffer;
-
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldWriter;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
@@ -10,6 +10,7 @@ import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
 public class DoubleSerializationProvider implements
 		FieldSerializationProviderSpi<Double>
 {
+
 	@Override
 	public FieldReader<Double> getFieldReader() {
 		return new DoubleReader();
@@ -20,22 +21,48 @@ public class DoubleSerializationProvider implements
 		return new DoubleWriter();
 	}
 
-	protected static class DoubleReader implements
-			FieldReader<Double>
+	public static class DoubleReader implements
+			BufferedFieldReader<Double>
 	{
 		@Override
 		public Double readField(
 				final byte[] fieldData ) {
-			if ((fieldData == null) || (fieldData.length < 8)) {
+			if (fieldData == null) {
+				return null;
+			}
+			return readField(
+					fieldData,
+					0,
+					fieldData.length);
+		}
+
+		@Override
+		public Double readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 8) {
 				return null;
 			}
-			return ByteBuffer.wrap(
-					fieldData).getDouble();
+			return readDouble(
+					buffer,
+					offset);
+		}
+
+		/**
+		 * Reads the value without boxing it
+		 */
+		public double readDouble(
+				final byte[] buffer,
+				final int offset ) {
+			return Double.longBitsToDouble(BigEndianUtils.getLong(
+					buffer,
+					offset));
 		}
 	}
 
-	protected static class DoubleWriter implements
-			FieldWriter<Object, Double>
+	public static class DoubleWriter implements
+			BufferedFieldWriter<Object, Double>
 	{
 		@Override
 		public byte[] writeField(
@@ -43,10 +70,48 @@ public class DoubleSerializationProvider implements
 			if (fieldValue == null) {
 				return new byte[] {};
 			}
+			final byte[] bytes = new byte[8];
+			writeDouble(
+					fieldValue,
+					bytes,
+					0);
+			return bytes;
+		}
+
+		@Override
+		public int getEncodedLength(
+				final Double fieldValue ) {
+			return (fieldValue == null) ? 0 : 8;
+		}
+
+		@Override
+		public int writeField(
+				final Double fieldValue,
+				final byte[] buffer,
+				final int offset ) {
+			if (fieldValue == null) {
+				return 0;
+			}
+			return writeDouble(
+					fieldValue,
+					buffer,
+					offset);
+		}
 
-			final ByteBuffer buf = ByteBuffer.allocate(8);
-			buf.putDouble(fieldValue);
-			return buf.array();
+		/**
+		 * Writes the value without boxing it
+		 * 
+		 * @return the number of bytes written
+		 */
+		public int writeDouble(
+				final double value,
+				final byte[] buffer,
+				final int offset ) {
+			BigEndianUtils.putLong(
+					buffer,
+					offset,
+					Double.doubleToLongBits(value));
+			return 8;
 		}
 
 		@Override
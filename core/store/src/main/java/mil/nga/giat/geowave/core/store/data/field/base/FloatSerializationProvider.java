@@ -1,8 +1,8 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
-import java.nio.ByteBuffer;
-
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldWriter;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
@@ -10,6 +10,7 @@ import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
 public class FloatSerializationProvider implements
 		FieldSerializationProviderSpi<Float>
 {
+
 	@Override
 	public FieldReader<Float> getFieldReader() {
 		return new FloatReader();
@@ -20,22 +21,48 @@ public class FloatSerializationProvider implements
 		return new FloatWriter();
 	}
 
-	protected static class FloatReader implements
-			FieldReader<Float>
+	public static class FloatReader implements
+			BufferedFieldReader<Float>
 	{
 		@Override
 		public Float readField(
 				final byte[] fieldData ) {
-			if ((fieldData == null) || (fieldData.length < 4)) {
+			if (fieldData == null) {
 				return null;
 			}
-			return ByteBuffer.wrap(
-					fieldData).getFloat();
+			return readField(
+					fieldData,
+					0,
+					fieldData.length);
+		}
+
+		@Override
+		public Float readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 4) {
+				return null;
+			}
+			return readFloat(
+					buffer,
+					offset);
+		}
+
+		/**
+		 * Reads the value without boxing it
+		 */
+		public float readFloat(
+				final byte[] buffer,
+				final int offset ) {
+			return Float.intBitsToFloat(BigEndianUtils.getInt(
+					buffer,
+					offset));
 		}
 	}
 
-	protected static class FloatWriter implements
-			FieldWriter<Object, Float>
+	public static class FloatWriter implements
+			BufferedFieldWriter<Object, Float>
 	{
 		@Override
 		public byte[] writeField(
@@ -43,9 +70,48 @@ public class FloatSerializationProvider implements
 			if (fieldValue == null) {
 				return new byte[] {};
 			}
-			final ByteBuffer buf = ByteBuffer.allocate(4);
-			buf.putFloat(fieldValue);
-			return buf.array();
+			final byte[] bytes = new byte[4];
+			writeFloat(
+					fieldValue,
+					bytes,
+					0);
+			return bytes;
+		}
+
+		@Override
+		public int getEncodedLength(
+				final Float fieldValue ) {
+			return (fieldValue == null) ? 0 : 4;
+		}
+
+		@Override
+		public int writeField(
+				final Float fieldValue,
+				final byte[] buffer,
+				final int offset ) {
+			if (fieldValue == null) {
+				return 0;
+			}
+			return writeFloat(
+					fieldValue,
+					buffer,
+					offset);
+		}
+
+		/**
+		 * Writes the value without boxing it
+		 * 
+		 * @return the number of bytes written
+		 */
+		public int writeFloat(
+				final float value,
+				final byte[] buffer,
+				final int offset ) {
+			BigEndianUtils.putInt(
+					buffer,
+					offset,
+					Float.floatToIntBits(value));
+			return 4;
 		}
 
 		@Override
@@ -56,5 +122,4 @@ public class FloatSerializationProvider implements
 			return new byte[] {};
 		}
 	}
-
 }
@@ -1,8 +1,8 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
-import java.nio.ByteBuffer;
-
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldWriter;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
@@ -21,23 +21,48 @@ public class IntegerSerializationProvider implements
 		return new IntegerWriter();
 	}
 
-	protected static class IntegerReader implements
-			FieldReader<Integer>
+	public static class IntegerReader implements
+			BufferedFieldReader<Integer>
 	{
 		@Override
 		public Integer readField(
 				final byte[] fieldData ) {
-			if ((fieldData == null) || (fieldData.length < 4)) {
+			if (fieldData == null) {
 				return null;
 			}
-			return ByteBuffer.wrap(
-					fieldData).getInt();
+			return readField(
+					fieldData,
+					0,
+					fieldData.length);
 		}
 
+		@Override
+		public Integer readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 4) {
+				return null;
+			}
+			return readInt(
+					buffer,
+					offset);
+		}
+
+		/**
+		 * Reads the value without boxing it
+		 */
+		public int readInt(
+				final byte[] buffer,
+				final int offset ) {
+			return BigEndianUtils.getInt(
+					buffer,
+					offset);
+		}
 	}
 
-	protected static class IntegerWriter implements
-			FieldWriter<Object, Integer>
+	public static class IntegerWriter implements
+			BufferedFieldWriter<Object, Integer>
 	{
 		@Override
 		public byte[] writeField(
@@ -45,10 +70,48 @@ public class IntegerSerializationProvider implements
 			if (fieldValue == null) {
 				return new byte[] {};
 			}
+			final byte[] bytes = new byte[4];
+			writeInt(
+					fieldValue,
+					bytes,
+					0);
+			return bytes;
+		}
+
+		@Override
+		public int getEncodedLength(
+				final Integer fieldValue ) {
+			return (fieldValue == null) ? 0 : 4;
+		}
+
+		@Override
+		public int writeField(
+				final Integer fieldValue,
+				final byte[] buffer,
+				final int offset ) {
+			if (fieldValue == null) {
+				return 0;
+			}
+			return writeInt(
+					fieldValue,
+					buffer,
+					offset);
+		}
 
-			final ByteBuffer buf = ByteBuffer.allocate(4);
-			buf.putInt(fieldValue);
-			return buf.array();
+		/**
+		 * Writes the value without boxing it
+		 * 
+		 * @return the number of bytes written
+		 */
+		public int writeInt(
+				final int value,
+				final byte[] buffer,
+				final int offset ) {
+			BigEndianUtils.putInt(
+					buffer,
+					offset,
+					value);
+			return 4;
 		}
 
 		@Override
@@ -1,8 +1,8 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
-import java.nio.ByteBuffer;
-
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldWriter;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
@@ -10,6 +10,7 @@ import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
 public class LongSerializationProvider implements
 		FieldSerializationProviderSpi<Long>
 {
+
 	@Override
 	public FieldReader<Long> getFieldReader() {
 		return new LongReader();
@@ -20,37 +21,97 @@ public class LongSerializationProvider implements
 		return new LongWriter();
 	}
 
-	protected static class LongReader implements
-			FieldReader<Long>
+	public static class LongReader implements
+			BufferedFieldReader<Long>
 	{
 		@Override
 		public Long readField(
 				final byte[] fieldData ) {
-			if ((fieldData == null) || (fieldData.length < 8)) {
+			if (fieldData == null) {
 				return null;
 			}
-			return ByteBuffer.wrap(
-					fieldData).getLong();
+			return readField(
+					fieldData,
+					0,
+					fieldData.length);
 		}
-	}
 
-	protected static class LongWriter implements
-			FieldWriter<Object, Long>
-	{
-		public LongWriter() {
-			super();
+		@Override
+		public Long readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 8) {
+				return null;
+			}
+			return readLong(
+					buffer,
+					offset);
+		}
+
+		/**
+		 * Reads the value without boxing it
+		 */
+		public long readLong(
+				final byte[] buffer,
+				final int offset ) {
+			return BigEndianUtils.getLong(
+					buffer,
+					offset);
 		}
+	}
 
+	public static class LongWriter implements
+			BufferedFieldWriter<Object, Long>
+	{
 		@Override
 		public byte[] writeField(
 				final Long fieldValue ) {
 			if (fieldValue == null) {
 				return new byte[] {};
 			}
+			final byte[] bytes = new byte[8];
+			writeLong(
+					fieldValue,
+					bytes,
+					0);
+			return bytes;
+		}
 
-			final ByteBuffer buf = ByteBuffer.allocate(8);
-			buf.putLong(fieldValue);
-			return buf.array();
+		@Override
+		public int getEncodedLength(
+				final Long fieldValue ) {
+			return (fieldValue == null) ? 0 : 8;
+		}
+
+		@Override
+		public int writeField(
+				final Long fieldValue,
+				final byte[] buffer,
+				final int offset ) {
+			if (fieldValue == null) {
+				return 0;
+			}
+			return writeLong(
+					fieldValue,
+					buffer,
+					offset);
+		}
+
+		/**
+		 * Writes the value without boxing it
+		 * 
+		 * @return the number of bytes written
+		 */
+		public int writeLong(
+				final long value,
+				final byte[] buffer,
+				final int offset ) {
+			BigEndianUtils.putLong(
+					buffer,
+					offset,
+					value);
+			return 8;
 		}
 
 		@Override
@@ -61,5 +122,4 @@ public class LongSerializationProvider implements
 			return new byte[] {};
 		}
 	}
-
 }
@@ -3,6 +3,8 @@ package mil.nga.giat.geowave.core.store.data.field.base;
 import java.util.Arrays;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldWriter;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
@@ -21,7 +23,7 @@ public class PrimitiveByteArraySerializationProvider implements
 	}
 
 	private static class PrimitiveByteArrayReader implements
-			FieldReader<byte[]>
+			BufferedFieldReader<byte[]>
 	{
 		@Override
 		public byte[] readField(
@@ -33,10 +35,24 @@ public class PrimitiveByteArraySerializationProvider implements
 					fieldData,
 					fieldData.length);
 		}
+
+		@Override
+		public byte[] readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 1) {
+				return null;
+			}
+			return Arrays.copyOfRange(
+					buffer,
+					offset,
+					offset + length);
+		}
 	}
 
 	private static class PrimitiveByteArrayWriter implements
-			FieldWriter<Object, byte[]>
+			BufferedFieldWriter<Object, byte[]>
 	{
 		@Override
 		public byte[] writeField(
@@ -47,6 +63,29 @@ public class PrimitiveByteArraySerializationProvider implements
 			return fieldValue;
 		}
 
+		@Override
+		public int getEncodedLength(
+				final byte[] fieldValue ) {
+			return (fieldValue == null) ? 0 : fieldValue.length;
+		}
+
+		@Override
+		public int writeField(
+				final byte[] fieldValue,
+				final byte[] buffer,
+				final int offset ) {
+			if (fieldValue == null) {
+				return 0;
+			}
+			System.arraycopy(
+					fieldValue,
+					0,
+					buffer,
+					offset,
+					fieldValue.length);
+			return fieldValue.length;
+		}
+
 		@Override
 		public byte[] getVisibility(
 				final Object rowValue,
@@ -1,12 +1,13 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
-import java.nio.ByteBuffer;
-import java.nio.DoubleBuffer;
-
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldWriter;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
+import mil.nga.giat.geowave.core.store.data.field.base.DoubleSerializationProvider.DoubleReader;
+import mil.nga.giat.geowave.core.store.data.field.base.DoubleSerializationProvider.DoubleWriter;
 
 public class PrimitiveDoubleArraySerializationProvider implements
 		FieldSerializationProviderSpi<double[]>
@@ -21,38 +22,107 @@ public class PrimitiveDoubleArraySerializationProvider implements
 		return new PrimitiveDoubleArrayWriter();
 	}
 
-	private static class PrimitiveDoubleArrayReader implements
-			FieldReader<double[]>
+	public static class PrimitiveDoubleArrayReader implements
+			BufferedFieldReader<double[]>
 	{
+		private final DoubleReader reader = new DoubleReader();
 
 		@Override
 		public double[] readField(
 				final byte[] fieldData ) {
-			if ((fieldData == null) || (fieldData.length < 8)) {
+			if (fieldData == null) {
+				return null;
+			}
+			return readField(
+					fieldData,
+					0,
+					fieldData.length);
+		}
+
+		@Override
+		public double[] readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 8) {
 				return null;
 			}
-			final DoubleBuffer buff = ByteBuffer.wrap(
-					fieldData).asDoubleBuffer();
-			final double[] result = new double[buff.remaining()];
-			buff.get(result);
+			final double[] result = new double[length / 8];
+			readDoubles(
+					buffer,
+					offset,
+					length,
+					result,
+					0);
 			return result;
 		}
+
+		/**
+		 * Reads the values into a primitive array, which can be reused across
+		 * fields
+		 * 
+		 * @param sink
+		 *            the array to read the values into, which must have room
+		 *            for length / 8 values after the sink offset
+		 * @return the number of values read
+		 */
+		public int readDoubles(
+				final byte[] buffer,
+				final int offset,
+				final int length,
+				final double[] sink,
+				final int sinkOffset ) {
+			final int count = length / 8;
+			for (int i = 0; i < count; i++) {
+				sink[sinkOffset + i] = reader.readDouble(
+						buffer,
+						offset + (i * 8));
+			}
+			return count;
+		}
 	}
 
-	private static class PrimitiveDoubleArrayWriter implements
-			FieldWriter<Object, double[]>
+	public static class PrimitiveDoubleArrayWriter implements
+			BufferedFieldWriter<Object, double[]>
 	{
+		private final DoubleWriter writer = new DoubleWriter();
+
 		@Override
 		public byte[] writeField(
 				final double[] fieldValue ) {
 			if (fieldValue == null) {
 				return new byte[] {};
 			}
-			final ByteBuffer buf = ByteBuffer.allocate(8 * fieldValue.length);
+			final byte[] bytes = new byte[getEncodedLength(fieldValue)];
+			writeField(
+					fieldValue,
+					bytes,
+					0);
+			return bytes;
+		}
+
+		@Override
+		public int getEncodedLength(
+				final double[] fieldValue ) {
+			return (fieldValue == null) ? 0 : 8 * fieldValue.length;
+		}
+
+		@Override
+		public int writeField(
+				final double[] fieldValue,
+				final byte[] buffer,
+				final int offset ) {
+			if (fieldValue == null) {
+				return 0;
+			}
+			int position = offset;
 			for (final double value : fieldValue) {
-				buf.putDouble(value);
+				position += writer.writeDouble(
+						value,
+						buffer,
+						position);
 			}
-			return buf.array();
+			return position - offset;
 		}
 
 		@Override
@@ -1,12 +1,13 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
-import java.nio.ByteBuffer;
-import java.nio.FloatBuffer;
-
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldWriter;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
+import mil.nga.giat.geowave.core.store.data.field.base.FloatSerializationProvider.FloatReader;
+import mil.nga.giat.geowave.core.store.data.field.base.FloatSerializationProvider.FloatWriter;
 
 public class PrimitiveFloatArraySerializationProvider implements
 		FieldSerializationProviderSpi<float[]>
@@ -21,37 +22,107 @@ public class PrimitiveFloatArraySerializationProvider implements
 		return new PrimitiveFloatArrayWriter();
 	}
 
-	private static class PrimitiveFloatArrayReader implements
-			FieldReader<float[]>
+	public static class PrimitiveFloatArrayReader implements
+			BufferedFieldReader<float[]>
 	{
+		private final FloatReader reader = new FloatReader();
+
 		@Override
 		public float[] readField(
 				final byte[] fieldData ) {
-			if ((fieldData == null) || (fieldData.length < 4)) {
+			if (fieldData == null) {
 				return null;
 			}
-			final FloatBuffer buff = ByteBuffer.wrap(
-					fieldData).asFloatBuffer();
-			final float[] result = new float[buff.remaining()];
-			buff.get(result);
+			return readField(
+					fieldData,
+					0,
+					fieldData.length);
+		}
+
+		@Override
+		public float[] readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 4) {
+				return null;
+			}
+			final float[] result = new float[length / 4];
+			readFloats(
+					buffer,
+					offset,
+					length,
+					result,
+					0);
 			return result;
 		}
+
+		/**
+		 * Reads the values into a primitive array, which can be reused across
+		 * fields
+		 * 
+		 * @param sink
+		 *            the array to read the values into, which must have room
+		 *            for length / 4 values after the sink offset
+		 * @return the number of values read
+		 */
+		public int readFloats(
+				final byte[] buffer,
+				final int offset,
+				final int length,
+				final float[] sink,
+				final int sinkOffset ) {
+			final int count = length / 4;
+			for (int i = 0; i < count; i++) {
+				sink[sinkOffset + i] = reader.readFloat(
+						buffer,
+						offset + (i * 4));
+			}
+			return count;
+		}
 	}
 
-	private static class PrimitiveFloatArrayWriter implements
-			FieldWriter<Object, float[]>
+	public static class PrimitiveFloatArrayWriter implements
+			BufferedFieldWriter<Object, float[]>
 	{
+		private final FloatWriter writer = new FloatWriter();
+
 		@Override
 		public byte[] writeField(
 				final float[] fieldValue ) {
 			if (fieldValue == null) {
 				return new byte[] {};
 			}
-			final ByteBuffer buf = ByteBuffer.allocate(4 * fieldValue.length);
+			final byte[] bytes = new byte[getEncodedLength(fieldValue)];
+			writeField(
+					fieldValue,
+					bytes,
+					0);
+			return bytes;
+		}
+
+		@Override
+		public int getEncodedLength(
+				final float[] fieldValue ) {
+			return (fieldValue == null) ? 0 : 4 * fieldValue.length;
+		}
+
+		@Override
+		public int writeField(
+				final float[] fieldValue,
+				final byte[] buffer,
+				final int offset ) {
+			if (fieldValue == null) {
+				return 0;
+			}
+			int position = offset;
 			for (final float value : fieldValue) {
-				buf.putFloat(value);
+				position += writer.writeFloat(
+						value,
+						buffer,
+						position);
 			}
-			return buf.array();
+			return position - offset;
 		}
 
 		@Override
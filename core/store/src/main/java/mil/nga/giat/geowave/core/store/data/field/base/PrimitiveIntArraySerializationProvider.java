@@ -1,12 +1,13 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
-import java.nio.ByteBuffer;
-import java.nio.IntBuffer;
-
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldWriter;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
+import mil.nga.giat.geowave.core.store.data.field.base.IntegerSerializationProvider.IntegerReader;
+import mil.nga.giat.geowave.core.store.data.field.base.IntegerSerializationProvider.IntegerWriter;
 
 public class PrimitiveIntArraySerializationProvider implements
 		FieldSerializationProviderSpi<int[]>
@@ -21,37 +22,107 @@ public class PrimitiveIntArraySerializationProvider implements
 		return new PrimitiveIntArrayWriter();
 	}
 
-	private static class PrimitiveIntArrayReader implements
-			FieldReader<int[]>
+	public static class PrimitiveIntArrayReader implements
+			BufferedFieldReader<int[]>
 	{
+		private final IntegerReader reader = new IntegerReader();
+
 		@Override
 		public int[] readField(
 				final byte[] fieldData ) {
-			if ((fieldData == null) || (fieldData.length < 4)) {
+			if (fieldData == null) {
 				return null;
 			}
-			final IntBuffer buff = ByteBuffer.wrap(
-					fieldData).asIntBuffer();
-			final int[] result = new int[buff.remaining()];
-			buff.get(result);
+			return readField(
+					fieldData,
+					0,
+					fieldData.length);
+		}
+
+		@Override
+		public int[] readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 4) {
+				return null;
+			}
+			final int[] result = new int[length / 4];
+			readInts(
+					buffer,
+					offset,
+					length,
+					result,
+					0);
 			return result;
 		}
+
+		/**
+		 * Reads the values into a primitive array, which can be reused across
+		 * fields
+		 * 
+		 * @param sink
+		 *            the array to read the values into, which must have room
+		 *            for length / 4 values after the sink offset
+		 * @return the number of values read
+		 */
+		public int readInts(
+				final byte[] buffer,
+				final int offset,
+				final int length,
+				final int[] sink,
+				final int sinkOffset ) {
+			final int count = length / 4;
+			for (int i = 0; i < count; i++) {
+				sink[sinkOffset + i] = reader.readInt(
+						buffer,
+						offset + (i * 4));
+			}
+			return count;
+		}
 	}
 
-	private static class PrimitiveIntArrayWriter implements
-			FieldWriter<Object, int[]>
+	public static class PrimitiveIntArrayWriter implements
+			BufferedFieldWriter<Object, int[]>
 	{
+		private final IntegerWriter writer = new IntegerWriter();
+
 		@Override
 		public byte[] writeField(
 				final int[] fieldValue ) {
 			if (fieldValue == null) {
 				return new byte[] {};
 			}
-			final ByteBuffer buf = ByteBuffer.allocate(4 * fieldValue.length);
+			final byte[] bytes = new byte[getEncodedLength(fieldValue)];
+			writeField(
+					fieldValue,
+					bytes,
+					0);
+			return bytes;
+		}
+
+		@Override
+		public int getEncodedLength(
+				final int[] fieldValue ) {
+			return (fieldValue == null) ? 0 : 4 * fieldValue.length;
+		}
+
+		@Override
+		public int writeField(
+				final int[] fieldValue,
+				final byte[] buffer,
+				final int offset ) {
+			if (fieldValue == null) {
+				return 0;
+			}
+			int position = offset;
 			for (final int value : fieldValue) {
-				buf.putInt(value);
+				position += writer.writeInt(
+						value,
+						buffer,
+						position);
 			}
-			return buf.array();
+			return position - offset;
 		}
 
 		@Override
@@ -1,12 +1,13 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
-import java.nio.ByteBuffer;
-import java.nio.LongBuffer;
-
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldWriter;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
+import mil.nga.giat.geowave.core.store.data.field.base.LongSerializationProvider.LongReader;
+import mil.nga.giat.geowave.core.store.data.field.base.LongSerializationProvider.LongWriter;
 
 public class PrimitiveLongArraySerializationProvider implements
 		FieldSerializationProviderSpi<long[]>
@@ -21,29 +22,70 @@ public class PrimitiveLongArraySerializationProvider implements
 		return new PrimitiveLongArrayWriter();
 	}
 
-	private static class PrimitiveLongArrayReader implements
-			FieldReader<long[]>
+	public static class PrimitiveLongArrayReader implements
+			BufferedFieldReader<long[]>
 	{
+		private final LongReader reader = new LongReader();
+
 		@Override
 		public long[] readField(
 				final byte[] fieldData ) {
-			if ((fieldData == null) || (fieldData.length < 8)) {
+			if (fieldData == null) {
 				return null;
 			}
-			final LongBuffer buff = ByteBuffer.wrap(
-					fieldData).asLongBuffer();
-			final long[] result = new long[buff.remaining()];
-			buff.get(result);
+			return readField(
+					fieldData,
+					0,
+					fieldData.length);
+		}
+
+		@Override
+		public long[] readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 8) {
+				return null;
+			}
+			final long[] result = new long[length / 8];
+			readLongs(
+					buffer,
+					offset,
+					length,
+					result,
+					0);
 			return result;
 		}
+
+		/**
+		 * Reads the values into a primitive array, which can be reused across
+		 * fields
+		 * 
+		 * @param sink
+		 *            the array to read the values into, which must have room
+		 *            for length / 8 values after the sink offset
+		 * @return the number of values read
+		 */
+		public int readLongs(
+				final byte[] buffer,
+				final int offset,
+				final int length,
+				final long[] sink,
+				final int sinkOffset ) {
+			final int count = length / 8;
+			for (int i = 0; i < count; i++) {
+				sink[sinkOffset + i] = reader.readLong(
+						buffer,
+						offset + (i * 8));
+			}
+			return count;
+		}
 	}
 
-	private static class PrimitiveLongArrayWriter implements
-			FieldWriter<Object, long[]>
+	public static class PrimitiveLongArrayWriter implements
+			BufferedFieldWriter<Object, long[]>
 	{
-		public PrimitiveLongArrayWriter() {
-			super();
-		}
+		private final LongWriter writer = new LongWriter();
 
 		@Override
 		public byte[] writeField(
@@ -51,11 +93,36 @@ public class PrimitiveLongArraySerializationProvider implements
 			if (fieldValue == null) {
 				return new byte[] {};
 			}
-			final ByteBuffer buf = ByteBuffer.allocate(8 * fieldValue.length);
+			final byte[] bytes = new byte[getEncodedLength(fieldValue)];
+			writeField(
+					fieldValue,
+					bytes,
+					0);
+			return bytes;
+		}
+
+		@Override
+		public int getEncodedLength(
+				final long[] fieldValue ) {
+			return (fieldValue == null) ? 0 : 8 * fieldValue.length;
+		}
+
+		@Override
+		public int writeField(
+				final long[] fieldValue,
+				final byte[] buffer,
+				final int offset ) {
+			if (fieldValue == null) {
+				return 0;
+			}
+			int position = offset;
 			for (final long value : fieldValue) {
-				buf.putLong(value);
+				position += writer.writeLong(
+						value,
+						buffer,
+						position);
 			}
-			return buf.array();
+			return position - offset;
 		}
 
 		@Override
@@ -66,5 +133,4 @@ public class PrimitiveLongArraySerializationProvider implements
 			return new byte[] {};
 		}
 	}
-
 }
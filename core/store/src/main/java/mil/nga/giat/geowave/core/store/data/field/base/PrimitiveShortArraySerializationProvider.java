@@ -1,12 +1,13 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
-import java.nio.ByteBuffer;
-import java.nio.ShortBuffer;
-
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldWriter;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
+import mil.nga.giat.geowave.core.store.data.field.base.ShortSerializationProvider.ShortReader;
+import mil.nga.giat.geowave.core.store.data.field.base.ShortSerializationProvider.ShortWriter;
 
 public class PrimitiveShortArraySerializationProvider implements
 		FieldSerializationProviderSpi<short[]>
@@ -21,39 +22,107 @@ public class PrimitiveShortArraySerializationProvider implements
 		return new PrimitiveShortArrayWriter();
 	}
 
-	private static class PrimitiveShortArrayReader implements
-			FieldReader<short[]>
+	public static class PrimitiveShortArrayReader implements
+			BufferedFieldReader<short[]>
 	{
+		private final ShortReader reader = new ShortReader();
 
 		@Override
 		public short[] readField(
 				final byte[] fieldData ) {
-			if ((fieldData == null) || (fieldData.length < 2)) {
+			if (fieldData == null) {
+				return null;
+			}
+			return readField(
+					fieldData,
+					0,
+					fieldData.length);
+		}
+
+		@Override
+		public short[] readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 2) {
 				return null;
 			}
-			final ShortBuffer buff = ByteBuffer.wrap(
-					fieldData).asShortBuffer();
-			final short[] result = new short[buff.remaining()];
-			buff.get(result);
+			final short[] result = new short[length / 2];
+			readShorts(
+					buffer,
+					offset,
+					length,
+					result,
+					0);
 			return result;
 		}
+
+		/**
+		 * Reads the values into a primitive array, which can be reused across
+		 * fields
+		 * 
+		 * @param sink
+		 *            the array to read the values into, which must have room
+		 *            for length / 2 values after the sink offset
+		 * @return the number of values read
+		 */
+		public int readShorts(
+				final byte[] buffer,
+				final int offset,
+				final int length,
+				final short[] sink,
+				final int sinkOffset ) {
+			final int count = length / 2;
+			for (int i = 0; i < count; i++) {
+				sink[sinkOffset + i] = reader.readShort(
+						buffer,
+						offset + (i * 2));
+			}
+			return count;
+		}
 	}
 
-	private static class PrimitiveShortArrayWriter implements
-			FieldWriter<Object, short[]>
+	public static class PrimitiveShortArrayWriter implements
+			BufferedFieldWriter<Object, short[]>
 	{
+		private final ShortWriter writer = new ShortWriter();
+
 		@Override
 		public byte[] writeField(
 				final short[] fieldValue ) {
 			if (fieldValue == null) {
 				return new byte[] {};
 			}
+			final byte[] bytes = new byte[getEncodedLength(fieldValue)];
+			writeField(
+					fieldValue,
+					bytes,
+					0);
+			return bytes;
+		}
+
+		@Override
+		public int getEncodedLength(
+				final short[] fieldValue ) {
+			return (fieldValue == null) ? 0 : 2 * fieldValue.length;
+		}
 
-			final ByteBuffer buf = ByteBuffer.allocate(2 * fieldValue.length);
+		@Override
+		public int writeField(
+				final short[] fieldValue,
+				final byte[] buffer,
+				final int offset ) {
+			if (fieldValue == null) {
+				return 0;
+			}
+			int position = offset;
 			for (final short value : fieldValue) {
-				buf.putShort(value);
+				position += writer.writeShort(
+						value,
+						buffer,
+						position);
 			}
-			return buf.array();
+			return position - offset;
 		}
 
 		@Override
@@ -64,5 +133,4 @@ public class PrimitiveShortArraySerializationProvider implements
 			return new byte[] {};
 		}
 	}
-
 }
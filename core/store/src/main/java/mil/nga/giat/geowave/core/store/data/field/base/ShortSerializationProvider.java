@@ -1,8 +1,8 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
-import java.nio.ByteBuffer;
-
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldWriter;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
@@ -21,22 +21,48 @@ public class ShortSerializationProvider implements
 		return new ShortWriter();
 	}
 
-	protected static class ShortReader implements
-			FieldReader<Short>
+	public static class ShortReader implements
+			BufferedFieldReader<Short>
 	{
 		@Override
 		public Short readField(
 				final byte[] fieldData ) {
-			if ((fieldData == null) || (fieldData.length < 2)) {
+			if (fieldData == null) {
+				return null;
+			}
+			return readField(
+					fieldData,
+					0,
+					fieldData.length);
+		}
+
+		@Override
+		public Short readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 2) {
 				return null;
 			}
-			return ByteBuffer.wrap(
-					fieldData).getShort();
+			return readShort(
+					buffer,
+					offset);
+		}
+
+		/**
+		 * Reads the value without boxing it
+		 */
+		public short readShort(
+				final byte[] buffer,
+				final int offset ) {
+			return BigEndianUtils.getShort(
+					buffer,
+					offset);
 		}
 	}
 
-	protected static class ShortWriter implements
-			FieldWriter<Object, Short>
+	public static class ShortWriter implements
+			BufferedFieldWriter<Object, Short>
 	{
 		@Override
 		public byte[] writeField(
@@ -44,10 +70,48 @@ public class ShortSerializationProvider implements
 			if (fieldValue == null) {
 				return new byte[] {};
 			}
+			final byte[] bytes = new byte[2];
+			writeShort(
+					fieldValue,
+					bytes,
+					0);
+			return bytes;
+		}
+
+		@Override
+		public int getEncodedLength(
+				final Short fieldValue ) {
+			return (fieldValue == null) ? 0 : 2;
+		}
+
+		@Override
+		public int writeField(
+				final Short fieldValue,
+				final byte[] buffer,
+				final int offset ) {
+			if (fieldValue == null) {
+				return 0;
+			}
+			return writeShort(
+					fieldValue,
+					buffer,
+					offset);
+		}
 
-			final ByteBuffer buf = ByteBuffer.allocate(2);
-			buf.putShort(fieldValue);
-			return buf.array();
+		/**
+		 * Writes the value without boxing it
+		 * 
+		 * @return the number of bytes written
+		 */
+		public int writeShort(
+				final short value,
+				final byte[] buffer,
+				final int offset ) {
+			BigEndianUtils.putShort(
+					buffer,
+					offset,
+					value);
+			return 2;
 		}
 
 		@Override
@@ -1,6 +1,7 @@
 package mil.nga.giat.geowave.core.store.data.field.base;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.data.field.BufferedFieldReader;
 import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldSerializationProviderSpi;
@@ -21,7 +22,7 @@ public class StringSerializationProvider implements
 	}
 
 	protected static class StringReader implements
-			FieldReader<String>
+			BufferedFieldReader<String>
 	{
 
 		@Override
@@ -37,6 +38,21 @@ public class StringSerializationProvider implements
 			// fieldData,
 			// StringUtils.UTF8_CHAR_SET);
 		}
+
+		@Override
+		public String readField(
+				final byte[] buffer,
+				final int offset,
+				final int length ) {
+			if (length < 1) {
+				return null;
+			}
+			return new String(
+					buffer,
+					offset,
+					length,
+					StringUtils.GEOWAVE_CHAR_SET);
+		}
 	}
 
 	protected static class StringWriter implements
@@ -1,9 +1,9 @@
 package mil.nga.giat.geowave.core.store.entities;
 
 import java.nio.ByteBuffer;
-import java.util.Arrays;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
 
 /**
  * This class encapsulates the elements that compose the row ID in the
@@ -14,13 +14,16 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
  * unique for an adapter, so the combination of adapter ID and data ID is
  * intended to guarantee uniqueness for this row ID.
  * 
+ * When parsed from a row ID, the individual elements are views over the row
+ * ID's bytes and are only copied if requested as byte arrays.
+ * 
  */
 @SuppressFBWarnings(value = "EI_EXPOSE_REP", justification = "private class only accessed internally")
 public class GeowaveRowId
 {
-	private final byte[] insertionId;
-	private final byte[] dataId;
-	private final byte[] adapterId;
+	private final ByteArrayId insertionId;
+	private final ByteArrayId dataId;
+	private final ByteArrayId adapterId;
 	private final int numberOfDuplicates;
 
 	public GeowaveRowId(
@@ -51,19 +54,19 @@ public class GeowaveRowId
 		final int dataIdLength = metadataBuf.getInt();
 		final int numberOfDuplicates = metadataBuf.getInt();
 
-		final ByteBuffer buf = ByteBuffer.wrap(
+		final int insertionIdLength = length - 12 - adapterIdLength - dataIdLength;
+		insertionId = new ByteArrayId(
 				rowId,
 				offset,
-				length - 12);
-		final byte[] insertionId = new byte[length - 12 - adapterIdLength - dataIdLength];
-		final byte[] adapterId = new byte[adapterIdLength];
-		final byte[] dataId = new byte[dataIdLength];
-		buf.get(insertionId);
-		buf.get(adapterId);
-		buf.get(dataId);
-		this.insertionId = insertionId;
-		this.dataId = dataId;
-		this.adapterId = adapterId;
+				insertionIdLength);
+		adapterId = new ByteArrayId(
+				rowId,
+				offset + insertionIdLength,
+				adapterIdLength);
+		dataId = new ByteArrayId(
+				rowId,
+				offset + insertionIdLength + adapterIdLength,
+				dataIdLength);
 		this.numberOfDuplicates = numberOfDuplicates;
 	}
 
@@ -72,32 +75,63 @@ public class GeowaveRowId
 			final byte[] dataId,
 			final byte[] adapterId,
 			final int numberOfDuplicates ) {
-		this.insertionId = indexId;
-		this.dataId = dataId;
-		this.adapterId = adapterId;
+		this.insertionId = new ByteArrayId(
+				indexId);
+		this.dataId = new ByteArrayId(
+				dataId);
+		this.adapterId = new ByteArrayId(
+				adapterId);
 		this.numberOfDuplicates = numberOfDuplicates;
 	}
 
 	public byte[] getRowId() {
-		final ByteBuffer buf = ByteBuffer.allocate(12 + dataId.length + adapterId.length + insertionId.length);
-		buf.put(insertionId);
-		buf.put(adapterId);
-		buf.put(dataId);
-		buf.putInt(adapterId.length);
-		buf.putInt(dataId.length);
+		final ByteBuffer buf = ByteBuffer.allocate(12 + dataId.getLength() + adapterId.getLength()
+				+ insertionId.getLength());
+		put(
+				buf,
+				insertionId);
+		put(
+				buf,
+				adapterId);
+		put(
+				buf,
+				dataId);
+		buf.putInt(adapterId.getLength());
+		buf.putInt(dataId.getLength());
 		buf.putInt(numberOfDuplicates);
 		return buf.array();
 	}
 
+	private static void put(
+			final ByteBuffer buf,
+			final ByteArrayId id ) {
+		buf.put(
+				id.getBackingArray(),
+				id.getOffset(),
+				id.getLength());
+	}
+
 	public byte[] getInsertionId() {
-		return insertionId;
+		return insertionId.getBytes();
 	}
 
 	public byte[] getDataId() {
-		return dataId;
+		return dataId.getBytes();
 	}
 
 	public byte[] getAdapterId() {
+		return adapterId.getBytes();
+	}
+
+	public ByteArrayId getInsertionByteArrayId() {
+		return insertionId;
+	}
+
+	public ByteArrayId getDataByteArrayId() {
+		return dataId;
+	}
+
+	public ByteArrayId getAdapterByteArrayId() {
 		return adapterId;
 	}
 
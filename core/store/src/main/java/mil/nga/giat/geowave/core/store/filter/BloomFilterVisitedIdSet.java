@@ -0,0 +1,90 @@
+package mil.nga.giat.geowave.core.store.filter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An approximate visited ID set backed by a lock-free Bloom filter. Memory is
+ * fixed up front from the expected number of entries and the desired false
+ * positive probability. A false positive causes a distinct entry to be
+ * filtered as a duplicate, so this is only appropriate for queries that can
+ * tolerate a small error such as counts and rendering. If more entries than
+ * expected are visited, the effective false positive probability increases.
+ */
+public class BloomFilterVisitedIdSet implements
+		VisitedIdSet
+{
+	private final AtomicLongArray bits;
+	private final long numBits;
+	private final int numHashFunctions;
+
+	public BloomFilterVisitedIdSet(
+			final long expectedEntries,
+			final double falsePositiveProbability ) {
+		if ((falsePositiveProbability <= 0) || (falsePositiveProbability >= 1)) {
+			throw new IllegalArgumentException(
+					"False positive probability must be between 0 and 1 exclusive");
+		}
+		final long n = Math.max(
+				1,
+				expectedEntries);
+		final long optimalBits = (long) Math.ceil((-n * Math.log(falsePositiveProbability))
+				/ (Math.log(2) * Math.log(2)));
+		// round up to a whole number of words
+		final long words = Math.max(
+				1,
+				(optimalBits + 63) >>> 6);
+		if (words > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+					"Bloom filter for " + expectedEntries + " entries is too large");
+		}
+		bits = new AtomicLongArray(
+				(int) words);
+		numBits = words << 6;
+		numHashFunctions = Math.max(
+				1,
+				(int) Math.round(((double) numBits / n) * Math.log(2)));
+	}
+
+	@Override
+	public boolean add(
+			final long fingerprint ) {
+		// derive the hash functions from the fingerprint by double hashing
+		final long increment = Long.rotateLeft(
+				fingerprint,
+				32) | 1L;
+		long combinedHash = fingerprint;
+		boolean changed = false;
+		for (int i = 0; i < numHashFunctions; i++) {
+			changed |= set((combinedHash & Long.MAX_VALUE) % numBits);
+			combinedHash += increment;
+		}
+		return changed;
+	}
+
+	private boolean set(
+			final long bitIndex ) {
+		final int word = (int) (bitIndex >>> 6);
+		final long mask = 1L << bitIndex;
+		while (true) {
+			final long current = bits.get(word);
+			if ((current & mask) != 0) {
+				return false;
+			}
+			if (bits.compareAndSet(
+					word,
+					current,
+					current | mask)) {
+				return true;
+			}
+		}
+	}
+
+	public int getNumHashFunctions() {
+		return numHashFunctions;
+	}
+
+	@Override
+	public long getMemoryUsage() {
+		return numBits >>> 3;
+	}
+}
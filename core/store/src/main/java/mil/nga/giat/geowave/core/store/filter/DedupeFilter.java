@@ -1,9 +1,7 @@
 package mil.nga.giat.geowave.core.store.filter;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.data.IndexedPersistenceEncoding;
@@ -12,18 +10,50 @@ import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
 /**
  * This filter will perform de-duplication using the combination of data adapter
  * ID and data ID to determine uniqueness. It can be performed client-side
- * and/or distributed.
- * 
+ * and/or distributed. Rather than retaining every visited ID, a 64-bit
+ * fingerprint of each adapter ID and data ID pair is tracked in a
+ * {@link VisitedIdSet}, either in a hash set whose only errors are fingerprint
+ * collisions or approximately with a Bloom filter.
+ * The visited set is safe for concurrent use so that a single instance can be
+ * shared by scans running in parallel.
+ *
  */
 public class DedupeFilter implements
 		DistributableQueryFilter
 {
-	private final Map<ByteArrayId, Set<ByteArrayId>> adapterIdToVisitedDataIdMap;
+	private static final HashFunction FINGERPRINT_FUNCTION = Hashing.murmur3_128();
+
+	private final VisitedIdSet visitedIds;
 
 	private boolean dedupAcrossIndices = false;
 
 	public DedupeFilter() {
-		adapterIdToVisitedDataIdMap = new HashMap<ByteArrayId, Set<ByteArrayId>>();
+		this(
+				new FingerprintHashSet());
+	}
+
+	/**
+	 * Create an approximate dedupe filter backed by a Bloom filter of fixed
+	 * size. Distinct entries may be dropped as duplicates with the given
+	 * probability.
+	 *
+	 * @param expectedEntries
+	 *            the expected number of duplicated entries to be visited
+	 * @param falsePositiveProbability
+	 *            the probability that a distinct entry is filtered
+	 */
+	public DedupeFilter(
+			final long expectedEntries,
+			final double falsePositiveProbability ) {
+		this(
+				new BloomFilterVisitedIdSet(
+						expectedEntries,
+						falsePositiveProbability));
+	}
+
+	public DedupeFilter(
+			final VisitedIdSet visitedIds ) {
+		this.visitedIds = visitedIds;
 	}
 
 	@Override
@@ -42,20 +72,32 @@ public class DedupeFilter implements
 			// and this is only intended to support a single index
 			return true;
 		}
-		final ByteArrayId adapterId = persistenceEncoding.getAdapterId();
-		final ByteArrayId dataId = persistenceEncoding.getDataId();
-		Set<ByteArrayId> visitedDataIds = adapterIdToVisitedDataIdMap.get(adapterId);
-		if (visitedDataIds == null) {
-			visitedDataIds = new HashSet<ByteArrayId>();
-			adapterIdToVisitedDataIdMap.put(
-					adapterId,
-					visitedDataIds);
-		}
-		else if (visitedDataIds.contains(dataId)) {
-			return false;
-		}
-		visitedDataIds.add(dataId);
-		return true;
+		return visitedIds.add(getFingerprint(
+				persistenceEncoding.getAdapterId(),
+				persistenceEncoding.getDataId()));
+	}
+
+	protected static long getFingerprint(
+			final ByteArrayId adapterId,
+			final ByteArrayId dataId ) {
+		// the length prefix keeps adapter ID and data ID boundaries distinct,
+		// and hashing the backing arrays avoids copying slices
+		return FINGERPRINT_FUNCTION.newHasher().putInt(
+				adapterId.getLength()).putBytes(
+				adapterId.getBackingArray(),
+				adapterId.getOffset(),
+				adapterId.getLength()).putBytes(
+				dataId.getBackingArray(),
+				dataId.getOffset(),
+				dataId.getLength()).hash().asLong();
+	}
+
+	/**
+	 *
+	 * @return the approximate number of bytes used to track visited entries
+	 */
+	public long getMemoryUsage() {
+		return visitedIds.getMemoryUsage();
 	}
 
 	public void setDedupAcrossIndices(
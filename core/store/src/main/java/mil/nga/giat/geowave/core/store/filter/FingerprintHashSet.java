@@ -0,0 +1,127 @@
+package mil.nga.giat.geowave.core.store.filter;
+
+/**
+ * A visited ID set backed by primitive open-addressing hash tables of 64-bit
+ * fingerprints. Compared to a set of ByteArrayId this avoids retaining a copy
+ * of every data ID and the per-entry object overhead. The table is split into
+ * independently locked segments so that concurrent scans rarely contend.
+ *
+ * The set is probabilistic: two distinct IDs whose fingerprints collide are
+ * treated as the same ID. For n distinct IDs the probability of any collision
+ * is about n^2 / 2^65, roughly one in 370,000 for ten million IDs.
+ */
+public class FingerprintHashSet implements
+		VisitedIdSet
+{
+	private static final int DEFAULT_SEGMENT_COUNT = 16;
+	private static final int INITIAL_SEGMENT_CAPACITY = 16;
+	// zero marks an empty slot so a zero fingerprint is remapped
+	private static final long EMPTY = 0L;
+	private static final long ZERO_FINGERPRINT = 0x9E3779B97F4A7C15L;
+
+	private final Segment[] segments;
+	private final int segmentShift;
+
+	public FingerprintHashSet() {
+		this(
+				DEFAULT_SEGMENT_COUNT);
+	}
+
+	public FingerprintHashSet(
+			final int segmentCount ) {
+		final int count = Integer.highestOneBit(Math.max(
+				1,
+				segmentCount));
+		segments = new Segment[count];
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment();
+		}
+		segmentShift = 64 - Integer.numberOfTrailingZeros(count);
+	}
+
+	@Override
+	public boolean add(
+			final long fingerprint ) {
+		final long value = (fingerprint == EMPTY) ? ZERO_FINGERPRINT : fingerprint;
+		// the high bits choose the segment, the low bits the slot within it
+		final int segment = (segments.length == 1) ? 0 : (int) (value >>> segmentShift);
+		return segments[segment].add(value);
+	}
+
+	public long size() {
+		long size = 0;
+		for (final Segment segment : segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	@Override
+	public long getMemoryUsage() {
+		long bytes = 0;
+		for (final Segment segment : segments) {
+			bytes += segment.getMemoryUsage();
+		}
+		return bytes;
+	}
+
+	private static class Segment
+	{
+		private long[] table = new long[INITIAL_SEGMENT_CAPACITY];
+		private int size = 0;
+
+		private synchronized boolean add(
+				final long value ) {
+			if (!insert(
+					table,
+					value)) {
+				return false;
+			}
+			// keep the load factor at or below one half
+			if (++size > (table.length >>> 1)) {
+				final long[] newTable = new long[table.length << 1];
+				for (final long existing : table) {
+					if (existing != EMPTY) {
+						insert(
+								newTable,
+								existing);
+					}
+				}
+				table = newTable;
+			}
+			return true;
+		}
+
+		private synchronized int size() {
+			return size;
+		}
+
+		private synchronized long getMemoryUsage() {
+			return table.length * 8L;
+		}
+
+		private static boolean insert(
+				final long[] table,
+				final long value ) {
+			final int mask = table.length - 1;
+			int slot = mix(value) & mask;
+			while (true) {
+				final long existing = table[slot];
+				if (existing == EMPTY) {
+					table[slot] = value;
+					return true;
+				}
+				if (existing == value) {
+					return false;
+				}
+				slot = (slot + 1) & mask;
+			}
+		}
+
+		private static int mix(
+				final long value ) {
+			final long h = value * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package mil.nga.giat.geowave.core.store.filter;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
+import mil.nga.giat.geowave.core.index.PersistenceUtils;
+import mil.nga.giat.geowave.core.store.data.CommonIndexedPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.data.IndexedPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+
+/**
+ * This filter performs de-duplication without retaining any state, so that it
+ * can run independently within each tablet or region server. An entry that is
+ * duplicated across several insertion IDs is recomputed from its common index
+ * values, the same way it was when it was written, and only the copy stored
+ * under the canonical insertion ID is accepted. The canonical insertion ID is
+ * the lowest of the entry's insertion IDs that is certain to be scanned by the
+ * query's ranges, or the lowest of them all if the query has no ranges.
+ *
+ * If the recomputed insertion IDs don't include the row's own insertion ID, as
+ * is the case for index strategies that are not deterministic, or no insertion
+ * ID is certain to be scanned, every copy is accepted and left to the
+ * client-side {@link DedupeFilter}.
+ *
+ */
+public class InsertionIdDedupeFilter implements
+		DistributableQueryFilter
+{
+	private PrimaryIndex index;
+	private List<ByteArrayRange> ranges;
+
+	protected InsertionIdDedupeFilter() {}
+
+	/**
+	 * @param index
+	 *            the index the entries were written to
+	 * @param ranges
+	 *            the ranges scanned by the query, or null for a full table
+	 *            scan
+	 */
+	public InsertionIdDedupeFilter(
+			final PrimaryIndex index,
+			final List<ByteArrayRange> ranges ) {
+		this.index = index;
+		this.ranges = (ranges == null) ? new ArrayList<ByteArrayRange>() : ranges;
+	}
+
+	@Override
+	public boolean accept(
+			final CommonIndexModel indexModel,
+			final IndexedPersistenceEncoding<?> persistenceEncoding ) {
+		if (!persistenceEncoding.isDeduplicationEnabled() || !persistenceEncoding.isDuplicated()
+				|| !(persistenceEncoding instanceof CommonIndexedPersistenceEncoding)) {
+			return true;
+		}
+		final ByteArrayId insertionId = persistenceEncoding.getIndexInsertionId();
+		if (insertionId == null) {
+			return true;
+		}
+		final List<ByteArrayId> insertionIds = ((CommonIndexedPersistenceEncoding) persistenceEncoding)
+				.getInsertionIds(index);
+		if (!insertionIds.contains(insertionId)) {
+			return true;
+		}
+		final ByteArrayId canonicalId = getCanonicalInsertionId(
+				insertionIds,
+				ranges);
+		return (canonicalId == null) || canonicalId.equals(insertionId);
+	}
+
+	/**
+	 * @param insertionIds
+	 *            all of the insertion IDs of an entry
+	 * @param ranges
+	 *            the ranges scanned, an empty list for a full table scan
+	 * @return the lowest insertion ID that is certain to be scanned, or null if
+	 *         there is none
+	 */
+	protected static ByteArrayId getCanonicalInsertionId(
+			final List<ByteArrayId> insertionIds,
+			final List<ByteArrayRange> ranges ) {
+		ByteArrayId canonicalId = null;
+		for (final ByteArrayId insertionId : insertionIds) {
+			if (((canonicalId == null) || (insertionId.compareTo(canonicalId) < 0)) && isScanned(
+					insertionId,
+					ranges)) {
+				canonicalId = insertionId;
+			}
+		}
+		return canonicalId;
+	}
+
+	/**
+	 * Ranges are scanned from their start up to every row prefixed by their
+	 * end. A row key begins with its insertion ID, so every row with the
+	 * insertion ID is scanned if the insertion ID is at least the start, and
+	 * either begins with the end or is less than the end at a byte that
+	 * differs. An insertion ID that is a proper prefix of the end is not
+	 * certain to be scanned.
+	 *
+	 * @param insertionId
+	 *            the insertion ID
+	 * @param ranges
+	 *            the ranges scanned, an empty list for a full table scan
+	 * @return whether every row with the insertion ID is scanned
+	 */
+	protected static boolean isScanned(
+			final ByteArrayId insertionId,
+			final List<ByteArrayRange> ranges ) {
+		if (ranges.isEmpty()) {
+			return true;
+		}
+		final byte[] id = insertionId.getBytes();
+		for (final ByteArrayRange range : ranges) {
+			if (insertionId.compareTo(range.getStart()) < 0) {
+				continue;
+			}
+			final byte[] end = getEnd(
+					range).getBytes();
+			final int minLength = Math.min(
+					id.length,
+					end.length);
+			boolean scanned = id.length >= end.length;
+			for (int i = 0; i < minLength; i++) {
+				final int a = (id[i] & 0xff);
+				final int b = (end[i] & 0xff);
+				if (a != b) {
+					scanned = a < b;
+					break;
+				}
+			}
+			if (scanned) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static ByteArrayId getEnd(
+			final ByteArrayRange range ) {
+		return range.isSingleValue() ? range.getStart() : range.getEnd();
+	}
+
+	@Override
+	public byte[] toBinary() {
+		final byte[] indexBinary = PersistenceUtils.toBinary(index);
+		int byteBufferLength = 8 + indexBinary.length;
+		for (final ByteArrayRange range : ranges) {
+			byteBufferLength += 8 + range.getStart().getBytes().length + getEnd(
+					range).getBytes().length;
+		}
+		final ByteBuffer buf = ByteBuffer.allocate(byteBufferLength);
+		buf.putInt(indexBinary.length);
+		buf.put(indexBinary);
+		buf.putInt(ranges.size());
+		for (final ByteArrayRange range : ranges) {
+			final byte[] start = range.getStart().getBytes();
+			final byte[] end = getEnd(
+					range).getBytes();
+			buf.putInt(start.length);
+			buf.put(start);
+			buf.putInt(end.length);
+			buf.put(end);
+		}
+		return buf.array();
+	}
+
+	@Override
+	public void fromBinary(
+			final byte[] bytes ) {
+		final ByteBuffer buf = ByteBuffer.wrap(bytes);
+		final byte[] indexBinary = new byte[buf.getInt()];
+		buf.get(indexBinary);
+		index = PersistenceUtils.fromBinary(
+				indexBinary,
+				PrimaryIndex.class);
+		final int numRanges = buf.getInt();
+		ranges = new ArrayList<ByteArrayRange>(
+				numRanges);
+		for (int i = 0; i < numRanges; i++) {
+			final byte[] start = new byte[buf.getInt()];
+			buf.get(start);
+			final byte[] end = new byte[buf.getInt()];
+			buf.get(end);
+			ranges.add(new ByteArrayRange(
+					new ByteArrayId(
+							start),
+					new ByteArrayId(
+							end)));
+		}
+	}
+}
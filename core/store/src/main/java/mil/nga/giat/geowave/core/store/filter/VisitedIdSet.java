@@ -0,0 +1,25 @@
+package mil.nga.giat.geowave.core.store.filter;
+
+/**
+ * A set of fingerprints of the entries that have already been visited by a
+ * query, used by the {@link DedupeFilter}. Implementations must be safe for
+ * concurrent use because a single dedupe filter may be shared by multiple
+ * scans running in parallel.
+ */
+public interface VisitedIdSet
+{
+	/**
+	 * 
+	 * @param fingerprint
+	 *            a 64-bit hash of the entry's adapter ID and data ID
+	 * @return true if the fingerprint was not already visited
+	 */
+	public boolean add(
+			long fingerprint );
+
+	/**
+	 * 
+	 * @return the approximate number of bytes retained by this set
+	 */
+	public long getMemoryUsage();
+}
@@ -3,11 +3,22 @@ package mil.nga.giat.geowave.core.store.index;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.log4j.Logger;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
 import mil.nga.giat.geowave.core.store.DataStoreOperations;
@@ -24,6 +35,15 @@ import mil.nga.giat.geowave.core.store.util.DataStoreUtils;
  * open writer. The first entry that is written will open a writer and it is the
  * responsibility of the caller to close this writer when complete.
  *
+ * If the options enable write encode threads, entries are encoded into
+ * mutations concurrently on a pool of threads owned by this writer, while the
+ * mutations are handed to the underlying writer and the ingest callbacks are
+ * notified in the order the entries were written. No more than the write
+ * encode buffer size of entries are held while they are encoded, so writing
+ * blocks once encoding falls behind. The adapter must be able to encode
+ * entries concurrently to enable this. An entry that fails to encode fails the
+ * write, flush or close that hands it off to the underlying writer.
+ *
  */
 public abstract class DataStoreIndexWriter<T, MutationType> implements
 		IndexWriter<T>
@@ -39,6 +59,9 @@ public abstract class DataStoreIndexWriter<T, MutationType> implements
 	protected final byte[] adapterId;
 	final Closeable closable;
 
+	private final Queue<EncodedEntry> pendingEntries = new ArrayDeque<EncodedEntry>();
+	private ExecutorService encodeExecutor;
+
 	public DataStoreIndexWriter(
 			final DataAdapter<T> adapter,
 			final PrimaryIndex index,
@@ -88,7 +111,11 @@ public abstract class DataStoreIndexWriter<T, MutationType> implements
 	public List<ByteArrayId> write(
 			final T entry,
 			final VisibilityWriter<T> fieldVisibilityWriter ) {
-
+		if (isEncodeConcurrently()) {
+			return writeConcurrently(
+					entry,
+					fieldVisibilityWriter);
+		}
 		DataStoreEntryInfo entryInfo;
 		synchronized (this) {
 
@@ -109,28 +136,167 @@ public abstract class DataStoreIndexWriter<T, MutationType> implements
 		return entryInfo.getRowIds();
 	}
 
+	private boolean isEncodeConcurrently() {
+		return (options != null) && (options.getWriteEncodeThreads() > 0);
+	}
+
+	private List<ByteArrayId> writeConcurrently(
+			final T entry,
+			final VisibilityWriter<T> fieldVisibilityWriter ) {
+		final EncodedEntry encodedEntry = new EncodedEntry(
+				entry,
+				fieldVisibilityWriter);
+		synchronized (this) {
+			ensureOpen();
+			if (writer == null) {
+				return Collections.emptyList();
+			}
+			encodedEntry.future = getEncodeExecutor().submit(
+					encodedEntry);
+			pendingEntries.add(encodedEntry);
+			// hand off the entries that are already encoded, and wait for the
+			// oldest entries while too many are pending
+			while (!pendingEntries.isEmpty() && (pendingEntries.peek().future.isDone() || (pendingEntries.size() > options.getWriteEncodeBufferSize()))) {
+				writeEncodedEntry(pendingEntries.poll());
+			}
+		}
+		return new EncodedRowIds(
+				encodedEntry.future);
+	}
+
+	private synchronized void writePendingEntries() {
+		while (!pendingEntries.isEmpty()) {
+			writeEncodedEntry(pendingEntries.poll());
+		}
+	}
+
+	private void writeEncodedEntry(
+			final EncodedEntry encodedEntry ) {
+		final DataStoreEntryInfo entryInfo = getEncodedEntryInfo(encodedEntry.future);
+		if ((entryInfo == null) || (writer == null)) {
+			return;
+		}
+		writeMutations(encodedEntry.mutations);
+		callback.entryIngested(
+				entryInfo,
+				encodedEntry.entry);
+	}
+
+	private static DataStoreEntryInfo getEncodedEntryInfo(
+			final Future<DataStoreEntryInfo> future ) {
+		try {
+			return future.get();
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			LOGGER.warn(
+					"Interrupted while waiting for an entry to be encoded",
+					e);
+		}
+		catch (final ExecutionException e) {
+			// fail as the entry would have if it was encoded when written
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(
+					"Unable to encode entry",
+					cause);
+		}
+		return null;
+	}
+
+	private synchronized ExecutorService getEncodeExecutor() {
+		if (encodeExecutor == null) {
+			encodeExecutor = Executors.newFixedThreadPool(
+					options.getWriteEncodeThreads(),
+					new ThreadFactoryBuilder().setDaemon(
+							true).setNameFormat(
+							"geowave-write-encode-%d").build());
+		}
+		return encodeExecutor;
+	}
+
 	protected abstract void ensureOpen();
 
-	protected abstract DataStoreEntryInfo getEntryInfo(
+	/**
+	 * Encode an entry into the mutations for this index without writing them.
+	 * This may be called concurrently for different entries, and must not use
+	 * the writer.
+	 *
+	 * @param entry
+	 *            the entry to encode
+	 * @param visibilityWriter
+	 *            the visibility of the fields of the entry
+	 * @param mutations
+	 *            the list to add the mutations of the entry to
+	 * @return the ingest info of the entry, or null if it cannot be written
+	 */
+	protected abstract DataStoreEntryInfo encode(
 			final T entry,
-			final VisibilityWriter<T> visibilityWriter );
+			final VisibilityWriter<T> visibilityWriter,
+			final List<MutationType> mutations );
+
+	/**
+	 * Write the mutations of an entry, this is called in the order that
+	 * entries are written while holding the lock of this index writer
+	 *
+	 * @param mutations
+	 *            the mutations
+	 */
+	protected void writeMutations(
+			final List<MutationType> mutations ) {
+		writer.write(mutations);
+	}
+
+	protected DataStoreEntryInfo getEntryInfo(
+			final T entry,
+			final VisibilityWriter<T> visibilityWriter ) {
+		final List<MutationType> mutations = new ArrayList<MutationType>();
+		final DataStoreEntryInfo entryInfo = encode(
+				entry,
+				visibilityWriter,
+				mutations);
+		if (entryInfo != null) {
+			writeMutations(mutations);
+		}
+		return entryInfo;
+	}
 
 	@Override
 	public void close() {
 		try {
-			closable.close();
+			// the callbacks must be notified of all pending entries before
+			// they are closed
+			writePendingEntries();
 		}
-		catch (final IOException e) {
-			LOGGER.error(
-					"Cannot close callbacks",
-					e);
+		finally {
+			synchronized (this) {
+				if (encodeExecutor != null) {
+					encodeExecutor.shutdownNow();
+					encodeExecutor = null;
+				}
+				pendingEntries.clear();
+			}
+			try {
+				closable.close();
+			}
+			catch (final IOException e) {
+				LOGGER.error(
+						"Cannot close callbacks",
+						e);
+			}
+			// thread safe close
+			closeInternal();
 		}
-		// thread safe close
-		closeInternal();
 	}
 
 	@Override
 	public synchronized void flush() {
+		writePendingEntries();
 		// thread safe flush of the writers
 		if (writer != null) {
 			writer.flush();
@@ -146,4 +312,64 @@ public abstract class DataStoreIndexWriter<T, MutationType> implements
 			}
 		}
 	}
-}
\ No newline at end of file
+
+	private class EncodedEntry implements
+			Callable<DataStoreEntryInfo>
+	{
+		private final T entry;
+		private final VisibilityWriter<T> visibilityWriter;
+		private final List<MutationType> mutations = new ArrayList<MutationType>();
+		private Future<DataStoreEntryInfo> future;
+
+		public EncodedEntry(
+				final T entry,
+				final VisibilityWriter<T> visibilityWriter ) {
+			this.entry = entry;
+			this.visibilityWriter = visibilityWriter;
+		}
+
+		@Override
+		public DataStoreEntryInfo call() {
+			return encode(
+					entry,
+					visibilityWriter,
+					mutations);
+		}
+	}
+
+	/**
+	 * The row IDs of an entry that may still be encoding, callers that do not
+	 * look at the row IDs are not blocked on the encoding of their entry
+	 */
+	private static class EncodedRowIds extends
+			AbstractList<ByteArrayId>
+	{
+		private final Future<DataStoreEntryInfo> future;
+		private List<ByteArrayId> rowIds;
+
+		public EncodedRowIds(
+				final Future<DataStoreEntryInfo> future ) {
+			this.future = future;
+		}
+
+		private synchronized List<ByteArrayId> getRowIds() {
+			if (rowIds == null) {
+				final DataStoreEntryInfo entryInfo = getEncodedEntryInfo(future);
+				rowIds = (entryInfo == null) ? Collections.<ByteArrayId> emptyList() : entryInfo.getRowIds();
+			}
+			return rowIds;
+		}
+
+		@Override
+		public ByteArrayId get(
+				final int index ) {
+			return getRowIds().get(
+					index);
+		}
+
+		@Override
+		public int size() {
+			return getRowIds().size();
+		}
+	}
+}
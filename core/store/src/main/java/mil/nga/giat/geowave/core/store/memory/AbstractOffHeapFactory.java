@@ -0,0 +1,44 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import java.io.File;
+
+import mil.nga.giat.geowave.core.store.GenericFactory;
+import mil.nga.giat.geowave.core.store.StoreFactoryOptions;
+
+abstract public class AbstractOffHeapFactory implements
+		GenericFactory
+{
+	@Override
+	public String getType() {
+		return "offheap";
+	}
+
+	@Override
+	public String getDescription() {
+		return "An embedded GeoWave store that keeps data sorted by index in off-heap, memory-mapped segments";
+	}
+
+	/**
+	 * Return the default options instance. This is actually a method that
+	 * should be implemented by the individual factories, but is placed here
+	 * since it's the same.
+	 * 
+	 * @return
+	 */
+	public StoreFactoryOptions createOptionsInstance() {
+		return new OffHeapRequiredOptions();
+	}
+
+	/**
+	 * The metadata of an off-heap store is kept on-heap in memory stores, the
+	 * namespace is qualified by the directory of the store to keep it separate
+	 * from the metadata of memory stores, and of off-heap stores in other
+	 * directories, with the same namespace.
+	 */
+	protected static String getQualifiedNamespace(
+			final StoreFactoryOptions configOptions ) {
+		return "offheap_" + new File(
+				((OffHeapRequiredOptions) configOptions).getDirectory()).getAbsolutePath() + "_"
+				+ configOptions.getGeowaveNamespace();
+	}
+}
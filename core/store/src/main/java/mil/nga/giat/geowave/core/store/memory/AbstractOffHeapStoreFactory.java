@@ -0,0 +1,9 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import mil.nga.giat.geowave.core.store.GenericStoreFactory;
+
+abstract public class AbstractOffHeapStoreFactory<T> extends
+		AbstractOffHeapFactory implements
+		GenericStoreFactory<T>
+{
+}
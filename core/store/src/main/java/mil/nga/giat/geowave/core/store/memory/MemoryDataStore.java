@@ -3,14 +3,15 @@ package mil.nga.giat.geowave.core.store.memory;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.log4j.Logger;
@@ -18,6 +19,11 @@ import org.apache.log4j.Logger;
 import com.google.common.collect.Iterators;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
+import mil.nga.giat.geowave.core.index.ByteArrayRange.MergeOperation;
+import mil.nga.giat.geowave.core.index.ByteArrayUtils;
+import mil.nga.giat.geowave.core.index.NumericIndexStrategy;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
 import mil.nga.giat.geowave.core.store.AdapterToIndexMapping;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.CloseableIteratorWrapper;
@@ -32,10 +38,10 @@ import mil.nga.giat.geowave.core.store.adapter.WritableDataAdapter;
 import mil.nga.giat.geowave.core.store.adapter.exceptions.MismatchedIndexToAdapterMapping;
 import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
 import mil.nga.giat.geowave.core.store.base.DataStoreCallbackManager;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
 import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
 import mil.nga.giat.geowave.core.store.callback.IngestCallback;
 import mil.nga.giat.geowave.core.store.callback.ScanCallback;
-import mil.nga.giat.geowave.core.store.data.IndexedPersistenceEncoding;
 import mil.nga.giat.geowave.core.store.data.PersistentDataset;
 import mil.nga.giat.geowave.core.store.data.PersistentValue;
 import mil.nga.giat.geowave.core.store.data.VisibilityWriter;
@@ -49,18 +55,30 @@ import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.index.SecondaryIndexDataStore;
 import mil.nga.giat.geowave.core.store.index.writer.IndependentAdapterIndexWriter;
 import mil.nga.giat.geowave.core.store.index.writer.IndexCompositeWriter;
+import mil.nga.giat.geowave.core.store.query.ConstraintsQuery;
+import mil.nga.giat.geowave.core.store.query.EverythingQuery;
+import mil.nga.giat.geowave.core.store.query.IndexQueryCost;
 import mil.nga.giat.geowave.core.store.query.Query;
+import mil.nga.giat.geowave.core.store.query.QueryExplanation;
 import mil.nga.giat.geowave.core.store.query.QueryOptions;
+import mil.nga.giat.geowave.core.store.query.QueryProfile;
 import mil.nga.giat.geowave.core.store.query.aggregate.Aggregation;
 import mil.nga.giat.geowave.core.store.query.aggregate.CommonIndexAggregation;
+import mil.nga.giat.geowave.core.store.query.reactive.CloseableIteratorPublisher;
+import mil.nga.giat.geowave.core.store.query.reactive.QueryPublisher;
 import mil.nga.giat.geowave.core.store.util.DataStoreUtils;
 
+/**
+ * A data store that keeps all rows in memory. The rows of each index are held
+ * in a concurrent skip list sorted by row ID, so writers and readers do not
+ * block each other and queries only scan the ranges of rows that may match the
+ * query's index constraints.
+ */
 public class MemoryDataStore implements
 		DataStore
 {
 	private final static Logger LOGGER = Logger.getLogger(MemoryDataStore.class);
-	private final Map<ByteArrayId, TreeSet<MemoryEntryRow>> storeData = Collections
-			.synchronizedMap(new HashMap<ByteArrayId, TreeSet<MemoryEntryRow>>());
+	private final ConcurrentMap<ByteArrayId, ConcurrentNavigableMap<MemoryEntryRow, MemoryEntryRow>> storeData = new ConcurrentHashMap<ByteArrayId, ConcurrentNavigableMap<MemoryEntryRow, MemoryEntryRow>>();
 	private final AdapterStore adapterStore;
 	private final IndexStore indexStore;
 	private final DataStatisticsStore statsStore;
@@ -158,34 +176,20 @@ public class MemoryDataStore implements
 					customFieldVisibilityWriter);
 		}
 
+		@SuppressWarnings("unchecked")
 		@Override
 		public List<ByteArrayId> write(
 				final T entry,
 				final VisibilityWriter<T> fieldVisibilityWriter ) {
-			final List<ByteArrayId> ids = new ArrayList<ByteArrayId>();
-
-			final IngestCallback<T> callback = callbackCache.getIngestCallback(
-					(WritableDataAdapter) this.adapter,
-					index);
-
-			final List<MemoryEntryRow> rows = MemoryStoreUtils.entryToRows(
-					(WritableDataAdapter) this.adapter,
+			final WritableDataAdapter<T> writableAdapter = (WritableDataAdapter<T>) adapter;
+			return writeRows(
+					writableAdapter,
 					index,
 					entry,
-					callback,
+					callbackCache.getIngestCallback(
+							writableAdapter,
+							index),
 					fieldVisibilityWriter);
-			for (final MemoryEntryRow row : rows) {
-				ids.add(row.getRowId());
-				final TreeSet<MemoryEntryRow> rowTreeSet = getRowsForIndex(index.getId());
-				if (rowTreeSet.contains(row)) {
-					rowTreeSet.remove(row);
-				}
-				if (!rowTreeSet.add(row)) {
-					LOGGER.warn("Unable to add new entry");
-				}
-			}
-
-			return ids;
 		}
 
 		@Override
@@ -209,16 +213,128 @@ public class MemoryDataStore implements
 
 	}
 
-	private TreeSet<MemoryEntryRow> getRowsForIndex(
+	/**
+	 * Write the rows of an entry to an index, replacing any existing rows with
+	 * the same row IDs
+	 *
+	 * @return the row IDs of the entry
+	 */
+	protected <T> List<ByteArrayId> writeRows(
+			final WritableDataAdapter<T> adapter,
+			final PrimaryIndex index,
+			final T entry,
+			final IngestCallback<T> callback,
+			final VisibilityWriter<T> fieldVisibilityWriter ) {
+		final List<ByteArrayId> ids = new ArrayList<ByteArrayId>();
+		final List<MemoryEntryRow> rows = MemoryStoreUtils.entryToRows(
+				adapter,
+				index,
+				entry,
+				callback,
+				fieldVisibilityWriter);
+		final ConcurrentNavigableMap<MemoryEntryRow, MemoryEntryRow> indexRows = getRowsForIndex(index.getId());
+		for (final MemoryEntryRow row : rows) {
+			ids.add(row.getRowId());
+			indexRows.put(
+					row,
+					row);
+		}
+		return ids;
+	}
+
+	private ConcurrentNavigableMap<MemoryEntryRow, MemoryEntryRow> getRowsForIndex(
 			final ByteArrayId id ) {
-		TreeSet<MemoryEntryRow> set = storeData.get(id);
-		if (set == null) {
-			set = new TreeSet<MemoryEntryRow>();
-			storeData.put(
+		ConcurrentNavigableMap<MemoryEntryRow, MemoryEntryRow> rows = storeData.get(id);
+		if (rows == null) {
+			rows = new ConcurrentSkipListMap<MemoryEntryRow, MemoryEntryRow>();
+			final ConcurrentNavigableMap<MemoryEntryRow, MemoryEntryRow> existingRows = storeData.putIfAbsent(
 					id,
-					set);
+					rows);
+			if (existingRows != null) {
+				rows = existingRows;
+			}
 		}
-		return set;
+		return rows;
+	}
+
+	protected static List<ByteArrayRange> getQueryRanges(
+			final PrimaryIndex index,
+			final Query query ) {
+		if (query == null) {
+			return null;
+		}
+		final NumericIndexStrategy indexStrategy = index.getIndexStrategy();
+		final List<MultiDimensionalNumericData> constraints = query.getIndexConstraints(indexStrategy);
+		if ((constraints == null) || constraints.isEmpty()) {
+			return null;
+		}
+		final List<ByteArrayRange> ranges = new ArrayList<ByteArrayRange>();
+		for (final MultiDimensionalNumericData constraint : constraints) {
+			final List<ByteArrayRange> constraintRanges = indexStrategy.getQueryRanges(
+					constraint,
+					ConstraintsQuery.MAX_RANGE_DECOMPOSITION);
+			if ((constraintRanges == null) || constraintRanges.isEmpty()) {
+				// the index strategy cannot narrow down this constraint so
+				// all rows need to be scanned
+				return null;
+			}
+			ranges.addAll(constraintRanges);
+		}
+		return ranges;
+	}
+
+	/**
+	 * Get the rows of an index within the given ranges of insertion IDs. The
+	 * end of each range is inclusive of all insertion IDs that it prefixes.
+	 * The iterator is weakly consistent, reflecting concurrent writes that may
+	 * occur while iterating.
+	 *
+	 * @param rows
+	 *            all rows of the index
+	 * @param ranges
+	 *            the ranges to scan, or null or empty to scan all rows
+	 * @return an iterator over the rows within the ranges in sorted order
+	 */
+	protected static <R extends MemoryEntryRow> Iterator<R> getRowsInRanges(
+			final ConcurrentNavigableMap<MemoryEntryRow, R> rows,
+			final List<ByteArrayRange> ranges ) {
+		if ((ranges == null) || ranges.isEmpty()) {
+			return rows.values().iterator();
+		}
+		final List<Iterator<R>> rangeIterators = new ArrayList<Iterator<R>>();
+		MemoryEntryRow previousUpperBound = null;
+		for (final ByteArrayRange range : ByteArrayRange.mergeIntersections(
+				new ArrayList<ByteArrayRange>(
+						ranges),
+				MergeOperation.UNION)) {
+			MemoryEntryRow lowerBound = MemoryEntryRow.createInsertionIdBound(range.getStart().getBytes());
+			// a range may start within the prefix of the end of a previous
+			// range, so start after the previous range to avoid returning
+			// the same rows twice
+			if ((previousUpperBound != null) && (lowerBound.compareTo(previousUpperBound) < 0)) {
+				lowerBound = previousUpperBound;
+			}
+			final byte[] nextPrefix = ByteArrayUtils.getNextPrefix(range.getEnd().getBytes());
+			if (nextPrefix == null) {
+				// there is no upper bound for the end of this range
+				rangeIterators.add(rows.tailMap(
+						lowerBound,
+						true).values().iterator());
+				break;
+			}
+			final MemoryEntryRow upperBound = MemoryEntryRow.createInsertionIdBound(nextPrefix);
+			if (lowerBound.compareTo(upperBound) < 0) {
+				rangeIterators.add(rows.subMap(
+						lowerBound,
+						true,
+						upperBound,
+						false).values().iterator());
+			}
+			if ((previousUpperBound == null) || (upperBound.compareTo(previousUpperBound) > 0)) {
+				previousUpperBound = upperBound;
+			}
+		}
+		return Iterators.concat(rangeIterators.iterator());
 	}
 
 	@Override
@@ -271,31 +387,117 @@ public class MemoryDataStore implements
 				false);
 	}
 
+	@Override
+	public <T> QueryPublisher<T> queryPublisher(
+			final QueryOptions queryOptions,
+			final Query query,
+			final int bufferSize ) {
+		return new CloseableIteratorPublisher<T>(
+				bufferSize) {
+			@Override
+			protected CloseableIterator<T> openIterator() {
+				return query(
+						queryOptions,
+						query);
+			}
+		};
+	}
+
+	@Override
+	public QueryExplanation explain(
+			final QueryOptions queryOptions,
+			final Query query ) {
+		final QueryOptions sanitizedQueryOptions = (queryOptions == null) ? new QueryOptions() : queryOptions;
+		final Query sanitizedQuery = (query == null) ? new EverythingQuery() : query;
+		try {
+			return QueryExplanation.explain(
+					getQueriedIndices(sanitizedQueryOptions),
+					sanitizedQueryOptions.explainIndexSelection(
+							adapterStore,
+							adapterIndexMappingStore,
+							indexStore,
+							statsStore,
+							sanitizedQuery),
+					sanitizedQuery,
+					null);
+		}
+		catch (final IOException e) {
+			LOGGER.error(
+					"Cannot explain query [" + sanitizedQuery.toString() + "]",
+					e);
+			return new QueryExplanation(
+					new ArrayList<IndexQueryCost>(),
+					new ArrayList<QueryExplanation.IndexPlan>());
+		}
+	}
+
+	@Override
+	public QueryExplanation profile(
+			final QueryOptions queryOptions,
+			final Query query ) {
+		final QueryExplanation explanation = explain(
+				queryOptions,
+				query);
+		explanation.setProfile(QueryProfile.profile(
+				this,
+				queryOptions,
+				query,
+				explanation));
+		return explanation;
+	}
+
+	/**
+	 * @return the indices scanned by a query and the adapters queried on each,
+	 *         which is the first index of each adapter
+	 */
+	private List<Pair<PrimaryIndex, List<DataAdapter<Object>>>> getQueriedIndices(
+			final QueryOptions queryOptions )
+			throws IOException {
+		final Set<ByteArrayId> queriedAdapters = new HashSet<ByteArrayId>();
+		final List<Pair<PrimaryIndex, List<DataAdapter<Object>>>> indexAdapterPairs = new ArrayList<Pair<PrimaryIndex, List<DataAdapter<Object>>>>();
+		for (final Pair<PrimaryIndex, List<DataAdapter<Object>>> indexAdapterPair : queryOptions.getIndicesForAdapters(
+				adapterStore,
+				adapterIndexMappingStore,
+				indexStore)) {
+			final List<DataAdapter<Object>> adapters = new ArrayList<DataAdapter<Object>>();
+			for (final DataAdapter<Object> adapter : indexAdapterPair.getRight()) {
+				if (queriedAdapters.add(adapter.getAdapterId())) {
+					adapters.add(adapter);
+				}
+			}
+			if (!adapters.isEmpty()) {
+				indexAdapterPairs.add(Pair.of(
+						indexAdapterPair.getLeft(),
+						adapters));
+			}
+		}
+		return indexAdapterPairs;
+	}
+
 	private CloseableIterator query(
 			final QueryOptions queryOptions,
 			final Query query,
 			final boolean isDelete ) {
-		final DedupeFilter filter = new DedupeFilter();
+		final DedupeFilter filter = queryOptions.isApproximateDedupe() ? new DedupeFilter(
+				queryOptions.getDedupeExpectedEntries(),
+				queryOptions.getDedupeFalsePositiveProbability()) : new DedupeFilter();
 		filter.setDedupAcrossIndices(false);
 		try {
-			// keep a list of adapters that have been queried, to only low an
-			// adapter to be queried
-			// once
+			// a query scans each adapter on a single index, the same indices
+			// that are explained, while a delete removes the adapter's rows
+			// from every index
 			final Set<ByteArrayId> queriedAdapters = new HashSet<ByteArrayId>();
 
 			final List<CloseableIterator<Object>> results = new ArrayList<CloseableIterator<Object>>();
 
-			for (final Pair<PrimaryIndex, List<DataAdapter<Object>>> indexAdapterPair : queryOptions
+			for (final Pair<PrimaryIndex, List<DataAdapter<Object>>> indexAdapterPair : isDelete ? queryOptions
 					.getIndicesForAdapters(
 							adapterStore,
 							adapterIndexMappingStore,
-							indexStore)) {
+							indexStore) : getQueriedIndices(queryOptions)) {
 				for (final DataAdapter<Object> adapter : indexAdapterPair.getRight()) {
 
 					final boolean firstTimeForAdapter = queriedAdapters.add(adapter.getAdapterId());
-					if (!(firstTimeForAdapter || isDelete)) {
-						continue;
-					}
 
 					final DataStoreCallbackManager callbackManager = new DataStoreCallbackManager(
 							statsStore,
@@ -347,101 +549,19 @@ public class MemoryDataStore implements
 			final QueryOptions queryOptions,
 			final boolean isDelete,
 			final DataStoreCallbackManager callbackCache ) {
-		final TreeSet<MemoryEntryRow> set = getRowsForIndex(index.getId());
-		final Iterator<MemoryEntryRow> rowIt = ((TreeSet<MemoryEntryRow>) set.clone()).iterator();
 		final List<QueryFilter> filters = (query == null) ? new ArrayList<QueryFilter>() : new ArrayList<QueryFilter>(
 				query.createFilters(index.getIndexModel()));
-		filters.add(new QueryFilter() {
-			@Override
-			public boolean accept(
-					final CommonIndexModel indexModel,
-					final IndexedPersistenceEncoding persistenceEncoding ) {
-				if (adapter.getAdapterId().equals(
-						persistenceEncoding.getAdapterId())) {
-					return true;
-				}
-				return false;
-			}
-		});
 		if (filter != null) {
 			filters.add(filter);
 		}
-
-		results.add(new CloseableIterator() {
-			MemoryEntryRow nextRow = null;
-			MemoryEntryRow currentRow = null;
-			IndexedAdapterPersistenceEncoding encoding = null;
-
-			private boolean getNext() {
-				while ((nextRow == null) && rowIt.hasNext()) {
-					final MemoryEntryRow row = rowIt.next();
-					final DataAdapter<?> adapter = adapterStore.getAdapter(new ByteArrayId(
-							row.getTableRowId().getAdapterId()));
-					encoding = MemoryStoreUtils.getEncoding(
-							index.getIndexModel(),
-							adapter,
-							row);
-					boolean ok = true;
-					for (final QueryFilter filter : filters) {
-						if (!filter.accept(
-								index.getIndexModel(),
-								encoding)) {
-							ok = false;
-							break;
-						}
-					}
-					ok &= isAuthorized(
-							row,
-							queryOptions.getAuthorizations());
-					if (ok) {
-						nextRow = row;
-						break;
-					}
-				}
-				return (nextRow != null);
-			}
-
-			@Override
-			public boolean hasNext() {
-				return getNext();
-			}
-
-			@Override
-			public Object next() {
-				currentRow = nextRow;
-				if (isDelete) {
-					final DataAdapter adapter = adapterStore.getAdapter(encoding.getAdapterId());
-					if (adapter instanceof WritableDataAdapter) {
-						callbackCache.getDeleteCallback(
-								(WritableDataAdapter) adapter,
-								index).entryDeleted(
-								currentRow.getInfo(),
-								currentRow.entry);
-					}
-				}
-				((ScanCallback) queryOptions.getScanCallback()).entryScanned(
-						currentRow.getInfo(),
-						currentRow.entry);
-				nextRow = null;
-				return currentRow.entry;
-			}
-
-			@Override
-			public void remove() {
-				if (currentRow != null) {
-					set.remove(currentRow);
-				}
-			}
-
-			@Override
-			public void close()
-					throws IOException {
-				final ScanCallback<?> callback = queryOptions.getScanCallback();
-				if ((callback != null) && (callback instanceof Closeable)) {
-					((Closeable) callback).close();
-				}
-			}
-		});
+		results.add(queryRows(
+				adapter,
+				index,
+				query,
+				filters,
+				queryOptions,
+				isDelete,
+				callbackCache));
 		boolean isAggregation = (queryOptions.getAggregation() != null);
 		if (isAggregation) {
 			Aggregation agg = queryOptions.getAggregation().getRight();
@@ -472,6 +592,204 @@ public class MemoryDataStore implements
 		}
 	}
 
+	/**
+	 * Query the rows of an adapter within an index
+	 *
+	 * @param filters
+	 *            the filters that a row has to be accepted by, applied to the
+	 *            rows of the adapter that are within the query's index
+	 *            constraints and visible with the query's authorizations
+	 * @return an iterator over the entries of the matching rows
+	 */
+	protected CloseableIterator<Object> queryRows(
+			final DataAdapter<Object> adapter,
+			final PrimaryIndex index,
+			final Query query,
+			final List<QueryFilter> filters,
+			final QueryOptions queryOptions,
+			final boolean isDelete,
+			final DataStoreCallbackManager callbackCache ) {
+		final ConcurrentNavigableMap<MemoryEntryRow, MemoryEntryRow> indexRows = getRowsForIndex(index.getId());
+		return new RowIterator<MemoryEntryRow>(
+				getRowsInRanges(
+						indexRows,
+						getQueryRanges(
+								index,
+								query)),
+				adapter,
+				index,
+				filters,
+				queryOptions,
+				isDelete,
+				callbackCache) {
+			@Override
+			protected IndexedAdapterPersistenceEncoding getEncoding(
+					final MemoryEntryRow row ) {
+				if (!isAuthorized(
+						row,
+						queryOptions.getAuthorizations())) {
+					return null;
+				}
+				return MemoryStoreUtils.getEncoding(
+						index.getIndexModel(),
+						adapter,
+						row);
+			}
+
+			@Override
+			protected Object getEntry(
+					final MemoryEntryRow row,
+					final IndexedAdapterPersistenceEncoding encoding ) {
+				return row.entry;
+			}
+
+			@Override
+			protected DataStoreEntryInfo getInfo(
+					final MemoryEntryRow row ) {
+				return row.getInfo();
+			}
+
+			@Override
+			protected void removeRow(
+					final MemoryEntryRow row ) {
+				indexRows.remove(row);
+			}
+		};
+	}
+
+	/**
+	 * Iterates over the entries of the rows of an adapter that are accepted by
+	 * the query's filters, calling back for each entry that is scanned or
+	 * deleted. A row is only decoded once it is known to belong to the
+	 * adapter.
+	 *
+	 * @param <R>
+	 *            the type of the rows
+	 */
+	protected abstract static class RowIterator<R extends MemoryEntryRow> implements
+			CloseableIterator<Object>
+	{
+		private final Iterator<R> rowIt;
+		private final DataAdapter<Object> adapter;
+		private final byte[] adapterId;
+		private final PrimaryIndex index;
+		private final List<QueryFilter> filters;
+		private final QueryOptions queryOptions;
+		private final boolean isDelete;
+		private final DataStoreCallbackManager callbackCache;
+		private R nextRow = null;
+		private R currentRow = null;
+		private IndexedAdapterPersistenceEncoding encoding = null;
+
+		public RowIterator(
+				final Iterator<R> rowIt,
+				final DataAdapter<Object> adapter,
+				final PrimaryIndex index,
+				final List<QueryFilter> filters,
+				final QueryOptions queryOptions,
+				final boolean isDelete,
+				final DataStoreCallbackManager callbackCache ) {
+			this.rowIt = rowIt;
+			this.adapter = adapter;
+			adapterId = adapter.getAdapterId().getBytes();
+			this.index = index;
+			this.filters = filters;
+			this.queryOptions = queryOptions;
+			this.isDelete = isDelete;
+			this.callbackCache = callbackCache;
+		}
+
+		/**
+		 * @return the encoding of a row of the adapter, or null if the row is
+		 *         not visible to the query
+		 */
+		protected abstract IndexedAdapterPersistenceEncoding getEncoding(
+				R row );
+
+		/**
+		 * @return the entry of the row most recently encoded
+		 */
+		protected abstract Object getEntry(
+				R row,
+				IndexedAdapterPersistenceEncoding encoding );
+
+		/**
+		 * @return the info of the row most recently encoded
+		 */
+		protected abstract DataStoreEntryInfo getInfo(
+				R row );
+
+		protected abstract void removeRow(
+				R row );
+
+		@Override
+		public boolean hasNext() {
+			while ((nextRow == null) && rowIt.hasNext()) {
+				final R row = rowIt.next();
+				if (!Arrays.equals(
+						adapterId,
+						row.getTableRowId().getAdapterId())) {
+					continue;
+				}
+				encoding = getEncoding(row);
+				if (encoding == null) {
+					continue;
+				}
+				boolean ok = true;
+				for (final QueryFilter filter : filters) {
+					if (!filter.accept(
+							index.getIndexModel(),
+							encoding)) {
+						ok = false;
+						break;
+					}
+				}
+				if (ok) {
+					nextRow = row;
+				}
+			}
+			return (nextRow != null);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public Object next() {
+			currentRow = nextRow;
+			final Object entry = getEntry(
+					currentRow,
+					encoding);
+			final DataStoreEntryInfo info = getInfo(currentRow);
+			if (isDelete && (adapter instanceof WritableDataAdapter)) {
+				callbackCache.getDeleteCallback(
+						(WritableDataAdapter<Object>) adapter,
+						index).entryDeleted(
+						info,
+						entry);
+			}
+			((ScanCallback<Object>) queryOptions.getScanCallback()).entryScanned(
+					info,
+					entry);
+			nextRow = null;
+			return entry;
+		}
+
+		@Override
+		public void remove() {
+			if (currentRow != null) {
+				removeRow(currentRow);
+			}
+		}
+
+		@Override
+		public void close()
+				throws IOException {
+			final ScanCallback<?> callback = queryOptions.getScanCallback();
+			if ((callback != null) && (callback instanceof Closeable)) {
+				((Closeable) callback).close();
+			}
+		}
+	}
+
 	protected static IndexedAdapterPersistenceEncoding getEncoding(
 			final CommonIndexModel model,
 			final DataAdapter<?> adapter,
@@ -509,7 +827,7 @@ public class MemoryDataStore implements
 				extendedData);
 	}
 
-	private boolean isAuthorized(
+	private static boolean isAuthorized(
 			final MemoryEntryRow row,
 			final String... authorizations ) {
 		for (final FieldInfo info : row.info.getFieldInfo()) {
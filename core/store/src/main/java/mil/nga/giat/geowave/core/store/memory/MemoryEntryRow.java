@@ -3,6 +3,7 @@ package mil.nga.giat.geowave.core.store.memory;
 import java.util.List;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayUtils;
 import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
 import mil.nga.giat.geowave.core.store.base.EntryRowID;
 import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
@@ -10,6 +11,7 @@ import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
 public class MemoryEntryRow implements
 		Comparable<MemoryEntryRow>
 {
+	private static final byte[] EMPTY_ID = new byte[0];
 	final EntryRowID rowId;
 	final DataStoreEntryInfo info;
 	final Object entry;
@@ -18,13 +20,44 @@ public class MemoryEntryRow implements
 			final ByteArrayId rowId,
 			final Object entry,
 			final DataStoreEntryInfo info ) {
+		this(
+				new EntryRowID(
+						rowId.getBytes()),
+				entry,
+				info);
+	}
+
+	protected MemoryEntryRow(
+			final EntryRowID rowId,
+			final Object entry,
+			final DataStoreEntryInfo info ) {
 		super();
-		this.rowId = new EntryRowID(
-				rowId.getBytes());
+		this.rowId = rowId;
 		this.entry = entry;
 		this.info = info;
 	}
 
+	/**
+	 * Create a row that sorts before every row with an insertion ID greater
+	 * than or equal to the given insertion ID, to be used as a bound of a range
+	 * of rows
+	 *
+	 * @param insertionId
+	 *            the insertion ID
+	 * @return the bounding row
+	 */
+	protected static MemoryEntryRow createInsertionIdBound(
+			final byte[] insertionId ) {
+		return new MemoryEntryRow(
+				new EntryRowID(
+						insertionId,
+						EMPTY_ID,
+						EMPTY_ID,
+						0),
+				null,
+				null);
+	}
+
 	public EntryRowID getTableRowId() {
 		return rowId;
 	}
@@ -38,10 +71,40 @@ public class MemoryEntryRow implements
 		return info.getFieldInfo();
 	}
 
+	/**
+	 * Rows are ordered by insertion ID, data ID and adapter ID, comparing
+	 * bytes as unsigned so that ranges of insertion IDs are contiguous
+	 */
 	@Override
 	public int compareTo(
-			MemoryEntryRow o ) {
-		return rowId.compareTo(((MemoryEntryRow) o).rowId);
+			final MemoryEntryRow o ) {
+		final int insertionIdCompare = compare(
+				rowId.getInsertionId(),
+				o.rowId.getInsertionId());
+		if (insertionIdCompare != 0) {
+			return insertionIdCompare;
+		}
+		final int dataIdCompare = compare(
+				rowId.getDataId(),
+				o.rowId.getDataId());
+		if (dataIdCompare != 0) {
+			return dataIdCompare;
+		}
+		return compare(
+				rowId.getAdapterId(),
+				o.rowId.getAdapterId());
+	}
+
+	private static int compare(
+			final byte[] a,
+			final byte[] b ) {
+		return ByteArrayUtils.compare(
+				a,
+				0,
+				a.length,
+				b,
+				0,
+				b.length);
 	}
 
 	public Object getEntry() {
@@ -0,0 +1,14 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import mil.nga.giat.geowave.core.store.StoreFactoryOptions;
+import mil.nga.giat.geowave.core.store.adapter.AdapterIndexMappingStore;
+
+public class OffHeapAdapterIndexMappingStoreFactory extends
+		AbstractOffHeapStoreFactory<AdapterIndexMappingStore>
+{
+	@Override
+	public AdapterIndexMappingStore createStore(
+			final StoreFactoryOptions configOptions ) {
+		return MemoryAdapterIndexMappingStoreFactory.createStore(getQualifiedNamespace(configOptions));
+	}
+}
@@ -0,0 +1,14 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import mil.nga.giat.geowave.core.store.StoreFactoryOptions;
+import mil.nga.giat.geowave.core.store.adapter.AdapterStore;
+
+public class OffHeapAdapterStoreFactory extends
+		AbstractOffHeapStoreFactory<AdapterStore>
+{
+	@Override
+	public AdapterStore createStore(
+			final StoreFactoryOptions configOptions ) {
+		return MemoryAdapterStoreFactory.createStore(getQualifiedNamespace(configOptions));
+	}
+}
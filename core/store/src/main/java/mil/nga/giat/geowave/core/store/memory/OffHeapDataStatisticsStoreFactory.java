@@ -0,0 +1,14 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import mil.nga.giat.geowave.core.store.StoreFactoryOptions;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
+
+public class OffHeapDataStatisticsStoreFactory extends
+		AbstractOffHeapStoreFactory<DataStatisticsStore>
+{
+	@Override
+	public DataStatisticsStore createStore(
+			final StoreFactoryOptions configOptions ) {
+		return MemoryDataStatisticsStoreFactory.createStore(getQualifiedNamespace(configOptions));
+	}
+}
@@ -0,0 +1,521 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.dimension.NumericDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.adapter.AdapterIndexMappingStore;
+import mil.nga.giat.geowave.core.store.adapter.AdapterStore;
+import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
+import mil.nga.giat.geowave.core.store.adapter.IndexedAdapterPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.adapter.WritableDataAdapter;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
+import mil.nga.giat.geowave.core.store.base.DataStoreCallbackManager;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
+import mil.nga.giat.geowave.core.store.base.EntryRowID;
+import mil.nga.giat.geowave.core.store.callback.IngestCallback;
+import mil.nga.giat.geowave.core.store.data.PersistentDataset;
+import mil.nga.giat.geowave.core.store.data.VisibilityWriter;
+import mil.nga.giat.geowave.core.store.dimension.NumericDimensionField;
+import mil.nga.giat.geowave.core.store.filter.QueryFilter;
+import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
+import mil.nga.giat.geowave.core.store.index.CommonIndexValue;
+import mil.nga.giat.geowave.core.store.index.IndexStore;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndexDataStore;
+import mil.nga.giat.geowave.core.store.memory.OffHeapIndexTable.OffHeapEntryRow;
+import mil.nga.giat.geowave.core.store.query.Query;
+import mil.nga.giat.geowave.core.store.query.QueryOptions;
+import mil.nga.giat.geowave.core.store.util.DataStoreUtils;
+
+/**
+ * An embedded data store that keeps the rows of each index sorted by row ID,
+ * with the encoded fields of each entry held off-heap in memory-mapped
+ * segments. The numeric ranges of the common index values of each entry are
+ * held in off-heap columns, so that rows outside of a query's index
+ * constraints are rejected without reading or decoding their fields. The
+ * adapters, indices and statistics are kept on-heap in memory stores, and
+ * writing and querying otherwise work as they do for a memory data store.
+ *
+ * A store may be shared by several holders, each of which closes it once.
+ * Closing the store for the last holder releases its segments, after which
+ * reading the store or continuing an iterator over its results fails with an
+ * IllegalStateException.
+ */
+public class OffHeapDataStore extends
+		MemoryDataStore implements
+		Closeable
+{
+	private final ConcurrentMap<ByteArrayId, OffHeapIndexTable> storeData = new ConcurrentHashMap<ByteArrayId, OffHeapIndexTable>();
+	private final OffHeapSegments segments;
+	// the store is created for its first holder
+	private final AtomicInteger holders = new AtomicInteger(
+			1);
+
+	public OffHeapDataStore(
+			final OffHeapSegments segments,
+			final AdapterStore adapterStore,
+			final IndexStore indexStore,
+			final DataStatisticsStore statsStore,
+			final SecondaryIndexDataStore secondaryIndexDataStore,
+			final AdapterIndexMappingStore adapterIndexMappingStore ) {
+		super(
+				adapterStore,
+				indexStore,
+				statsStore,
+				secondaryIndexDataStore,
+				adapterIndexMappingStore);
+		this.segments = segments;
+	}
+
+	@Override
+	protected <T> List<ByteArrayId> writeRows(
+			final WritableDataAdapter<T> adapter,
+			final PrimaryIndex index,
+			final T entry,
+			final IngestCallback<T> callback,
+			final VisibilityWriter<T> fieldVisibilityWriter ) {
+		final List<ByteArrayId> ids = new ArrayList<ByteArrayId>();
+		final DataStoreEntryInfo ingestInfo = DataStoreUtils.getIngestInfo(
+				adapter,
+				index,
+				entry,
+				fieldVisibilityWriter);
+		callback.entryIngested(
+				ingestInfo,
+				entry);
+		if (ingestInfo.getRowIds().isEmpty()) {
+			return ids;
+		}
+		final OffHeapIndexTable table = getTableForIndex(index);
+		final int dimensionCount = table.getDimensionCount();
+		final double[] mins = new double[dimensionCount];
+		final double[] maxes = new double[dimensionCount];
+		getNumericRanges(
+				index.getIndexModel(),
+				ingestInfo,
+				mins,
+				maxes);
+		// the fields of the entry are written once and shared by all of its
+		// rows
+		final int ordinal = table.addEntry(
+				encodeFields(DataStoreUtils.composeFlattenedFields(
+						ingestInfo.getFieldInfo(),
+						index.getIndexModel(),
+						adapter)),
+				mins,
+				maxes);
+		for (final ByteArrayId rowId : ingestInfo.getRowIds()) {
+			ids.add(rowId);
+			table.addRow(
+					new EntryRowID(
+							rowId.getBytes()),
+					ordinal);
+		}
+		return ids;
+	}
+
+	@Override
+	protected CloseableIterator<Object> queryRows(
+			final DataAdapter<Object> adapter,
+			final PrimaryIndex index,
+			final Query query,
+			final List<QueryFilter> filters,
+			final QueryOptions queryOptions,
+			final boolean isDelete,
+			final DataStoreCallbackManager callbackCache ) {
+		final OffHeapIndexTable table = getTableForIndex(index);
+		final ColumnConstraints columnConstraints = ColumnConstraints.create(
+				index,
+				query);
+		return new RowIterator<OffHeapEntryRow>(
+				getRowsInRanges(
+						table.getRows(),
+						getQueryRanges(
+								index,
+								query)),
+				adapter,
+				index,
+				filters,
+				queryOptions,
+				isDelete,
+				callbackCache) {
+			private List<FieldInfo<?>> fieldInfoList = null;
+
+			@Override
+			protected IndexedAdapterPersistenceEncoding getEncoding(
+					final OffHeapEntryRow row ) {
+				// check the index constraints of the row before reading any
+				// of its fields
+				if ((columnConstraints != null) && !columnConstraints.accept(
+						table,
+						row.getOrdinal())) {
+					return null;
+				}
+				final ByteBuffer buf = table.getEncodedEntry(row.getOrdinal());
+				final int fieldCount = buf.getInt();
+				final byte[][] fieldIds = new byte[fieldCount][];
+				final byte[][] visibilities = new byte[fieldCount][];
+				final byte[][] values = new byte[fieldCount][];
+				for (int i = 0; i < fieldCount; i++) {
+					fieldIds[i] = getBytes(buf);
+					visibilities[i] = getBytes(buf);
+					if (!MemoryStoreUtils.isAuthorized(
+							visibilities[i],
+							queryOptions.getAuthorizations())) {
+						return null;
+					}
+					values[i] = getBytes(buf);
+				}
+				final PersistentDataset<CommonIndexValue> indexData = new PersistentDataset<CommonIndexValue>();
+				final PersistentDataset<Object> extendedData = new PersistentDataset<Object>();
+				final PersistentDataset<byte[]> unknownData = new PersistentDataset<byte[]>();
+				fieldInfoList = new ArrayList<FieldInfo<?>>();
+				for (int i = 0; i < fieldCount; i++) {
+					DataStoreUtils.readFieldInfo(
+							fieldInfoList,
+							indexData,
+							extendedData,
+							unknownData,
+							fieldIds[i],
+							visibilities[i],
+							values[i],
+							adapter,
+							index.getIndexModel());
+				}
+				final EntryRowID rowId = row.getTableRowId();
+				return new IndexedAdapterPersistenceEncoding(
+						adapter.getAdapterId(),
+						new ByteArrayId(
+								rowId.getDataId()),
+						new ByteArrayId(
+								rowId.getInsertionId()),
+						rowId.getNumberOfDuplicates(),
+						indexData,
+						unknownData,
+						extendedData);
+			}
+
+			@Override
+			protected Object getEntry(
+					final OffHeapEntryRow row,
+					final IndexedAdapterPersistenceEncoding encoding ) {
+				return adapter.decode(
+						encoding,
+						index);
+			}
+
+			@Override
+			protected DataStoreEntryInfo getInfo(
+					final OffHeapEntryRow row ) {
+				return new DataStoreEntryInfo(
+						row.getTableRowId().getDataId(),
+						Arrays.asList(new ByteArrayId(
+								row.getTableRowId().getInsertionId())),
+						Arrays.asList(new ByteArrayId(
+								row.getTableRowId().getRowId())),
+						fieldInfoList);
+			}
+
+			@Override
+			protected void removeRow(
+					final OffHeapEntryRow row ) {
+				table.removeRow(row);
+			}
+		};
+	}
+
+	/**
+	 * Add a holder of the store, unless the store has already been released
+	 *
+	 * @return true if the holder was added, false if the store is closed
+	 */
+	protected boolean retain() {
+		while (true) {
+			final int current = holders.get();
+			if (current <= 0) {
+				return false;
+			}
+			if (holders.compareAndSet(
+					current,
+					current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Close the store for one holder. Once the last holder closes the store
+	 * its off-heap segments are released, and its statistics are removed
+	 * along with its rows, while its adapters and indices remain for a store
+	 * later created with the same options.
+	 */
+	@Override
+	public void close() {
+		if (holders.decrementAndGet() != 0) {
+			return;
+		}
+		storeData.clear();
+		segments.close();
+		getStatsStore().removeAll();
+	}
+
+	public boolean isClosed() {
+		return segments.isClosed();
+	}
+
+	private OffHeapIndexTable getTableForIndex(
+			final PrimaryIndex index ) {
+		OffHeapIndexTable table = storeData.get(index.getId());
+		if (table == null) {
+			table = new OffHeapIndexTable(
+					segments,
+					index.getIndexModel().getDimensions().length);
+			final OffHeapIndexTable existingTable = storeData.putIfAbsent(
+					index.getId(),
+					table);
+			if (existingTable != null) {
+				table = existingTable;
+			}
+		}
+		return table;
+	}
+
+	@SuppressWarnings({
+		"rawtypes",
+		"unchecked"
+	})
+	private static void getNumericRanges(
+			final CommonIndexModel indexModel,
+			final DataStoreEntryInfo ingestInfo,
+			final double[] mins,
+			final double[] maxes ) {
+		Arrays.fill(
+				mins,
+				Double.NaN);
+		Arrays.fill(
+				maxes,
+				Double.NaN);
+		final NumericDimensionField[] dimensions = indexModel.getDimensions();
+		for (final FieldInfo<?> fieldInfo : ingestInfo.getFieldInfo()) {
+			final Object value = fieldInfo.getDataValue().getValue();
+			if (!(value instanceof CommonIndexValue)) {
+				continue;
+			}
+			// several dimensions may be derived from the same field
+			for (int d = 0; d < dimensions.length; d++) {
+				if (dimensions[d].getFieldId().equals(
+						fieldInfo.getDataValue().getId())) {
+					final NumericData data = dimensions[d].getNumericData((CommonIndexValue) value);
+					if (data != null) {
+						mins[d] = data.getMin();
+						maxes[d] = data.getMax();
+					}
+				}
+			}
+		}
+	}
+
+	private static byte[] encodeFields(
+			final List<FieldInfo<?>> fieldInfos ) {
+		int length = 4;
+		for (final FieldInfo<?> fieldInfo : fieldInfos) {
+			length += 12 + fieldInfo.getDataValue().getId().getBytes().length + getLength(fieldInfo.getVisibility())
+					+ fieldInfo.getWrittenValue().length;
+		}
+		final ByteBuffer buf = ByteBuffer.allocate(length);
+		buf.putInt(fieldInfos.size());
+		for (final FieldInfo<?> fieldInfo : fieldInfos) {
+			putBytes(
+					buf,
+					fieldInfo.getDataValue().getId().getBytes());
+			putBytes(
+					buf,
+					fieldInfo.getVisibility());
+			putBytes(
+					buf,
+					fieldInfo.getWrittenValue());
+		}
+		return buf.array();
+	}
+
+	private static int getLength(
+			final byte[] bytes ) {
+		return bytes == null ? 0 : bytes.length;
+	}
+
+	private static void putBytes(
+			final ByteBuffer buf,
+			final byte[] bytes ) {
+		buf.putInt(getLength(bytes));
+		if (bytes != null) {
+			buf.put(bytes);
+		}
+	}
+
+	private static byte[] getBytes(
+			final ByteBuffer buf ) {
+		final byte[] bytes = new byte[buf.getInt()];
+		buf.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * The index constraints of a query expressed per column of an off-heap
+	 * table. A row is accepted if its numeric ranges intersect any one of the
+	 * constraints.
+	 */
+	protected static class ColumnConstraints
+	{
+		private final int[][] dimensions;
+		private final double[][] mins;
+		private final double[][] maxes;
+
+		private ColumnConstraints(
+				final int[][] dimensions,
+				final double[][] mins,
+				final double[][] maxes ) {
+			this.dimensions = dimensions;
+			this.mins = mins;
+			this.maxes = maxes;
+		}
+
+		public boolean accept(
+				final OffHeapIndexTable table,
+				final int ordinal ) {
+			for (int c = 0; c < dimensions.length; c++) {
+				if (table.intersects(
+						ordinal,
+						dimensions[c],
+						mins[c],
+						maxes[c])) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Create the column constraints for a query
+		 *
+		 * @return the column constraints, or null if the query does not
+		 *         constrain any column
+		 */
+		protected static ColumnConstraints create(
+				final PrimaryIndex index,
+				final Query query ) {
+			if (query == null) {
+				return null;
+			}
+			final List<MultiDimensionalNumericData> constraints = query.getIndexConstraints(index.getIndexStrategy());
+			if ((constraints == null) || constraints.isEmpty()) {
+				return null;
+			}
+			final NumericDimensionField<?>[] fields = index.getIndexModel().getDimensions();
+			final NumericDimensionDefinition[] definitions = index.getIndexStrategy().getOrderedDimensionDefinitions();
+			final int[][] dimensions = new int[constraints.size()][];
+			final double[][] mins = new double[constraints.size()][];
+			final double[][] maxes = new double[constraints.size()][];
+			for (int c = 0; c < constraints.size(); c++) {
+				final NumericData[] data = constraints.get(
+						c).getDataPerDimension();
+				final List<Integer> constrainedColumns = new ArrayList<Integer>();
+				final List<NumericData> constrainedData = new ArrayList<NumericData>();
+				for (int i = 0; i < data.length; i++) {
+					final int column = getColumn(
+							i,
+							data.length,
+							fields,
+							definitions);
+					if ((column >= 0) && (data[i] != null) && isWithinFullRange(
+							fields[column],
+							data[i])) {
+						constrainedColumns.add(column);
+						constrainedData.add(data[i]);
+					}
+				}
+				if (constrainedColumns.isEmpty()) {
+					// every row may match this constraint
+					return null;
+				}
+				dimensions[c] = new int[constrainedColumns.size()];
+				mins[c] = new double[constrainedColumns.size()];
+				maxes[c] = new double[constrainedColumns.size()];
+				for (int i = 0; i < dimensions[c].length; i++) {
+					dimensions[c][i] = constrainedColumns.get(i);
+					mins[c][i] = constrainedData.get(
+							i).getMin();
+					maxes[c][i] = constrainedData.get(
+							i).getMax();
+				}
+			}
+			return new ColumnConstraints(
+					dimensions,
+					mins,
+					maxes);
+		}
+
+		private static int getColumn(
+				final int dimension,
+				final int dimensionCount,
+				final NumericDimensionField<?>[] fields,
+				final NumericDimensionDefinition[] definitions ) {
+			if (definitions == null) {
+				// without definitions to match the constraints can only be
+				// assumed to be in the order of the model's dimensions
+				return (dimensionCount == fields.length) ? dimension : -1;
+			}
+			if (dimension >= definitions.length) {
+				return -1;
+			}
+			final Class<?> definitionClass = definitions[dimension].getClass();
+			if ((dimension < fields.length) && isDefinedBy(
+					fields[dimension],
+					definitionClass)) {
+				return dimension;
+			}
+			for (int f = 0; f < fields.length; f++) {
+				if (isDefinedBy(
+						fields[f],
+						definitionClass)) {
+					return f;
+				}
+			}
+			return -1;
+		}
+
+		private static boolean isDefinedBy(
+				final NumericDimensionField<?> field,
+				final Class<?> definitionClass ) {
+			final NumericDimensionDefinition baseDefinition = field.getBaseDefinition();
+			return (baseDefinition != null) && baseDefinition.getClass().equals(
+					definitionClass);
+		}
+
+		/**
+		 * a constraint beyond the full range of a dimension may wrap around
+		 * (such as longitude across the anti-meridian) so only constraints
+		 * within the full range are compared directly
+		 */
+		private static boolean isWithinFullRange(
+				final NumericDimensionField<?> field,
+				final NumericData data ) {
+			final NumericData fullRange = field.getFullRange();
+			if (fullRange == null) {
+				return true;
+			}
+			return (data.getMin() >= fullRange.getMin()) && (data.getMax() <= fullRange.getMax());
+		}
+	}
+}
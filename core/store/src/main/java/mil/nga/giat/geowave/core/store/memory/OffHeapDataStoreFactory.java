@@ -0,0 +1,46 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import mil.nga.giat.geowave.core.store.DataStore;
+import mil.nga.giat.geowave.core.store.StoreFactoryOptions;
+
+public class OffHeapDataStoreFactory extends
+		AbstractOffHeapStoreFactory<DataStore>
+{
+	private static final Map<String, OffHeapDataStore> DATA_STORE_CACHE = new HashMap<String, OffHeapDataStore>();
+
+	@Override
+	public DataStore createStore(
+			final StoreFactoryOptions configOptions ) {
+		return createStore((OffHeapRequiredOptions) configOptions);
+	}
+
+	protected static synchronized DataStore createStore(
+			final OffHeapRequiredOptions options ) {
+		final String namespace = getQualifiedNamespace(options);
+		// the namespace is qualified by the directory, and each caller holds
+		// the store until it closes it, after the last of which it is
+		// replaced by a new one
+		OffHeapDataStore store = DATA_STORE_CACHE.get(namespace);
+		if ((store == null) || !store.retain()) {
+			store = new OffHeapDataStore(
+					new OffHeapSegments(
+							new File(
+									options.getDirectory()),
+							"geowave-" + options.getGeowaveNamespace() + "-",
+							options.getSegmentSize()),
+					MemoryAdapterStoreFactory.createStore(namespace),
+					MemoryIndexStoreFactory.createStore(namespace),
+					MemoryDataStatisticsStoreFactory.createStore(namespace),
+					MemorySecondaryIndexStoreFactory.createStore(namespace),
+					MemoryAdapterIndexMappingStoreFactory.createStore(namespace));
+			DATA_STORE_CACHE.put(
+					namespace,
+					store);
+		}
+		return store;
+	}
+}
@@ -0,0 +1,14 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import mil.nga.giat.geowave.core.store.StoreFactoryOptions;
+import mil.nga.giat.geowave.core.store.index.IndexStore;
+
+public class OffHeapIndexStoreFactory extends
+		AbstractOffHeapStoreFactory<IndexStore>
+{
+	@Override
+	public IndexStore createStore(
+			final StoreFactoryOptions configOptions ) {
+		return MemoryIndexStoreFactory.createStore(getQualifiedNamespace(configOptions));
+	}
+}
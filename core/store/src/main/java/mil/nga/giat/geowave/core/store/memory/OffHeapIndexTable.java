@@ -0,0 +1,217 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import mil.nga.giat.geowave.core.store.base.EntryRowID;
+
+/**
+ * The rows of one index in an off-heap store. The keys of the rows are kept
+ * sorted by row ID in a concurrent skip list, while the encoded fields of each
+ * entry and the numeric ranges of its common index values are kept off-heap.
+ *
+ * The numeric ranges are stored column by column in fixed size blocks, one
+ * minimum and one maximum column per dimension of the index model, so that
+ * index constraints can be checked against primitive values without decoding
+ * the entry.
+ */
+public class OffHeapIndexTable
+{
+	protected final static int ROWS_PER_BLOCK = 4096;
+
+	private final ConcurrentNavigableMap<MemoryEntryRow, OffHeapEntryRow> rows = new ConcurrentSkipListMap<MemoryEntryRow, OffHeapEntryRow>();
+	private final CopyOnWriteArrayList<ByteBuffer> columnBlocks = new CopyOnWriteArrayList<ByteBuffer>();
+	private final OffHeapSegments segments;
+	private final int dimensionCount;
+	private final int blockLength;
+	private int entryCount = 0;
+
+	public OffHeapIndexTable(
+			final OffHeapSegments segments,
+			final int dimensionCount ) {
+		this.segments = segments;
+		this.dimensionCount = dimensionCount;
+		// an address column followed by a min and max column per dimension
+		blockLength = ROWS_PER_BLOCK * (8 + (16 * dimensionCount));
+	}
+
+	/**
+	 * Add the columns of an entry
+	 *
+	 * @param encodedEntry
+	 *            the encoded fields of the entry, written to the segments
+	 * @param mins
+	 *            the minimum of the entry per dimension, NaN if unknown
+	 * @param maxes
+	 *            the maximum of the entry per dimension, NaN if unknown
+	 * @return the ordinal of the entry within the columns
+	 */
+	public synchronized int addEntry(
+			final byte[] encodedEntry,
+			final double[] mins,
+			final double[] maxes ) {
+		final long address = segments.append(encodedEntry);
+		final int ordinal = entryCount;
+		final int rowInBlock = ordinal % ROWS_PER_BLOCK;
+		if (rowInBlock == 0) {
+			columnBlocks.add(segments.allocate(blockLength));
+		}
+		final ByteBuffer block = columnBlocks.get(ordinal / ROWS_PER_BLOCK);
+		block.putLong(
+				rowInBlock * 8,
+				address);
+		for (int d = 0; d < dimensionCount; d++) {
+			block.putDouble(
+					getMinIndex(
+							d,
+							rowInBlock),
+					mins[d]);
+			block.putDouble(
+					getMaxIndex(
+							d,
+							rowInBlock),
+					maxes[d]);
+		}
+		entryCount++;
+		return ordinal;
+	}
+
+	/**
+	 * Add a row for an entry, replacing any existing row with the same row ID
+	 *
+	 * @param rowId
+	 *            the row ID
+	 * @param ordinal
+	 *            the ordinal of the entry, as returned by addEntry
+	 */
+	public void addRow(
+			final EntryRowID rowId,
+			final int ordinal ) {
+		final OffHeapEntryRow row = new OffHeapEntryRow(
+				rowId,
+				ordinal);
+		rows.put(
+				row,
+				row);
+	}
+
+	/**
+	 * Remove a row, unless it has been replaced by a row for another entry
+	 */
+	public void removeRow(
+			final OffHeapEntryRow row ) {
+		rows.remove(
+				row,
+				row);
+	}
+
+	public ConcurrentNavigableMap<MemoryEntryRow, OffHeapEntryRow> getRows() {
+		return rows;
+	}
+
+	public int getDimensionCount() {
+		return dimensionCount;
+	}
+
+	/**
+	 * @return a read-only buffer containing the encoded fields of an entry
+	 */
+	public ByteBuffer getEncodedEntry(
+			final int ordinal ) {
+		return segments.getRecord(getBlock(
+				ordinal).getLong(
+				(ordinal % ROWS_PER_BLOCK) * 8));
+	}
+
+	/**
+	 * Check whether the numeric range of an entry in each dimension may
+	 * intersect the given ranges. An unknown range or NaN bound is treated as
+	 * intersecting.
+	 *
+	 * @param ordinal
+	 *            the ordinal of the entry
+	 * @param dimensions
+	 *            the dimensions to check
+	 * @param mins
+	 *            the minimum of the query per dimension checked
+	 * @param maxes
+	 *            the maximum of the query per dimension checked
+	 * @return false if the entry is disjoint with the ranges in any dimension
+	 */
+	public boolean intersects(
+			final int ordinal,
+			final int[] dimensions,
+			final double[] mins,
+			final double[] maxes ) {
+		final ByteBuffer block = getBlock(ordinal);
+		final int rowInBlock = ordinal % ROWS_PER_BLOCK;
+		for (int i = 0; i < dimensions.length; i++) {
+			// comparisons with NaN are always false, so unknown ranges are
+			// never disjoint
+			if ((block.getDouble(getMaxIndex(
+					dimensions[i],
+					rowInBlock)) < mins[i]) || (block.getDouble(getMinIndex(
+					dimensions[i],
+					rowInBlock)) > maxes[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private ByteBuffer getBlock(
+			final int ordinal ) {
+		return columnBlocks.get(ordinal / ROWS_PER_BLOCK);
+	}
+
+	private static int getMinIndex(
+			final int dimension,
+			final int rowInBlock ) {
+		return (ROWS_PER_BLOCK * (8 + (16 * dimension))) + (rowInBlock * 8);
+	}
+
+	private static int getMaxIndex(
+			final int dimension,
+			final int rowInBlock ) {
+		return (ROWS_PER_BLOCK * (16 + (16 * dimension))) + (rowInBlock * 8);
+	}
+
+	/**
+	 * The key of a row, referencing the columns of its entry by ordinal
+	 */
+	public static class OffHeapEntryRow extends
+			MemoryEntryRow
+	{
+		private final int ordinal;
+
+		protected OffHeapEntryRow(
+				final EntryRowID rowId,
+				final int ordinal ) {
+			super(
+					rowId,
+					null,
+					null);
+			this.ordinal = ordinal;
+		}
+
+		public int getOrdinal() {
+			return ordinal;
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * super.hashCode()) + ordinal;
+		}
+
+		@Override
+		public boolean equals(
+				final Object obj ) {
+			if (!super.equals(obj)) {
+				return false;
+			}
+			return ordinal == ((OffHeapEntryRow) obj).ordinal;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import com.beust.jcommander.Parameter;
+
+import mil.nga.giat.geowave.core.store.StoreFactoryFamilySpi;
+import mil.nga.giat.geowave.core.store.StoreFactoryOptions;
+
+/**
+ * Options for an off-heap store, the directory for its memory-mapped segments
+ * is required.
+ */
+public class OffHeapRequiredOptions extends
+		StoreFactoryOptions
+{
+	public static final String DIRECTORY_CONFIG_KEY = "directory";
+	public static final String SEGMENT_SIZE_CONFIG_KEY = "segmentSizeMB";
+	private static final int MAX_SEGMENT_SIZE_MB = 1024;
+
+	@Parameter(names = "--" + DIRECTORY_CONFIG_KEY, description = "The directory in which to map the off-heap segments", required = true)
+	private String directory;
+
+	@Parameter(names = "--" + SEGMENT_SIZE_CONFIG_KEY, description = "The size in megabytes of each off-heap segment (at most 1024)")
+	private int segmentSizeMB = 256;
+
+	public String getDirectory() {
+		return directory;
+	}
+
+	public void setDirectory(
+			final String directory ) {
+		this.directory = directory;
+	}
+
+	public int getSegmentSizeMB() {
+		return segmentSizeMB;
+	}
+
+	public void setSegmentSizeMB(
+			final int segmentSizeMB ) {
+		this.segmentSizeMB = segmentSizeMB;
+	}
+
+	/**
+	 * @return the segment size in bytes, limited to what can be addressed
+	 *         within a single mapping
+	 */
+	public int getSegmentSize() {
+		return Math.max(
+				1,
+				Math.min(
+						segmentSizeMB,
+						MAX_SEGMENT_SIZE_MB)) * 1024 * 1024;
+	}
+
+	@Override
+	public StoreFactoryFamilySpi getStoreFactory() {
+		return new OffHeapStoreFactoryFamily();
+	}
+}
@@ -0,0 +1,14 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import mil.nga.giat.geowave.core.store.StoreFactoryOptions;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndexDataStore;
+
+public class OffHeapSecondaryIndexStoreFactory extends
+		AbstractOffHeapStoreFactory<SecondaryIndexDataStore>
+{
+	@Override
+	public SecondaryIndexDataStore createStore(
+			final StoreFactoryOptions configOptions ) {
+		return MemorySecondaryIndexStoreFactory.createStore(getQualifiedNamespace(configOptions));
+	}
+}
@@ -0,0 +1,219 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Allocates space outside of the java heap in memory-mapped segment files
+ * within a directory. Records are appended to the current segment and are
+ * addressed by a long combining the segment index and the offset of the record
+ * within the segment. Space is never reclaimed while the segments are in use,
+ * replaced and deleted records simply become unreachable.
+ *
+ * The segment files are scratch space rather than a persistence format, they
+ * are deleted as soon as they are mapped (or on exit where the platform does
+ * not allow deleting a mapped file) and the OS releases the space when the
+ * mappings are garbage collected.
+ *
+ * The segments are never unmapped explicitly, as a read of an unmapped buffer
+ * crashes the JVM rather than failing with an exception. Closing the segments
+ * instead drops their mappings, so that a buffer still being read by a
+ * concurrent query remains valid until it is no longer referenced.
+ */
+public class OffHeapSegments
+{
+	private final static Logger LOGGER = Logger.getLogger(OffHeapSegments.class);
+	private final static int RECORD_HEADER_LENGTH = 4;
+
+	private final File directory;
+	private final String prefix;
+	private final int segmentSize;
+	private final CopyOnWriteArrayList<ByteBuffer> segments = new CopyOnWriteArrayList<ByteBuffer>();
+	private ByteBuffer currentSegment = null;
+	private int currentSegmentIndex = -1;
+	private volatile boolean closed = false;
+
+	public OffHeapSegments(
+			final File directory,
+			final String prefix,
+			final int segmentSize ) {
+		this.directory = directory;
+		this.prefix = prefix;
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Append a record to the current segment, moving on to a new segment if
+	 * the record does not fit
+	 *
+	 * @param record
+	 *            the record to append
+	 * @return the address of the record
+	 */
+	public synchronized long append(
+			final byte[] record ) {
+		checkOpen();
+		final int length = record.length + RECORD_HEADER_LENGTH;
+		final int offset = reserve(length);
+		final ByteBuffer buffer = currentSegment.duplicate();
+		buffer.position(offset);
+		buffer.putInt(record.length);
+		buffer.put(record);
+		return toAddress(
+				currentSegmentIndex,
+				offset);
+	}
+
+	/**
+	 * Allocate a fixed size block from the current segment, moving on to a new
+	 * segment if the block does not fit
+	 *
+	 * @param length
+	 *            the length of the block in bytes
+	 * @return a buffer for the block, zero-indexed at its start
+	 */
+	public synchronized ByteBuffer allocate(
+			final int length ) {
+		checkOpen();
+		final int offset = reserve(length);
+		final ByteBuffer buffer = currentSegment.duplicate();
+		buffer.position(offset);
+		buffer.limit(offset + length);
+		return buffer.slice();
+	}
+
+	/**
+	 * Get a record previously appended
+	 *
+	 * @param address
+	 *            the address returned when the record was appended
+	 * @return a read-only buffer positioned at the start of the record and
+	 *         limited to its end
+	 */
+	public ByteBuffer getRecord(
+			final long address ) {
+		checkOpen();
+		final ByteBuffer segment;
+		try {
+			segment = segments.get(getSegmentIndex(address));
+		}
+		catch (final IndexOutOfBoundsException e) {
+			// the segments may have been closed since they were checked
+			checkOpen();
+			throw e;
+		}
+		final ByteBuffer buffer = segment.asReadOnlyBuffer();
+		final int offset = getOffset(address);
+		final int length = buffer.getInt(offset);
+		buffer.limit(offset + RECORD_HEADER_LENGTH + length);
+		buffer.position(offset + RECORD_HEADER_LENGTH);
+		return buffer;
+	}
+
+	/**
+	 * @return the number of segments that have been mapped
+	 */
+	public int getSegmentCount() {
+		return segments.size();
+	}
+
+	/**
+	 * Release all of the segments. Records can no longer be appended or read
+	 * once the segments are closed, while buffers previously returned remain
+	 * valid until they are garbage collected along with the mappings.
+	 */
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		currentSegment = null;
+		segments.clear();
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	private void checkOpen() {
+		if (closed) {
+			throw new IllegalStateException(
+					"Off-heap segments are closed");
+		}
+	}
+
+	private int reserve(
+			final int length ) {
+		if ((currentSegment == null) || (currentSegment.remaining() < length)) {
+			// a record larger than the segment size gets a segment of its own
+			currentSegment = mapSegment(Math.max(
+					segmentSize,
+					length));
+			segments.add(currentSegment);
+			currentSegmentIndex = segments.size() - 1;
+		}
+		final int offset = currentSegment.position();
+		currentSegment.position(offset + length);
+		return offset;
+	}
+
+	private MappedByteBuffer mapSegment(
+			final int size ) {
+		try {
+			if (!directory.exists() && !directory.mkdirs()) {
+				throw new IOException(
+						"Unable to create directory '" + directory.getAbsolutePath() + "'");
+			}
+			final File file = File.createTempFile(
+					prefix,
+					".seg",
+					directory);
+			final MappedByteBuffer buffer;
+			try (RandomAccessFile randomAccessFile = new RandomAccessFile(
+					file,
+					"rw")) {
+				randomAccessFile.setLength(size);
+				buffer = randomAccessFile.getChannel().map(
+						MapMode.READ_WRITE,
+						0,
+						size);
+			}
+			// the mapping remains valid after the file is deleted
+			if (!file.delete()) {
+				file.deleteOnExit();
+			}
+			return buffer;
+		}
+		catch (final IOException e) {
+			LOGGER.error(
+					"Unable to map segment in '" + directory.getAbsolutePath() + "'",
+					e);
+			throw new IllegalStateException(
+					"Unable to map off-heap segment",
+					e);
+		}
+	}
+
+	private static long toAddress(
+			final int segmentIndex,
+			final int offset ) {
+		return (((long) segmentIndex) << 32) | (offset & 0xFFFFFFFFL);
+	}
+
+	private static int getSegmentIndex(
+			final long address ) {
+		return (int) (address >>> 32);
+	}
+
+	private static int getOffset(
+			final long address ) {
+		return (int) address;
+	}
+}
@@ -0,0 +1,47 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import mil.nga.giat.geowave.core.store.DataStore;
+import mil.nga.giat.geowave.core.store.GenericStoreFactory;
+import mil.nga.giat.geowave.core.store.StoreFactoryFamilySpi;
+import mil.nga.giat.geowave.core.store.adapter.AdapterIndexMappingStore;
+import mil.nga.giat.geowave.core.store.adapter.AdapterStore;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
+import mil.nga.giat.geowave.core.store.index.IndexStore;
+import mil.nga.giat.geowave.core.store.index.SecondaryIndexDataStore;
+
+public class OffHeapStoreFactoryFamily extends
+		AbstractOffHeapFactory implements
+		StoreFactoryFamilySpi
+{
+
+	@Override
+	public GenericStoreFactory<DataStore> getDataStoreFactory() {
+		return new OffHeapDataStoreFactory();
+	}
+
+	@Override
+	public GenericStoreFactory<DataStatisticsStore> getDataStatisticsStoreFactory() {
+		return new OffHeapDataStatisticsStoreFactory();
+	}
+
+	@Override
+	public GenericStoreFactory<IndexStore> getIndexStoreFactory() {
+		return new OffHeapIndexStoreFactory();
+	}
+
+	@Override
+	public GenericStoreFactory<AdapterStore> getAdapterStoreFactory() {
+		return new OffHeapAdapterStoreFactory();
+	}
+
+	@Override
+	public GenericStoreFactory<SecondaryIndexDataStore> getSecondaryIndexDataStore() {
+		return new OffHeapSecondaryIndexStoreFactory();
+	}
+
+	@Override
+	public GenericStoreFactory<AdapterIndexMappingStore> getAdapterIndexMappingStoreFactory() {
+		return new OffHeapAdapterIndexMappingStoreFactory();
+	}
+
+}
@@ -15,6 +15,7 @@ import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
 import mil.nga.giat.geowave.core.store.adapter.statistics.DuplicateEntryCount;
 import mil.nga.giat.geowave.core.store.filter.DedupeFilter;
 import mil.nga.giat.geowave.core.store.filter.DistributableQueryFilter;
+import mil.nga.giat.geowave.core.store.filter.InsertionIdDedupeFilter;
 import mil.nga.giat.geowave.core.store.filter.QueryFilter;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.query.aggregate.Aggregation;
@@ -31,6 +32,9 @@ public class ConstraintsQuery
 
 	private final IndexMetaData[] indexMetaData;
 	private final PrimaryIndex index;
+	private final boolean dedupe;
+	private boolean serverSideDedupe = false;
+	private List<ByteArrayRange> allRanges;
 
 	public ConstraintsQuery(
 			final List<MultiDimensionalNumericData> constraints,
@@ -50,6 +54,7 @@ public class ConstraintsQuery
 		if ((duplicateCounts != null) && !duplicateCounts.isAnyEntryHaveDuplicates()) {
 			clientDedupeFilter = null;
 		}
+		dedupe = (clientDedupeFilter != null);
 		// add dedupe filters to the front of both lists so that the
 		// de-duplication is performed before any more complex filtering
 		// operations, use the supplied client dedupe filter if possible
@@ -67,6 +72,31 @@ public class ConstraintsQuery
 		}
 	}
 
+	/**
+	 * Add an {@link InsertionIdDedupeFilter} to the front of the distributable
+	 * filters so that only one copy of each duplicated entry is returned from
+	 * each server. The client dedupe filter is retained to remove duplicates
+	 * across indices and any copies the insertion ID rules cannot decide. This
+	 * is only done when there are other distributable filters, because
+	 * otherwise the data stores filter rows by the coordinate ranges of their
+	 * insertion IDs, which may reject the canonical copy.
+	 */
+	public void enableServerSideDedupe() {
+		if (!dedupe || serverSideDedupe || distributableFilters.isEmpty()) {
+			return;
+		}
+		serverSideDedupe = true;
+		distributableFilters.add(
+				0,
+				new InsertionIdDedupeFilter(
+						index,
+						getAllRanges()));
+	}
+
+	public boolean isServerSideDedupe() {
+		return serverSideDedupe;
+	}
+
 	public boolean isAggregation() {
 		return ((aggregation != null) && (aggregation.getRight() != null));
 	}
@@ -129,11 +159,16 @@ public class ConstraintsQuery
 	}
 
 	public List<ByteArrayRange> getAllRanges() {
-		return DataStoreUtils.constraintsToByteArrayRanges(
-				constraints,
-				index.getIndexStrategy(),
-				MAX_RANGE_DECOMPOSITION,
-				indexMetaData);
+		// the ranges are also used by the server-side dedupe filter, so they
+		// are only decomposed once
+		if (allRanges == null) {
+			allRanges = DataStoreUtils.constraintsToByteArrayRanges(
+					constraints,
+					index.getIndexStrategy(),
+					MAX_RANGE_DECOMPOSITION,
+					indexMetaData);
+		}
+		return allRanges;
 	}
 
 	private SplitFilterLists splitList(
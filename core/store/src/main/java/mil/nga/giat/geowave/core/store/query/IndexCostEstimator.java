@@ -0,0 +1,217 @@
+package mil.nga.giat.geowave.core.store.query;
+
+import java.util.List;
+import java.util.Map;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
+import mil.nga.giat.geowave.core.index.IndexUtils;
+import mil.nga.giat.geowave.core.index.dimension.NumericDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+import mil.nga.giat.geowave.core.store.adapter.statistics.CountDataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeHistogramStatistics;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.util.DataStoreUtils;
+
+/**
+ * Estimates the cost of a query on each index of an adapter from the adapter's
+ * statistics, so that the index reading the fewest rows can be chosen. The
+ * rows read on an index are estimated from its row range histogram if there is
+ * one, and otherwise from the count of the adapter and the selectivity of the
+ * query's constraints on each dimension of the index. Each range the query is
+ * decomposed into adds the cost of a seek.
+ *
+ * The selectivity of a dimension's constraint defaults to its share of the
+ * dimension's full range, extensions can estimate it from attribute
+ * statistics instead.
+ */
+public class IndexCostEstimator
+{
+	/**
+	 * The cost of seeking to each range, in rows read
+	 */
+	public static final double DEFAULT_RANGE_COST = 16;
+
+	private final double rangeCost;
+
+	public IndexCostEstimator() {
+		this(
+				DEFAULT_RANGE_COST);
+	}
+
+	public IndexCostEstimator(
+			final double rangeCost ) {
+		this.rangeCost = rangeCost;
+	}
+
+	/**
+	 * @param adapterId
+	 *            the adapter queried
+	 * @param index
+	 *            the index to estimate the cost for
+	 * @param query
+	 *            the query
+	 * @param stats
+	 *            the statistics of the adapter by statistics ID
+	 * @return the estimated cost
+	 */
+	public <T> IndexQueryCost estimateCost(
+			final ByteArrayId adapterId,
+			final PrimaryIndex index,
+			final Query query,
+			final Map<ByteArrayId, DataStatistics<T>> stats ) {
+		if ((query != null) && !query.isSupported(index)) {
+			return new IndexQueryCost(
+					adapterId,
+					index,
+					IndexQueryCost.EstimateSource.UNSUPPORTED,
+					-1,
+					0,
+					rangeCost);
+		}
+		final CountDataStatistics<?> count = (CountDataStatistics<?>) stats.get(CountDataStatistics.STATS_TYPE);
+		final boolean countKnown = (count != null) && count.isSet();
+		final List<MultiDimensionalNumericData> constraints = (query == null) ? null : query.getIndexConstraints(index
+				.getIndexStrategy());
+		if ((constraints == null) || IndexUtils.isFullTableScan(constraints)) {
+			return new IndexQueryCost(
+					adapterId,
+					index,
+					countKnown ? IndexQueryCost.EstimateSource.FULL_TABLE_SCAN : IndexQueryCost.EstimateSource.UNKNOWN,
+					countKnown ? count.getCount() : -1,
+					1,
+					rangeCost);
+		}
+		final List<ByteArrayRange> ranges = DataStoreUtils.constraintsToByteArrayRanges(
+				constraints,
+				index.getIndexStrategy(),
+				ConstraintsQuery.MAX_RANGE_DECOMPOSITION);
+		if (stats.containsKey(RowRangeHistogramStatistics.composeId(index.getId()))) {
+			return new IndexQueryCost(
+					adapterId,
+					index,
+					IndexQueryCost.EstimateSource.ROW_RANGE_HISTOGRAM,
+					DataStoreUtils.cardinality(
+							index,
+							stats,
+							ranges),
+					ranges.size(),
+					rangeCost);
+		}
+		if (countKnown) {
+			return new IndexQueryCost(
+					adapterId,
+					index,
+					IndexQueryCost.EstimateSource.SELECTIVITY,
+					count.getCount() * estimateSelectivity(
+							index,
+							constraints,
+							stats),
+					ranges.size(),
+					rangeCost);
+		}
+		return new IndexQueryCost(
+				adapterId,
+				index,
+				IndexQueryCost.EstimateSource.UNKNOWN,
+				-1,
+				ranges.size(),
+				rangeCost);
+	}
+
+	/**
+	 * @return the estimated fraction of the adapter's entries within the
+	 *         constraints
+	 */
+	protected <T> double estimateSelectivity(
+			final PrimaryIndex index,
+			final List<MultiDimensionalNumericData> constraints,
+			final Map<ByteArrayId, DataStatistics<T>> stats ) {
+		final NumericDimensionDefinition[] dimensions = index.getIndexStrategy().getOrderedDimensionDefinitions();
+		double selectivity = 0;
+		for (final MultiDimensionalNumericData constraint : constraints) {
+			final NumericData[] dataPerDimension = constraint.getDataPerDimension();
+			double constraintSelectivity = 1;
+			for (int d = 0; (d < dataPerDimension.length) && (d < dimensions.length); d++) {
+				constraintSelectivity *= estimateSelectivity(
+						dimensions[d],
+						dataPerDimension[d],
+						stats);
+			}
+			selectivity += constraintSelectivity;
+		}
+		return Math.min(
+				1,
+				selectivity);
+	}
+
+	/**
+	 * @return the estimated fraction of the adapter's entries within the
+	 *         constraint on a single dimension
+	 */
+	protected <T> double estimateSelectivity(
+			final NumericDimensionDefinition dimension,
+			final NumericData constraint,
+			final Map<ByteArrayId, DataStatistics<T>> stats ) {
+		final NumericData fullRange = dimension.getFullRange();
+		if (fullRange == null) {
+			return 1;
+		}
+		return getOverlap(
+				constraint.getMin(),
+				constraint.getMax(),
+				fullRange.getMin(),
+				fullRange.getMax());
+	}
+
+	/**
+	 * @return the fraction of the range from min to max that overlaps the
+	 *         constraint, assuming values are uniformly distributed
+	 */
+	protected static double getOverlap(
+			final double constraintMin,
+			final double constraintMax,
+			final double min,
+			final double max ) {
+		final double range = max - min;
+		if (Double.isNaN(range) || Double.isInfinite(range)) {
+			return 1;
+		}
+		if (range <= 0) {
+			return ((constraintMin <= max) && (constraintMax >= min)) ? 1 : 0;
+		}
+		final double overlap = Math.min(
+				constraintMax,
+				max) - Math.max(
+				constraintMin,
+				min);
+		return Math.max(
+				0,
+				Math.min(
+						1,
+						overlap / range));
+	}
+
+	/**
+	 * Mark and return the lowest cost, favoring the earliest of equal costs
+	 *
+	 * @param costs
+	 *            the costs of each index for a single adapter
+	 * @return the lowest cost, or null if there are none
+	 */
+	public static IndexQueryCost selectLowestCost(
+			final List<IndexQueryCost> costs ) {
+		IndexQueryCost lowest = null;
+		for (final IndexQueryCost cost : costs) {
+			if ((lowest == null) || (cost.compareTo(lowest) < 0)) {
+				lowest = cost;
+			}
+		}
+		if (lowest != null) {
+			lowest.setSelected(true);
+		}
+		return lowest;
+	}
+}
@@ -0,0 +1,151 @@
+package mil.nga.giat.geowave.core.store.query;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+
+/**
+ * The estimated cost of querying an adapter's data using an index, as
+ * estimated by the {@link IndexCostEstimator}. The cost is in rows read,
+ * including the cost of seeking to each range the query is decomposed into.
+ */
+public class IndexQueryCost implements
+		Comparable<IndexQueryCost>
+{
+	/**
+	 * How the rows read were estimated, from most to least accurate
+	 */
+	public static enum EstimateSource {
+		ROW_RANGE_HISTOGRAM(
+				"row range histogram"),
+		SELECTIVITY(
+				"count and estimated selectivity"),
+		FULL_TABLE_SCAN(
+				"count, full table scan"),
+		UNKNOWN(
+				"no statistics"),
+		UNSUPPORTED(
+				"index not supported by the query");
+
+		private final String description;
+
+		private EstimateSource(
+				final String description ) {
+			this.description = description;
+		}
+
+		@Override
+		public String toString() {
+			return description;
+		}
+	}
+
+	private final ByteArrayId adapterId;
+	private final PrimaryIndex index;
+	private final EstimateSource source;
+	private final double estimatedRows;
+	private final int rangeCount;
+	private final double rangeCost;
+	private boolean selected = false;
+
+	public IndexQueryCost(
+			final ByteArrayId adapterId,
+			final PrimaryIndex index,
+			final EstimateSource source,
+			final double estimatedRows,
+			final int rangeCount,
+			final double rangeCost ) {
+		this.adapterId = adapterId;
+		this.index = index;
+		this.source = source;
+		this.estimatedRows = estimatedRows;
+		this.rangeCount = rangeCount;
+		this.rangeCost = rangeCost;
+	}
+
+	public ByteArrayId getAdapterId() {
+		return adapterId;
+	}
+
+	public PrimaryIndex getIndex() {
+		return index;
+	}
+
+	public EstimateSource getSource() {
+		return source;
+	}
+
+	/**
+	 * @return the estimated rows read, or -1 if it could not be estimated
+	 */
+	public double getEstimatedRows() {
+		return estimatedRows;
+	}
+
+	public int getRangeCount() {
+		return rangeCount;
+	}
+
+	public boolean isEstimated() {
+		return (source != EstimateSource.UNKNOWN) && (source != EstimateSource.UNSUPPORTED);
+	}
+
+	/**
+	 * @return the estimated rows read plus the cost of each range, or positive
+	 *         infinity if the cost could not be estimated
+	 */
+	public double getCost() {
+		if (!isEstimated()) {
+			return Double.POSITIVE_INFINITY;
+		}
+		return estimatedRows + (rangeCount * rangeCost);
+	}
+
+	public boolean isSelected() {
+		return selected;
+	}
+
+	public void setSelected(
+			final boolean selected ) {
+		this.selected = selected;
+	}
+
+	@Override
+	public int compareTo(
+			final IndexQueryCost other ) {
+		if (source == EstimateSource.UNSUPPORTED) {
+			return (other.source == EstimateSource.UNSUPPORTED) ? 0 : 1;
+		}
+		if (other.source == EstimateSource.UNSUPPORTED) {
+			return -1;
+		}
+		return Double.compare(
+				getCost(),
+				other.getCost());
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder str = new StringBuilder();
+		str.append(
+				selected ? "* " : "  ").append(
+				(adapterId == null) ? "" : adapterId.getString()).append(
+				" on ").append(
+				index.getId().getString()).append(
+				": ");
+		if (isEstimated()) {
+			str.append(
+					"cost=").append(
+					Math.round(getCost())).append(
+					", rows=").append(
+					Math.round(estimatedRows)).append(
+					", ");
+		}
+		str.append(
+				"ranges=").append(
+				rangeCount).append(
+				" (").append(
+				source).append(
+				")");
+		return str.toString();
+	}
+}
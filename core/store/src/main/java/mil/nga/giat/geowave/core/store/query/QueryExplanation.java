@@ -0,0 +1,394 @@
+package mil.nga.giat.geowave.core.store.query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import net.sf.json.JSONArray;
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
+import mil.nga.giat.geowave.core.index.IndexUtils;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
+import mil.nga.giat.geowave.core.store.filter.DedupeFilter;
+import mil.nga.giat.geowave.core.store.filter.DistributableQueryFilter;
+import mil.nga.giat.geowave.core.store.filter.InsertionIdDedupeFilter;
+import mil.nga.giat.geowave.core.store.filter.QueryFilter;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.util.DataStoreUtils;
+
+/**
+ * Explains what a query will do without running it: the estimated cost of
+ * each candidate index, and for each index that is scanned, the adapters
+ * queried, the number of ranges the query is decomposed into, and which
+ * filters run within the data store and which run on the client. A profile of
+ * the query's execution may be attached.
+ */
+public class QueryExplanation
+{
+	private final List<IndexQueryCost> indexCosts;
+	private final List<IndexPlan> indexPlans;
+	private QueryProfile profile;
+
+	public QueryExplanation(
+			final List<IndexQueryCost> indexCosts,
+			final List<IndexPlan> indexPlans ) {
+		this.indexCosts = indexCosts;
+		this.indexPlans = indexPlans;
+	}
+
+	public List<IndexQueryCost> getIndexCosts() {
+		return indexCosts;
+	}
+
+	public List<IndexPlan> getIndexPlans() {
+		return indexPlans;
+	}
+
+	/**
+	 * @return the execution profile, or null if the query was only explained
+	 */
+	public QueryProfile getProfile() {
+		return profile;
+	}
+
+	public void setProfile(
+			final QueryProfile profile ) {
+		this.profile = profile;
+	}
+
+	/**
+	 * Explain a query over the index/adapter associations the data store will
+	 * scan
+	 *
+	 * @param indexAdapterPairs
+	 *            the indices scanned and the adapters queried on each
+	 * @param indexCosts
+	 *            the estimated cost of each candidate index, the costs of the
+	 *            indices scanned are marked as selected
+	 * @param query
+	 *            the query
+	 * @param serverSideFiltering
+	 *            where distributable filters run within the data store, such
+	 *            as "Accumulo iterator", or null if all filters run on the
+	 *            client
+	 * @return the explanation
+	 */
+	public static QueryExplanation explain(
+			final List<Pair<PrimaryIndex, List<DataAdapter<Object>>>> indexAdapterPairs,
+			final List<IndexQueryCost> indexCosts,
+			final Query query,
+			final String serverSideFiltering ) {
+		final List<IndexPlan> plans = new ArrayList<IndexPlan>();
+		for (final Pair<PrimaryIndex, List<DataAdapter<Object>>> indexAdapterPair : indexAdapterPairs) {
+			final PrimaryIndex index = indexAdapterPair.getLeft();
+			final List<ByteArrayId> adapterIds = new ArrayList<ByteArrayId>();
+			for (final DataAdapter<Object> adapter : indexAdapterPair.getRight()) {
+				if (!(query instanceof DataIdQuery) || ((DataIdQuery) query).getAdapterId().equals(
+						adapter.getAdapterId())) {
+					adapterIds.add(adapter.getAdapterId());
+				}
+			}
+			if (adapterIds.isEmpty()) {
+				continue;
+			}
+			plans.add(explain(
+					index,
+					adapterIds,
+					query,
+					serverSideFiltering));
+		}
+		// the selected indices are the ones that are scanned, which are not
+		// chosen by cost if cost-based selection is disabled
+		for (final IndexQueryCost cost : indexCosts) {
+			cost.setSelected(false);
+			for (final IndexPlan plan : plans) {
+				if (plan.indexId.equals(cost.getIndex().getId()) && plan.adapterIds.contains(cost.getAdapterId())) {
+					cost.setSelected(true);
+				}
+			}
+		}
+		return new QueryExplanation(
+				indexCosts,
+				plans);
+	}
+
+	private static IndexPlan explain(
+			final PrimaryIndex index,
+			final List<ByteArrayId> adapterIds,
+			final Query query,
+			final String serverSideFiltering ) {
+		final IndexPlan plan = new IndexPlan(
+				index.getId(),
+				adapterIds);
+		if (query instanceof RowIdQuery) {
+			plan.queryType = "row IDs";
+			plan.rangeCount = ((RowIdQuery) query).getRowIds().size();
+			return plan;
+		}
+		if (query instanceof DataIdQuery) {
+			plan.queryType = "data IDs";
+			plan.rangeCount = ((DataIdQuery) query).getDataIds().size();
+			return plan;
+		}
+		if (query instanceof PrefixIdQuery) {
+			plan.queryType = "row prefix";
+			plan.rangeCount = 1;
+			return plan;
+		}
+		final long start = System.nanoTime();
+		final List<MultiDimensionalNumericData> constraints = query.getIndexConstraints(index.getIndexStrategy());
+		final List<ByteArrayRange> ranges = ((constraints == null) || IndexUtils.isFullTableScan(constraints)) ? null
+				: DataStoreUtils.constraintsToByteArrayRanges(
+						constraints,
+						index.getIndexStrategy(),
+						ConstraintsQuery.MAX_RANGE_DECOMPOSITION);
+		if ((ranges == null) || ranges.isEmpty()) {
+			plan.queryType = "full table scan";
+			plan.rangeCount = 1;
+		}
+		else {
+			plan.queryType = "constraints";
+			plan.rangeCount = ranges.size();
+		}
+		plan.rangeDecompositionNanos = System.nanoTime() - start;
+
+		// filters are split the same way as by the constraints query, with
+		// the dedupe filters first
+		final List<QueryFilter> filters = query.createFilters(index.getIndexModel());
+		plan.clientSideFilters.add(DedupeFilter.class.getSimpleName());
+		if (filters != null) {
+			for (final QueryFilter filter : filters) {
+				if ((serverSideFiltering != null) && (filter instanceof DistributableQueryFilter)) {
+					if (plan.serverSideFilters.isEmpty()) {
+						plan.serverSideFilters.add(InsertionIdDedupeFilter.class.getSimpleName());
+						plan.serverSideFilters.add(DedupeFilter.class.getSimpleName());
+					}
+					plan.serverSideFilters.add(filter.getClass().getSimpleName());
+				}
+				else {
+					plan.clientSideFilters.add(filter.getClass().getSimpleName());
+				}
+			}
+		}
+		if (!plan.serverSideFilters.isEmpty()) {
+			plan.serverSideFiltering = serverSideFiltering;
+		}
+		return plan;
+	}
+
+	public JSONObject toJSONObject()
+			throws JSONException {
+		final JSONObject jo = new JSONObject();
+		final JSONArray costs = new JSONArray();
+		for (final IndexQueryCost cost : indexCosts) {
+			final JSONObject costObj = new JSONObject();
+			costObj.put(
+					"adapter",
+					(cost.getAdapterId() == null) ? "" : cost.getAdapterId().getString());
+			costObj.put(
+					"index",
+					cost.getIndex().getId().getString());
+			costObj.put(
+					"source",
+					cost.getSource().toString());
+			if (cost.isEstimated()) {
+				costObj.put(
+						"cost",
+						cost.getCost());
+				costObj.put(
+						"estimatedRows",
+						cost.getEstimatedRows());
+			}
+			costObj.put(
+					"ranges",
+					cost.getRangeCount());
+			costObj.put(
+					"selected",
+					cost.isSelected());
+			costs.add(costObj);
+		}
+		jo.put(
+				"indexCosts",
+				costs);
+		final JSONArray plans = new JSONArray();
+		for (final IndexPlan plan : indexPlans) {
+			plans.add(plan.toJSONObject());
+		}
+		jo.put(
+				"indexPlans",
+				plans);
+		if (profile != null) {
+			jo.put(
+					"profile",
+					profile.toJSONObject());
+		}
+		return jo;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder str = new StringBuilder();
+		if (!indexCosts.isEmpty()) {
+			str.append("Index selection:\n");
+			for (final IndexQueryCost cost : indexCosts) {
+				str.append(
+						"  ").append(
+						cost).append(
+						"\n");
+			}
+		}
+		str.append("Plan:\n");
+		for (final IndexPlan plan : indexPlans) {
+			str.append(
+					plan).append(
+					"\n");
+		}
+		if (profile != null) {
+			str.append(
+					profile).append(
+					"\n");
+		}
+		return str.toString();
+	}
+
+	/**
+	 * How a single index is scanned
+	 */
+	public static class IndexPlan
+	{
+		private final ByteArrayId indexId;
+		private final List<ByteArrayId> adapterIds;
+		private String queryType;
+		private int rangeCount;
+		private long rangeDecompositionNanos = 0;
+		private String serverSideFiltering;
+		private final List<String> serverSideFilters = new ArrayList<String>();
+		private final List<String> clientSideFilters = new ArrayList<String>();
+
+		public IndexPlan(
+				final ByteArrayId indexId,
+				final List<ByteArrayId> adapterIds ) {
+			this.indexId = indexId;
+			this.adapterIds = adapterIds;
+		}
+
+		public ByteArrayId getIndexId() {
+			return indexId;
+		}
+
+		public List<ByteArrayId> getAdapterIds() {
+			return adapterIds;
+		}
+
+		public String getQueryType() {
+			return queryType;
+		}
+
+		public int getRangeCount() {
+			return rangeCount;
+		}
+
+		public long getRangeDecompositionNanos() {
+			return rangeDecompositionNanos;
+		}
+
+		/**
+		 * @return where the server-side filters run, or null if there are
+		 *         none
+		 */
+		public String getServerSideFiltering() {
+			return serverSideFiltering;
+		}
+
+		public List<String> getServerSideFilters() {
+			return serverSideFilters;
+		}
+
+		public List<String> getClientSideFilters() {
+			return clientSideFilters;
+		}
+
+		public JSONObject toJSONObject()
+				throws JSONException {
+			final JSONObject jo = new JSONObject();
+			jo.put(
+					"index",
+					indexId.getString());
+			final JSONArray adapters = new JSONArray();
+			for (final ByteArrayId adapterId : adapterIds) {
+				adapters.add(adapterId.getString());
+			}
+			jo.put(
+					"adapters",
+					adapters);
+			jo.put(
+					"queryType",
+					queryType);
+			jo.put(
+					"ranges",
+					rangeCount);
+			jo.put(
+					"rangeDecompositionMillis",
+					TimeUnit.NANOSECONDS.toMillis(rangeDecompositionNanos));
+			if (serverSideFiltering != null) {
+				jo.put(
+						"serverSideFiltering",
+						serverSideFiltering);
+			}
+			jo.put(
+					"serverSideFilters",
+					JSONArray.fromObject(serverSideFilters));
+			jo.put(
+					"clientSideFilters",
+					JSONArray.fromObject(clientSideFilters));
+			return jo;
+		}
+
+		@Override
+		public String toString() {
+			final StringBuilder str = new StringBuilder();
+			str.append(
+					"  ").append(
+					indexId.getString()).append(
+					" (");
+			for (int i = 0; i < adapterIds.size(); i++) {
+				if (i > 0) {
+					str.append(", ");
+				}
+				str.append(adapterIds.get(
+						i).getString());
+			}
+			str.append(
+					"): ").append(
+					queryType).append(
+					", ").append(
+					rangeCount).append(
+					" ranges");
+			if (rangeDecompositionNanos > 0) {
+				str.append(
+						" decomposed in ").append(
+						TimeUnit.NANOSECONDS.toMillis(rangeDecompositionNanos)).append(
+						" ms");
+			}
+			if (!serverSideFilters.isEmpty()) {
+				str.append(
+						"\n    server-side (").append(
+						serverSideFiltering).append(
+						"): ").append(
+						serverSideFilters);
+			}
+			if (!clientSideFilters.isEmpty()) {
+				str.append(
+						"\n    client-side: ").append(
+						clientSideFilters);
+			}
+			return str.toString();
+		}
+	}
+}
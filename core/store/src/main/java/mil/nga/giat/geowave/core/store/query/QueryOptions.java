@@ -7,8 +7,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.google.common.base.Function;
@@ -24,6 +27,8 @@ import mil.nga.giat.geowave.core.store.adapter.AbstractDataAdapter;
 import mil.nga.giat.geowave.core.store.adapter.AdapterIndexMappingStore;
 import mil.nga.giat.geowave.core.store.adapter.AdapterStore;
 import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
 import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
 import mil.nga.giat.geowave.core.store.callback.ScanCallback;
 import mil.nga.giat.geowave.core.store.index.IndexStore;
@@ -32,6 +37,7 @@ import mil.nga.giat.geowave.core.store.query.aggregate.Aggregation;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.log4j.Logger;
 
 /**
  * Directs a query to restrict searches to specific adapters, indices, etc.. For
@@ -65,6 +71,7 @@ public class QueryOptions implements
 	 *
 	 */
 	private static final long serialVersionUID = 544085046847603371L;
+	private final static Logger LOGGER = Logger.getLogger(QueryOptions.class);
 
 	private static ScanCallback<Object> DEFAULT_CALLBACK = new ScanCallback<Object>() {
 		@Override
@@ -90,6 +97,8 @@ public class QueryOptions implements
 	private transient ScanCallback<?> scanCallback = DEFAULT_CALLBACK;
 	private String[] authorizations = new String[0];
 	private Pair<List<String>, DataAdapter<?>> fieldIdsAdapterPair;
+	private transient long dedupeExpectedEntries = -1;
+	private transient double dedupeFalsePositiveProbability = -1;
 
 	public QueryOptions(
 			final ByteArrayId adapterId,
@@ -145,9 +154,12 @@ public class QueryOptions implements
 		limit = options.limit;
 		scanCallback = options.scanCallback;
 		authorizations = options.authorizations;
-		adapters = options.adapters;
 		index = options.index;
 		aggregationAdapterPair = options.aggregationAdapterPair;
+		maxResolutionSubsamplingPerDimension = options.maxResolutionSubsamplingPerDimension;
+		fieldIdsAdapterPair = options.fieldIdsAdapterPair;
+		dedupeExpectedEntries = options.dedupeExpectedEntries;
+		dedupeFalsePositiveProbability = options.dedupeFalsePositiveProbability;
 	}
 
 	/**
@@ -335,6 +347,36 @@ public class QueryOptions implements
 		this.authorizations = authorizations;
 	}
 
+	/**
+	 * Use a fixed size Bloom filter rather than a fingerprint set to
+	 * de-duplicate results. Distinct entries may be dropped as duplicates with
+	 * the given probability, so this is only appropriate for queries that can
+	 * tolerate a small error, such as counts and rendering.
+	 * 
+	 * @param expectedEntries
+	 *            the expected number of entries to be visited
+	 * @param falsePositiveProbability
+	 *            the probability that a distinct entry is filtered
+	 */
+	public void setApproximateDedupe(
+			final long expectedEntries,
+			final double falsePositiveProbability ) {
+		dedupeExpectedEntries = expectedEntries;
+		dedupeFalsePositiveProbability = falsePositiveProbability;
+	}
+
+	public boolean isApproximateDedupe() {
+		return dedupeFalsePositiveProbability > 0;
+	}
+
+	public long getDedupeExpectedEntries() {
+		return dedupeExpectedEntries;
+	}
+
+	public double getDedupeFalsePositiveProbability() {
+		return dedupeFalsePositiveProbability;
+	}
+
 	/**
 	 * Return the set of adapter/index associations. If the adapters are not
 	 * provided, then look up all of them. If the index is not provided, then
@@ -390,6 +432,175 @@ public class QueryOptions implements
 				indexStore));
 	}
 
+	/**
+	 * Return a set list adapter/index associations, like
+	 * {@link #getAdaptersWithMinimalSetOfIndices(AdapterStore, AdapterIndexMappingStore, IndexStore)}
+	 * but choosing the index of each adapter with the lowest cost for the
+	 * query as estimated from the adapter's statistics. Adapters with a single
+	 * index, or without statistics to estimate the cost of their indices, are
+	 * associated with the same index as they would be otherwise.
+	 * 
+	 * @param adapterStore
+	 * @param adapterIndexMappingStore
+	 * @param indexStore
+	 * @param statisticsStore
+	 * @param query
+	 * @return
+	 * @throws IOException
+	 */
+	public List<Pair<PrimaryIndex, List<DataAdapter<Object>>>> getAdaptersWithMinimalSetOfIndices(
+			final AdapterStore adapterStore,
+			final AdapterIndexMappingStore adapterIndexMappingStore,
+			final IndexStore indexStore,
+			final DataStatisticsStore statisticsStore,
+			final Query query )
+			throws IOException {
+		final Map<ByteArrayId, DataAdapter<Object>> adaptersById = new HashMap<ByteArrayId, DataAdapter<Object>>();
+		final List<Pair<PrimaryIndex, DataAdapter<Object>>> result = new ArrayList<Pair<PrimaryIndex, DataAdapter<Object>>>();
+		for (final IndexQueryCost cost : estimateIndexCosts(
+				compileIndicesForAdapters(
+						adapterStore,
+						adapterIndexMappingStore,
+						indexStore),
+				statisticsStore,
+				query,
+				false,
+				adaptersById)) {
+			if (cost.isSelected()) {
+				result.add(Pair.of(
+						cost.getIndex(),
+						adaptersById.get(cost.getAdapterId())));
+			}
+		}
+		return combineByIndex(result);
+	}
+
+	/**
+	 * Explain the choice of index for each adapter by
+	 * {@link #getAdaptersWithMinimalSetOfIndices(AdapterStore, AdapterIndexMappingStore, IndexStore, DataStatisticsStore, Query)}
+	 * 
+	 * @param adapterStore
+	 * @param adapterIndexMappingStore
+	 * @param indexStore
+	 * @param statisticsStore
+	 * @param query
+	 * @return the estimated cost of each index of each adapter, with the
+	 *         chosen indices selected
+	 * @throws IOException
+	 */
+	public List<IndexQueryCost> explainIndexSelection(
+			final AdapterStore adapterStore,
+			final AdapterIndexMappingStore adapterIndexMappingStore,
+			final IndexStore indexStore,
+			final DataStatisticsStore statisticsStore,
+			final Query query )
+			throws IOException {
+		return estimateIndexCosts(
+				compileIndicesForAdapters(
+						adapterStore,
+						adapterIndexMappingStore,
+						indexStore),
+				statisticsStore,
+				query,
+				true,
+				new HashMap<ByteArrayId, DataAdapter<Object>>());
+	}
+
+	private List<IndexQueryCost> estimateIndexCosts(
+			final List<Pair<PrimaryIndex, DataAdapter<Object>>> input,
+			final DataStatisticsStore statisticsStore,
+			final Query query,
+			final boolean estimateSingleIndices,
+			final Map<ByteArrayId, DataAdapter<Object>> adaptersById ) {
+		// group the indices by adapter, in the order they would otherwise be
+		// chosen
+		final Map<ByteArrayId, List<PrimaryIndex>> indicesByAdapter = new LinkedHashMap<ByteArrayId, List<PrimaryIndex>>();
+		for (final Pair<PrimaryIndex, DataAdapter<Object>> item : input) {
+			final ByteArrayId adapterId = item.getRight().getAdapterId();
+			List<PrimaryIndex> indices = indicesByAdapter.get(adapterId);
+			if (indices == null) {
+				indices = new ArrayList<PrimaryIndex>();
+				indicesByAdapter.put(
+						adapterId,
+						indices);
+				adaptersById.put(
+						adapterId,
+						item.getRight());
+			}
+			indices.add(item.getLeft());
+		}
+		final IndexCostEstimator estimator = new IndexCostEstimator();
+		final List<IndexQueryCost> result = new ArrayList<IndexQueryCost>();
+		for (final Map.Entry<ByteArrayId, List<PrimaryIndex>> entry : indicesByAdapter.entrySet()) {
+			final List<IndexQueryCost> costs = new ArrayList<IndexQueryCost>();
+			if ((entry.getValue().size() == 1) && !estimateSingleIndices) {
+				costs.add(new IndexQueryCost(
+						entry.getKey(),
+						entry.getValue().get(
+								0),
+						IndexQueryCost.EstimateSource.UNKNOWN,
+						-1,
+						0,
+						IndexCostEstimator.DEFAULT_RANGE_COST));
+			}
+			else {
+				final Map<ByteArrayId, DataStatistics<Object>> stats = getStatistics(
+						statisticsStore,
+						entry.getKey());
+				for (final PrimaryIndex index : entry.getValue()) {
+					costs.add(estimator.estimateCost(
+							entry.getKey(),
+							index,
+							query,
+							stats));
+				}
+			}
+			IndexCostEstimator.selectLowestCost(costs);
+			result.addAll(costs);
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<ByteArrayId, DataStatistics<Object>> getStatistics(
+			final DataStatisticsStore statisticsStore,
+			final ByteArrayId adapterId ) {
+		final Map<ByteArrayId, DataStatistics<Object>> stats = new HashMap<ByteArrayId, DataStatistics<Object>>();
+		if (statisticsStore == null) {
+			return stats;
+		}
+		try (CloseableIterator<DataStatistics<?>> it = statisticsStore.getDataStatistics(
+				adapterId,
+				getAuthorizations())) {
+			while (it.hasNext()) {
+				final DataStatistics<?> stat = it.next();
+				final DataStatistics<Object> existing = stats.get(stat.getStatisticsId());
+				if (existing == null) {
+					stats.put(
+							stat.getStatisticsId(),
+							(DataStatistics<Object>) stat);
+				}
+				else {
+					// statistics with different visibilities, merged into a
+					// copy to leave the store's statistics as they are
+					final DataStatistics<Object> merged = PersistenceUtils.fromBinary(
+							PersistenceUtils.toBinary(existing),
+							DataStatistics.class);
+					merged.merge(stat);
+					stats.put(
+							stat.getStatisticsId(),
+							merged);
+				}
+			}
+		}
+		catch (final IOException e) {
+			LOGGER.warn(
+					"Unable to read statistics for adapter '" + adapterId.getString() + "'",
+					e);
+		}
+		return stats;
+	}
+
 	private List<Pair<PrimaryIndex, DataAdapter<Object>>> compileIndicesForAdapters(
 			final AdapterStore adapterStore,
 			final AdapterIndexMappingStore adapterIndexMappingStore,
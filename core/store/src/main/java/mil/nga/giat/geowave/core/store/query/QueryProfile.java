@@ -0,0 +1,226 @@
+package mil.nga.giat.geowave.core.store.query;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+
+import org.apache.log4j.Logger;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.DataStore;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
+import mil.nga.giat.geowave.core.store.callback.ScanCallback;
+
+/**
+ * The execution profile of a query. The profile is the scan callback of the
+ * profiled query so that it reaches the iterators that read and decode each
+ * backend's rows, which record the time spent waiting on the scan and the time
+ * spent decoding and filtering the rows on the client, along with the rows
+ * scanned and returned. Filtering done within the data store's servers is
+ * part of the scan time as it cannot be measured from the client.
+ */
+public class QueryProfile implements
+		ScanCallback<Object>
+{
+	private final static Logger LOGGER = Logger.getLogger(QueryProfile.class);
+
+	public static enum Phase {
+		RANGE_DECOMPOSITION(
+				"range decomposition"),
+		SCAN(
+				"scan, including server-side filtering"),
+		CLIENT_FILTERING_AND_DECODING(
+				"decoding, client-side filtering and dedupe");
+
+		private final String description;
+
+		private Phase(
+				final String description ) {
+			this.description = description;
+		}
+
+		@Override
+		public String toString() {
+			return description;
+		}
+	}
+
+	private final ScanCallback<Object> delegate;
+	private final AtomicLong[] phaseNanos = new AtomicLong[Phase.values().length];
+	private final AtomicLong rowsScanned = new AtomicLong();
+	private final AtomicLong rowsReturned = new AtomicLong();
+	private long totalNanos = 0;
+
+	public QueryProfile() {
+		this(
+				null);
+	}
+
+	/**
+	 * @param delegate
+	 *            the scan callback of the profiled query, which is called for
+	 *            each entry returned
+	 */
+	public QueryProfile(
+			final ScanCallback<Object> delegate ) {
+		this.delegate = delegate;
+		for (int i = 0; i < phaseNanos.length; i++) {
+			phaseNanos[i] = new AtomicLong();
+		}
+	}
+
+	@Override
+	public void entryScanned(
+			final DataStoreEntryInfo entryInfo,
+			final Object entry ) {
+		rowsReturned.incrementAndGet();
+		if (delegate != null) {
+			delegate.entryScanned(
+					entryInfo,
+					entry);
+		}
+	}
+
+	public void addTime(
+			final Phase phase,
+			final long nanos ) {
+		phaseNanos[phase.ordinal()].addAndGet(nanos);
+	}
+
+	public void rowScanned() {
+		rowsScanned.incrementAndGet();
+	}
+
+	public long getTime(
+			final Phase phase,
+			final TimeUnit unit ) {
+		return unit.convert(
+				phaseNanos[phase.ordinal()].get(),
+				TimeUnit.NANOSECONDS);
+	}
+
+	public long getTotalTime(
+			final TimeUnit unit ) {
+		return unit.convert(
+				totalNanos,
+				TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * @return the rows read from the data store, after any server-side
+	 *         filtering
+	 */
+	public long getRowsScanned() {
+		return rowsScanned.get();
+	}
+
+	/**
+	 * @return the entries returned by the query
+	 */
+	public long getRowsReturned() {
+		return rowsReturned.get();
+	}
+
+	/**
+	 * Run a query to completion, discarding the results, and profile it
+	 *
+	 * @param dataStore
+	 *            the data store to query
+	 * @param queryOptions
+	 *            the query options, which are copied so that the profile can
+	 *            be the scan callback without modifying them
+	 * @param query
+	 *            the query
+	 * @param explanation
+	 *            the explanation of the query, the profile includes the time it
+	 *            took to decompose the query's ranges
+	 * @return the profile
+	 */
+	@SuppressWarnings("unchecked")
+	public static QueryProfile profile(
+			final DataStore dataStore,
+			final QueryOptions queryOptions,
+			final Query query,
+			final QueryExplanation explanation ) {
+		final QueryOptions options = (queryOptions == null) ? new QueryOptions() : new QueryOptions(
+				queryOptions);
+		final QueryProfile profile = new QueryProfile(
+				(ScanCallback<Object>) options.getScanCallback());
+		if (explanation != null) {
+			for (final QueryExplanation.IndexPlan plan : explanation.getIndexPlans()) {
+				profile.addTime(
+						Phase.RANGE_DECOMPOSITION,
+						plan.getRangeDecompositionNanos());
+			}
+		}
+		options.setScanCallback(profile);
+		final long start = System.nanoTime();
+		try (CloseableIterator<?> it = dataStore.query(
+				options,
+				query)) {
+			while (it.hasNext()) {
+				it.next();
+			}
+		}
+		catch (final IOException e) {
+			LOGGER.warn(
+					"Unable to close profiled query",
+					e);
+		}
+		finally {
+			profile.totalNanos = System.nanoTime() - start;
+		}
+		return profile;
+	}
+
+	public JSONObject toJSONObject()
+			throws JSONException {
+		final JSONObject jo = new JSONObject();
+		jo.put(
+				"totalMillis",
+				getTotalTime(TimeUnit.MILLISECONDS));
+		for (final Phase phase : Phase.values()) {
+			jo.put(
+					phase.name(),
+					getTime(
+							phase,
+							TimeUnit.MILLISECONDS));
+		}
+		jo.put(
+				"rowsScanned",
+				getRowsScanned());
+		jo.put(
+				"rowsReturned",
+				getRowsReturned());
+		return jo;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder str = new StringBuilder();
+		str.append(
+				"Profile: ").append(
+				getTotalTime(TimeUnit.MILLISECONDS)).append(
+				" ms total\n");
+		for (final Phase phase : Phase.values()) {
+			str.append(
+					"  ").append(
+					getTime(
+							phase,
+							TimeUnit.MILLISECONDS)).append(
+					" ms ").append(
+					phase).append(
+					"\n");
+		}
+		str.append(
+				"  ").append(
+				getRowsScanned()).append(
+				" rows scanned, ").append(
+				getRowsReturned()).append(
+				" returned");
+		return str.toString();
+	}
+}
@@ -0,0 +1,311 @@
+package mil.nga.giat.geowave.core.store.query.reactive;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+
+/**
+ * Publishes the results of a query from a closeable iterator. For each
+ * subscription the iterator is opened on an executor thread once results are
+ * first requested, and results are prefetched into a bounded buffer ahead of
+ * the demand of the subscriber. The producer blocks while the buffer is full,
+ * so no more than the buffer size of results are held in memory. Cancelling
+ * the subscription interrupts the producer and closes the iterator.
+ *
+ * @param <T>
+ *            the type of the results
+ */
+abstract public class CloseableIteratorPublisher<T> implements
+		QueryPublisher<T>
+{
+	private final static Logger LOGGER = Logger.getLogger(CloseableIteratorPublisher.class);
+	public final static int DEFAULT_BUFFER_SIZE = 1000;
+	private static ExecutorService defaultExecutor;
+
+	private final ExecutorService executor;
+	private final int bufferSize;
+
+	public CloseableIteratorPublisher(
+			final int bufferSize ) {
+		this(
+				getDefaultExecutor(),
+				bufferSize);
+	}
+
+	public CloseableIteratorPublisher(
+			final ExecutorService executor,
+			final int bufferSize ) {
+		this.executor = executor;
+		this.bufferSize = Math.max(
+				1,
+				bufferSize);
+	}
+
+	/**
+	 * Open the iterator of results for a subscription, this is called on the
+	 * producer thread
+	 *
+	 * @return the results
+	 */
+	abstract protected CloseableIterator<T> openIterator();
+
+	@Override
+	public void subscribe(
+			final QuerySubscriber<? super T> subscriber ) {
+		if (subscriber == null) {
+			throw new NullPointerException(
+					"Subscriber must not be null");
+		}
+		subscriber.onSubscribe(new IteratorSubscription(
+				subscriber));
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * The producers block while their buffer is full, so they are run on an
+	 * unbounded pool of daemon threads rather than a fixed pool that could be
+	 * exhausted by slow subscribers.
+	 *
+	 * @return the executor shared by publishers that are not given one
+	 */
+	public static synchronized ExecutorService getDefaultExecutor() {
+		if (defaultExecutor == null) {
+			defaultExecutor = createExecutor("geowave-query-publisher-%d");
+		}
+		return defaultExecutor;
+	}
+
+	public static ExecutorService createExecutor(
+			final String nameFormat ) {
+		return Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(
+				true).setNameFormat(
+				nameFormat).build());
+	}
+
+	private class IteratorSubscription implements
+			QuerySubscription,
+			Runnable
+	{
+		private final QuerySubscriber<? super T> subscriber;
+		private final Queue<T> buffer = new ConcurrentLinkedQueue<T>();
+		private final AtomicInteger bufferedCount = new AtomicInteger();
+		private final Object bufferLock = new Object();
+		private final AtomicLong requested = new AtomicLong();
+		private final AtomicInteger drainCount = new AtomicInteger();
+		private final AtomicBoolean started = new AtomicBoolean(
+				false);
+		private volatile Future<?> producer;
+		// no further signals are delivered to the subscriber once cancelled
+		private volatile boolean cancelled = false;
+		// the producer stops reading results once stopped
+		private volatile boolean stopped = false;
+		private volatile boolean done = false;
+		private volatile Throwable error;
+
+		public IteratorSubscription(
+				final QuerySubscriber<? super T> subscriber ) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(
+				final long n ) {
+			if (n <= 0) {
+				stopProducer();
+				error = new IllegalArgumentException(
+						"Requested results must be positive but was " + n);
+				done = true;
+				drain();
+				return;
+			}
+			long current;
+			long next;
+			do {
+				current = requested.get();
+				next = current + n;
+				if (next < 0) {
+					// unbounded demand
+					next = Long.MAX_VALUE;
+				}
+			}
+			while (!requested.compareAndSet(
+					current,
+					next));
+			if (started.compareAndSet(
+					false,
+					true)) {
+				try {
+					producer = executor.submit(this);
+					if (stopped) {
+						producer.cancel(true);
+					}
+				}
+				catch (final RejectedExecutionException e) {
+					error = e;
+					done = true;
+				}
+			}
+			drain();
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+			stopProducer();
+		}
+
+		private void stopProducer() {
+			stopped = true;
+			final Future<?> f = producer;
+			if (f != null) {
+				f.cancel(true);
+			}
+			synchronized (bufferLock) {
+				bufferLock.notifyAll();
+			}
+		}
+
+		@Override
+		public void run() {
+			CloseableIterator<T> iterator = null;
+			try {
+				iterator = openIterator();
+				while (!stopped) {
+					synchronized (bufferLock) {
+						while (!stopped && (bufferedCount.get() >= bufferSize)) {
+							bufferLock.wait();
+						}
+					}
+					if (stopped || !iterator.hasNext()) {
+						break;
+					}
+					final T item = iterator.next();
+					// reactive streams do not allow null elements
+					if (item != null) {
+						buffer.offer(item);
+						bufferedCount.incrementAndGet();
+						drain();
+					}
+				}
+			}
+			catch (final InterruptedException e) {
+				// the subscription was cancelled
+			}
+			catch (final Throwable t) {
+				if (!stopped) {
+					error = t;
+				}
+			}
+			finally {
+				if (iterator != null) {
+					try {
+						iterator.close();
+					}
+					catch (final IOException e) {
+						LOGGER.warn(
+								"Unable to close query results",
+								e);
+					}
+				}
+				done = true;
+				drain();
+			}
+		}
+
+		/**
+		 * Deliver buffered results within the outstanding demand, and the
+		 * terminal signal once the buffer is exhausted. Only one thread drains
+		 * at a time, others record that they missed a drain so that it is
+		 * repeated.
+		 */
+		private void drain() {
+			if (drainCount.getAndIncrement() != 0) {
+				return;
+			}
+			int missed = 1;
+			do {
+				final long demand = requested.get();
+				long emitted = 0;
+				while (emitted != demand) {
+					if (cancelled) {
+						buffer.clear();
+						return;
+					}
+					final boolean finished = done;
+					if (finished && (error != null)) {
+						terminate();
+						return;
+					}
+					final T item = buffer.poll();
+					if (item == null) {
+						if (finished) {
+							terminate();
+							return;
+						}
+						break;
+					}
+					releaseBufferSlot();
+					try {
+						subscriber.onNext(item);
+					}
+					catch (final RuntimeException e) {
+						LOGGER.warn(
+								"Subscriber failed to handle query result, cancelling the subscription",
+								e);
+						cancel();
+						return;
+					}
+					emitted++;
+				}
+				if (cancelled) {
+					buffer.clear();
+					return;
+				}
+				if (done && ((error != null) || buffer.isEmpty())) {
+					terminate();
+					return;
+				}
+				if ((emitted != 0) && (demand != Long.MAX_VALUE)) {
+					requested.addAndGet(-emitted);
+				}
+				missed = drainCount.addAndGet(-missed);
+			}
+			while (missed != 0);
+		}
+
+		private void releaseBufferSlot() {
+			if (bufferedCount.getAndDecrement() >= bufferSize) {
+				synchronized (bufferLock) {
+					bufferLock.notifyAll();
+				}
+			}
+		}
+
+		private void terminate() {
+			cancelled = true;
+			buffer.clear();
+			if (error != null) {
+				subscriber.onError(error);
+			}
+			else {
+				subscriber.onComplete();
+			}
+		}
+	}
+}
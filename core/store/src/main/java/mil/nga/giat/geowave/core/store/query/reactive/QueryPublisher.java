@@ -0,0 +1,23 @@
+package mil.nga.giat.geowave.core.store.query.reactive;
+
+/**
+ * A producer of query results to subscribers that signal their demand, in the
+ * style of the reactive streams Publisher. Each subscription runs the query
+ * independently.
+ * 
+ * @param <T>
+ *            the type of the results
+ */
+public interface QueryPublisher<T>
+{
+	/**
+	 * Run the query for a subscriber. The subscriber is given a subscription
+	 * through which it requests results, and results are only delivered as
+	 * they are requested.
+	 * 
+	 * @param subscriber
+	 *            the subscriber to deliver results to
+	 */
+	public void subscribe(
+			QuerySubscriber<? super T> subscriber );
+}
@@ -0,0 +1,45 @@
+package mil.nga.giat.geowave.core.store.query.reactive;
+
+/**
+ * A receiver of query results, in the style of the reactive streams
+ * Subscriber. The methods are never called concurrently for a subscription.
+ * 
+ * @param <T>
+ *            the type of the results
+ */
+public interface QuerySubscriber<T>
+{
+	/**
+	 * Called once before any other method with the subscription used to
+	 * request results
+	 * 
+	 * @param subscription
+	 *            the subscription
+	 */
+	public void onSubscribe(
+			QuerySubscription subscription );
+
+	/**
+	 * Called with each result, never more often than requested
+	 * 
+	 * @param item
+	 *            the result
+	 */
+	public void onNext(
+			T item );
+
+	/**
+	 * Called once if the query fails, no other method is called afterwards
+	 * 
+	 * @param throwable
+	 *            the cause of the failure
+	 */
+	public void onError(
+			Throwable throwable );
+
+	/**
+	 * Called once when all results have been delivered, no other method is
+	 * called afterwards
+	 */
+	public void onComplete();
+}
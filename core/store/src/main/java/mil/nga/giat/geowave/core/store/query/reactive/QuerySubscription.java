@@ -0,0 +1,23 @@
+package mil.nga.giat.geowave.core.store.query.reactive;
+
+/**
+ * The link between a query publisher and a subscriber, in the style of the
+ * reactive streams Subscription.
+ */
+public interface QuerySubscription
+{
+	/**
+	 * Request additional results. Demand is cumulative.
+	 * 
+	 * @param n
+	 *            the number of additional results, which must be positive
+	 */
+	public void request(
+			long n );
+
+	/**
+	 * Stop delivering results and release the resources of the query, such as
+	 * the underlying scanners. Results already requested may not be delivered.
+	 */
+	public void cancel();
+}
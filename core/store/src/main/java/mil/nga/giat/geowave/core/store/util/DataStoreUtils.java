@@ -2,6 +2,7 @@ package mil.nga.giat.geowave.core.store.util;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -31,9 +32,12 @@ import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
 import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
 import mil.nga.giat.geowave.core.store.base.EntryRowID;
 import mil.nga.giat.geowave.core.store.data.DataWriter;
+import mil.nga.giat.geowave.core.store.data.DeferredReadPersistentValue;
 import mil.nga.giat.geowave.core.store.data.PersistentDataset;
 import mil.nga.giat.geowave.core.store.data.PersistentValue;
 import mil.nga.giat.geowave.core.store.data.VisibilityWriter;
+import mil.nga.giat.geowave.core.store.data.field.base.BigEndianUtils;
+import mil.nga.giat.geowave.core.store.data.field.FieldEncodingBuffer;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldVisibilityHandler;
 import mil.nga.giat.geowave.core.store.data.field.FieldWriter;
@@ -79,6 +83,7 @@ public class DataStoreUtils
 		return count;
 	}
 
+	@SuppressWarnings("unchecked")
 	public static <T> void readFieldInfo(
 			final List<FieldInfo<?>> fieldInfoList,
 			final PersistentDataset<CommonIndexValue> indexData,
@@ -89,50 +94,74 @@ public class DataStoreUtils
 			final byte[] byteValue,
 			final DataAdapter<T> adapter,
 			final CommonIndexModel indexModel ) {
-		final ByteArrayId compositeFieldId = new ByteArrayId(
-				compositeFieldIdBytes);
-		final List<FlattenedFieldInfo> fieldInfos = DataStoreUtils.decomposeFlattenedFields(
-				compositeFieldId.getBytes(),
-				byteValue,
-				commonVisiblity,
-				-1).getFieldsRead();
-		for (final FlattenedFieldInfo fieldInfo : fieldInfos) {
+		final List<Integer> fieldPositions = BitmaskUtils.getFieldPositions(compositeFieldIdBytes);
+		// the field values are only deserialized when they are first
+		// requested, so that fields that filters and adapters do not touch,
+		// and rows that are rejected, are not fully decoded. Fields sharing a
+		// visibility are read from their region of the row's value rather
+		// than from a copy of each field.
+		final boolean sharedVisibility = fieldPositions.size() > 1;
+		int offset = 0;
+		for (final Integer fieldPosition : fieldPositions) {
+			final int length;
+			if (sharedVisibility) {
+				length = BigEndianUtils.getInt(
+						byteValue,
+						offset);
+				offset += 4;
+			}
+			else {
+				length = byteValue.length;
+			}
 			final ByteArrayId fieldId = adapter.getFieldIdForPosition(
 					indexModel,
-					fieldInfo.getFieldPosition());
-			final FieldReader<? extends CommonIndexValue> indexFieldReader = indexModel.getReader(fieldId);
+					fieldPosition);
+			final FieldReader<CommonIndexValue> indexFieldReader = indexModel.getReader(fieldId);
 			if (indexFieldReader != null) {
-				final CommonIndexValue indexValue = indexFieldReader.readField(fieldInfo.getValue());
-				indexValue.setVisibility(commonVisiblity);
-				final PersistentValue<CommonIndexValue> val = new PersistentValue<CommonIndexValue>(
+				final PersistentValue<CommonIndexValue> val = new DeferredReadPersistentValue<CommonIndexValue>(
 						fieldId,
-						indexValue);
+						indexFieldReader,
+						byteValue,
+						offset,
+						length,
+						commonVisiblity);
 				indexData.addValue(val);
-				fieldInfoList.add(DataStoreUtils.getFieldInfo(
+				fieldInfoList.add(new FieldInfo<CommonIndexValue>(
 						val,
-						fieldInfo.getValue(),
+						byteValue,
+						offset,
+						length,
 						commonVisiblity));
 			}
 			else {
-				final FieldReader<?> extFieldReader = adapter.getReader(fieldId);
+				final FieldReader<Object> extFieldReader = adapter.getReader(fieldId);
 				if (extFieldReader != null) {
-					final Object value = extFieldReader.readField(fieldInfo.getValue());
-					final PersistentValue<Object> val = new PersistentValue<Object>(
+					final PersistentValue<Object> val = new DeferredReadPersistentValue<Object>(
 							fieldId,
-							value);
+							extFieldReader,
+							byteValue,
+							offset,
+							length,
+							null);
 					extendedData.addValue(val);
-					fieldInfoList.add(DataStoreUtils.getFieldInfo(
+					fieldInfoList.add(new FieldInfo<Object>(
 							val,
-							fieldInfo.getValue(),
+							byteValue,
+							offset,
+							length,
 							commonVisiblity));
 				}
 				else {
 					LOGGER.error("field reader not found for data entry, the value may be ignored");
 					unknownData.addValue(new PersistentValue<byte[]>(
 							fieldId,
-							fieldInfo.getValue()));
+							Arrays.copyOfRange(
+									byteValue,
+									offset,
+									offset + length)));
 				}
 			}
+			offset += length;
 		}
 	}
 
@@ -206,10 +235,16 @@ public class DataStoreUtils
 		else {
 			final List<ByteArrayRange> ranges = new ArrayList<ByteArrayRange>();
 			for (final MultiDimensionalNumericData nd : constraints) {
-				ranges.addAll(indexStrategy.getQueryRanges(
+				final List<ByteArrayRange> constraintRanges = indexStrategy.getQueryRanges(
 						nd,
 						maxRanges,
-						hints));
+						hints);
+				if (constraintRanges == null) {
+					// the index strategy cannot narrow down this constraint,
+					// so the ranges are unbounded
+					return new ArrayList<ByteArrayRange>();
+				}
+				ranges.addAll(constraintRanges);
 			}
 			if (constraints.size() > 1) {
 				return ByteArrayRange.mergeIntersections(
@@ -505,25 +540,25 @@ public class DataStoreUtils
 			return bitmaskedFieldInfos;
 		}
 		for (final Entry<ByteArrayId, List<Pair<Integer, FieldInfo<?>>>> entry : vizToFieldMap.entrySet()) {
-			final List<byte[]> fieldInfoBytesList = new ArrayList<>();
-			int totalLength = 0;
 			final SortedSet<Integer> fieldPositions = new TreeSet<Integer>();
 			final List<Pair<Integer, FieldInfo<?>>> fieldInfoList = entry.getValue();
 			Collections.sort(
 					fieldInfoList,
 					new BitmaskedFieldInfoComparator());
+			int totalLength = 0;
 			for (final Pair<Integer, FieldInfo<?>> fieldInfoPair : fieldInfoList) {
-				final FieldInfo<?> fieldInfo = fieldInfoPair.getRight();
-				final ByteBuffer fieldInfoBytes = ByteBuffer.allocate(4 + fieldInfo.getWrittenValue().length);
-				fieldPositions.add(fieldInfoPair.getLeft());
-				fieldInfoBytes.putInt(fieldInfo.getWrittenValue().length);
-				fieldInfoBytes.put(fieldInfo.getWrittenValue());
-				fieldInfoBytesList.add(fieldInfoBytes.array());
-				totalLength += fieldInfoBytes.array().length;
+				totalLength += 4 + fieldInfoPair.getRight().getWrittenValue().length;
 			}
-			final ByteBuffer allFields = ByteBuffer.allocate(totalLength);
-			for (final byte[] bytes : fieldInfoBytesList) {
-				allFields.put(bytes);
+			// the fields are written one after another into a single buffer
+			// sized for all of them, so its backing array is the composite
+			// value
+			final FieldEncodingBuffer allFields = new FieldEncodingBuffer(
+					totalLength);
+			for (final Pair<Integer, FieldInfo<?>> fieldInfoPair : fieldInfoList) {
+				final byte[] writtenValue = fieldInfoPair.getRight().getWrittenValue();
+				fieldPositions.add(fieldInfoPair.getLeft());
+				allFields.writeInt(writtenValue.length);
+				allFields.write(writtenValue);
 			}
 			final byte[] compositeBitmask = BitmaskUtils.generateCompositeBitmask(fieldPositions);
 			final FieldInfo<?> composite = new FieldInfo<T>(
@@ -531,7 +566,7 @@ public class DataStoreUtils
 							new ByteArrayId(
 									compositeBitmask),
 							null), // unnecessary
-					allFields.array(),
+					allFields.getBuffer(),
 					entry.getKey().getBytes());
 			retVal.add(composite);
 		}
@@ -7,12 +7,15 @@ import mil.nga.giat.geowave.core.store.adapter.AdapterStore;
 import mil.nga.giat.geowave.core.store.callback.ScanCallback;
 import mil.nga.giat.geowave.core.store.filter.QueryFilter;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.query.QueryProfile;
 
 /**
  * This is used internally to translate DataStore rows into native objects
  * (using the appropriate data adapter). It also performs any client-side
  * filtering. It will peek at the next entry in the wrapped iterator to always
- * maintain a reference to the next value.
+ * maintain a reference to the next value. If the scan callback is a
+ * {@link QueryProfile}, the time spent scanning and decoding is recorded in
+ * it.
  *
  * @param <T>
  *            The type for the entry
@@ -45,6 +48,10 @@ public abstract class EntryIteratorWrapper<T> implements
 	}
 
 	private void findNext() {
+		if (scanCallback instanceof QueryProfile) {
+			findNextProfiled((QueryProfile) scanCallback);
+			return;
+		}
 		while ((nextValue == null) && hasNextScannedResult()) {
 			final Object row = getNextEncodedResult();
 			final T decodedValue = decodeRow(
@@ -59,6 +66,38 @@ public abstract class EntryIteratorWrapper<T> implements
 		}
 	}
 
+	private void findNextProfiled(
+			final QueryProfile profile ) {
+		while (nextValue == null) {
+			long start = System.nanoTime();
+			if (!hasNextScannedResult()) {
+				profile.addTime(
+						QueryProfile.Phase.SCAN,
+						System.nanoTime() - start);
+				return;
+			}
+			final Object row = getNextEncodedResult();
+			final long scanned = System.nanoTime();
+			profile.addTime(
+					QueryProfile.Phase.SCAN,
+					scanned - start);
+			profile.rowScanned();
+			start = scanned;
+			final T decodedValue = decodeRow(
+					row,
+					clientFilter,
+					index,
+					wholeRowEncoding);
+			profile.addTime(
+					QueryProfile.Phase.CLIENT_FILTERING_AND_DECODING,
+					System.nanoTime() - start);
+			if (decodedValue != null) {
+				nextValue = decodedValue;
+				return;
+			}
+		}
+	}
+
 	protected boolean hasNextScannedResult() {
 		return scannerIt.hasNext();
 	}
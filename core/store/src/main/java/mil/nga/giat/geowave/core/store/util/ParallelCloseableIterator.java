@@ -0,0 +1,306 @@
+package mil.nga.giat.geowave.core.store.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.log4j.Logger;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+
+/**
+ * This iterator drains a set of closeable iterators concurrently on the given
+ * executor and merges their results through a bounded hand-off queue. Each
+ * underlying iterator is scanned by a single task, so scans of independent
+ * indices can make progress at the same time while the consumer pulls from the
+ * merged stream. The order of results across the underlying iterators is not
+ * guaranteed, but the order within each underlying iterator is preserved.
+ *
+ * A task never blocks its thread waiting for the consumer. When the queue is
+ * full the task parks and returns its thread to the executor, and the consumer
+ * resubmits a parked task each time it takes a result, so that scans sharing
+ * an executor with other queries cannot starve them.
+ *
+ * Each underlying iterator is closed by the task that scans it once it is
+ * exhausted, or by this iterator if it is closed before the task has started
+ * or while the task is parked.
+ *
+ * @param <E>
+ *            The type to iterate on
+ */
+public class ParallelCloseableIterator<E> implements
+		CloseableIterator<E>
+{
+	private final static Logger LOGGER = Logger.getLogger(ParallelCloseableIterator.class);
+	private static final long THREAD_KEEP_ALIVE_SECONDS = 60;
+	private static final Object END_OF_SCAN = new Object();
+	private static final Object NULL_ENTRY = new Object();
+
+	private final BlockingQueue<Object> queue;
+	private final List<ScanTask> tasks;
+	private final Queue<ScanTask> parkedTasks = new ConcurrentLinkedQueue<ScanTask>();
+	private final ExecutorService executor;
+	private final AtomicBoolean closed = new AtomicBoolean(
+			false);
+	private int activeScans;
+	private Object nextValue = null;
+
+	public ParallelCloseableIterator(
+			final List<? extends CloseableIterator<? extends E>> iterators,
+			final ExecutorService executor,
+			final int bufferSize ) {
+		this.executor = executor;
+		queue = new ArrayBlockingQueue<Object>(
+				Math.max(
+						1,
+						bufferSize));
+		tasks = new ArrayList<ScanTask>(
+				iterators.size());
+		for (final CloseableIterator<? extends E> it : iterators) {
+			tasks.add(new ScanTask(
+					it));
+		}
+		activeScans = tasks.size();
+		for (final ScanTask task : tasks) {
+			executor.execute(task);
+		}
+	}
+
+	/**
+	 * @param threads
+	 *            the maximum number of concurrent scans
+	 * @param nameFormat
+	 *            the name format of the threads
+	 * @return an executor for parallel scans whose threads exit when idle, so
+	 *         that an executor which is no longer used holds no threads
+	 */
+	public static ExecutorService createExecutor(
+			final int threads,
+			final String nameFormat ) {
+		final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+				Math.max(
+						1,
+						threads),
+				Math.max(
+						1,
+						threads),
+				THREAD_KEEP_ALIVE_SECONDS,
+				TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(),
+				new ThreadFactoryBuilder().setDaemon(
+						true).setNameFormat(
+						nameFormat).build());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (nextValue != null) {
+			return true;
+		}
+		while ((activeScans > 0) && !closed.get()) {
+			final Object value;
+			try {
+				value = queue.take();
+			}
+			catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				closeQuietly();
+				throw new RuntimeException(
+						"Interrupted while waiting for query results",
+						e);
+			}
+			resumeParkedTask();
+			if (value == END_OF_SCAN) {
+				activeScans--;
+			}
+			else if (value instanceof ScanFailure) {
+				closeQuietly();
+				throw new RuntimeException(
+						"Unable to complete parallel scan",
+						((ScanFailure) value).cause);
+			}
+			else {
+				nextValue = value;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public E next()
+			throws NoSuchElementException {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final Object value = nextValue;
+		nextValue = null;
+		return value == NULL_ENTRY ? null : (E) value;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException(
+				"Remove is not supported on a parallel scan");
+	}
+
+	@Override
+	public void close()
+			throws IOException {
+		if (closed.compareAndSet(
+				false,
+				true)) {
+			for (final ScanTask task : tasks) {
+				// tasks that have not started yet are claimed here so that
+				// their iterators are closed exactly once
+				if (task.claim()) {
+					closeIterator(task.iterator);
+				}
+			}
+			// parked tasks have started, so their iterators are closed here
+			ScanTask task;
+			while ((task = parkedTasks.poll()) != null) {
+				task.closeIterator();
+			}
+			queue.clear();
+		}
+	}
+
+	private void resumeParkedTask() {
+		final ScanTask task = parkedTasks.poll();
+		if (task != null) {
+			executor.execute(task);
+		}
+	}
+
+	private void closeQuietly() {
+		try {
+			close();
+		}
+		catch (final IOException e) {
+			LOGGER.warn(
+					"Unable to close parallel scan",
+					e);
+		}
+	}
+
+	private static void closeIterator(
+			final CloseableIterator<?> it ) {
+		try {
+			it.close();
+		}
+		catch (final IOException e) {
+			LOGGER.warn(
+					"Unable to close iterator",
+					e);
+		}
+	}
+
+	private class ScanTask implements
+			Runnable
+	{
+		private final CloseableIterator<? extends E> iterator;
+		private final AtomicBoolean claimed = new AtomicBoolean(
+				false);
+		// the task is run by one thread at a time, and is handed between
+		// threads through the executor or the parked tasks
+		private boolean started = false;
+		private boolean exhausted = false;
+		private Object pendingValue = null;
+
+		public ScanTask(
+				final CloseableIterator<? extends E> iterator ) {
+			this.iterator = iterator;
+		}
+
+		private boolean claim() {
+			return claimed.compareAndSet(
+					false,
+					true);
+		}
+
+		@Override
+		public void run() {
+			if (!started) {
+				if (!claim()) {
+					return;
+				}
+				started = true;
+			}
+			while (!closed.get()) {
+				if (pendingValue == null) {
+					if (exhausted) {
+						return;
+					}
+					pendingValue = nextValue();
+				}
+				if (queue.offer(pendingValue)) {
+					pendingValue = null;
+				}
+				else if (!park()) {
+					return;
+				}
+			}
+			closeIterator();
+		}
+
+		private Object nextValue() {
+			try {
+				if (iterator.hasNext()) {
+					final E value = iterator.next();
+					return value == null ? NULL_ENTRY : value;
+				}
+				closeIterator();
+				return END_OF_SCAN;
+			}
+			catch (final Throwable t) {
+				closeIterator();
+				return new ScanFailure(
+						t);
+			}
+		}
+
+		/**
+		 * @return true if the task should keep running, false if it is parked
+		 *         and will be resumed by the consumer
+		 */
+		private boolean park() {
+			parkedTasks.add(this);
+			// the consumer may have taken a result, or closed, before this
+			// task was parked, in which case nothing will resume it
+			return (closed.get() || (queue.remainingCapacity() > 0)) && parkedTasks.remove(this);
+		}
+
+		private void closeIterator() {
+			if (!exhausted) {
+				exhausted = true;
+				ParallelCloseableIterator.closeIterator(iterator);
+			}
+		}
+	}
+
+	private static class ScanFailure
+	{
+		private final Throwable cause;
+
+		public ScanFailure(
+				final Throwable cause ) {
+			this.cause = cause;
+		}
+	}
+}
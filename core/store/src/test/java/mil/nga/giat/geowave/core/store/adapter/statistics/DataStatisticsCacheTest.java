@@ -0,0 +1,212 @@
+package mil.nga.giat.geowave.core.store.adapter.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+
+public class DataStatisticsCacheTest
+{
+	private final static ByteArrayId ADAPTER_ID = new ByteArrayId(
+			"adapter");
+	private final static ByteArrayId OTHER_ADAPTER_ID = new ByteArrayId(
+			"other");
+
+	@Test
+	public void testCacheUntilExpired()
+			throws InterruptedException {
+		final TestStore store = new TestStore();
+		final DataStatisticsCache cache = new DataStatisticsCache(
+				100,
+				store);
+		assertEquals(
+				1,
+				getCount(
+						cache,
+						store,
+						ADAPTER_ID,
+						"a",
+						"b"));
+		// authorizations in a different order share the cached statistics
+		assertEquals(
+				1,
+				getCount(
+						cache,
+						store,
+						ADAPTER_ID,
+						"b",
+						"a"));
+		assertEquals(
+				1,
+				store.statisticsReads.get());
+		assertEquals(
+				1,
+				store.versionReads.get());
+
+		// the version is only checked once the statistics expire
+		store.count = 2;
+		Thread.sleep(150);
+		assertEquals(
+				1,
+				getCount(
+						cache,
+						store,
+						ADAPTER_ID,
+						"a",
+						"b"));
+		assertEquals(
+				1,
+				store.statisticsReads.get());
+		assertEquals(
+				2,
+				store.versionReads.get());
+
+		// a new version reads the statistics again
+		store.version++;
+		Thread.sleep(150);
+		assertEquals(
+				2,
+				getCount(
+						cache,
+						store,
+						ADAPTER_ID,
+						"a",
+						"b"));
+		assertEquals(
+				2,
+				store.statisticsReads.get());
+	}
+
+	@Test
+	public void testInvalidate() {
+		final TestStore store = new TestStore();
+		final DataStatisticsCache cache = new DataStatisticsCache(
+				3600000,
+				store);
+		getCount(
+				cache,
+				store,
+				ADAPTER_ID);
+		getCount(
+				cache,
+				store,
+				OTHER_ADAPTER_ID);
+		store.count = 2;
+		cache.invalidate(ADAPTER_ID);
+		assertEquals(
+				2,
+				getCount(
+						cache,
+						store,
+						ADAPTER_ID));
+		assertEquals(
+				1,
+				getCount(
+						cache,
+						store,
+						OTHER_ADAPTER_ID));
+		cache.invalidateAll();
+		assertEquals(
+				2,
+				getCount(
+						cache,
+						store,
+						OTHER_ADAPTER_ID));
+		assertEquals(
+				4,
+				store.statisticsReads.get());
+	}
+
+	@Test
+	public void testCopiesAndMissingStatistics() {
+		final TestStore store = new TestStore();
+		final DataStatisticsCache cache = new DataStatisticsCache(
+				3600000,
+				store);
+		final DataStatistics<?> statistics = cache.getDataStatistics(
+				ADAPTER_ID,
+				CountDataStatistics.STATS_TYPE,
+				new String[0],
+				store.getReader(ADAPTER_ID));
+		// modifying the statistics returned does not modify the cache
+		statistics.entryIngested(
+				null,
+				null);
+		assertEquals(
+				1,
+				getCount(
+						cache,
+						store,
+						ADAPTER_ID));
+
+		store.count = 0;
+		assertNull(cache.getDataStatistics(
+				ADAPTER_ID,
+				new ByteArrayId(
+						"missing"),
+				new String[0],
+				store.getReader(ADAPTER_ID)));
+		assertNull(cache.getDataStatistics(
+				ADAPTER_ID,
+				new ByteArrayId(
+						"missing"),
+				new String[0],
+				store.getReader(ADAPTER_ID)));
+		assertEquals(
+				2,
+				store.statisticsReads.get());
+	}
+
+	private static long getCount(
+			final DataStatisticsCache cache,
+			final TestStore store,
+			final ByteArrayId adapterId,
+			final String... authorizations ) {
+		return ((CountDataStatistics<?>) cache.getDataStatistics(
+				adapterId,
+				CountDataStatistics.STATS_TYPE,
+				authorizations,
+				store.getReader(adapterId))).getCount();
+	}
+
+	private static class TestStore implements
+			DataStatisticsCache.StatisticsVersionReader
+	{
+		private final AtomicInteger statisticsReads = new AtomicInteger();
+		private final AtomicInteger versionReads = new AtomicInteger();
+		private volatile int count = 1;
+		private volatile long version = 0;
+
+		@Override
+		public Long readVersion(
+				final ByteArrayId adapterId ) {
+			versionReads.incrementAndGet();
+			return version;
+		}
+
+		public DataStatisticsCache.StatisticsReader getReader(
+				final ByteArrayId adapterId ) {
+			return new DataStatisticsCache.StatisticsReader() {
+				@Override
+				public DataStatistics<?> readStatistics() {
+					statisticsReads.incrementAndGet();
+					if (count == 0) {
+						return null;
+					}
+					final CountDataStatistics<Object> statistics = new CountDataStatistics<Object>(
+							adapterId);
+					for (int i = 0; i < count; i++) {
+						statistics.entryIngested(
+								null,
+								null);
+					}
+					return statistics;
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,196 @@
+package mil.nga.giat.geowave.core.store.adapter.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.memory.MemoryDataStatisticsStore;
+
+public class StatisticsFlushServiceTest
+{
+	private final static ByteArrayId ADAPTER_ID = new ByteArrayId(
+			"adapter");
+
+	@Test
+	public void testCoalesceUntilFlush() {
+		final StatisticsFlushService service = new StatisticsFlushService(
+				3600000,
+				100);
+		final CountingStatisticsStore statsStore = new CountingStatisticsStore();
+		for (int i = 0; i < 1000; i++) {
+			service.incorporateStatistics(
+					statsStore,
+					createCount(
+							"a",
+							1));
+			service.incorporateStatistics(
+					statsStore,
+					createCount(
+							"b",
+							2));
+		}
+		assertEquals(
+				2,
+				service.getPendingCount());
+		assertEquals(
+				0,
+				statsStore.writeCount.get());
+
+		service.flush();
+		assertEquals(
+				0,
+				service.getPendingCount());
+		// one write per statistics ID and visibility
+		assertEquals(
+				2,
+				statsStore.writeCount.get());
+		assertEquals(
+				1000,
+				getCount(
+						statsStore,
+						"a"));
+		assertEquals(
+				2000,
+				getCount(
+						statsStore,
+						"b"));
+	}
+
+	@Test
+	public void testWriteWhenFull()
+			throws InterruptedException {
+		final StatisticsFlushService service = new StatisticsFlushService(
+				3600000,
+				10);
+		final CountingStatisticsStore statsStore = new CountingStatisticsStore();
+		for (int i = 0; i < 10; i++) {
+			service.incorporateStatistics(
+					statsStore,
+					createCount(
+							Integer.toString(i),
+							1));
+		}
+		assertTrue(waitForWrites(
+				statsStore,
+				10));
+	}
+
+	@Test
+	public void testWriteOnInterval()
+			throws InterruptedException {
+		final StatisticsFlushService service = new StatisticsFlushService(
+				20,
+				100);
+		final CountingStatisticsStore statsStore = new CountingStatisticsStore();
+		service.incorporateStatistics(
+				statsStore,
+				createCount(
+						"a",
+						5));
+		assertTrue(waitForWrites(
+				statsStore,
+				1));
+		assertEquals(
+				5,
+				getCount(
+						statsStore,
+						"a"));
+	}
+
+	@Test
+	public void testRetryFailedWrites() {
+		final StatisticsFlushService service = new StatisticsFlushService(
+				3600000,
+				100);
+		final CountingStatisticsStore statsStore = new CountingStatisticsStore();
+		statsStore.failures.set(1);
+		service.incorporateStatistics(
+				statsStore,
+				createCount(
+						"a",
+						3));
+		try {
+			service.flush();
+			fail("the write failure should be thrown");
+		}
+		catch (final IllegalStateException e) {}
+		assertEquals(
+				1,
+				service.getPendingCount());
+
+		// statistics submitted after the failure are merged with it
+		service.incorporateStatistics(
+				statsStore,
+				createCount(
+						"a",
+						2));
+		service.flush();
+		assertEquals(
+				0,
+				service.getPendingCount());
+		assertEquals(
+				5,
+				getCount(
+						statsStore,
+						"a"));
+	}
+
+	private static boolean waitForWrites(
+			final CountingStatisticsStore statsStore,
+			final int writes )
+			throws InterruptedException {
+		for (int i = 0; i < 500; i++) {
+			if (statsStore.writeCount.get() >= writes) {
+				return true;
+			}
+			Thread.sleep(10);
+		}
+		return false;
+	}
+
+	private static CountDataStatistics<Object> createCount(
+			final String visibility,
+			final int count ) {
+		final CountDataStatistics<Object> statistics = new CountDataStatistics<Object>(
+				ADAPTER_ID);
+		statistics.setVisibility(visibility.getBytes());
+		for (int i = 0; i < count; i++) {
+			statistics.entryIngested(
+					null,
+					null);
+		}
+		return statistics;
+	}
+
+	private static long getCount(
+			final MemoryDataStatisticsStore statsStore,
+			final String visibility ) {
+		return ((CountDataStatistics<?>) statsStore.getDataStatistics(
+				ADAPTER_ID,
+				CountDataStatistics.STATS_TYPE,
+				visibility)).getCount();
+	}
+
+	private static class CountingStatisticsStore extends
+			MemoryDataStatisticsStore
+	{
+		private final AtomicInteger writeCount = new AtomicInteger();
+		private final AtomicInteger failures = new AtomicInteger();
+
+		@Override
+		public void incorporateStatistics(
+				final DataStatistics<?> statistics ) {
+			if (failures.getAndDecrement() > 0) {
+				throw new IllegalStateException(
+						"Unable to write statistics");
+			}
+			super.incorporateStatistics(statistics);
+			writeCount.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package mil.nga.giat.geowave.core.store.adapter.statistics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.adapter.MockComponents;
+import mil.nga.giat.geowave.core.store.adapter.MockComponents.IntegerRangeDataStatistics;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
+import mil.nga.giat.geowave.core.store.data.PersistentValue;
+import mil.nga.giat.geowave.core.store.memory.MemoryDataStatisticsStore;
+
+public class StatsCompositionToolTest
+{
+	private final static int THREAD_COUNT = 8;
+	private final static int ENTRIES_PER_THREAD = 3000;
+	// enough entries for one thread to merge its statistics before the flush
+	private final static int LARGE_THREAD_ENTRIES = StatsCompositionTool.FLUSH_STATS_THRESHOLD + 3000;
+
+	@Test
+	public void testConcurrentIngest()
+			throws InterruptedException {
+		final MockComponents.MockAbstractDataAdapter adapter = new MockComponents.MockAbstractDataAdapter();
+		final MemoryDataStatisticsStore statsStore = new MemoryDataStatisticsStore();
+		final StatsCompositionTool<Integer> statsTool = new StatsCompositionTool<Integer>(
+				adapter,
+				statsStore);
+		final ByteArrayId fieldId = new MockComponents.TestDimensionField().getFieldId();
+
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < THREAD_COUNT; t++) {
+			final int threadIndex = t;
+			threads.add(new Thread(
+					new Runnable() {
+						@Override
+						public void run() {
+							final int entries = (threadIndex == 0) ? LARGE_THREAD_ENTRIES : ENTRIES_PER_THREAD;
+							for (int i = 0; i < entries; i++) {
+								final Integer entry = (threadIndex * 100000) + i;
+								statsTool.entryIngested(
+										new DataStoreEntryInfo(
+												new byte[0],
+												Collections.<ByteArrayId> emptyList(),
+												Collections.<ByteArrayId> emptyList(),
+												Collections.<FieldInfo<?>> singletonList(new FieldInfo<Integer>(
+														new PersistentValue<Integer>(
+																fieldId,
+																entry),
+														new byte[0],
+														new byte[0]))),
+										entry);
+							}
+						}
+					}));
+		}
+		for (final Thread thread : threads) {
+			thread.start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		statsTool.flush();
+
+		final CountDataStatistics<?> count = (CountDataStatistics<?>) statsStore.getDataStatistics(
+				adapter.getAdapterId(),
+				CountDataStatistics.STATS_TYPE);
+		assertEquals(
+				LARGE_THREAD_ENTRIES + ((THREAD_COUNT - 1) * ENTRIES_PER_THREAD),
+				count.getCount());
+		final IntegerRangeDataStatistics range = (IntegerRangeDataStatistics) statsStore.getDataStatistics(
+				adapter.getAdapterId(),
+				adapter.getAdapterId());
+		assertEquals(
+				0,
+				range.getMin(),
+				0);
+		assertEquals(
+				((THREAD_COUNT - 1) * 100000) + ENTRIES_PER_THREAD - 1,
+				range.getMax(),
+				0);
+
+		// a second flush has nothing left to add
+		statsTool.flush();
+		assertEquals(
+				LARGE_THREAD_ENTRIES + ((THREAD_COUNT - 1) * ENTRIES_PER_THREAD),
+				((CountDataStatistics<?>) statsStore.getDataStatistics(
+						adapter.getAdapterId(),
+						CountDataStatistics.STATS_TYPE)).getCount());
+	}
+}
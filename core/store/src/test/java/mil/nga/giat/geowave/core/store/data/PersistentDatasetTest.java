@@ -0,0 +1,102 @@
+package mil.nga.giat.geowave.core.store.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.StringUtils;
+import mil.nga.giat.geowave.core.store.data.field.FieldReader;
+
+public class PersistentDatasetTest
+{
+	private static class CountingReader implements
+			FieldReader<String>
+	{
+		private int reads = 0;
+
+		@Override
+		public String readField(
+				final byte[] fieldData ) {
+			reads++;
+			return StringUtils.stringFromBinary(fieldData);
+		}
+	}
+
+	@Test
+	public void testDeferredRead() {
+		final CountingReader reader = new CountingReader();
+		final ByteArrayId fieldA = new ByteArrayId(
+				"a");
+		final ByteArrayId fieldB = new ByteArrayId(
+				"b");
+		final DeferredReadPersistentValue<String> valueA = new DeferredReadPersistentValue<String>(
+				fieldA,
+				reader,
+				StringUtils.stringToBinary("valueA"),
+				null);
+		final DeferredReadPersistentValue<String> valueB = new DeferredReadPersistentValue<String>(
+				fieldB,
+				reader,
+				StringUtils.stringToBinary("valueB"),
+				null);
+		final PersistentDataset<String> dataset = new PersistentDataset<String>();
+		dataset.addValue(valueA);
+		dataset.addValue(valueB);
+		assertEquals(
+				0,
+				reader.reads);
+
+		// only the requested field is read, and only once
+		assertEquals(
+				"valueA",
+				dataset.getValue(fieldA));
+		assertEquals(
+				"valueA",
+				dataset.getValue(fieldA));
+		assertEquals(
+				1,
+				reader.reads);
+		assertTrue(valueA.isRead());
+		assertFalse(valueB.isRead());
+
+		final List<PersistentValue<String>> values = dataset.getValues();
+		assertEquals(
+				2,
+				values.size());
+		assertEquals(
+				2,
+				reader.reads);
+		assertEquals(
+				"valueB",
+				dataset.getValue(fieldB));
+		assertEquals(
+				2,
+				reader.reads);
+	}
+
+	@Test
+	public void testReplaceDeferredValue() {
+		final ByteArrayId field = new ByteArrayId(
+				"a");
+		final PersistentDataset<String> dataset = new PersistentDataset<String>();
+		dataset.addValue(new DeferredReadPersistentValue<String>(
+				field,
+				new CountingReader(),
+				StringUtils.stringToBinary("deferred"),
+				null));
+		dataset.addValue(new PersistentValue<String>(
+				field,
+				"replaced"));
+		assertEquals(
+				"replaced",
+				dataset.getValue(field));
+		assertEquals(
+				1,
+				dataset.getValues().size());
+	}
+}
@@ -0,0 +1,257 @@
+package mil.nga.giat.geowave.core.store.data.field;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
+import mil.nga.giat.geowave.core.store.data.DeferredReadPersistentValue;
+import mil.nga.giat.geowave.core.store.data.field.base.DoubleArraySerializationProvider;
+import mil.nga.giat.geowave.core.store.data.field.base.DoubleSerializationProvider;
+import mil.nga.giat.geowave.core.store.data.field.base.FloatSerializationProvider;
+import mil.nga.giat.geowave.core.store.data.field.base.IntegerSerializationProvider;
+import mil.nga.giat.geowave.core.store.data.field.base.LongSerializationProvider;
+import mil.nga.giat.geowave.core.store.data.field.base.PrimitiveDoubleArraySerializationProvider;
+import mil.nga.giat.geowave.core.store.data.field.base.ShortSerializationProvider;
+import mil.nga.giat.geowave.core.store.data.field.base.StringArraySerializationProvider;
+import mil.nga.giat.geowave.core.store.data.field.base.StringSerializationProvider;
+import mil.nga.giat.geowave.core.store.data.field.base.DoubleSerializationProvider.DoubleWriter;
+import mil.nga.giat.geowave.core.store.data.field.base.IntegerSerializationProvider.IntegerReader;
+import mil.nga.giat.geowave.core.store.data.field.base.LongSerializationProvider.LongReader;
+import mil.nga.giat.geowave.core.store.data.field.base.PrimitiveDoubleArraySerializationProvider.PrimitiveDoubleArrayReader;
+
+public class BufferedReaderWriterTest
+{
+	@Test
+	public void testEncodingMatchesByteBuffer() {
+		final ByteBuffer expected = ByteBuffer.allocate(22);
+		expected.putShort((short) -2);
+		expected.putInt(-123456789);
+		expected.putLong(Long.MIN_VALUE + 42);
+		expected.putDouble(-Math.PI);
+
+		final FieldEncodingBuffer buffer = new FieldEncodingBuffer(
+				1);
+		buffer.write(
+				new ShortSerializationProvider().getFieldWriter(),
+				(short) -2);
+		buffer.write(
+				new IntegerSerializationProvider().getFieldWriter(),
+				-123456789);
+		buffer.write(
+				new LongSerializationProvider().getFieldWriter(),
+				Long.MIN_VALUE + 42);
+		buffer.write(
+				new DoubleSerializationProvider().getFieldWriter(),
+				-Math.PI);
+		assertArrayEquals(
+				expected.array(),
+				buffer.toByteArray());
+	}
+
+	@Test
+	public void testReadFromSharedBuffer() {
+		final FieldEncodingBuffer buffer = new FieldEncodingBuffer();
+		final int stringOffset = buffer.write(
+				new StringSerializationProvider().getFieldWriter(),
+				"test");
+		final int intOffset = buffer.write(
+				new IntegerSerializationProvider().getFieldWriter(),
+				Integer.MAX_VALUE);
+		final int floatOffset = buffer.write(
+				new FloatSerializationProvider().getFieldWriter(),
+				Float.MIN_VALUE);
+		final int doublesOffset = buffer.write(
+				new PrimitiveDoubleArraySerializationProvider().getFieldWriter(),
+				new double[] {
+					1.5,
+					-2.5,
+					Double.MAX_VALUE
+				});
+		final int longOffset = buffer.write(
+				new LongSerializationProvider().getFieldWriter(),
+				Long.MAX_VALUE);
+		final byte[] bytes = buffer.getBuffer();
+
+		assertEquals(
+				"test",
+				((BufferedFieldReader<String>) new StringSerializationProvider().getFieldReader()).readField(
+						bytes,
+						stringOffset,
+						intOffset - stringOffset));
+		assertEquals(
+				Float.valueOf(Float.MIN_VALUE),
+				((BufferedFieldReader<Float>) new FloatSerializationProvider().getFieldReader()).readField(
+						bytes,
+						floatOffset,
+						4));
+		assertEquals(
+				Integer.MAX_VALUE,
+				((IntegerReader) new IntegerSerializationProvider().getFieldReader()).readInt(
+						bytes,
+						intOffset));
+		assertEquals(
+				Long.MAX_VALUE,
+				((LongReader) new LongSerializationProvider().getFieldReader()).readLong(
+						bytes,
+						longOffset));
+
+		// decode into a reusable primitive sink
+		final double[] sink = new double[4];
+		final int count = ((PrimitiveDoubleArrayReader) new PrimitiveDoubleArraySerializationProvider().getFieldReader()).readDoubles(
+				bytes,
+				doublesOffset,
+				longOffset - doublesOffset,
+				sink,
+				1);
+		assertEquals(
+				3,
+				count);
+		assertTrue(Arrays.equals(
+				new double[] {
+					0,
+					1.5,
+					-2.5,
+					Double.MAX_VALUE
+				},
+				sink));
+
+		// too short for the type
+		assertNull(((BufferedFieldReader<Long>) new LongSerializationProvider().getFieldReader()).readField(
+				bytes,
+				longOffset,
+				7));
+	}
+
+	@Test
+	public void testDeferredReadFromRegion() {
+		final FieldEncodingBuffer buffer = new FieldEncodingBuffer();
+		buffer.writeInt(-1);
+		final int intOffset = buffer.write(
+				new IntegerSerializationProvider().getFieldWriter(),
+				42);
+		final int stringOffset = buffer.write(
+				new StringSerializationProvider().getFieldWriter(),
+				"test");
+		final byte[] bytes = buffer.getBuffer();
+		final ByteArrayId id = new ByteArrayId(
+				"id");
+
+		final DeferredReadPersistentValue<Integer> bufferedValue = new DeferredReadPersistentValue<Integer>(
+				id,
+				new IntegerSerializationProvider().getFieldReader(),
+				bytes,
+				intOffset,
+				4,
+				null);
+		assertFalse(bufferedValue.isRead());
+		assertEquals(
+				Integer.valueOf(42),
+				bufferedValue.getValue());
+		assertTrue(bufferedValue.isRead());
+
+		// a reader that can only read a whole array is given a copy of the
+		// region
+		final FieldReader<String> stringReader = new StringSerializationProvider().getFieldReader();
+		assertEquals(
+				"test",
+				new DeferredReadPersistentValue<String>(
+						id,
+						new FieldReader<String>() {
+							@Override
+							public String readField(
+									final byte[] fieldData ) {
+								return stringReader.readField(fieldData);
+							}
+						},
+						bytes,
+						stringOffset,
+						buffer.getLength() - stringOffset,
+						null).getValue());
+
+		// the written value of a field is only copied when requested
+		final FieldInfo<Integer> fieldInfo = new FieldInfo<Integer>(
+				bufferedValue,
+				bytes,
+				intOffset,
+				4,
+				null);
+		assertArrayEquals(
+				new IntegerSerializationProvider().getFieldWriter().writeField(
+						42),
+				fieldInfo.getWrittenValue());
+	}
+
+	@Test
+	public void testReuseBuffer() {
+		final FieldEncodingBuffer buffer = new FieldEncodingBuffer(
+				8);
+		final DoubleWriter writer = new DoubleWriter();
+		buffer.write(
+				writer,
+				1.0);
+		buffer.write(
+				writer,
+				2.0);
+		final byte[] backingArray = buffer.getBuffer();
+		assertEquals(
+				16,
+				buffer.getLength());
+		buffer.reset();
+		assertEquals(
+				0,
+				buffer.write(
+						writer,
+						3.0));
+		assertTrue(backingArray == buffer.getBuffer());
+		assertArrayEquals(
+				writer.writeField(3.0),
+				buffer.toByteArray());
+	}
+
+	@Test
+	public void testObjectArrays() {
+		final Double[] doubles = new Double[] {
+			null,
+			1.0,
+			null,
+			null,
+			-1.0,
+			2.0,
+			3.0,
+			4.0,
+			5.0,
+			null
+		};
+		assertArrayEquals(
+				doubles,
+				new DoubleArraySerializationProvider().getFieldReader().readField(
+						new DoubleArraySerializationProvider().getFieldWriter().writeField(
+								doubles)));
+		final String[] strings = new String[] {
+			"a",
+			null,
+			"",
+			"bcd"
+		};
+		// the empty string is written with the same length as null
+		assertArrayEquals(
+				new String[] {
+					"a",
+					null,
+					null,
+					"bcd"
+				},
+				new StringArraySerializationProvider().getFieldReader().readField(
+						new StringArraySerializationProvider().getFieldWriter().writeField(
+								strings)));
+	}
+}
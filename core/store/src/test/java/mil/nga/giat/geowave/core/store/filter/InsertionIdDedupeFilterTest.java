@@ -0,0 +1,174 @@
+package mil.nga.giat.geowave.core.store.filter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
+import mil.nga.giat.geowave.core.index.PersistenceUtils;
+import mil.nga.giat.geowave.core.store.data.IndexedPersistenceEncoding;
+import mil.nga.giat.geowave.core.store.data.PersistentDataset;
+import mil.nga.giat.geowave.core.store.index.NullIndex;
+
+public class InsertionIdDedupeFilterTest
+{
+	private static ByteArrayId id(
+			final int... bytes ) {
+		final byte[] array = new byte[bytes.length];
+		for (int i = 0; i < bytes.length; i++) {
+			array[i] = (byte) bytes[i];
+		}
+		return new ByteArrayId(
+				array);
+	}
+
+	private static ByteArrayRange range(
+			final ByteArrayId start,
+			final ByteArrayId end ) {
+		return new ByteArrayRange(
+				start,
+				end);
+	}
+
+	@Test
+	public void testIsScanned() {
+		final List<ByteArrayRange> ranges = Arrays.asList(range(
+				id(
+						1,
+						0),
+				id(
+						1,
+						0x80)));
+		assertTrue(InsertionIdDedupeFilter.isScanned(
+				id(
+						1,
+						0),
+				ranges));
+		// bytes are compared unsigned
+		assertTrue(InsertionIdDedupeFilter.isScanned(
+				id(
+						1,
+						0x7f),
+				ranges));
+		// every row prefixed by the end is scanned
+		assertTrue(InsertionIdDedupeFilter.isScanned(
+				id(
+						1,
+						0x80,
+						5),
+				ranges));
+		assertFalse(InsertionIdDedupeFilter.isScanned(
+				id(
+						1,
+						0x81),
+				ranges));
+		assertFalse(InsertionIdDedupeFilter.isScanned(
+				id(
+						0,
+						0xff),
+				ranges));
+		// rows prefixed by a proper prefix of the end may be beyond the end
+		assertFalse(InsertionIdDedupeFilter.isScanned(
+				id(1),
+				ranges));
+		assertTrue(InsertionIdDedupeFilter.isScanned(
+				id(2),
+				Collections.<ByteArrayRange> emptyList()));
+	}
+
+	@Test
+	public void testCanonicalInsertionId() {
+		final List<ByteArrayId> insertionIds = Arrays.asList(
+				id(
+						1,
+						3),
+				id(
+						1,
+						1),
+				id(
+						1,
+						2));
+		// the lowest of all insertion IDs for a full table scan
+		assertEquals(
+				id(
+						1,
+						1),
+				InsertionIdDedupeFilter.getCanonicalInsertionId(
+						insertionIds,
+						Collections.<ByteArrayRange> emptyList()));
+		// the lowest of the insertion IDs that are scanned
+		assertEquals(
+				id(
+						1,
+						2),
+				InsertionIdDedupeFilter.getCanonicalInsertionId(
+						insertionIds,
+						Arrays.asList(range(
+								id(
+										1,
+										2),
+								id(
+										1,
+										5)))));
+		assertNull(InsertionIdDedupeFilter.getCanonicalInsertionId(
+				insertionIds,
+				Arrays.asList(range(
+						id(2),
+						id(3)))));
+	}
+
+	@Test
+	public void testAcceptsUnduplicatedEntries() {
+		final InsertionIdDedupeFilter filter = new InsertionIdDedupeFilter(
+				new NullIndex(
+						"a"),
+				null);
+		assertTrue(filter.accept(
+				null,
+				new IndexedPersistenceEncoding(
+						new ByteArrayId(
+								"adapter"),
+						new ByteArrayId(
+								"data"),
+						id(1),
+						0,
+						new PersistentDataset(),
+						new PersistentDataset())));
+	}
+
+	@Test
+	public void testSerialization() {
+		final List<ByteArrayRange> ranges = new ArrayList<ByteArrayRange>();
+		ranges.add(range(
+				id(
+						1,
+						2),
+				id(
+						1,
+						5)));
+		ranges.add(new ByteArrayRange(
+				id(3),
+				id(3),
+				true));
+		final InsertionIdDedupeFilter filter = new InsertionIdDedupeFilter(
+				new NullIndex(
+						"a"),
+				ranges);
+		final byte[] binary = PersistenceUtils.toBinary(filter);
+		assertArrayEquals(
+				binary,
+				PersistenceUtils.toBinary(PersistenceUtils.fromBinary(
+						binary,
+						InsertionIdDedupeFilter.class)));
+	}
+}
@@ -0,0 +1,85 @@
+package mil.nga.giat.geowave.core.store.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class VisitedIdSetTest
+{
+	@Test
+	public void testFingerprintHashSet() {
+		final FingerprintHashSet set = new FingerprintHashSet();
+		final Random random = new Random(
+				1234);
+		final long[] fingerprints = new long[10000];
+		for (int i = 0; i < fingerprints.length; i++) {
+			fingerprints[i] = random.nextLong();
+			assertTrue(set.add(fingerprints[i]));
+		}
+		for (final long fingerprint : fingerprints) {
+			assertFalse(set.add(fingerprint));
+		}
+		assertTrue(set.add(0L));
+		assertFalse(set.add(0L));
+		assertEquals(
+				fingerprints.length + 1,
+				set.size());
+		assertTrue(set.getMemoryUsage() >= (set.size() * 8));
+	}
+
+	@Test
+	public void testConcurrentAdd()
+			throws InterruptedException {
+		final FingerprintHashSet set = new FingerprintHashSet();
+		final AtomicInteger accepted = new AtomicInteger(
+				0);
+		final Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread() {
+				@Override
+				public void run() {
+					// every thread visits the same IDs so each should be
+					// accepted exactly once overall
+					for (long i = 1; i <= 20000; i++) {
+						if (set.add(i * 31)) {
+							accepted.incrementAndGet();
+						}
+					}
+				}
+			};
+			threads[t].start();
+		}
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(
+				20000,
+				accepted.get());
+	}
+
+	@Test
+	public void testBloomFilterFalsePositiveRate() {
+		final BloomFilterVisitedIdSet set = new BloomFilterVisitedIdSet(
+				10000,
+				0.01);
+		final Random random = new Random(
+				5678);
+		for (int i = 0; i < 10000; i++) {
+			set.add(random.nextLong());
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 1000; i++) {
+			if (!set.add(random.nextLong())) {
+				falsePositives++;
+			}
+		}
+		// allow for the filter filling up while testing
+		assertTrue(falsePositives < 50);
+		assertTrue(set.getMemoryUsage() < (64 * 1024));
+	}
+}
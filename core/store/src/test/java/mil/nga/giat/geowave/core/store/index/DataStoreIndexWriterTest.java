@@ -0,0 +1,243 @@
+package mil.nga.giat.geowave.core.store.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.BaseDataStoreOptions;
+import mil.nga.giat.geowave.core.store.adapter.MockComponents;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo.FieldInfo;
+import mil.nga.giat.geowave.core.store.base.Writer;
+import mil.nga.giat.geowave.core.store.callback.IngestCallback;
+import mil.nga.giat.geowave.core.store.data.VisibilityWriter;
+
+public class DataStoreIndexWriterTest
+{
+	private final static int ENTRY_COUNT = 500;
+
+	@Test
+	public void testSequentialEncoding() {
+		final BaseDataStoreOptions options = new BaseDataStoreOptions();
+		final TestIndexWriter indexWriter = new TestIndexWriter(
+				options);
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+			assertEquals(
+					Collections.singletonList(new ByteArrayId(
+							Integer.toString(i))),
+					indexWriter.write(i));
+		}
+		indexWriter.close();
+		assertWrittenInOrder(indexWriter);
+		assertEquals(
+				1,
+				indexWriter.maxConcurrentEncodes.get());
+	}
+
+	@Test
+	public void testConcurrentEncoding() {
+		final BaseDataStoreOptions options = new BaseDataStoreOptions();
+		options.setWriteEncodeThreads(4);
+		options.setWriteEncodeBufferSize(16);
+		final TestIndexWriter indexWriter = new TestIndexWriter(
+				options);
+		final List<List<ByteArrayId>> rowIds = new ArrayList<List<ByteArrayId>>();
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+			rowIds.add(indexWriter.write(i));
+			// the pending entries are bounded by the buffer size
+			assertTrue(indexWriter.encodeCount.get() - indexWriter.mutations.size() <= 17);
+		}
+		indexWriter.flush();
+		assertWrittenInOrder(indexWriter);
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+			assertEquals(
+					Collections.singletonList(new ByteArrayId(
+							Integer.toString(i))),
+					rowIds.get(i));
+		}
+		assertTrue(indexWriter.maxConcurrentEncodes.get() > 1);
+		indexWriter.close();
+		assertTrue(indexWriter.closed);
+	}
+
+	@Test
+	public void testCloseWritesPendingEntries() {
+		final BaseDataStoreOptions options = new BaseDataStoreOptions();
+		options.setWriteEncodeThreads(2);
+		options.setWriteEncodeBufferSize(ENTRY_COUNT);
+		final TestIndexWriter indexWriter = new TestIndexWriter(
+				options);
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+			indexWriter.write(i);
+		}
+		indexWriter.close();
+		assertWrittenInOrder(indexWriter);
+	}
+
+	@Test
+	public void testEncodeFailure() {
+		final BaseDataStoreOptions options = new BaseDataStoreOptions();
+		options.setWriteEncodeThreads(2);
+		options.setWriteEncodeBufferSize(ENTRY_COUNT);
+		final TestIndexWriter indexWriter = new TestIndexWriter(
+				options);
+		boolean failed = false;
+		try {
+			for (int i = 0; i < 10; i++) {
+				indexWriter.write(i);
+			}
+			// negative entries cannot be encoded
+			indexWriter.write(-1);
+			indexWriter.flush();
+		}
+		catch (final IllegalArgumentException e) {
+			failed = true;
+		}
+		assertTrue(failed);
+		assertEquals(
+				10,
+				indexWriter.ingested.size());
+		assertFalse(indexWriter.ingested.contains(-1));
+		indexWriter.close();
+		assertTrue(indexWriter.closed);
+	}
+
+	private static void assertWrittenInOrder(
+			final TestIndexWriter indexWriter ) {
+		assertEquals(
+				ENTRY_COUNT,
+				indexWriter.mutations.size());
+		assertEquals(
+				ENTRY_COUNT,
+				indexWriter.ingested.size());
+		for (int i = 0; i < ENTRY_COUNT; i++) {
+			assertEquals(
+					Integer.valueOf(i),
+					indexWriter.mutations.get(i));
+			assertEquals(
+					Integer.valueOf(i),
+					indexWriter.ingested.get(i));
+		}
+	}
+
+	private static class TestIndexWriter extends
+			DataStoreIndexWriter<Integer, Integer>
+	{
+		// the writer and callback are only called while holding the lock of
+		// the index writer
+		private final List<Integer> mutations = new ArrayList<Integer>();
+		private final List<Integer> ingested;
+		private final AtomicInteger encodeCount = new AtomicInteger();
+		private final AtomicInteger concurrentEncodes = new AtomicInteger();
+		private final AtomicInteger maxConcurrentEncodes = new AtomicInteger();
+		private boolean closed = false;
+
+		public TestIndexWriter(
+				final BaseDataStoreOptions options ) {
+			this(
+					options,
+					new ArrayList<Integer>());
+		}
+
+		private TestIndexWriter(
+				final BaseDataStoreOptions options,
+				final List<Integer> ingested ) {
+			super(
+					new MockComponents.MockAbstractDataAdapter(),
+					new PrimaryIndex(
+							new MockComponents.MockIndexStrategy(),
+							new MockComponents.TestIndexModel()),
+					null,
+					options,
+					new IngestCallback<Integer>() {
+						@Override
+						public void entryIngested(
+								final DataStoreEntryInfo entryInfo,
+								final Integer entry ) {
+							ingested.add(entry);
+						}
+					},
+					new Closeable() {
+						@Override
+						public void close()
+								throws IOException {}
+					});
+			this.ingested = ingested;
+		}
+
+		@Override
+		protected void ensureOpen() {
+			if (writer == null) {
+				writer = new Writer<Integer>() {
+					@Override
+					public void close()
+							throws IOException {
+						closed = true;
+					}
+
+					@Override
+					public void write(
+							final Iterable<Integer> mutations ) {
+						for (final Integer mutation : mutations) {
+							write(mutation);
+						}
+					}
+
+					@Override
+					public void write(
+							final Integer mutation ) {
+						mutations.add(mutation);
+					}
+
+					@Override
+					public void flush() {}
+				};
+			}
+		}
+
+		@Override
+		protected DataStoreEntryInfo encode(
+				final Integer entry,
+				final VisibilityWriter<Integer> visibilityWriter,
+				final List<Integer> mutations ) {
+			if (entry < 0) {
+				throw new IllegalArgumentException(
+						"Cannot encode " + entry);
+			}
+			encodeCount.incrementAndGet();
+			final int concurrent = concurrentEncodes.incrementAndGet();
+			int max;
+			while ((max = maxConcurrentEncodes.get()) < concurrent) {
+				maxConcurrentEncodes.compareAndSet(
+						max,
+						concurrent);
+			}
+			try {
+				// make later entries finish encoding before earlier ones
+				Thread.sleep((entry % 3) == 0 ? 2 : 0);
+			}
+			catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			mutations.add(entry);
+			concurrentEncodes.decrementAndGet();
+			final ByteArrayId id = new ByteArrayId(
+					Integer.toString(entry));
+			return new DataStoreEntryInfo(
+					id.getBytes(),
+					Collections.singletonList(id),
+					Collections.singletonList(id),
+					Collections.<FieldInfo<?>> emptyList());
+		}
+	}
+}
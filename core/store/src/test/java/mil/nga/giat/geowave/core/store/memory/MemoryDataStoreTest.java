@@ -5,14 +5,19 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
 import mil.nga.giat.geowave.core.index.NumericIndexStrategy;
 import mil.nga.giat.geowave.core.index.sfc.data.BasicNumericDataset;
 import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
@@ -32,6 +37,9 @@ import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
 import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
 import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeDataStatistics;
 import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeHistogramStatistics;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
+import mil.nga.giat.geowave.core.store.base.EntryRowID;
+import mil.nga.giat.geowave.core.store.callback.ScanCallback;
 import mil.nga.giat.geowave.core.store.data.CommonIndexedPersistenceEncoding;
 import mil.nga.giat.geowave.core.store.data.IndexedPersistenceEncoding;
 import mil.nga.giat.geowave.core.store.data.VisibilityWriter;
@@ -44,7 +52,9 @@ import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.memory.MemoryRequiredOptions;
 import mil.nga.giat.geowave.core.store.memory.MemoryStoreFactoryFamily;
 import mil.nga.giat.geowave.core.store.query.DataIdQuery;
+import mil.nga.giat.geowave.core.store.query.IndexQueryCost;
 import mil.nga.giat.geowave.core.store.query.Query;
+import mil.nga.giat.geowave.core.store.query.QueryExplanation;
 import mil.nga.giat.geowave.core.store.query.QueryOptions;
 
 public class MemoryDataStoreTest
@@ -444,6 +454,139 @@ public class MemoryDataStoreTest
 
 	}
 
+	@Test
+	public void testRangeScan() {
+		final ConcurrentNavigableMap<MemoryEntryRow, MemoryEntryRow> rows = new ConcurrentSkipListMap<MemoryEntryRow, MemoryEntryRow>();
+		final byte[][] insertionIds = new byte[][] {
+			new byte[] {
+				0x01
+			},
+			new byte[] {
+				0x02
+			},
+			new byte[] {
+				0x02,
+				0x05
+			},
+			new byte[] {
+				0x7F
+			},
+			new byte[] {
+				(byte) 0x80
+			},
+			new byte[] {
+				(byte) 0xFF
+			},
+			new byte[] {
+				(byte) 0xFF,
+				0x01
+			}
+		};
+		for (int i = 0; i < insertionIds.length; i++) {
+			final MemoryEntryRow row = new MemoryEntryRow(
+					new EntryRowID(
+							insertionIds[i],
+							new byte[] {
+								(byte) i
+							},
+							new byte[] {
+								0x01
+							},
+							0),
+					i,
+					null);
+			rows.put(
+					row,
+					row);
+		}
+		// the end of a range includes the insertion IDs it prefixes
+		assertRangeEntries(
+				rows,
+				Arrays.asList(range(
+						0x02,
+						0x02)),
+				1,
+				2);
+		// bytes compare as unsigned so the range is contiguous
+		assertRangeEntries(
+				rows,
+				Arrays.asList(range(
+						0x7F,
+						0x80)),
+				3,
+				4);
+		// a range ending in 0xFF has no upper bound
+		assertRangeEntries(
+				rows,
+				Arrays.asList(range(
+						0x80,
+						0xFF)),
+				4,
+				5,
+				6);
+		// overlapping ranges do not return the same row twice
+		assertRangeEntries(
+				rows,
+				Arrays.asList(
+						range(
+								0x01,
+								0x02),
+						new ByteArrayRange(
+								new ByteArrayId(
+										new byte[] {
+											0x02,
+											0x05
+										}),
+								new ByteArrayId(
+										new byte[] {
+											0x02,
+											0x05
+										}))),
+				0,
+				1,
+				2);
+		assertRangeEntries(
+				rows,
+				null,
+				0,
+				1,
+				2,
+				3,
+				4,
+				5,
+				6);
+	}
+
+	private static ByteArrayRange range(
+			final int start,
+			final int end ) {
+		return new ByteArrayRange(
+				new ByteArrayId(
+						new byte[] {
+							(byte) start
+						}),
+				new ByteArrayId(
+						new byte[] {
+							(byte) end
+						}));
+	}
+
+	private static void assertRangeEntries(
+			final ConcurrentNavigableMap<MemoryEntryRow, MemoryEntryRow> rows,
+			final List<ByteArrayRange> ranges,
+			final Integer... expectedEntries ) {
+		final List<Object> entries = new ArrayList<Object>();
+		final Iterator<MemoryEntryRow> it = MemoryDataStore.getRowsInRanges(
+				rows,
+				ranges);
+		while (it.hasNext()) {
+			entries.add(it.next().getEntry());
+		}
+		assertEquals(
+				Arrays.asList((Object[]) expectedEntries),
+				entries);
+	}
+
 	private boolean checkStats(
 			final Iterator<DataStatistics<?>> statIt,
 			final int count,
@@ -459,6 +602,94 @@ public class MemoryDataStoreTest
 		return true;
 	}
 
+	@Test
+	public void testExplainAndProfile()
+			throws IOException,
+			MismatchedIndexToAdapterMapping {
+		final PrimaryIndex index1 = new PrimaryIndex(
+				new MockComponents.MockIndexStrategy(),
+				new MockComponents.TestIndexModel(
+						"tm1"));
+		final PrimaryIndex index2 = new PrimaryIndex(
+				new MockComponents.MockIndexStrategy(),
+				new MockComponents.TestIndexModel(
+						"tm2"));
+		final MemoryRequiredOptions reqOptions = new MemoryRequiredOptions();
+		reqOptions.setGeowaveNamespace("test_explain_" + getClass().getName());
+		final DataStore dataStore = new MemoryStoreFactoryFamily().getDataStoreFactory().createStore(
+				reqOptions);
+		final WritableDataAdapter<Integer> adapter = new MockComponents.MockAbstractDataAdapter();
+		try (final IndexWriter indexWriter = dataStore.createWriter(
+				adapter,
+				index1,
+				index2)) {
+			indexWriter.write(new Integer(
+					25));
+			indexWriter.write(new Integer(
+					35));
+		}
+
+		final QueryExplanation explanation = dataStore.explain(
+				new QueryOptions(
+						adapter),
+				new TestQuery(
+						23,
+						26));
+		// the adapter is scanned on a single index
+		assertEquals(
+				1,
+				explanation.getIndexPlans().size());
+		final QueryExplanation.IndexPlan plan = explanation.getIndexPlans().get(
+				0);
+		assertEquals(
+				Collections.singletonList(adapter.getAdapterId()),
+				plan.getAdapterIds());
+		assertTrue(plan.getRangeCount() > 0);
+		// the memory data store filters everything on the client
+		assertTrue(plan.getServerSideFilters().isEmpty());
+		assertTrue(plan.getClientSideFilters().contains(
+				TestQueryFilter.class.getSimpleName()));
+		// the index selected by the explanation is the one that is scanned
+		assertEquals(
+				2,
+				explanation.getIndexCosts().size());
+		for (final IndexQueryCost cost : explanation.getIndexCosts()) {
+			assertEquals(
+					cost.getIndex().getId().equals(
+							plan.getIndexId()),
+					cost.isSelected());
+		}
+		assertEquals(
+				null,
+				explanation.getProfile());
+
+		final AtomicInteger scanned = new AtomicInteger();
+		final ScanCallback<Integer> callback = new ScanCallback<Integer>() {
+			@Override
+			public void entryScanned(
+					final DataStoreEntryInfo entryInfo,
+					final Integer entry ) {
+				scanned.incrementAndGet();
+			}
+		};
+		final QueryOptions queryOptions = new QueryOptions(
+				adapter);
+		queryOptions.setScanCallback(callback);
+		final QueryExplanation profiled = dataStore.profile(
+				queryOptions,
+				new TestQuery(
+						23,
+						26));
+		assertEquals(
+				1,
+				profiled.getProfile().getRowsReturned());
+		// the profile wraps the query's callback without replacing it
+		assertEquals(
+				1,
+				scanned.get());
+		assertTrue(queryOptions.getScanCallback() == callback);
+	}
+
 	private class TestQueryFilter implements
 			QueryFilter
 	{
@@ -0,0 +1,360 @@
+package mil.nga.giat.geowave.core.store.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.NumericIndexStrategy;
+import mil.nga.giat.geowave.core.index.sfc.data.BasicNumericDataset;
+import mil.nga.giat.geowave.core.index.sfc.data.MultiDimensionalNumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericRange;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.DataStore;
+import mil.nga.giat.geowave.core.store.GeoWaveStoreFinder;
+import mil.nga.giat.geowave.core.store.IndexWriter;
+import mil.nga.giat.geowave.core.store.StoreFactoryFamilySpi;
+import mil.nga.giat.geowave.core.store.adapter.MockComponents;
+import mil.nga.giat.geowave.core.store.adapter.MockComponents.TestIndexModel;
+import mil.nga.giat.geowave.core.store.adapter.WritableDataAdapter;
+import mil.nga.giat.geowave.core.store.adapter.exceptions.MismatchedIndexToAdapterMapping;
+import mil.nga.giat.geowave.core.store.adapter.statistics.CountDataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
+import mil.nga.giat.geowave.core.store.data.VisibilityWriter;
+import mil.nga.giat.geowave.core.store.data.field.FieldVisibilityHandler;
+import mil.nga.giat.geowave.core.store.data.visibility.GlobalVisibilityHandler;
+import mil.nga.giat.geowave.core.store.filter.QueryFilter;
+import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
+import mil.nga.giat.geowave.core.store.index.Index;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.query.DataIdQuery;
+import mil.nga.giat.geowave.core.store.query.Query;
+import mil.nga.giat.geowave.core.store.query.QueryOptions;
+
+public class OffHeapDataStoreTest
+{
+	@Rule
+	public TemporaryFolder tempFolder = new TemporaryFolder();
+
+	@Test
+	public void test()
+			throws IOException,
+			MismatchedIndexToAdapterMapping {
+		final PrimaryIndex index = new PrimaryIndex(
+				new MockComponents.MockIndexStrategy(),
+				new MockComponents.TestIndexModel());
+		final StoreFactoryFamilySpi storeFamily = new OffHeapStoreFactoryFamily();
+		final OffHeapRequiredOptions reqOptions = new OffHeapRequiredOptions();
+		reqOptions.setGeowaveNamespace("test_" + getClass().getName());
+		reqOptions.setDirectory(tempFolder.getRoot().getAbsolutePath());
+		final DataStore dataStore = storeFamily.getDataStoreFactory().createStore(
+				reqOptions);
+		final DataStatisticsStore statsStore = storeFamily.getDataStatisticsStoreFactory().createStore(
+				reqOptions);
+		final WritableDataAdapter<Integer> adapter = new MockComponents.MockAbstractDataAdapter();
+
+		final VisibilityWriter<Integer> visWriter = new VisibilityWriter<Integer>() {
+			@Override
+			public FieldVisibilityHandler<Integer, Object> getFieldVisibilityHandler(
+					final ByteArrayId fieldId ) {
+				return new GlobalVisibilityHandler(
+						"aaa&bbb");
+			}
+		};
+
+		try (final IndexWriter indexWriter = dataStore.createWriter(
+				adapter,
+				index)) {
+			for (final int i : new int[] {
+				25,
+				35,
+				45
+			}) {
+				indexWriter.write(
+						new Integer(
+								i),
+						visWriter);
+			}
+			indexWriter.flush();
+		}
+
+		final QueryOptions authorizedOptions = new QueryOptions(
+				adapter,
+				index,
+				new String[] {
+					"aaa",
+					"bbb"
+				});
+
+		// authorization check
+		try (CloseableIterator<?> itemIt = dataStore.query(
+				new QueryOptions(
+						adapter,
+						index,
+						new String[] {
+							"aaa"
+						}),
+				new ConstraintsOnlyQuery(
+						23,
+						26))) {
+			assertFalse(itemIt.hasNext());
+		}
+
+		// the query has no filters, so only the off-heap columns reject the
+		// entries outside of its constraints
+		assertEntries(
+				dataStore,
+				authorizedOptions,
+				new ConstraintsOnlyQuery(
+						23,
+						36),
+				25,
+				35);
+		assertEntries(
+				dataStore,
+				authorizedOptions,
+				null,
+				25,
+				35,
+				45);
+
+		final Iterator<DataStatistics<?>> statsIt = statsStore.getAllDataStatistics();
+		long count = 0;
+		while (statsIt.hasNext()) {
+			final DataStatistics<?> stats = statsIt.next();
+			if (stats instanceof CountDataStatistics) {
+				count += ((CountDataStatistics<?>) stats).getCount();
+			}
+		}
+		assertEquals(
+				3,
+				count);
+
+		dataStore.delete(
+				authorizedOptions,
+				new ConstraintsOnlyQuery(
+						30,
+						40));
+		assertEntries(
+				dataStore,
+				authorizedOptions,
+				null,
+				25,
+				45);
+		try (CloseableIterator<?> itemIt = dataStore.query(
+				authorizedOptions,
+				new DataIdQuery(
+						adapter.getAdapterId(),
+						adapter.getDataId(new Integer(
+								45))))) {
+			assertTrue(itemIt.hasNext());
+			assertEquals(
+					new Integer(
+							45),
+					itemIt.next());
+			assertFalse(itemIt.hasNext());
+		}
+	}
+
+	@Test
+	public void testSegments() {
+		final OffHeapSegments segments = new OffHeapSegments(
+				tempFolder.getRoot(),
+				"test-",
+				64);
+		final long first = segments.append(new byte[] {
+			1,
+			2,
+			3
+		});
+		// does not fit in the remainder of the first segment
+		final long second = segments.append(new byte[60]);
+		// larger than a segment
+		final long third = segments.append(new byte[100]);
+		assertEquals(
+				3,
+				segments.getSegmentCount());
+		final ByteBuffer firstRecord = segments.getRecord(first);
+		assertEquals(
+				3,
+				firstRecord.remaining());
+		assertEquals(
+				1,
+				firstRecord.get());
+		assertEquals(
+				60,
+				segments.getRecord(
+						second).remaining());
+		assertEquals(
+				100,
+				segments.getRecord(
+						third).remaining());
+	}
+
+	@Test
+	public void testStorePerDirectoryAndClose()
+			throws IOException {
+		final OffHeapRequiredOptions options1 = new OffHeapRequiredOptions();
+		options1.setGeowaveNamespace("test_close");
+		options1.setDirectory(tempFolder.newFolder().getAbsolutePath());
+		final OffHeapRequiredOptions options2 = new OffHeapRequiredOptions();
+		options2.setGeowaveNamespace("test_close");
+		options2.setDirectory(tempFolder.newFolder().getAbsolutePath());
+		final OffHeapDataStoreFactory factory = new OffHeapDataStoreFactory();
+		final OffHeapDataStore store1 = (OffHeapDataStore) factory.createStore(options1);
+		assertTrue(store1 == factory.createStore(options1));
+		assertFalse(store1 == factory.createStore(options2));
+
+		// the store is held until both holders close it
+		store1.close();
+		assertFalse(store1.isClosed());
+		store1.close();
+		assertTrue(store1.isClosed());
+		final OffHeapDataStore reopenedStore = (OffHeapDataStore) factory.createStore(options1);
+		assertFalse(store1 == reopenedStore);
+		assertFalse(reopenedStore.isClosed());
+		reopenedStore.close();
+	}
+
+	@Test
+	public void testIterateAfterClose()
+			throws IOException {
+		final PrimaryIndex index = new PrimaryIndex(
+				new MockComponents.MockIndexStrategy(),
+				new MockComponents.TestIndexModel());
+		final OffHeapRequiredOptions options = new OffHeapRequiredOptions();
+		options.setGeowaveNamespace("test_iterate_after_close");
+		options.setDirectory(tempFolder.newFolder().getAbsolutePath());
+		final DataStore dataStore = new OffHeapDataStoreFactory().createStore(options);
+		final WritableDataAdapter<Integer> adapter = new MockComponents.MockAbstractDataAdapter();
+		try (final IndexWriter indexWriter = dataStore.createWriter(
+				adapter,
+				index)) {
+			for (int i = 0; i < 3; i++) {
+				indexWriter.write(new Integer(
+						i));
+			}
+		}
+		try (CloseableIterator<?> itemIt = dataStore.query(
+				new QueryOptions(
+						adapter,
+						index),
+				null)) {
+			assertTrue(itemIt.hasNext());
+			assertEquals(
+					new Integer(
+							0),
+					itemIt.next());
+			((OffHeapDataStore) dataStore).close();
+			try {
+				itemIt.hasNext();
+				fail("a closed store cannot be read");
+			}
+			catch (final IllegalStateException e) {}
+		}
+	}
+
+	@Test
+	public void testCloseSegments() {
+		final OffHeapSegments segments = new OffHeapSegments(
+				tempFolder.getRoot(),
+				"test-",
+				64);
+		final long address = segments.append(new byte[] {
+			1
+		});
+		segments.close();
+		assertTrue(segments.isClosed());
+		assertEquals(
+				0,
+				segments.getSegmentCount());
+		try {
+			segments.getRecord(address);
+			fail("closed segments cannot be read");
+		}
+		catch (final IllegalStateException e) {}
+	}
+
+	@Test
+	public void testStoreFinder() {
+		final Map<String, String> options = new HashMap<String, String>();
+		options.put(
+				OffHeapRequiredOptions.DIRECTORY_CONFIG_KEY,
+				tempFolder.getRoot().getAbsolutePath());
+		final StoreFactoryFamilySpi storeFamily = GeoWaveStoreFinder.findStoreFamily(options);
+		assertTrue(storeFamily instanceof OffHeapStoreFactoryFamily);
+		assertTrue(GeoWaveStoreFinder.createDataStore(options) instanceof OffHeapDataStore);
+	}
+
+	private static void assertEntries(
+			final DataStore dataStore,
+			final QueryOptions queryOptions,
+			final Query query,
+			final int... expectedEntries )
+			throws IOException {
+		try (CloseableIterator<?> itemIt = dataStore.query(
+				queryOptions,
+				query)) {
+			for (final int expected : expectedEntries) {
+				assertTrue(itemIt.hasNext());
+				assertEquals(
+						new Integer(
+								expected),
+						itemIt.next());
+			}
+			assertFalse(itemIt.hasNext());
+		}
+	}
+
+	private static class ConstraintsOnlyQuery implements
+			Query
+	{
+		final double min, max;
+
+		public ConstraintsOnlyQuery(
+				final double min,
+				final double max ) {
+			super();
+			this.min = min;
+			this.max = max;
+		}
+
+		@Override
+		public List<QueryFilter> createFilters(
+				final CommonIndexModel indexModel ) {
+			return Collections.emptyList();
+		}
+
+		@Override
+		public boolean isSupported(
+				final Index<?, ?> index ) {
+			return ((PrimaryIndex) index).getIndexModel() instanceof TestIndexModel;
+		}
+
+		@Override
+		public List<MultiDimensionalNumericData> getIndexConstraints(
+				final NumericIndexStrategy indexStrategy ) {
+			return Collections.<MultiDimensionalNumericData> singletonList(new BasicNumericDataset(
+					new NumericData[] {
+						new NumericRange(
+								min,
+								max)
+					}));
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package mil.nga.giat.geowave.core.store.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.adapter.statistics.CountDataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
+import mil.nga.giat.geowave.core.store.index.NullIndex;
+
+public class IndexCostEstimatorTest
+{
+	private final static ByteArrayId ADAPTER_ID = new ByteArrayId(
+			"adapter");
+
+	@Test
+	public void testOverlap() {
+		assertEquals(
+				0.25,
+				IndexCostEstimator.getOverlap(
+						0,
+						25,
+						0,
+						100),
+				0.0001);
+		assertEquals(
+				1,
+				IndexCostEstimator.getOverlap(
+						-50,
+						150,
+						0,
+						100),
+				0.0001);
+		assertEquals(
+				0,
+				IndexCostEstimator.getOverlap(
+						150,
+						200,
+						0,
+						100),
+				0.0001);
+		// a single value is either within the constraint or not
+		assertEquals(
+				1,
+				IndexCostEstimator.getOverlap(
+						0,
+						10,
+						5,
+						5),
+				0.0001);
+	}
+
+	@Test
+	public void testSelectLowestCost() {
+		final IndexQueryCost unsupported = new IndexQueryCost(
+				ADAPTER_ID,
+				new NullIndex(
+						"a"),
+				IndexQueryCost.EstimateSource.UNSUPPORTED,
+				-1,
+				0,
+				IndexCostEstimator.DEFAULT_RANGE_COST);
+		final IndexQueryCost unknown = new IndexQueryCost(
+				ADAPTER_ID,
+				new NullIndex(
+						"b"),
+				IndexQueryCost.EstimateSource.UNKNOWN,
+				-1,
+				1,
+				IndexCostEstimator.DEFAULT_RANGE_COST);
+		final IndexQueryCost manyRanges = new IndexQueryCost(
+				ADAPTER_ID,
+				new NullIndex(
+						"c"),
+				IndexQueryCost.EstimateSource.SELECTIVITY,
+				100,
+				100,
+				IndexCostEstimator.DEFAULT_RANGE_COST);
+		final IndexQueryCost manyRows = new IndexQueryCost(
+				ADAPTER_ID,
+				new NullIndex(
+						"d"),
+				IndexQueryCost.EstimateSource.ROW_RANGE_HISTOGRAM,
+				1000,
+				1,
+				IndexCostEstimator.DEFAULT_RANGE_COST);
+		assertSame(
+				manyRows,
+				IndexCostEstimator.selectLowestCost(Arrays.asList(
+						unsupported,
+						unknown,
+						manyRanges,
+						manyRows)));
+		assertTrue(manyRows.isSelected());
+		assertFalse(manyRanges.isSelected());
+		assertTrue(manyRows.toString().startsWith(
+				"* adapter on d: cost=1016"));
+
+		// an unknown cost is still favored over an unsupported index
+		assertSame(
+				unknown,
+				IndexCostEstimator.selectLowestCost(Arrays.asList(
+						unsupported,
+						unknown)));
+	}
+
+	@Test
+	public void testFullTableScan() {
+		final CountDataStatistics<Object> count = new CountDataStatistics<Object>(
+				ADAPTER_ID);
+		for (int i = 0; i < 10; i++) {
+			count.entryIngested(
+					null,
+					null);
+		}
+		final Map<ByteArrayId, DataStatistics<Object>> stats = new HashMap<ByteArrayId, DataStatistics<Object>>();
+		final IndexCostEstimator estimator = new IndexCostEstimator();
+		IndexQueryCost cost = estimator.estimateCost(
+				ADAPTER_ID,
+				new NullIndex(
+						"a"),
+				null,
+				stats);
+		assertEquals(
+				IndexQueryCost.EstimateSource.UNKNOWN,
+				cost.getSource());
+
+		stats.put(
+				CountDataStatistics.STATS_TYPE,
+				count);
+		cost = estimator.estimateCost(
+				ADAPTER_ID,
+				new NullIndex(
+						"a"),
+				null,
+				stats);
+		assertEquals(
+				IndexQueryCost.EstimateSource.FULL_TABLE_SCAN,
+				cost.getSource());
+		assertEquals(
+				10 + IndexCostEstimator.DEFAULT_RANGE_COST,
+				cost.getCost(),
+				0.0001);
+	}
+}
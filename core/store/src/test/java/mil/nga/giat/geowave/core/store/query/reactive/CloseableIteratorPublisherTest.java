@@ -0,0 +1,245 @@
+package mil.nga.giat.geowave.core.store.query.reactive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+
+public class CloseableIteratorPublisherTest
+{
+	private final static long TIMEOUT_SECONDS = 10;
+
+	@Test
+	public void testDemand()
+			throws InterruptedException {
+		final CountingIterator iterator = new CountingIterator(
+				100,
+				-1);
+		final CollectingSubscriber subscriber = new CollectingSubscriber();
+		new TestPublisher(
+				iterator,
+				5).subscribe(subscriber);
+		subscriber.subscription.request(3);
+		subscriber.awaitItems(3);
+		// give the producer time to fill the buffer
+		Thread.sleep(200);
+		assertEquals(
+				3,
+				subscriber.items.size());
+		assertTrue(iterator.pulled.get() <= (3 + 5));
+		assertFalse(iterator.closed.await(
+				0,
+				TimeUnit.SECONDS));
+
+		subscriber.subscription.request(Long.MAX_VALUE);
+		assertTrue(subscriber.terminated.await(
+				TIMEOUT_SECONDS,
+				TimeUnit.SECONDS));
+		assertTrue(subscriber.completed);
+		assertNull(subscriber.error);
+		assertEquals(
+				100,
+				subscriber.items.size());
+		for (int i = 0; i < 100; i++) {
+			assertEquals(
+					Integer.valueOf(i),
+					subscriber.items.get(i));
+		}
+		assertTrue(iterator.closed.await(
+				TIMEOUT_SECONDS,
+				TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testCancel()
+			throws InterruptedException {
+		final CountingIterator iterator = new CountingIterator(
+				Integer.MAX_VALUE,
+				-1);
+		final CollectingSubscriber subscriber = new CollectingSubscriber();
+		new TestPublisher(
+				iterator,
+				2).subscribe(subscriber);
+		subscriber.subscription.request(1);
+		subscriber.awaitItems(1);
+		subscriber.subscription.cancel();
+		assertTrue(iterator.closed.await(
+				TIMEOUT_SECONDS,
+				TimeUnit.SECONDS));
+		subscriber.subscription.request(10);
+		Thread.sleep(100);
+		assertEquals(
+				1,
+				subscriber.items.size());
+		assertFalse(subscriber.completed);
+		assertNull(subscriber.error);
+	}
+
+	@Test
+	public void testError()
+			throws InterruptedException {
+		final CountingIterator iterator = new CountingIterator(
+				100,
+				2);
+		final CollectingSubscriber subscriber = new CollectingSubscriber();
+		new TestPublisher(
+				iterator,
+				10).subscribe(subscriber);
+		subscriber.subscription.request(10);
+		assertTrue(subscriber.terminated.await(
+				TIMEOUT_SECONDS,
+				TimeUnit.SECONDS));
+		assertTrue(subscriber.error instanceof IllegalStateException);
+		assertFalse(subscriber.completed);
+		assertTrue(iterator.closed.await(
+				TIMEOUT_SECONDS,
+				TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testInvalidRequest()
+			throws InterruptedException {
+		final CountingIterator iterator = new CountingIterator(
+				100,
+				-1);
+		final CollectingSubscriber subscriber = new CollectingSubscriber();
+		new TestPublisher(
+				iterator,
+				10).subscribe(subscriber);
+		subscriber.subscription.request(0);
+		assertTrue(subscriber.terminated.await(
+				TIMEOUT_SECONDS,
+				TimeUnit.SECONDS));
+		assertTrue(subscriber.error instanceof IllegalArgumentException);
+		assertEquals(
+				0,
+				subscriber.items.size());
+		// the query is never run without demand
+		assertEquals(
+				0,
+				iterator.pulled.get());
+	}
+
+	private static class TestPublisher extends
+			CloseableIteratorPublisher<Integer>
+	{
+		private final CloseableIterator<Integer> iterator;
+
+		public TestPublisher(
+				final CloseableIterator<Integer> iterator,
+				final int bufferSize ) {
+			super(
+					bufferSize);
+			this.iterator = iterator;
+		}
+
+		@Override
+		protected CloseableIterator<Integer> openIterator() {
+			return iterator;
+		}
+	}
+
+	private static class CountingIterator implements
+			CloseableIterator<Integer>
+	{
+		private final int size;
+		private final int failAt;
+		private final AtomicInteger pulled = new AtomicInteger();
+		private final CountDownLatch closed = new CountDownLatch(
+				1);
+
+		public CountingIterator(
+				final int size,
+				final int failAt ) {
+			this.size = size;
+			this.failAt = failAt;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return pulled.get() < size;
+		}
+
+		@Override
+		public Integer next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			final int next = pulled.getAndIncrement();
+			if (next == failAt) {
+				throw new IllegalStateException(
+						"Failed to read result " + next);
+			}
+			return next;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() {
+			closed.countDown();
+		}
+	}
+
+	private static class CollectingSubscriber implements
+			QuerySubscriber<Integer>
+	{
+		private final List<Integer> items = new CopyOnWriteArrayList<Integer>();
+		private final CountDownLatch terminated = new CountDownLatch(
+				1);
+		private volatile QuerySubscription subscription;
+		private volatile boolean completed = false;
+		private volatile Throwable error;
+
+		@Override
+		public void onSubscribe(
+				final QuerySubscription subscription ) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(
+				final Integer item ) {
+			items.add(item);
+		}
+
+		@Override
+		public void onError(
+				final Throwable throwable ) {
+			error = throwable;
+			terminated.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+			terminated.countDown();
+		}
+
+		private void awaitItems(
+				final int count )
+				throws InterruptedException {
+			final long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS);
+			while ((items.size() < count) && (System.currentTimeMillis() < end)) {
+				Thread.sleep(10);
+			}
+			assertEquals(
+					count,
+					items.size());
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package mil.nga.giat.geowave.core.store.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+
+public class ParallelCloseableIteratorTest
+{
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(2);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testMergesAllResults()
+			throws IOException {
+		final AtomicInteger closeCount = new AtomicInteger(
+				0);
+		final List<CloseableIterator<Integer>> iterators = new ArrayList<CloseableIterator<Integer>>();
+		for (int i = 0; i < 3; i++) {
+			iterators.add(createIterator(
+					i * 1000,
+					1000,
+					closeCount));
+		}
+		final Set<Integer> results = new HashSet<Integer>();
+		try (final ParallelCloseableIterator<Integer> it = new ParallelCloseableIterator<Integer>(
+				iterators,
+				executor,
+				10)) {
+			while (it.hasNext()) {
+				assertTrue(results.add(it.next()));
+			}
+		}
+		assertEquals(
+				3000,
+				results.size());
+		assertEquals(
+				3,
+				closeCount.get());
+	}
+
+	@Test
+	public void testCloseBeforeExhausted()
+			throws IOException,
+			InterruptedException {
+		final AtomicInteger closeCount = new AtomicInteger(
+				0);
+		final List<CloseableIterator<Integer>> iterators = new ArrayList<CloseableIterator<Integer>>();
+		// more scans than threads, so some of them will not have started
+		for (int i = 0; i < 4; i++) {
+			iterators.add(createIterator(
+					0,
+					100000,
+					closeCount));
+		}
+		final ParallelCloseableIterator<Integer> it = new ParallelCloseableIterator<Integer>(
+				iterators,
+				executor,
+				1);
+		assertTrue(it.hasNext());
+		it.next();
+		it.close();
+		assertFalse(it.hasNext());
+		executor.shutdown();
+		executor.awaitTermination(
+				10,
+				TimeUnit.SECONDS);
+		assertEquals(
+				4,
+				closeCount.get());
+	}
+
+	@Test(timeout = 10000)
+	public void testSharedExecutorDoesNotBlockOnConsumers()
+			throws IOException {
+		final ExecutorService singleThreadExecutor = ParallelCloseableIterator.createExecutor(
+				1,
+				"test-%d");
+		try {
+			final AtomicInteger closeCount = new AtomicInteger(
+					0);
+			final List<CloseableIterator<Integer>> iterators1 = new ArrayList<CloseableIterator<Integer>>();
+			final List<CloseableIterator<Integer>> iterators2 = new ArrayList<CloseableIterator<Integer>>();
+			for (int i = 0; i < 2; i++) {
+				iterators1.add(createIterator(
+						i * 100,
+						100,
+						closeCount));
+				iterators2.add(createIterator(
+						i * 100,
+						100,
+						closeCount));
+			}
+			// a full buffer of the first query must not keep the second
+			// query from using the only thread
+			final ParallelCloseableIterator<Integer> it1 = new ParallelCloseableIterator<Integer>(
+					iterators1,
+					singleThreadExecutor,
+					1);
+			final ParallelCloseableIterator<Integer> it2 = new ParallelCloseableIterator<Integer>(
+					iterators2,
+					singleThreadExecutor,
+					1);
+			int count = 0;
+			while (it1.hasNext() || it2.hasNext()) {
+				if (it2.hasNext()) {
+					it2.next();
+					count++;
+				}
+				if (it1.hasNext()) {
+					it1.next();
+					count++;
+				}
+			}
+			it1.close();
+			it2.close();
+			assertEquals(
+					400,
+					count);
+			assertEquals(
+					4,
+					closeCount.get());
+		}
+		finally {
+			singleThreadExecutor.shutdownNow();
+		}
+	}
+
+	private static CloseableIterator<Integer> createIterator(
+			final int start,
+			final int count,
+			final AtomicInteger closeCount ) {
+		return new CloseableIterator<Integer>() {
+			private int current = start;
+
+			@Override
+			public boolean hasNext() {
+				return current < (start + count);
+			}
+
+			@Override
+			public Integer next() {
+				return current++;
+			}
+
+			@Override
+			public void remove() {}
+
+			@Override
+			public void close()
+					throws IOException {
+				closeCount.incrementAndGet();
+			}
+		};
+	}
+}
@@ -0,0 +1,142 @@
+package mil.nga.giat.geowave.adapter.vector.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.opengis.feature.simple.SimpleFeature;
+
+import mil.nga.giat.geowave.adapter.vector.stats.FeatureBoundingBoxStatistics;
+import mil.nga.giat.geowave.adapter.vector.stats.FeatureNumericHistogramStatistics;
+import mil.nga.giat.geowave.adapter.vector.stats.FeatureTimeRangeStatistics;
+import mil.nga.giat.geowave.core.geotime.index.dimension.LatitudeDefinition;
+import mil.nga.giat.geowave.core.geotime.index.dimension.LongitudeDefinition;
+import mil.nga.giat.geowave.core.geotime.index.dimension.TimeDefinition;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.dimension.NumericDimensionDefinition;
+import mil.nga.giat.geowave.core.index.sfc.data.NumericData;
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
+import mil.nga.giat.geowave.core.store.index.Index;
+import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
+import mil.nga.giat.geowave.core.store.query.BasicQuery;
+import mil.nga.giat.geowave.core.store.query.IndexCostEstimator;
+import mil.nga.giat.geowave.core.store.query.IndexQueryCost;
+
+/**
+ * This Query Strategy chooses the index with the lowest estimated cost of
+ * reading the query's ranges, estimated from the row range histogram of each
+ * index if there is one, and otherwise from the feature count and the
+ * selectivity of the query within the bounding box, time range and numeric
+ * histogram statistics of the feature type. If no cost can be estimated it
+ * falls back to the heuristic match.
+ *
+ */
+public class ChooseLowestCostIndexQueryStrategy implements
+		IndexQueryStrategySPI
+{
+	public static final String NAME = "Lowest Cost";
+
+	private final IndexCostEstimator costEstimator = new FeatureIndexCostEstimator();
+
+	@Override
+	public String toString() {
+		return NAME;
+	}
+
+	@Override
+	public CloseableIterator<Index<?, ?>> getIndices(
+			final Map<ByteArrayId, DataStatistics<SimpleFeature>> stats,
+			final BasicQuery query,
+			final PrimaryIndex[] indices ) {
+		ByteArrayId adapterId = null;
+		for (final DataStatistics<SimpleFeature> stat : stats.values()) {
+			adapterId = stat.getDataAdapterId();
+			break;
+		}
+		final List<IndexQueryCost> costs = new ArrayList<IndexQueryCost>();
+		for (final PrimaryIndex index : indices) {
+			if (index.getIndexStrategy().getOrderedDimensionDefinitions().length == 0) {
+				continue;
+			}
+			costs.add(costEstimator.estimateCost(
+					adapterId,
+					index,
+					query,
+					stats));
+		}
+		final IndexQueryCost lowest = IndexCostEstimator.selectLowestCost(costs);
+		if ((lowest == null) || !lowest.isEstimated()) {
+			return new ChooseHeuristicMatchIndexQueryStrategy().getIndices(
+					stats,
+					query,
+					indices);
+		}
+		return new CloseableIterator.Wrapper<Index<?, ?>>(
+				Collections.<Index<?, ?>> singletonList(
+						lowest.getIndex()).iterator());
+	}
+
+	/**
+	 * Estimates the selectivity of spatial dimensions within the bounding box
+	 * of the features, and of temporal dimensions from the numeric histogram
+	 * of the time attribute or else within its time range
+	 */
+	private static class FeatureIndexCostEstimator extends
+			IndexCostEstimator
+	{
+		@Override
+		protected <T> double estimateSelectivity(
+				final NumericDimensionDefinition dimension,
+				final NumericData constraint,
+				final Map<ByteArrayId, DataStatistics<T>> stats ) {
+			if ((dimension instanceof LongitudeDefinition) || (dimension instanceof LatitudeDefinition)) {
+				for (final DataStatistics<T> stat : stats.values()) {
+					if ((stat instanceof FeatureBoundingBoxStatistics) && ((FeatureBoundingBoxStatistics) stat).isSet()) {
+						final FeatureBoundingBoxStatistics bbox = (FeatureBoundingBoxStatistics) stat;
+						if (dimension instanceof LongitudeDefinition) {
+							return getOverlap(
+									constraint.getMin(),
+									constraint.getMax(),
+									bbox.getMinX(),
+									bbox.getMaxX());
+						}
+						return getOverlap(
+								constraint.getMin(),
+								constraint.getMax(),
+								bbox.getMinY(),
+								bbox.getMaxY());
+					}
+				}
+			}
+			else if (dimension instanceof TimeDefinition) {
+				for (final DataStatistics<T> stat : stats.values()) {
+					if ((stat instanceof FeatureTimeRangeStatistics) && ((FeatureTimeRangeStatistics) stat).isSet()) {
+						final FeatureTimeRangeStatistics timeRange = (FeatureTimeRangeStatistics) stat;
+						final DataStatistics<T> histogram = stats.get(FeatureNumericHistogramStatistics
+								.composeId(timeRange.getFieldName()));
+						if (histogram instanceof FeatureNumericHistogramStatistics) {
+							return Math.max(
+									0,
+									Math.min(
+											1,
+											((FeatureNumericHistogramStatistics) histogram).percentPopulationOverRange(
+													constraint.getMin(),
+													constraint.getMax())));
+						}
+						return getOverlap(
+								constraint.getMin(),
+								constraint.getMax(),
+								timeRange.getMin(),
+								timeRange.getMax());
+					}
+				}
+			}
+			return super.estimateSelectivity(
+					dimension,
+					constraint,
+					stats);
+		}
+	}
+}
@@ -2,9 +2,14 @@ package mil.nga.giat.geowave.adapter.vector.query.cql;
 
 import java.net.MalformedURLException;
 import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
 
 import mil.nga.giat.geowave.adapter.vector.GeotoolsFeatureDataAdapter;
 import mil.nga.giat.geowave.adapter.vector.util.FeatureDataUtils;
+import mil.nga.giat.geowave.core.geotime.store.dimension.GeometryWrapper;
+import mil.nga.giat.geowave.core.geotime.store.filter.SpatialQueryFilter;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.PersistenceUtils;
 import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.adapter.AbstractAdapterPersistenceEncoding;
@@ -17,10 +22,30 @@ import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 
 import org.apache.log4j.Logger;
+import org.geotools.data.DataUtilities;
 import org.geotools.filter.text.cql2.CQLException;
 import org.geotools.filter.text.ecql.ECQL;
 import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.filter.And;
 import org.opengis.filter.Filter;
+import org.opengis.filter.expression.Expression;
+import org.opengis.filter.expression.Literal;
+import org.opengis.filter.expression.PropertyName;
+import org.opengis.filter.spatial.BBOX;
+import org.opengis.filter.spatial.BinarySpatialOperator;
+import org.opengis.filter.spatial.Contains;
+import org.opengis.filter.spatial.Crosses;
+import org.opengis.filter.spatial.Equals;
+import org.opengis.filter.spatial.Intersects;
+import org.opengis.filter.spatial.Overlaps;
+import org.opengis.filter.spatial.Touches;
+import org.opengis.filter.spatial.Within;
+import org.opengis.geometry.BoundingBox;
+
+import com.vividsolutions.jts.geom.Envelope;
+import com.vividsolutions.jts.geom.Geometry;
+import com.vividsolutions.jts.geom.GeometryFactory;
+import com.vividsolutions.jts.geom.prep.PreparedGeometry;
 
 public class CQLQueryFilter implements
 		DistributableQueryFilter
@@ -28,6 +53,8 @@ public class CQLQueryFilter implements
 	private final static Logger LOGGER = Logger.getLogger(CQLQueryFilter.class);
 	private GeotoolsFeatureDataAdapter adapter;
 	private Filter filter;
+	private PreparedGeometry spatialConstraint;
+	private Set<ByteArrayId> filterFieldIds;
 
 	protected CQLQueryFilter() {
 		super();
@@ -48,6 +75,153 @@ public class CQLQueryFilter implements
 			this.filter = filter;
 		}
 		this.adapter = adapter;
+		initSpatialConstraint();
+		initFilterFieldIds();
+	}
+
+	/**
+	 * Determine the attributes the filter references so that only those
+	 * extended fields are decoded to evaluate it. If any attribute cannot be
+	 * resolved, every field is decoded.
+	 */
+	private void initFilterFieldIds() {
+		filterFieldIds = null;
+		if ((filter == null) || (adapter == null)) {
+			return;
+		}
+		try {
+			final String[] attributeNames = DataUtilities.attributeNames(
+					filter,
+					adapter.getFeatureType());
+			final Set<ByteArrayId> fieldIds = new HashSet<ByteArrayId>();
+			for (final String attributeName : attributeNames) {
+				if ((attributeName == null) || attributeName.isEmpty()
+						|| (adapter.getFeatureType().getDescriptor(
+								attributeName) == null)) {
+					return;
+				}
+				fieldIds.add(new ByteArrayId(
+						attributeName));
+			}
+			filterFieldIds = fieldIds;
+		}
+		catch (final Exception e) {
+			LOGGER.debug(
+					"Unable to determine the attributes referenced by the filter",
+					e);
+		}
+	}
+
+	/**
+	 * Prepare the geometry that the indexed geometry of every accepted feature
+	 * must intersect, if the filter implies one, so that it can be tested
+	 * against the common index data before the feature is decoded
+	 */
+	private void initSpatialConstraint() {
+		spatialConstraint = null;
+		if ((filter == null) || (adapter == null) || (adapter.getFeatureType().getGeometryDescriptor() == null)) {
+			return;
+		}
+		try {
+			final Geometry geometry = getSpatialConstraint(
+					filter,
+					adapter.getFeatureType().getGeometryDescriptor().getLocalName());
+			if ((geometry != null) && !geometry.isEmpty()) {
+				spatialConstraint = SpatialQueryFilter.FACTORY.create(geometry);
+			}
+		}
+		catch (final Exception e) {
+			LOGGER.debug(
+					"Unable to extract spatial constraint from filter",
+					e);
+		}
+	}
+
+	/**
+	 * Only predicates that require the default geometry to intersect a literal
+	 * geometry imply a constraint, and every child of a logical AND is
+	 * required, so the first constraint found among them is used
+	 *
+	 * @return the geometry that the default geometry must intersect, or null
+	 *         if the filter does not imply one
+	 */
+	protected static Geometry getSpatialConstraint(
+			final Filter filter,
+			final String geometryName ) {
+		if (filter instanceof And) {
+			for (final Filter child : ((And) filter).getChildren()) {
+				final Geometry geometry = getSpatialConstraint(
+						child,
+						geometryName);
+				if (geometry != null) {
+					return geometry;
+				}
+			}
+			return null;
+		}
+		if (filter instanceof BBOX) {
+			final BoundingBox bounds = ((BBOX) filter).getBounds();
+			if ((bounds == null) || (bounds.getCoordinateReferenceSystem() != null)
+					|| !isGeometryProperty(
+							((BBOX) filter).getExpression1(),
+							geometryName)) {
+				// leave the transformation of the bounds to the filter
+				return null;
+			}
+			return new GeometryFactory().toGeometry(new Envelope(
+					bounds.getMinX(),
+					bounds.getMaxX(),
+					bounds.getMinY(),
+					bounds.getMaxY()));
+		}
+		if ((filter instanceof Intersects) || (filter instanceof Contains) || (filter instanceof Within)
+				|| (filter instanceof Overlaps) || (filter instanceof Crosses) || (filter instanceof Touches)
+				|| (filter instanceof Equals)) {
+			final BinarySpatialOperator operator = (BinarySpatialOperator) filter;
+			if (isGeometryProperty(
+					operator.getExpression1(),
+					geometryName) && (operator.getExpression2() instanceof Literal)) {
+				return operator.getExpression2().evaluate(
+						null,
+						Geometry.class);
+			}
+			if (isGeometryProperty(
+					operator.getExpression2(),
+					geometryName) && (operator.getExpression1() instanceof Literal)) {
+				return operator.getExpression1().evaluate(
+						null,
+						Geometry.class);
+			}
+		}
+		return null;
+	}
+
+	private static boolean isGeometryProperty(
+			final Expression expression,
+			final String geometryName ) {
+		if (!(expression instanceof PropertyName)) {
+			return false;
+		}
+		final String name = ((PropertyName) expression).getPropertyName();
+		// an empty property name refers to the default geometry
+		return (name == null) || name.isEmpty() || name.equals(geometryName);
+	}
+
+	private boolean spatialConstraintPasses(
+			final IndexedPersistenceEncoding<?> persistenceEncoding ) {
+		for (final PersistentValue<?> value : persistenceEncoding.getCommonData().getValues()) {
+			if (value.getValue() instanceof GeometryWrapper) {
+				final Geometry geometry = ((GeometryWrapper) value.getValue()).getGeometry();
+				if (geometry == null) {
+					return true;
+				}
+				// the envelopes are cached by the geometries, so this is
+				// much cheaper than the prepared intersection
+				return spatialConstraint.getGeometry().getEnvelopeInternal().intersects(
+						geometry.getEnvelopeInternal()) && spatialConstraint.intersects(geometry);
+			}
+		}
+		return true;
 	}
 
 	@Override
@@ -57,6 +231,9 @@ public class CQLQueryFilter implements
 		if ((filter != null) && (indexModel != null) && (adapter != null)) {
 			if (adapter.getAdapterId().equals(
 					persistenceEncoding.getAdapterId())) {
+				if ((spatialConstraint != null) && !spatialConstraintPasses(persistenceEncoding)) {
+					return false;
+				}
 				final PersistentDataset<Object> adapterExtendedValues = new PersistentDataset<Object>();
 				if (persistenceEncoding instanceof AbstractAdapterPersistenceEncoding) {
 					((AbstractAdapterPersistenceEncoding) persistenceEncoding).convertUnknownValues(
@@ -65,8 +242,22 @@ public class CQLQueryFilter implements
 					final PersistentDataset<Object> existingExtValues = ((AbstractAdapterPersistenceEncoding) persistenceEncoding)
 							.getAdapterExtendedData();
 					if (existingExtValues != null) {
-						for (final PersistentValue<Object> val : existingExtValues.getValues()) {
-							adapterExtendedValues.addValue(val);
+						if (filterFieldIds == null) {
+							for (final PersistentValue<Object> val : existingExtValues.getValues()) {
+								adapterExtendedValues.addValue(val);
+							}
+						}
+						else {
+							// fields are decoded on first access, so only
+							// decode the fields the filter references
+							for (final ByteArrayId fieldId : filterFieldIds) {
+								final Object value = existingExtValues.getValue(fieldId);
+								if (value != null) {
+									adapterExtendedValues.addValue(new PersistentValue<Object>(
+											fieldId,
+											value));
+								}
+							}
 						}
 					}
 				}
@@ -175,5 +366,7 @@ public class CQLQueryFilter implements
 			LOGGER.warn("Feature Data Adapter is empty bytes");
 			adapter = null;
 		}
+		initSpatialConstraint();
+		initFilterFieldIds();
 	}
 }
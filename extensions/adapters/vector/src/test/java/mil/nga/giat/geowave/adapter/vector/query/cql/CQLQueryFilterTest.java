@@ -1,5 +1,8 @@
 package mil.nga.giat.geowave.adapter.vector.query.cql;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -19,6 +22,7 @@ import org.geotools.feature.SchemaException;
 import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.geotools.filter.FilterFactoryImpl;
 import org.geotools.filter.text.cql2.CQLException;
+import org.geotools.filter.text.ecql.ECQL;
 import org.junit.Before;
 import org.junit.Test;
 import org.opengis.feature.simple.SimpleFeature;
@@ -93,6 +97,57 @@ public class CQLQueryFilterTest
 						0)));
 	}
 
+	@Test
+	public void testSpatialConstraint()
+			throws CQLException {
+		assertNotNull(CQLQueryFilter.getSpatialConstraint(
+				ECQL.toFilter("INTERSECTS(geom, POLYGON((27 41, 28 41, 28 42, 27 42, 27 41))) AND pid = 'a89dhd-123-abc'"),
+				"geom"));
+		assertNotNull(CQLQueryFilter.getSpatialConstraint(
+				ECQL.toFilter("BBOX(geom, 27, 41, 28, 42)"),
+				"geom"));
+		// any feature may pass a disjunction or negation
+		assertNull(CQLQueryFilter.getSpatialConstraint(
+				ECQL.toFilter("INTERSECTS(geom, POLYGON((27 41, 28 41, 28 42, 27 42, 27 41))) OR pid = 'a89dhd-123-abc'"),
+				"geom"));
+		assertNull(CQLQueryFilter.getSpatialConstraint(
+				ECQL.toFilter("DISJOINT(geom, POLYGON((27 41, 28 41, 28 42, 27 42, 27 41)))"),
+				"geom"));
+		// only the indexed geometry is constrained
+		assertNull(CQLQueryFilter.getSpatialConstraint(
+				ECQL.toFilter("INTERSECTS(other, POLYGON((27 41, 28 41, 28 42, 27 42, 27 41)))"),
+				"geom"));
+
+		final FeatureDataAdapter adapter = new FeatureDataAdapter(
+				type);
+		final PrimaryIndex spatialIndex = new SpatialDimensionalityTypeProvider().createPrimaryIndex();
+		final CQLQueryFilter filter = new CQLQueryFilter(
+				ECQL.toFilter("INTERSECTS(geom, POLYGON((27 41, 28 41, 28 42, 27 42, 27 41))) AND pop > 10"),
+				adapter);
+		final SimpleFeature feature = createFeature();
+		assertTrue(filter.accept(
+				spatialIndex.getIndexModel(),
+				DataStoreUtils.getEncodings(
+						spatialIndex,
+						adapter.encode(
+								feature,
+								spatialIndex.getIndexModel())).get(
+						0)));
+		feature.setAttribute(
+				"geom",
+				factory.createPoint(new Coordinate(
+						29.25,
+						41.25)));
+		assertFalse(filter.accept(
+				spatialIndex.getIndexModel(),
+				DataStoreUtils.getEncodings(
+						spatialIndex,
+						adapter.encode(
+								feature,
+								spatialIndex.getIndexModel())).get(
+						0)));
+	}
+
 	private SimpleFeature createFeature() {
 		final SimpleFeature instance = SimpleFeatureBuilder.build(
 				type,
@@ -0,0 +1,62 @@
+package mil.nga.giat.geowave.cli.debug;
+
+import mil.nga.giat.geowave.adapter.vector.GeotoolsFeatureDataAdapter;
+import mil.nga.giat.geowave.core.cli.annotations.GeowaveOperation;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.store.DataStore;
+import mil.nga.giat.geowave.core.store.query.Query;
+import mil.nga.giat.geowave.core.store.query.QueryExplanation;
+import mil.nga.giat.geowave.core.store.query.QueryOptions;
+
+import org.apache.log4j.Logger;
+import org.geotools.filter.text.cql2.CQLException;
+
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+
+@GeowaveOperation(name = "explainCql", parentOperation = DebugSection.class)
+@Parameters(commandDescription = "explain a cql query, and optionally profile it")
+public class ExplainCQLQuery extends
+		AbstractGeoWaveQuery
+{
+	private static Logger LOGGER = Logger.getLogger(ExplainCQLQuery.class);
+
+	@Parameter(names = "--cql", required = true, description = "CQL Filter to explain")
+	private String cqlStr;
+
+	@Parameter(names = "--profile", required = false, description = "Run the query and profile its execution")
+	private boolean profile = false;
+
+	@Override
+	protected long runQuery(
+			final GeotoolsFeatureDataAdapter adapter,
+			final ByteArrayId adapterId,
+			final ByteArrayId indexId,
+			final DataStore dataStore,
+			final boolean debug ) {
+		final Query query;
+		try {
+			query = mil.nga.giat.geowave.adapter.vector.query.cql.CQLQuery.createOptimalQuery(
+					cqlStr,
+					adapter,
+					null,
+					null);
+		}
+		catch (final CQLException e) {
+			LOGGER.error(
+					"Unable to create optimal query",
+					e);
+			return 0;
+		}
+		final QueryOptions options = new QueryOptions(
+				adapterId,
+				indexId);
+		final QueryExplanation explanation = profile ? dataStore.profile(
+				options,
+				query) : dataStore.explain(
+				options,
+				query);
+		System.out.println(explanation);
+		return (explanation.getProfile() != null) ? explanation.getProfile().getRowsReturned() : 0;
+	}
+}
@@ -40,8 +40,10 @@ import mil.nga.giat.geowave.core.store.adapter.AdapterStore;
 import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
 import mil.nga.giat.geowave.core.store.adapter.RowMergingDataAdapter;
 import mil.nga.giat.geowave.core.store.adapter.WritableDataAdapter;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
 import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
 import mil.nga.giat.geowave.core.store.adapter.statistics.DuplicateEntryCount;
+import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeHistogramStatistics;
 import mil.nga.giat.geowave.core.store.base.BaseDataStore;
 import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
 import mil.nga.giat.geowave.core.store.callback.IngestCallback;
@@ -124,7 +126,8 @@ public class AccumuloDataStore extends
 				new AccumuloAdapterStore(
 						accumuloOperations),
 				new AccumuloDataStatisticsStore(
-						accumuloOperations),
+						accumuloOperations,
+						accumuloOptions.getStatsCacheTtl()),
 				new AccumuloSecondaryIndexDataStore(
 						accumuloOperations,
 						accumuloOptions),
@@ -314,6 +317,11 @@ public class AccumuloDataStore extends
 		}
 	}
 
+	@Override
+	protected String getServerSideFiltering() {
+		return "Accumulo iterator";
+	}
+
 	@Override
 	protected CloseableIterator<Object> queryConstraints(
 			final List<ByteArrayId> adapterIdsToQuery,
@@ -346,6 +354,10 @@ public class AccumuloDataStore extends
 						statisticsStore,
 						sanitizedQueryOptions.getAuthorizations()),
 				sanitizedQueryOptions.getAuthorizations());
+		accumuloQuery.setRowRangeHistograms(getRowRangeHistograms(
+				index,
+				adapterIdsToQuery,
+				sanitizedQueryOptions.getAuthorizations()));
 
 		return accumuloQuery.query(
 				accumuloOperations,
@@ -354,6 +366,28 @@ public class AccumuloDataStore extends
 				sanitizedQueryOptions.getLimit());
 	}
 
+	/**
+	 * @return the row range histogram of each adapter on the index, or null
+	 *         if any adapter has none
+	 */
+	private List<RowRangeHistogramStatistics<?>> getRowRangeHistograms(
+			final PrimaryIndex index,
+			final List<ByteArrayId> adapterIds,
+			final String... authorizations ) {
+		final List<RowRangeHistogramStatistics<?>> histograms = new ArrayList<RowRangeHistogramStatistics<?>>();
+		for (final ByteArrayId adapterId : adapterIds) {
+			final DataStatistics<?> stats = statisticsStore.getDataStatistics(
+					adapterId,
+					RowRangeHistogramStatistics.composeId(index.getId()),
+					authorizations);
+			if (!(stats instanceof RowRangeHistogramStatistics)) {
+				return null;
+			}
+			histograms.add((RowRangeHistogramStatistics<?>) stats);
+		}
+		return histograms;
+	}
+
 	@Override
 	protected CloseableIterator<Object> queryRowPrefix(
 			final PrimaryIndex index,
@@ -651,7 +685,9 @@ public class AccumuloDataStore extends
 			final DataStatisticsStore statsStore,
 			final IndexStore indexStore,
 			final Integer minSplits,
-			final Integer maxSplits )
+			final Integer maxSplits,
+			final Long targetRowsPerSplit,
+			final Integer maxSplitsPerLocation )
 			throws IOException,
 			InterruptedException {
 		return splitsProvider.getSplits(
@@ -663,7 +699,9 @@ public class AccumuloDataStore extends
 				indexStore,
 				indexMappingStore,
 				minSplits,
-				maxSplits);
+				maxSplits,
+				targetRowsPerSplit,
+				maxSplitsPerLocation);
 	}
 
 	@Override
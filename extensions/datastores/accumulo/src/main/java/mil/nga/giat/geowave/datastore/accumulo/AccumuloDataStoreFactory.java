@@ -33,7 +33,8 @@ public class AccumuloDataStoreFactory extends
 				new AccumuloAdapterStore(
 						accumuloOperations),
 				new AccumuloDataStatisticsStore(
-						accumuloOperations),
+						accumuloOperations,
+						opts.getAdditionalOptions().getStatsCacheTtl()),
 				new AccumuloSecondaryIndexDataStore(
 						accumuloOperations,
 						opts.getAdditionalOptions()),
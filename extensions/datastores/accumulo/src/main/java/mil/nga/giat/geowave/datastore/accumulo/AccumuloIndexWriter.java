@@ -1,14 +1,12 @@
 package mil.nga.giat.geowave.datastore.accumulo;
 
 import java.io.Closeable;
-import java.util.Collections;
 import java.util.List;
 
 import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.data.Mutation;
 import org.apache.log4j.Logger;
 
-import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
 import mil.nga.giat.geowave.core.store.adapter.WritableDataAdapter;
@@ -70,15 +68,16 @@ public class AccumuloIndexWriter<T> extends
 	}
 
 	@Override
-	protected DataStoreEntryInfo getEntryInfo(
+	protected DataStoreEntryInfo encode(
 			final T entry,
-			final VisibilityWriter<T> visibilityWriter ) {
-		return AccumuloUtils.write(
+			final VisibilityWriter<T> visibilityWriter,
+			final List<Mutation> mutations ) {
+		return AccumuloUtils.encode(
 				(WritableDataAdapter<T>) adapter,
 				index,
 				entry,
-				writer,
 				accumuloOperations,
-				visibilityWriter);
+				visibilityWriter,
+				mutations);
 	}
 }
\ No newline at end of file
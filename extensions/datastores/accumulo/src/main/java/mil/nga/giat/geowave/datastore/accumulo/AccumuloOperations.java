@@ -15,6 +15,7 @@ import org.apache.accumulo.core.client.TableNotFoundException;
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.DataStoreOperations;
 import mil.nga.giat.geowave.core.store.base.Writer;
+import mil.nga.giat.geowave.datastore.accumulo.query.ScanThreadBudget;
 
 /**
  * This interface is used as a basis for establishing connections for queries
@@ -63,6 +64,40 @@ public interface AccumuloOperations extends
 			String... additionalAuthorizations )
 			throws TableNotFoundException;
 
+	/**
+	 * Creates a new batch scanner that can be used by an index, with a number
+	 * of query threads that is sized for the query
+	 *
+	 * @param tableName
+	 *            The basic name of the table. Note that that basic
+	 *            implementation of the factory will allow for a table namespace
+	 *            to prefix this name
+	 * @param numQueryThreads
+	 *            the number of threads the batch scanner uses to query tablet
+	 *            servers concurrently
+	 * @param additionalAuthorizatios
+	 *            additional authorization other than any defaults provided by
+	 *            the implementing class
+	 * @return The appropriate batch scanner
+	 * @throws TableNotFoundException
+	 *             The table does not exist in this Accumulo instance
+	 */
+	public BatchScanner createBatchScanner(
+			final String tableName,
+			final int numQueryThreads,
+			String... additionalAuthorizations )
+			throws TableNotFoundException;
+
+	/**
+	 * @return the maximum number of threads used by a single batch scanner
+	 */
+	public int getNumThreads();
+
+	/**
+	 * @return the batch scanner threads shared by all concurrent queries
+	 */
+	public ScanThreadBudget getScanThreadBudget();
+
 	/**
 	 * Creates a new scanner that can be used by an index
 	 *
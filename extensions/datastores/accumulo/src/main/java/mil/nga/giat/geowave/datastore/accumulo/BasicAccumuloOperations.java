@@ -2,6 +2,7 @@ package mil.nga.giat.geowave.datastore.accumulo;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -13,6 +14,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.accumulo.core.client.AccumuloException;
@@ -43,6 +45,7 @@ import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.base.Writer;
 import mil.nga.giat.geowave.datastore.accumulo.operations.config.AccumuloRequiredOptions;
+import mil.nga.giat.geowave.datastore.accumulo.query.ScanThreadBudget;
 import mil.nga.giat.geowave.datastore.accumulo.util.AccumuloUtils;
 import mil.nga.giat.geowave.datastore.accumulo.util.ConnectorPool;
 
@@ -56,6 +59,8 @@ public class BasicAccumuloOperations implements
 {
 	private final static Logger LOGGER = Logger.getLogger(BasicAccumuloOperations.class);
 	private static final int DEFAULT_NUM_THREADS = 16;
+	// the number of scanners that may use all of their threads concurrently
+	private static final int DEFAULT_CONCURRENT_SCANNERS = 4;
 	private static final long DEFAULT_TIMEOUT_MILLIS = 1000L; // 1 second
 	private static final long DEFAULT_BYTE_BUFFER_SIZE = 1048576L; // 1 MB
 	private static final String DEFAULT_AUTHORIZATION = null;
@@ -70,6 +75,7 @@ public class BasicAccumuloOperations implements
 	private long cacheTimeoutMillis;
 	private String password;
 	private final Map<String, Set<String>> insuredAuthorizationCache;
+	private ScanThreadBudget scanThreadBudget;
 
 	/**
 	 * This is will create an Accumulo connector based on passed in connection
@@ -183,14 +189,32 @@ public class BasicAccumuloOperations implements
 		this.tableNamespace = tableNamespace;
 		this.connector = connector;
 		locGrpCache = new HashMap<String, Long>();
-		insuredAuthorizationCache = new HashMap<String, Set<String>>();
+		insuredAuthorizationCache = new ConcurrentHashMap<String, Set<String>>();
 		cacheTimeoutMillis = TimeUnit.DAYS.toMillis(1);
+		scanThreadBudget = new ScanThreadBudget(
+				numThreads * DEFAULT_CONCURRENT_SCANNERS);
 	}
 
+	@Override
 	public int getNumThreads() {
 		return numThreads;
 	}
 
+	@Override
+	public ScanThreadBudget getScanThreadBudget() {
+		return scanThreadBudget;
+	}
+
+	/**
+	 * @param scanThreadBudget
+	 *            the batch scanner threads shared by all concurrent queries,
+	 *            which may be shared with other operations
+	 */
+	public void setScanThreadBudget(
+			final ScanThreadBudget scanThreadBudget ) {
+		this.scanThreadBudget = scanThreadBudget;
+	}
+
 	public long getTimeoutMillis() {
 		return timeoutMillis;
 	}
@@ -603,6 +627,19 @@ public class BasicAccumuloOperations implements
 				numThreads);
 	}
 
+	@Override
+	public BatchScanner createBatchScanner(
+			final String tableName,
+			final int numQueryThreads,
+			final String... additionalAuthorizations )
+			throws TableNotFoundException {
+		return connector.createBatchScanner(
+				getQualifiedTableName(tableName),
+				new Authorizations(
+						getAuthorizations(additionalAuthorizations)),
+				numQueryThreads);
+	}
+
 	@Override
 	public void insureAuthorization(
 			final String clientUser,
@@ -616,11 +653,33 @@ public class BasicAccumuloOperations implements
 		else {
 			user = clientUser;
 		}
+		// this is called concurrently when entries are encoded on several
+		// threads, the authorizations are usually already insured
+		final Set<String> cachedAuths = insuredAuthorizationCache.get(user);
+		if ((cachedAuths != null) && cachedAuths.containsAll(Arrays.asList(authorizations))) {
+			return;
+		}
+		// the user's authorizations are read and changed as one, so that
+		// concurrent changes do not overwrite each other
+		synchronized (insuredAuthorizationCache) {
+			insureAuthorizationSynchronized(
+					user,
+					clientUser,
+					authorizations);
+		}
+	}
+
+	private void insureAuthorizationSynchronized(
+			final String user,
+			final String clientUser,
+			final String... authorizations )
+			throws AccumuloException,
+			AccumuloSecurityException {
 		final Set<String> uninsuredAuths = new HashSet<String>();
 		Set<String> insuredAuths = insuredAuthorizationCache.get(user);
 		if (insuredAuths == null) {
 			uninsuredAuths.addAll(Arrays.asList(authorizations));
-			insuredAuths = new HashSet<String>();
+			insuredAuths = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 			insuredAuthorizationCache.put(
 					user,
 					insuredAuths);
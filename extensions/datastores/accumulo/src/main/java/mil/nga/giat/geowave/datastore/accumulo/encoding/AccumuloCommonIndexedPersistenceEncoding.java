@@ -5,8 +5,8 @@ import java.util.List;
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.adapter.AbstractAdapterPersistenceEncoding;
 import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
+import mil.nga.giat.geowave.core.store.data.DeferredReadPersistentValue;
 import mil.nga.giat.geowave.core.store.data.PersistentDataset;
-import mil.nga.giat.geowave.core.store.data.PersistentValue;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.flatten.FlattenedFieldInfo;
 import mil.nga.giat.geowave.core.store.flatten.FlattenedUnreadData;
@@ -55,10 +55,12 @@ public class AccumuloCommonIndexedPersistenceEncoding extends
 						model,
 						field.getFieldPosition());
 				final FieldReader<Object> reader = adapter.getReader(fieldId);
-				final Object value = reader.readField(field.getValue());
-				adapterExtendedData.addValue(new PersistentValue<Object>(
+				// the value is only deserialized if a filter requests it
+				adapterExtendedData.addValue(new DeferredReadPersistentValue<Object>(
 						fieldId,
-						value));
+						reader,
+						field.getValue(),
+						null));
 			}
 		}
 	}
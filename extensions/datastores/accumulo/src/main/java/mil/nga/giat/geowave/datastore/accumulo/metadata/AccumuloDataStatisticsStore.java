@@ -1,15 +1,20 @@
 package mil.nga.giat.geowave.datastore.accumulo.metadata;
 
+import java.nio.ByteBuffer;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Random;
 
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.client.IteratorSetting.Column;
 import org.apache.accumulo.core.client.Scanner;
 import org.apache.accumulo.core.client.TableNotFoundException;
 import org.apache.accumulo.core.data.Key;
+import org.apache.accumulo.core.data.Mutation;
+import org.apache.accumulo.core.data.Range;
 import org.apache.accumulo.core.data.Value;
 import org.apache.accumulo.core.iterators.IteratorUtil.IteratorScope;
 import org.apache.accumulo.core.iterators.conf.ColumnSet;
@@ -19,7 +24,9 @@ import org.apache.log4j.Logger;
 import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsCache;
 import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
+import mil.nga.giat.geowave.core.store.base.Writer;
 import mil.nga.giat.geowave.datastore.accumulo.AccumuloOperations;
 import mil.nga.giat.geowave.datastore.accumulo.BasicOptionProvider;
 import mil.nga.giat.geowave.datastore.accumulo.IteratorConfig;
@@ -32,9 +39,11 @@ import mil.nga.giat.geowave.datastore.accumulo.util.VisibilityTransformer;
  * This class will persist Index objects within an Accumulo table for GeoWave
  * metadata. The adapters will be persisted in an "INDEX" column family.
  * 
- * There is an LRU cache associated with it so staying in sync with external
- * updates is not practical - it assumes the objects are not updated often or at
- * all. The objects are stored in their own table.
+ * The LRU cache of the persistence is not used for statistics because they
+ * change with each new entry and may be updated by other instances of GeoWave.
+ * Instead, if a cache time to live is given, statistics read by ID are cached
+ * in a {@link DataStatisticsCache} that is invalidated by a version of each
+ * adapter's statistics, written with every update of them.
  * 
  **/
 public class AccumuloDataStatisticsStore extends
@@ -48,11 +57,48 @@ public class AccumuloDataStatisticsStore extends
 	private static final int STATS_MULTI_VISIBILITY_COMBINER_PRIORITY = 15;
 	private static final String STATISTICS_COMBINER_NAME = "STATS_COMBINER";
 	private static final String STATISTICS_CF = "STATS";
+	// the version is kept out of the statistics column family so that it is
+	// not combined or read as statistics
+	private static final String STATISTICS_VERSION_CF = "STATS_VERSION";
+	private static final String STATISTICS_VERSION_ROW = "STATS_VERSION";
+	private static final Random VERSION_RANDOM = new Random();
+
+	private final DataStatisticsCache statisticsCache;
+	private Writer versionWriter;
 
 	public AccumuloDataStatisticsStore(
 			final AccumuloOperations accumuloOperations ) {
+		this(
+				accumuloOperations,
+				0);
+	}
+
+	/**
+	 * @param accumuloOperations
+	 *            the operations
+	 * @param statsCacheTtl
+	 *            the time in milliseconds that statistics are cached before
+	 *            checking the version, 0 to disable the cache
+	 */
+	public AccumuloDataStatisticsStore(
+			final AccumuloOperations accumuloOperations,
+			final long statsCacheTtl ) {
 		super(
 				accumuloOperations);
+		if (statsCacheTtl > 0) {
+			statisticsCache = new DataStatisticsCache(
+					statsCacheTtl,
+					new DataStatisticsCache.StatisticsVersionReader() {
+						@Override
+						public Long readVersion(
+								final ByteArrayId adapterId ) {
+							return readStatisticsVersion(adapterId);
+						}
+					});
+		}
+		else {
+			statisticsCache = null;
+		}
 	}
 
 	@Override
@@ -61,11 +107,87 @@ public class AccumuloDataStatisticsStore extends
 		// because we're using the combiner, we should simply be able to add the
 		// object
 		addObject(statistics);
+		statisticsUpdated(statistics.getDataAdapterId());
+	}
 
-		// TODO if we do allow caching after we add a statistic to Accumulo we
-		// do need to make sure we update our cache, but for now we aren't using
-		// the cache at all
+	/**
+	 * Invalidate the cached statistics of an adapter and change the adapter's
+	 * version, so that other instances caching the statistics invalidate
+	 * theirs. The version is written whether or not this instance caches
+	 * statistics, as the instances caching them are usually not the ones
+	 * updating them.
+	 *
+	 * @param adapterId
+	 *            the adapter whose statistics were updated
+	 */
+	private void statisticsUpdated(
+			final ByteArrayId adapterId ) {
+		if (statisticsCache != null) {
+			statisticsCache.invalidate(adapterId);
+		}
+		final Mutation mutation = new Mutation(
+				new Text(
+						STATISTICS_VERSION_ROW));
+		mutation.put(
+				new Text(
+						STATISTICS_VERSION_CF),
+				new Text(
+						adapterId.getBytes()),
+				new Value(
+						ByteBuffer.allocate(
+								8).putLong(
+								VERSION_RANDOM.nextLong()).array()));
+		synchronized (this) {
+			try {
+				if (versionWriter == null) {
+					versionWriter = accumuloOperations.createWriter(
+							getTablename(),
+							true);
+				}
+				versionWriter.write(mutation);
+				versionWriter.flush();
+			}
+			catch (final TableNotFoundException e) {
+				LOGGER.error(
+						"Unable to write statistics version",
+						e);
+			}
+		}
+	}
 
+	private Long readStatisticsVersion(
+			final ByteArrayId adapterId ) {
+		try {
+			final Scanner scanner = accumuloOperations.createScanner(getTablename());
+			try {
+				scanner.setRange(new Range(
+						new Text(
+								STATISTICS_VERSION_ROW)));
+				scanner.fetchColumn(
+						new Text(
+								STATISTICS_VERSION_CF),
+						new Text(
+								adapterId.getBytes()));
+				final Iterator<Entry<Key, Value>> it = scanner.iterator();
+				if (!it.hasNext()) {
+					// statistics have not been updated since versions were
+					// introduced, so re-read them once their time to live
+					// has passed
+					return null;
+				}
+				return ByteBuffer.wrap(
+						it.next().getValue().get()).getLong();
+			}
+			finally {
+				scanner.close();
+			}
+		}
+		catch (final TableNotFoundException e) {
+			LOGGER.warn(
+					"Unable to read statistics version",
+					e);
+		}
+		return null;
 	}
 
 	@Override
@@ -144,10 +266,25 @@ public class AccumuloDataStatisticsStore extends
 			final ByteArrayId adapterId,
 			final ByteArrayId statisticsId,
 			final String... authorizations ) {
-		return getObject(
-				statisticsId,
+		if (statisticsCache == null) {
+			return getObject(
+					statisticsId,
+					adapterId,
+					authorizations);
+		}
+		return statisticsCache.getDataStatistics(
 				adapterId,
-				authorizations);
+				statisticsId,
+				authorizations,
+				new DataStatisticsCache.StatisticsReader() {
+					@Override
+					public DataStatistics<?> readStatistics() {
+						return getObject(
+								statisticsId,
+								adapterId,
+								authorizations);
+					}
+				});
 	}
 
 	@Override
@@ -183,6 +320,7 @@ public class AccumuloDataStatisticsStore extends
 				statistics.getDataAdapterId(),
 				statistics.getStatisticsId());
 		addObject(statistics);
+		statisticsUpdated(statistics.getDataAdapterId());
 	}
 
 	@Override
@@ -196,10 +334,12 @@ public class AccumuloDataStatisticsStore extends
 			final ByteArrayId adapterId,
 			final ByteArrayId statisticsId,
 			final String... authorizations ) {
-		return deleteObject(
+		final boolean removed = deleteObject(
 				statisticsId,
 				adapterId,
 				authorizations);
+		statisticsUpdated(adapterId);
+		return removed;
 	}
 
 	@Override
@@ -229,6 +369,7 @@ public class AccumuloDataStatisticsStore extends
 		deleteObjects(
 				adapterId,
 				authorizations);
+		statisticsUpdated(adapterId);
 	}
 
 	@Override
@@ -253,6 +394,7 @@ public class AccumuloDataStatisticsStore extends
 							replacement));
 			writer.transform();
 			scanner.close();
+			statisticsUpdated(adapterId);
 		}
 		catch (final TableNotFoundException e) {
 			LOGGER.error(
@@ -18,7 +18,8 @@ public class AccumuloDataStatisticsStoreFactory extends
 		}
 		AccumuloRequiredOptions opts = (AccumuloRequiredOptions) options;
 		return new AccumuloDataStatisticsStore(
-				createOperations(opts));
+				createOperations(opts),
+				(opts.getAdditionalOptions() == null) ? 0 : opts.getAdditionalOptions().getStatsCacheTtl());
 	}
 
 }
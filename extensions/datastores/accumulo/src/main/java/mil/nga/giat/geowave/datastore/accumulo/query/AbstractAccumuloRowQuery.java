@@ -50,17 +50,23 @@ abstract public class AbstractAccumuloRowQuery<T> extends
 			LOGGER.error("Unable to get a new scanner instance, getScanner returned null");
 			return null;
 		}
-		addScanIteratorSettings(scanner);
-		return new CloseableIteratorWrapper<T>(
-				new ScannerClosableWrapper(
-						scanner),
-				new AccumuloEntryIteratorWrapper(
-						useWholeRowIterator(),
-						adapterStore,
-						index,
-						scanner.iterator(),
-						null,
-						this.scanCallback));
+		final ScannerClosableWrapper scannerWrapper = getScannerClosableWrapper(scanner);
+		try {
+			addScanIteratorSettings(scanner);
+			return new CloseableIteratorWrapper<T>(
+					scannerWrapper,
+					new AccumuloEntryIteratorWrapper(
+							useWholeRowIterator(),
+							adapterStore,
+							index,
+							scanner.iterator(),
+							null,
+							this.scanCallback));
+		}
+		catch (final RuntimeException e) {
+			scannerWrapper.close();
+			throw e;
+		}
 	}
 
 	protected void addScanIteratorSettings(
@@ -106,6 +106,9 @@ public class AccumuloConstraintsQuery extends
 				clientDedupeFilter,
 				duplicateCounts,
 				this);
+		// distributable filters run within the query filter iterator, so only
+		// the canonical copy of each duplicated entry leaves the tablet server
+		base.enableServerSideDedupe();
 
 		queryFiltersEnabled = true;
 	}
@@ -92,19 +92,25 @@ public abstract class AccumuloFilteredIndexQuery extends
 			LOGGER.error("Could not get scanner instance, getScanner returned null");
 			return new CloseableIterator.Empty();
 		}
-		addScanIteratorSettings(scanner);
-		Iterator it = initIterator(
-				adapterStore,
-				scanner);
-		if ((limit != null) && (limit > 0)) {
-			it = Iterators.limit(
-					it,
-					limit);
+		final ScannerClosableWrapper scannerWrapper = getScannerClosableWrapper(scanner);
+		try {
+			addScanIteratorSettings(scanner);
+			Iterator it = initIterator(
+					adapterStore,
+					scanner);
+			if ((limit != null) && (limit > 0)) {
+				it = Iterators.limit(
+						it,
+						limit);
+			}
+			return new CloseableIteratorWrapper(
+					scannerWrapper,
+					it);
+		}
+		catch (final RuntimeException e) {
+			scannerWrapper.close();
+			throw e;
 		}
-		return new CloseableIteratorWrapper(
-				new ScannerClosableWrapper(
-						scanner),
-				it);
 	}
 
 	protected Iterator initIterator(
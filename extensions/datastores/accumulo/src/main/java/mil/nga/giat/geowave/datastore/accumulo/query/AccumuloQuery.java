@@ -17,10 +17,12 @@ import mil.nga.giat.geowave.core.index.ByteArrayRange;
 import mil.nga.giat.geowave.core.index.IndexUtils;
 import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
+import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeHistogramStatistics;
 import mil.nga.giat.geowave.core.store.data.visibility.DifferingFieldVisibilityEntryCount;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.datastore.accumulo.AccumuloOperations;
 import mil.nga.giat.geowave.datastore.accumulo.util.AccumuloUtils;
+import mil.nga.giat.geowave.datastore.accumulo.util.ScannerClosableWrapper;
 
 /**
  * This class is used internally to perform query operations against an Accumulo
@@ -36,6 +38,9 @@ abstract public class AccumuloQuery
 	protected final DifferingFieldVisibilityEntryCount visibilityCounts;
 
 	private final String[] authorizations;
+	private List<RowRangeHistogramStatistics<?>> rowRangeHistograms;
+	private ScanThreadBudget scanThreadBudget;
+	private int scanThreads = 0;
 
 	public AccumuloQuery(
 			final PrimaryIndex index,
@@ -78,7 +83,8 @@ abstract public class AccumuloQuery
 			final Integer limit ) {
 		final List<ByteArrayRange> ranges = getRanges();
 		final String tableName = StringUtils.stringFromBinary(index.getId().getBytes());
-		ScannerBase scanner;
+		ScannerBase scanner = null;
+		boolean success = false;
 		try {
 			if (!isAggregation() && (ranges != null) && (ranges.size() == 1)) {
 				scanner = accumuloOperations.createScanner(
@@ -100,8 +106,22 @@ abstract public class AccumuloQuery
 				}
 			}
 			else {
+				// the batch scanner groups the ranges by tablet server and
+				// queries the servers concurrently, so its threads are sized
+				// by the ranges or rows scanned, within the threads left
+				// over by other concurrent queries. A full table scan spans
+				// every tablet, and a query of unknown rows may, so they may
+				// use all of a scanner's threads.
+				scanThreadBudget = accumuloOperations.getScanThreadBudget();
+				scanThreads = scanThreadBudget.acquire(((ranges == null) || ranges.isEmpty()) ? accumuloOperations
+						.getNumThreads() : ScanThreadBudget.getRequestedThreads(
+						ranges.size(),
+						getEstimatedRows(ranges),
+						accumuloOperations.getNumThreads()));
+				LOGGER.debug("Scanning table '" + tableName + "' with " + scanThreads + " threads");
 				scanner = accumuloOperations.createBatchScanner(
 						tableName,
+						scanThreads,
 						getAdditionalAuthorizations());
 				((BatchScanner) scanner).setRanges(AccumuloUtils.byteArrayRangesToAccumuloRanges(ranges));
 			}
@@ -130,6 +150,14 @@ abstract public class AccumuloQuery
 					scanner.addScanIterator(iteratorSettings);
 				}
 			}
+			if ((adapterIds != null) && !adapterIds.isEmpty()) {
+				for (final ByteArrayId adapterId : adapterIds) {
+					scanner.fetchColumnFamily(new Text(
+							adapterId.getBytes()));
+				}
+			}
+			success = true;
+			return scanner;
 		}
 		catch (final TableNotFoundException e) {
 			LOGGER.warn(
@@ -137,13 +165,73 @@ abstract public class AccumuloQuery
 					e);
 			return null;
 		}
-		if ((adapterIds != null) && !adapterIds.isEmpty()) {
-			for (final ByteArrayId adapterId : adapterIds) {
-				scanner.fetchColumnFamily(new Text(
-						adapterId.getBytes()));
+		finally {
+			if (!success) {
+				// the caller never receives the scanner so it can't close it
+				if (scanner != null) {
+					scanner.close();
+				}
+				releaseScanThreads();
+			}
+		}
+	}
+
+	/**
+	 * @param rowRangeHistograms
+	 *            the row range histograms of every adapter queried, used to
+	 *            estimate the rows scanned, or null if they are not all known
+	 */
+	public void setRowRangeHistograms(
+			final List<RowRangeHistogramStatistics<?>> rowRangeHistograms ) {
+		this.rowRangeHistograms = rowRangeHistograms;
+	}
+
+	/**
+	 * @param ranges
+	 *            the ranges scanned
+	 * @return the estimated rows scanned, or -1 if it is unknown
+	 */
+	protected long getEstimatedRows(
+			final List<ByteArrayRange> ranges ) {
+		if ((rowRangeHistograms == null) || rowRangeHistograms.isEmpty()) {
+			return -1;
+		}
+		double rows = 0;
+		for (final RowRangeHistogramStatistics<?> histogram : rowRangeHistograms) {
+			for (final ByteArrayRange range : ranges) {
+				rows += histogram.cardinality(
+						range.getStart().getBytes(),
+						range.isSingleValue() ? range.getStart().getBytes() : range.getEnd().getBytes());
 			}
 		}
-		return scanner;
+		return (long) Math.ceil(rows);
+	}
+
+	/**
+	 * @param scanner
+	 *            the scanner returned by {@link #getScanner}
+	 * @return a closeable that closes the scanner and releases its threads,
+	 *         which should be taken as soon as the scanner is returned and
+	 *         closed if the scanner can't be handed to an iterator
+	 */
+	protected ScannerClosableWrapper getScannerClosableWrapper(
+			final ScannerBase scanner ) {
+		final ScannerClosableWrapper wrapper = new ScannerClosableWrapper(
+				scanner,
+				scanThreadBudget,
+				scanThreads);
+		// the wrapper is now responsible for releasing the threads
+		scanThreadBudget = null;
+		scanThreads = 0;
+		return wrapper;
+	}
+
+	private void releaseScanThreads() {
+		if (scanThreadBudget != null) {
+			scanThreadBudget.release(scanThreads);
+			scanThreadBudget = null;
+			scanThreads = 0;
+		}
 	}
 
 	protected void addFieldSubsettingToIterator(
@@ -0,0 +1,116 @@
+package mil.nga.giat.geowave.datastore.accumulo.query;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shares a fixed number of batch scanner threads among all of the queries
+ * running concurrently against a data store. Each query asks for as many
+ * threads as its ranges or its estimated rows warrant, and is granted at most
+ * what is left of the budget, so that a single query decomposed into
+ * thousands of ranges cannot take every thread. A query is always granted at
+ * least one thread so that it never waits on another query to be closed.
+ */
+public class ScanThreadBudget
+{
+	/**
+	 * The number of ranges that warrant an additional scanner thread
+	 */
+	public static final int RANGES_PER_THREAD = 8;
+	/**
+	 * The number of estimated rows that warrant an additional scanner thread
+	 */
+	public static final long ROWS_PER_THREAD = 10000;
+
+	private final int maxThreads;
+	private final AtomicInteger threadsInUse = new AtomicInteger(
+			0);
+
+	/**
+	 * @param maxThreads
+	 *            the maximum number of scanner threads used by all concurrent
+	 *            queries
+	 */
+	public ScanThreadBudget(
+			final int maxThreads ) {
+		this.maxThreads = Math.max(
+				1,
+				maxThreads);
+	}
+
+	/**
+	 * Many ranges are likely to be spread across many tablets, and many rows
+	 * across many tablets or within large ones, so either warrants more
+	 * threads. A few ranges of a large query, such as a large bounding box,
+	 * may span dozens of tablets.
+	 *
+	 * @param rangeCount
+	 *            the number of ranges scanned
+	 * @param estimatedRows
+	 *            the estimated rows scanned, or a negative number if it is
+	 *            unknown
+	 * @param maxQueryThreads
+	 *            the maximum number of threads for a single query
+	 * @return the number of threads that the query can make use of, which is
+	 *         the maximum for a single query if the rows are unknown
+	 */
+	public static int getRequestedThreads(
+			final int rangeCount,
+			final long estimatedRows,
+			final int maxQueryThreads ) {
+		if (estimatedRows < 0) {
+			return Math.max(
+					1,
+					maxQueryThreads);
+		}
+		final long threads = Math.max(
+				(rangeCount + RANGES_PER_THREAD - 1) / RANGES_PER_THREAD,
+				(estimatedRows + ROWS_PER_THREAD - 1) / ROWS_PER_THREAD);
+		return (int) Math.max(
+				1,
+				Math.min(
+						threads,
+						maxQueryThreads));
+	}
+
+	/**
+	 * Acquire threads for a query, they must be released when its scanner is
+	 * closed
+	 *
+	 * @param requestedThreads
+	 *            the number of threads the query can make use of
+	 * @return the number of threads granted, at least one
+	 */
+	public int acquire(
+			final int requestedThreads ) {
+		while (true) {
+			final int inUse = threadsInUse.get();
+			final int granted = Math.max(
+					1,
+					Math.min(
+							requestedThreads,
+							maxThreads - inUse));
+			if (threadsInUse.compareAndSet(
+					inUse,
+					inUse + granted)) {
+				return granted;
+			}
+		}
+	}
+
+	/**
+	 * @param threads
+	 *            the number of threads previously granted
+	 */
+	public void release(
+			final int threads ) {
+		threadsInUse.addAndGet(-threads);
+	}
+
+	public int getMaxThreads() {
+		return maxThreads;
+	}
+
+	public int getThreadsInUse() {
+		return threadsInUse.get();
+	}
+}
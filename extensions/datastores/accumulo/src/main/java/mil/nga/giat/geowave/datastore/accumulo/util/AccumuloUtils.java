@@ -27,6 +27,7 @@ import org.apache.accumulo.core.client.Connector;
 import org.apache.accumulo.core.client.IteratorSetting;
 import org.apache.accumulo.core.client.ScannerBase;
 import org.apache.accumulo.core.client.TableNotFoundException;
+import org.apache.accumulo.core.data.ByteSequence;
 import org.apache.accumulo.core.data.Key;
 import org.apache.accumulo.core.data.Mutation;
 import org.apache.accumulo.core.data.Range;
@@ -157,8 +158,12 @@ public class AccumuloUtils
 			final QueryFilter clientFilter,
 			final PrimaryIndex index,
 			final ScanCallback<T> scanCallback ) {
+		// parse the row ID in place rather than copying the row
+		final ByteSequence rowData = key.getRowData();
 		final GeowaveRowId rowId = new GeowaveRowId(
-				key.getRow().copyBytes());
+				rowData.getBackingArray(),
+				rowData.offset(),
+				rowData.length());
 		return (T) decodeRowObj(
 				key,
 				value,
@@ -275,8 +280,11 @@ public class AccumuloUtils
 		for (final Entry<Key, Value> entry : rowMapping.entrySet()) {
 			// the column family is the data element's type ID
 			if (adapterId == null) {
+				final ByteSequence columnFamily = entry.getKey().getColumnFamilyData();
 				adapterId = new ByteArrayId(
-						entry.getKey().getColumnFamilyData().getBackingArray());
+						columnFamily.getBackingArray(),
+						columnFamily.offset(),
+						columnFamily.length());
 			}
 
 			if (adapter == null) {
@@ -307,10 +315,8 @@ public class AccumuloUtils
 		}
 		final IndexedAdapterPersistenceEncoding encodedRow = new IndexedAdapterPersistenceEncoding(
 				adapterId,
-				new ByteArrayId(
-						rowId.getDataId()),
-				new ByteArrayId(
-						rowId.getInsertionId()),
+				rowId.getDataByteArrayId(),
+				rowId.getInsertionByteArrayId(),
 				rowId.getNumberOfDuplicates(),
 				indexData,
 				unknownData,
@@ -329,10 +335,11 @@ public class AccumuloUtils
 								index),
 						new DataStoreEntryInfo(
 								rowId.getDataId(),
+								Arrays.asList(rowId.getInsertionByteArrayId()),
 								Arrays.asList(new ByteArrayId(
-										rowId.getInsertionId())),
-								Arrays.asList(new ByteArrayId(
-										k.getRowData().getBackingArray())),
+										k.getRowData().getBackingArray(),
+										k.getRowData().offset(),
+										k.getRowData().length())),
 								fieldInfoList));
 				if (scanCallback != null) {
 					scanCallback.entryScanned(
@@ -352,6 +359,35 @@ public class AccumuloUtils
 			final Writer writer,
 			final AccumuloOperations operations,
 			final VisibilityWriter<T> customFieldVisibilityWriter ) {
+		final List<Mutation> mutations = new ArrayList<Mutation>();
+		final DataStoreEntryInfo ingestInfo = encode(
+				writableAdapter,
+				index,
+				entry,
+				operations,
+				customFieldVisibilityWriter,
+				mutations);
+		if (ingestInfo != null) {
+			writer.write(mutations);
+		}
+		return ingestInfo;
+	}
+
+	/**
+	 * Encode an entry into the mutations for an index without writing them
+	 *
+	 * @param mutations
+	 *            the list to add the mutations of the entry to
+	 * @return the ingest info of the entry, or null if the user could not be
+	 *         authorized for the visibility of the entry
+	 */
+	public static <T> DataStoreEntryInfo encode(
+			final WritableDataAdapter<T> writableAdapter,
+			final PrimaryIndex index,
+			final T entry,
+			final AccumuloOperations operations,
+			final VisibilityWriter<T> customFieldVisibilityWriter,
+			final List<Mutation> mutations ) {
 		// we need to make sure at least this user has authorization
 		// on the visibility that is being written
 		try {
@@ -370,13 +406,11 @@ public class AccumuloUtils
 					}
 				}
 			}
-			final List<Mutation> mutations = buildMutations(
+			mutations.addAll(buildMutations(
 					writableAdapter.getAdapterId().getBytes(),
 					ingestInfo,
 					index,
-					writableAdapter);
-
-			writer.write(mutations);
+					writableAdapter));
 			return ingestInfo;
 		}
 		catch (AccumuloException | AccumuloSecurityException e) {
@@ -1,22 +1,61 @@
 package mil.nga.giat.geowave.datastore.accumulo.util;
 
 import java.io.Closeable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.accumulo.core.client.ScannerBase;
 
+import mil.nga.giat.geowave.datastore.accumulo.query.ScanThreadBudget;
+
+/**
+ * Closes a scanner and releases the scan threads it was granted. Closing is
+ * idempotent, so a scanner may be closed both by its consumer and by the
+ * finalizer of a {@link mil.nga.giat.geowave.core.store.CloseableIteratorWrapper}
+ * that was abandoned without being closed, and its threads are only released
+ * once.
+ */
 public class ScannerClosableWrapper implements
 		Closeable
 {
 	private final ScannerBase scanner;
+	private final ScanThreadBudget scanThreadBudget;
+	private final AtomicInteger scanThreads;
 
 	public ScannerClosableWrapper(
 			final ScannerBase scanner ) {
+		this(
+				scanner,
+				null,
+				0);
+	}
+
+	/**
+	 * @param scanner
+	 *            the scanner to close
+	 * @param scanThreadBudget
+	 *            the budget the scanner's threads were acquired from
+	 * @param scanThreads
+	 *            the number of threads to release to the budget on close
+	 */
+	public ScannerClosableWrapper(
+			final ScannerBase scanner,
+			final ScanThreadBudget scanThreadBudget,
+			final int scanThreads ) {
 		this.scanner = scanner;
+		this.scanThreadBudget = scanThreadBudget;
+		this.scanThreads = new AtomicInteger(
+				scanThreads);
 	}
 
 	@Override
 	public void close() {
 		scanner.close();
+		if (scanThreadBudget != null) {
+			final int threads = scanThreads.getAndSet(0);
+			if (threads > 0) {
+				scanThreadBudget.release(threads);
+			}
+		}
 	}
 
 }
@@ -183,6 +183,49 @@ public class AccumuloDataStoreStatsTest
 		runtest();
 	}
 
+	@Test
+	public void testCachedStatisticsUpdatedWithoutCache()
+			throws InterruptedException {
+		// statistics are usually updated by ingest processes that do not
+		// cache them, and read by processes that do
+		final AccumuloDataStatisticsStore cachingStatsStore = new AccumuloDataStatisticsStore(
+				accumuloOperations,
+				1);
+		final ByteArrayId adapterId = new ByteArrayId(
+				"cached");
+		statsStore.setStatistics(getCountStatistics(
+				adapterId,
+				1));
+		assertEquals(
+				1,
+				((CountDataStatistics<?>) cachingStatsStore.getDataStatistics(
+						adapterId,
+						CountDataStatistics.STATS_TYPE)).getCount());
+
+		statsStore.setStatistics(getCountStatistics(
+				adapterId,
+				2));
+		Thread.sleep(10);
+		assertEquals(
+				2,
+				((CountDataStatistics<?>) cachingStatsStore.getDataStatistics(
+						adapterId,
+						CountDataStatistics.STATS_TYPE)).getCount());
+	}
+
+	private static CountDataStatistics<Object> getCountStatistics(
+			final ByteArrayId adapterId,
+			final int count ) {
+		final CountDataStatistics<Object> statistics = new CountDataStatistics<Object>(
+				adapterId);
+		for (int i = 0; i < count; i++) {
+			statistics.entryIngested(
+					null,
+					null);
+		}
+		return statistics;
+	}
+
 	private void runtest()
 			throws IOException {
 
@@ -3,6 +3,7 @@ package mil.nga.giat.geowave.datastore.accumulo.mapreduce;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.isA;
@@ -15,10 +16,12 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.TreeSet;
 
 import org.apache.accumulo.core.client.AccumuloException;
@@ -65,6 +68,7 @@ import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
 import mil.nga.giat.geowave.core.store.adapter.statistics.FieldTypeStatisticVisibility;
 import mil.nga.giat.geowave.core.store.adapter.statistics.RowRangeHistogramStatistics;
 import mil.nga.giat.geowave.core.store.adapter.statistics.StatisticsProvider;
+import mil.nga.giat.geowave.core.store.base.DataStoreEntryInfo;
 import mil.nga.giat.geowave.core.store.data.PersistentValue;
 import mil.nga.giat.geowave.core.store.data.field.FieldReader;
 import mil.nga.giat.geowave.core.store.data.field.FieldUtils;
@@ -88,6 +92,7 @@ import mil.nga.giat.geowave.datastore.accumulo.operations.config.AccumuloOptions
 import mil.nga.giat.geowave.mapreduce.splits.GeoWaveInputSplit;
 import mil.nga.giat.geowave.mapreduce.splits.GeoWaveRowRange;
 import mil.nga.giat.geowave.mapreduce.splits.IntermediateSplitInfo;
+import mil.nga.giat.geowave.mapreduce.splits.RangeLocationPair;
 import mil.nga.giat.geowave.mapreduce.splits.SplitsProvider;
 //@formatter:off
 /*if[accumulo.api=1.6]
@@ -869,6 +874,221 @@ public class AccumuloSplitsProviderTest
 		}
 	}
 
+	/**
+	 * Three tablets of 1000 row IDs each, the first two at one location and
+	 * the last at another, with most of the rows of the first tablet in its
+	 * first tenth
+	 */
+	private static final long[][] SKEWED_TABLETS = new long[][] {
+		{
+			0,
+			1000
+		},
+		{
+			1000,
+			2000
+		},
+		{
+			2000,
+			3000
+		}
+	};
+	private static final String[] SKEWED_TABLET_LOCATIONS = new String[] {
+		"host1",
+		"host1",
+		"host2"
+	};
+
+	@Test
+	public void testGetSplits_SkewedHistogram()
+			throws IOException,
+			InterruptedException {
+		final List<InputSplit> splits = getSkewedSplitsProvider().getSplits(
+				accumuloOperations,
+				null,
+				new QueryOptions(
+						adapter,
+						index),
+				adapterStore,
+				statsStore,
+				indexStore,
+				adapterIndexMappingStore,
+				null,
+				null,
+				1000L,
+				null);
+		// 13000 rows at 1000 rows per split, rather than one split of 10000
+		// rows for the skewed tablet
+		assertTrue(splits.size() >= 12);
+		for (final InputSplit split : splits) {
+			final GeoWaveInputSplit geowaveSplit = (GeoWaveInputSplit) split;
+			assertTrue(
+					"Split of " + geowaveSplit.getLength() + " rows is not near the target",
+					(geowaveSplit.getLength() >= 500) && (geowaveSplit.getLength() <= 1500));
+			final List<RangeLocationPair> ranges = geowaveSplit.getRanges(index);
+			final int tablet = getSkewedTablet(ranges.get(
+					0).getRange().getStartKey());
+			for (final RangeLocationPair range : ranges) {
+				assertThat(
+						getSkewedTablet(range.getRange().getStartKey()),
+						is(tablet));
+				assertTrue(
+						"Split crosses a tablet boundary",
+						new ByteArrayId(
+								range.getRange().getEndKey()).compareTo(new ByteArrayId(
+								toSkewedRow(SKEWED_TABLETS[tablet][1]))) <= 0);
+				assertThat(
+						range.getLocation(),
+						is(SKEWED_TABLET_LOCATIONS[tablet]));
+			}
+		}
+	}
+
+	@Test
+	public void testGetSplits_MaxSplitsPerLocation()
+			throws IOException,
+			InterruptedException {
+		final List<InputSplit> splits = getSkewedSplitsProvider().getSplits(
+				accumuloOperations,
+				null,
+				new QueryOptions(
+						adapter,
+						index),
+				adapterStore,
+				statsStore,
+				indexStore,
+				adapterIndexMappingStore,
+				null,
+				null,
+				1000L,
+				4);
+		final Map<String, Integer> locationSplitCounts = new HashMap<String, Integer>();
+		long totalRows = 0;
+		for (final InputSplit split : splits) {
+			final GeoWaveInputSplit geowaveSplit = (GeoWaveInputSplit) split;
+			totalRows += geowaveSplit.getLength();
+			// merged splits stay local
+			assertThat(
+					geowaveSplit.getLocations().length,
+					is(1));
+			final String location = geowaveSplit.getLocations()[0];
+			final Integer count = locationSplitCounts.get(location);
+			locationSplitCounts.put(
+					location,
+					count == null ? 1 : count + 1);
+		}
+		assertThat(
+				locationSplitCounts.get("host1"),
+				is(4));
+		assertTrue(locationSplitCounts.get("host2") <= 4);
+		assertTrue(
+				"Expected about 13000 rows but found " + totalRows,
+				Math.abs(totalRows - 13000) < 130);
+	}
+
+	private SplitsProvider getSkewedSplitsProvider() {
+		final RowRangeHistogramStatistics<Object> histogram = new RowRangeHistogramStatistics<Object>(
+				adapter.getAdapterId(),
+				index.getId());
+		final Random random = new Random(
+				0);
+		final List<ByteArrayId> rows = new ArrayList<ByteArrayId>();
+		for (int i = 0; i < 9000; i++) {
+			rows.add(new ByteArrayId(
+					toSkewedRow(random.nextDouble() * 100)));
+		}
+		for (int i = 0; i < 1000; i++) {
+			rows.add(new ByteArrayId(
+					toSkewedRow(100 + (random.nextDouble() * 900))));
+		}
+		for (int i = 0; i < 1000; i++) {
+			rows.add(new ByteArrayId(
+					toSkewedRow(1000 + (random.nextDouble() * 1000))));
+		}
+		for (int i = 0; i < 2000; i++) {
+			rows.add(new ByteArrayId(
+					toSkewedRow(2000 + (random.nextDouble() * 1000))));
+		}
+		for (final ByteArrayId row : rows) {
+			histogram.entryIngested(
+					new DataStoreEntryInfo(
+							row.getBytes(),
+							Collections.singletonList(row),
+							Collections.singletonList(row),
+							null),
+					null);
+		}
+		return new AccumuloSplitsProvider() {
+			/**
+			 * Use the skewed histogram and one range per tablet, rather than
+			 * reading the statistics store and binning ranges to tablets
+			 */
+			@Override
+			protected TreeSet<IntermediateSplitInfo> populateIntermediateSplits(
+					final TreeSet<IntermediateSplitInfo> splits,
+					final DataStoreOperations operations,
+					final PrimaryIndex index,
+					final List<DataAdapter<Object>> adapters,
+					final Map<PrimaryIndex, RowRangeHistogramStatistics<?>> statsCache,
+					final AdapterStore adapterStore,
+					final DataStatisticsStore statsStore,
+					final Integer maxSplits,
+					final DistributableQuery query,
+					final String[] authorizations )
+					throws IOException {
+				statsCache.put(
+						index,
+						histogram);
+				for (int i = 0; i < SKEWED_TABLETS.length; i++) {
+					final GeoWaveRowRange range = constructRange(
+							toSkewedRow(SKEWED_TABLETS[i][0]),
+							true,
+							toSkewedRow(SKEWED_TABLETS[i][1]),
+							false);
+					final Map<PrimaryIndex, List<RangeLocationPair>> splitInfo = new HashMap<PrimaryIndex, List<RangeLocationPair>>();
+					final List<RangeLocationPair> rangeList = new ArrayList<RangeLocationPair>();
+					rangeList.add(constructRangeLocationPair(
+							range,
+							SKEWED_TABLET_LOCATIONS[i],
+							getCardinality(
+									histogram,
+									range)));
+					splitInfo.put(
+							index,
+							rangeList);
+					splits.add(new IntermediateSplitInfo(
+							splitInfo,
+							this));
+				}
+				return splits;
+			}
+		};
+	}
+
+	/**
+	 * @return a row ID of 8 bytes with a non-zero first byte, as the histogram
+	 *         interpolates row IDs as big-endian numbers
+	 */
+	private static byte[] toSkewedRow(
+			final double position ) {
+		return ByteBuffer.allocate(
+				8).putLong(
+				(long) ((1000 + position) * (1L << 50))).array();
+	}
+
+	private static int getSkewedTablet(
+			final byte[] row ) {
+		final ByteArrayId rowId = new ByteArrayId(
+				row);
+		for (int i = SKEWED_TABLETS.length - 1; i >= 0; i--) {
+			if (rowId.compareTo(new ByteArrayId(
+					toSkewedRow(SKEWED_TABLETS[i][0]))) >= 0) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	protected static class TestGeometry
 	{
 		private final Geometry geom;
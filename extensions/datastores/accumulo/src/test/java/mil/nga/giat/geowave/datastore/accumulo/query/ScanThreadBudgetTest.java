@@ -0,0 +1,124 @@
+package mil.nga.giat.geowave.datastore.accumulo.query;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.apache.accumulo.core.client.ScannerBase;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.datastore.accumulo.util.ScannerClosableWrapper;
+
+public class ScanThreadBudgetTest
+{
+	@Test
+	public void testRequestedThreads() {
+		// without estimated rows a query may use all of its threads
+		assertEquals(
+				16,
+				ScanThreadBudget.getRequestedThreads(
+						1,
+						-1,
+						16));
+		assertEquals(
+				16,
+				ScanThreadBudget.getRequestedThreads(
+						5000,
+						-1,
+						16));
+		// a thread for every few ranges, up to the maximum per query
+		assertEquals(
+				1,
+				ScanThreadBudget.getRequestedThreads(
+						ScanThreadBudget.RANGES_PER_THREAD,
+						10,
+						16));
+		assertEquals(
+				2,
+				ScanThreadBudget.getRequestedThreads(
+						ScanThreadBudget.RANGES_PER_THREAD + 1,
+						10,
+						16));
+		assertEquals(
+				16,
+				ScanThreadBudget.getRequestedThreads(
+						5000,
+						10,
+						16));
+	}
+
+	@Test
+	public void testFewRangesManyRows() {
+		// a few ranges of a large query may span many tablets, so the
+		// estimated rows warrant threads however few the ranges
+		assertEquals(
+				3,
+				ScanThreadBudget.getRequestedThreads(
+						2,
+						(2 * ScanThreadBudget.ROWS_PER_THREAD) + 1,
+						16));
+		assertEquals(
+				16,
+				ScanThreadBudget.getRequestedThreads(
+						2,
+						1000 * ScanThreadBudget.ROWS_PER_THREAD,
+						16));
+		assertEquals(
+				1,
+				ScanThreadBudget.getRequestedThreads(
+						0,
+						0,
+						16));
+	}
+
+	@Test
+	public void testAcquireAndRelease() {
+		final ScanThreadBudget budget = new ScanThreadBudget(
+				20);
+		assertEquals(
+				16,
+				budget.acquire(16));
+		// only what is left of the budget is granted
+		assertEquals(
+				4,
+				budget.acquire(16));
+		// but a query is always granted a thread
+		assertEquals(
+				1,
+				budget.acquire(16));
+		assertEquals(
+				21,
+				budget.getThreadsInUse());
+		budget.release(16);
+		assertEquals(
+				5,
+				budget.getThreadsInUse());
+		assertEquals(
+				15,
+				budget.acquire(16));
+	}
+
+	@Test
+	public void testWrapperReleasesOnce() {
+		final ScanThreadBudget budget = new ScanThreadBudget(
+				20);
+		final ScannerBase scanner = mock(ScannerBase.class);
+		final ScannerClosableWrapper wrapper = new ScannerClosableWrapper(
+				scanner,
+				budget,
+				budget.acquire(8));
+		assertEquals(
+				8,
+				budget.getThreadsInUse());
+		// closed by the consumer and again by an abandoned iterator's finalizer
+		wrapper.close();
+		wrapper.close();
+		assertEquals(
+				0,
+				budget.getThreadsInUse());
+		verify(
+				scanner,
+				times(2)).close();
+	}
+}
@@ -19,6 +19,7 @@ public class BigTableDataStatisticsStoreFactory extends
 		}
 		final BigTableOptions opts = (BigTableOptions) options;
 		return new HBaseDataStatisticsStore(
-				createOperations(opts));
+				createOperations(opts),
+				opts.getHBaseOptions().getStatsCacheTtl());
 	}
 }
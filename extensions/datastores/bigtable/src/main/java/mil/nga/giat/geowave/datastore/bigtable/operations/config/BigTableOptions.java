@@ -21,6 +21,8 @@ public class BigTableOptions extends
 
 	@Parameter(names = "--scanCacheSize")
 	protected int scanCacheSize = HConstants.DEFAULT_HBASE_CLIENT_SCANNER_CACHING;
+	@Parameter(names = "--scanParallelism", description = "The maximum number of range scans run concurrently, shared by all queries")
+	protected int scanParallelism = 16;
 	@Parameter(names = "--projectId")
 	protected String projectId = DEFAULT_PROJECT_ID;
 	@Parameter(names = "--instanceId")
@@ -83,6 +85,11 @@ public class BigTableOptions extends
 			return BigTableOptions.this.scanCacheSize;
 		}
 
+		@Override
+		public int getScanParallelism() {
+			return BigTableOptions.this.scanParallelism;
+		}
+
 		@Override
 		public boolean isEnableCustomFilters() {
 			return false;
@@ -166,5 +173,82 @@ public class BigTableOptions extends
 			additionalOptions.setEnableBlockCache(enableBlockCache);
 		}
 
+		@Override
+		public boolean isEnableParallelQuery() {
+			return additionalOptions.isEnableParallelQuery();
+		}
+
+		@Override
+		public void setEnableParallelQuery(
+				final boolean enableParallelQuery ) {
+			additionalOptions.setEnableParallelQuery(enableParallelQuery);
+		}
+
+		@Override
+		public int getParallelQueryThreads() {
+			return additionalOptions.getParallelQueryThreads();
+		}
+
+		@Override
+		public void setParallelQueryThreads(
+				final int parallelQueryThreads ) {
+			additionalOptions.setParallelQueryThreads(parallelQueryThreads);
+		}
+
+		@Override
+		public int getParallelQueryBufferSize() {
+			return additionalOptions.getParallelQueryBufferSize();
+		}
+
+		@Override
+		public void setParallelQueryBufferSize(
+				final int parallelQueryBufferSize ) {
+			additionalOptions.setParallelQueryBufferSize(parallelQueryBufferSize);
+		}
+
+		@Override
+		public int getWriteEncodeThreads() {
+			return additionalOptions.getWriteEncodeThreads();
+		}
+
+		@Override
+		public void setWriteEncodeThreads(
+				final int writeEncodeThreads ) {
+			additionalOptions.setWriteEncodeThreads(writeEncodeThreads);
+		}
+
+		@Override
+		public int getWriteEncodeBufferSize() {
+			return additionalOptions.getWriteEncodeBufferSize();
+		}
+
+		@Override
+		public void setWriteEncodeBufferSize(
+				final int writeEncodeBufferSize ) {
+			additionalOptions.setWriteEncodeBufferSize(writeEncodeBufferSize);
+		}
+
+		@Override
+		public long getStatsCacheTtl() {
+			return additionalOptions.getStatsCacheTtl();
+		}
+
+		@Override
+		public void setStatsCacheTtl(
+				final long statsCacheTtl ) {
+			additionalOptions.setStatsCacheTtl(statsCacheTtl);
+		}
+
+		@Override
+		public boolean isCostBasedIndexSelection() {
+			return additionalOptions.isCostBasedIndexSelection();
+		}
+
+		@Override
+		public void setCostBasedIndexSelection(
+				final boolean costBasedIndexSelection ) {
+			additionalOptions.setCostBasedIndexSelection(costBasedIndexSelection);
+		}
+
 	}
 }
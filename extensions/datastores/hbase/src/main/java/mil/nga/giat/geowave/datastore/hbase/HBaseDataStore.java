@@ -11,6 +11,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.hadoop.hbase.CellUtil;
 import org.apache.hadoop.hbase.TableNotFoundException;
@@ -49,6 +50,7 @@ import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.query.DistributableQuery;
 import mil.nga.giat.geowave.core.store.query.Query;
 import mil.nga.giat.geowave.core.store.query.QueryOptions;
+import mil.nga.giat.geowave.core.store.util.ParallelCloseableIterator;
 import mil.nga.giat.geowave.datastore.hbase.index.secondary.HBaseSecondaryIndexDataStore;
 import mil.nga.giat.geowave.datastore.hbase.io.HBaseWriter;
 import mil.nga.giat.geowave.datastore.hbase.mapreduce.GeoWaveHBaseRecordReader;
@@ -81,6 +83,7 @@ public class HBaseDataStore extends
 	private final HBaseOptions options;
 
 	private final HBaseSplitsProvider splitsProvider = new HBaseSplitsProvider();
+	private ExecutorService scanExecutor;
 
 	public HBaseDataStore(
 			final BasicHBaseOperations operations ) {
@@ -107,7 +110,8 @@ public class HBaseDataStore extends
 				new HBaseAdapterStore(
 						operations),
 				new HBaseDataStatisticsStore(
-						operations),
+						operations,
+						options.getStatsCacheTtl()),
 				new HBaseAdapterIndexMappingStore(
 						operations),
 				new HBaseSecondaryIndexDataStore(
@@ -362,6 +366,11 @@ public class HBaseDataStore extends
 		return result;
 	}
 
+	@Override
+	protected String getServerSideFiltering() {
+		return options.isEnableCustomFilters() ? "HBase filter" : null;
+	}
+
 	@Override
 	protected CloseableIterator<Object> queryConstraints(
 			final List<ByteArrayId> adapterIdsToQuery,
@@ -392,6 +401,9 @@ public class HBaseDataStore extends
 				sanitizedQueryOptions.getAuthorizations());
 
 		hbaseQuery.setOptions(options);
+		if (options.isBigTable()) {
+			hbaseQuery.setScanExecutor(getScanExecutor());
+		}
 
 		return hbaseQuery.query(
 				operations,
@@ -400,6 +412,21 @@ public class HBaseDataStore extends
 				sanitizedQueryOptions.getLimit());
 	}
 
+	/**
+	 * Range scans have their own executor, shared by all queries on this data
+	 * store, rather than using the query executor, since index scans running
+	 * on the query executor wait on them. Its threads exit when idle, so data
+	 * stores that are created per request do not hold on to threads.
+	 */
+	protected synchronized ExecutorService getScanExecutor() {
+		if (scanExecutor == null) {
+			scanExecutor = ParallelCloseableIterator.createExecutor(
+					options.getScanParallelism(),
+					"geowave-hbase-scan-%d");
+		}
+		return scanExecutor;
+	}
+
 	@Override
 	protected CloseableIterator<Object> queryRowPrefix(
 			final PrimaryIndex index,
@@ -521,7 +548,9 @@ public class HBaseDataStore extends
 			final DataStatisticsStore statsStore,
 			final IndexStore indexStore,
 			final Integer minSplits,
-			final Integer maxSplits )
+			final Integer maxSplits,
+			final Long targetRowsPerSplit,
+			final Integer maxSplitsPerLocation )
 			throws IOException,
 			InterruptedException {
 		return splitsProvider.getSplits(
@@ -533,7 +562,9 @@ public class HBaseDataStore extends
 				indexStore,
 				indexMappingStore,
 				minSplits,
-				maxSplits);
+				maxSplits,
+				targetRowsPerSplit,
+				maxSplitsPerLocation);
 	}
 
 	@Override
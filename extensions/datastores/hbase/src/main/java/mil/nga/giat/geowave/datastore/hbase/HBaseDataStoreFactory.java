@@ -33,7 +33,8 @@ public class HBaseDataStoreFactory extends
 				new HBaseAdapterStore(
 						hbaseOperations),
 				new HBaseDataStatisticsStore(
-						hbaseOperations),
+						hbaseOperations,
+						opts.getAdditionalOptions().getStatsCacheTtl()),
 				new HBaseAdapterIndexMappingStore(
 						hbaseOperations),
 				new HBaseSecondaryIndexDataStore(
@@ -61,15 +61,31 @@ public class HBaseIndexWriter<T> extends
 	}
 
 	@Override
-	protected DataStoreEntryInfo getEntryInfo(
-			T entry,
-			VisibilityWriter<T> visibilityWriter ) {
-		return HBaseUtils.write(
+	protected DataStoreEntryInfo encode(
+			final T entry,
+			final VisibilityWriter<T> visibilityWriter,
+			final List<RowMutations> mutations ) {
+		return HBaseUtils.encode(
 				(WritableDataAdapter<T>) adapter,
 				index,
 				entry,
-				(HBaseWriter) writer,
-				visibilityWriter);
+				visibilityWriter,
+				mutations);
+	}
+
+	@Override
+	protected void writeMutations(
+			final List<RowMutations> mutations ) {
+		try {
+			((HBaseWriter) writer).write(
+					mutations,
+					adapter.getAdapterId().getString());
+		}
+		catch (final IOException e) {
+			LOGGER.warn(
+					"Writing to table failed.",
+					e);
+		}
 	}
 
 	@Override
@@ -0,0 +1,58 @@
+package mil.nga.giat.geowave.datastore.hbase.io;
+
+/**
+ * Tunes the number of bytes a writer buffers before flushing from the
+ * observed flush latency. The size grows additively while full buffers are
+ * flushed within the target latency and is halved whenever a flush takes
+ * longer, so that writes back off quickly when region servers are loaded and
+ * recover gradually once they are not.
+ */
+public class AdaptiveWriteBufferSize
+{
+	public static final long MIN_BUFFER_SIZE = 256 * 1024;
+	public static final long MAX_BUFFER_SIZE = 16 * 1024 * 1024;
+	public static final long BUFFER_SIZE_INCREMENT = 512 * 1024;
+	public static final long TARGET_FLUSH_MILLIS = 500;
+
+	private volatile long bufferSize;
+
+	/**
+	 * @param initialBufferSize
+	 *            the buffer size before any flush is observed
+	 */
+	public AdaptiveWriteBufferSize(
+			final long initialBufferSize ) {
+		bufferSize = clamp(initialBufferSize);
+	}
+
+	public long getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * @param flushedBytes
+	 *            the bytes that were flushed
+	 * @param flushMillis
+	 *            the time it took to flush them
+	 */
+	public synchronized void onFlush(
+			final long flushedBytes,
+			final long flushMillis ) {
+		if (flushMillis > TARGET_FLUSH_MILLIS) {
+			bufferSize = clamp(bufferSize / 2);
+		}
+		else if (flushedBytes >= bufferSize) {
+			// only a full buffer shows that a larger one would help
+			bufferSize = clamp(bufferSize + BUFFER_SIZE_INCREMENT);
+		}
+	}
+
+	private static long clamp(
+			final long size ) {
+		return Math.max(
+				MIN_BUFFER_SIZE,
+				Math.min(
+						MAX_BUFFER_SIZE,
+						size));
+	}
+}
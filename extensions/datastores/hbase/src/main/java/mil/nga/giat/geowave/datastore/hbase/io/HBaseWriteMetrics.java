@@ -0,0 +1,68 @@
+package mil.nga.giat.geowave.datastore.hbase.io;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write metrics shared by all of the HBase writers in a JVM, to monitor ingest
+ * against region server load.
+ */
+public class HBaseWriteMetrics
+{
+	private static final HBaseWriteMetrics INSTANCE = new HBaseWriteMetrics();
+
+	private final AtomicLong queuedBytes = new AtomicLong();
+	private final AtomicLong flushes = new AtomicLong();
+	private final AtomicLong flushedMutations = new AtomicLong();
+	private final AtomicLong rejectedWrites = new AtomicLong();
+
+	public static HBaseWriteMetrics getInstance() {
+		return INSTANCE;
+	}
+
+	protected HBaseWriteMetrics() {}
+
+	/**
+	 * @return the bytes of mutations buffered or being flushed, that have not
+	 *         yet been written
+	 */
+	public long getQueuedBytes() {
+		return queuedBytes.get();
+	}
+
+	public long getFlushes() {
+		return flushes.get();
+	}
+
+	public long getFlushedMutations() {
+		return flushedMutations.get();
+	}
+
+	/**
+	 * @return the mutations that failed to be written
+	 */
+	public long getRejectedWrites() {
+		return rejectedWrites.get();
+	}
+
+	protected void addQueuedBytes(
+			final long bytes ) {
+		queuedBytes.addAndGet(bytes);
+	}
+
+	protected void onFlush(
+			final int mutations ) {
+		flushes.incrementAndGet();
+		flushedMutations.addAndGet(mutations);
+	}
+
+	protected void addRejectedWrites(
+			final long mutations ) {
+		rejectedWrites.addAndGet(mutations);
+	}
+
+	@Override
+	public String toString() {
+		return "queued bytes: " + getQueuedBytes() + ", flushes: " + getFlushes() + ", flushed mutations: "
+				+ getFlushedMutations() + ", rejected writes: " + getRejectedWrites();
+	}
+}
@@ -1,8 +1,16 @@
 package mil.nga.giat.geowave.datastore.hbase.io;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
 
 import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.base.Writer;
@@ -15,6 +23,7 @@ import org.apache.hadoop.hbase.client.Admin;
 import org.apache.hadoop.hbase.client.BufferedMutator;
 import org.apache.hadoop.hbase.client.BufferedMutatorParams;
 import org.apache.hadoop.hbase.client.Delete;
+import org.apache.hadoop.hbase.client.Mutation;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
 import org.apache.hadoop.hbase.client.RowMutations;
@@ -22,12 +31,19 @@ import org.apache.hadoop.hbase.client.BufferedMutator.ExceptionListener;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * Functionality similar to <code> BatchWriterWrapper </code>
  *
  * This class directly writes to the HBase table instead of using any existing
  * Writer API provided by HBase.
  *
+ * Mutations are buffered until the buffer reaches a size that is tuned from
+ * the observed flush latency, and then flushed in the background so that the
+ * buffered mutator can send each region server its batch while ingest
+ * continues. Ingest blocks when too many flushes are outstanding. The first
+ * failure of a background flush is thrown from the next write, flush or close.
  */
 public class HBaseWriter implements
 		Writer<RowMutations>
@@ -36,12 +52,23 @@ public class HBaseWriter implements
 	private final TableName tableName;
 	private final Admin admin;
 	private static final long SLEEP_INTERVAL_FOR_CF_VERIFY = 100L;
+	private static final long DEFAULT_WRITE_BUFFER_SIZE = 2 * 1024 * 1024;
+	private static final int MAX_FLUSHES_IN_FLIGHT = 2;
 
 	private final HashMap<String, Boolean> cfMap;
 	private BufferedMutator mutator;
 
 	private final boolean schemaUpdateEnabled;
 
+	private final AdaptiveWriteBufferSize bufferSize;
+	private final HBaseWriteMetrics metrics = HBaseWriteMetrics.getInstance();
+	private final Semaphore flushPermits = new Semaphore(
+			MAX_FLUSHES_IN_FLIGHT);
+	private ExecutorService flushExecutor;
+	private List<Mutation> pending = new ArrayList<Mutation>();
+	private long pendingBytes = 0;
+	private final AtomicReference<IOException> failure = new AtomicReference<IOException>();
+
 	public HBaseWriter(
 			final Admin admin,
 			final String tableName ) {
@@ -54,6 +81,11 @@ public class HBaseWriter implements
 				"hbase.online.schema.update.enable",
 				false);
 
+		bufferSize = new AdaptiveWriteBufferSize(
+				admin.getConfiguration().getLong(
+						"hbase.client.write.buffer",
+						DEFAULT_WRITE_BUFFER_SIZE));
+
 		if (LOGGER.getLevel() == Level.DEBUG) {
 			LOGGER.debug("Schema Update Enabled = " + schemaUpdateEnabled);
 
@@ -70,6 +102,8 @@ public class HBaseWriter implements
 		if (mutator == null) {
 			final BufferedMutatorParams params = new BufferedMutatorParams(
 					tableName);
+			// this writer decides when to flush
+			params.writeBufferSize(AdaptiveWriteBufferSize.MAX_BUFFER_SIZE);
 
 			params.listener(new ExceptionListener() {
 				@Override
@@ -80,10 +114,8 @@ public class HBaseWriter implements
 					LOGGER.error(
 							"Error in buffered mutator",
 							exception);
-					// Get details
-					for (Throwable cause : exception.getCauses()) {
-						cause.printStackTrace();
-					}
+					metrics.addRejectedWrites(exception.getNumExceptions());
+					recordFailure(exception);
 				}
 			});
 			mutator = admin.getConnection().getBufferedMutator(
@@ -93,18 +125,21 @@ public class HBaseWriter implements
 		return mutator;
 	}
 
+	/**
+	 * @return the current number of bytes buffered before a flush
+	 */
+	public long getWriteBufferSize() {
+		return bufferSize.getBufferSize();
+	}
+
+	public HBaseWriteMetrics getMetrics() {
+		return metrics;
+	}
+
 	@Override
 	public void write(
 			final RowMutations rowMutation ) {
-		try {
-			getBufferedMutator().mutate(
-					rowMutation.getMutations());
-		}
-		catch (final IOException e) {
-			LOGGER.error(
-					"Unable to write mutation.",
-					e);
-		}
+		buffer(rowMutation.getMutations());
 	}
 
 	@Override
@@ -115,21 +150,154 @@ public class HBaseWriter implements
 		}
 	}
 
-	@Override
-	public void close() {
+	private synchronized void buffer(
+			final List<? extends Mutation> mutations ) {
+		checkFailure();
+		long bytes = 0;
+		for (final Mutation mutation : mutations) {
+			pending.add(mutation);
+			bytes += mutation.heapSize();
+		}
+		pendingBytes += bytes;
+		metrics.addQueuedBytes(bytes);
+		if (pendingBytes >= bufferSize.getBufferSize()) {
+			flushAsync();
+		}
+	}
+
+	private void flushAsync() {
+		if (pending.isEmpty()) {
+			return;
+		}
+		final List<Mutation> batch = pending;
+		final long batchBytes = pendingBytes;
+		pending = new ArrayList<Mutation>();
+		pendingBytes = 0;
+
+		final BufferedMutator batchMutator;
 		try {
-			if (mutator != null) {
-				mutator.close();
-				mutator = null;
-			}
+			batchMutator = getBufferedMutator();
 		}
 		catch (final IOException e) {
-			LOGGER.warn(
-					"Unable to close BufferedMutator",
+			LOGGER.error(
+					"Unable to write mutations.",
 					e);
+			metrics.addRejectedWrites(batch.size());
+			metrics.addQueuedBytes(-batchBytes);
+			recordFailure(e);
+			return;
+		}
+		// this is the backpressure on ingest when the region servers cannot
+		// keep up
+		flushPermits.acquireUninterruptibly();
+		try {
+			getFlushExecutor().execute(
+					new Runnable() {
+						@Override
+						public void run() {
+							try {
+								flushBatch(
+										batchMutator,
+										batch,
+										batchBytes);
+							}
+							finally {
+								flushPermits.release();
+							}
+						}
+					});
+		}
+		catch (final RejectedExecutionException e) {
+			flushPermits.release();
+			flushBatch(
+					batchMutator,
+					batch,
+					batchBytes);
 		}
 	}
 
+	private void flushBatch(
+			final BufferedMutator batchMutator,
+			final List<Mutation> batch,
+			final long batchBytes ) {
+		final long startTime = System.currentTimeMillis();
+		try {
+			batchMutator.mutate(batch);
+			batchMutator.flush();
+			bufferSize.onFlush(
+					batchBytes,
+					System.currentTimeMillis() - startTime);
+			metrics.onFlush(batch.size());
+		}
+		catch (final IOException e) {
+			LOGGER.error(
+					"Unable to write mutations.",
+					e);
+			metrics.addRejectedWrites(batch.size());
+			recordFailure(e);
+		}
+		finally {
+			metrics.addQueuedBytes(-batchBytes);
+		}
+	}
+
+	/**
+	 * Keep the first failure of a flush, to be thrown to the caller of this
+	 * writer
+	 */
+	private void recordFailure(
+			final IOException e ) {
+		failure.compareAndSet(
+				null,
+				e);
+	}
+
+	/**
+	 * Throw the first failure recorded since the last check, if any
+	 */
+	private void checkFailure() {
+		final IOException e = failure.getAndSet(null);
+		if (e != null) {
+			throw new UncheckedIOException(
+					"Unable to write mutations to table '" + tableName + "'",
+					e);
+		}
+	}
+
+	private ExecutorService getFlushExecutor() {
+		if (flushExecutor == null) {
+			flushExecutor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setDaemon(
+					true).setNameFormat(
+					"geowave-hbase-writer-%d").build());
+		}
+		return flushExecutor;
+	}
+
+	@Override
+	public synchronized void close() {
+		try {
+			flush();
+		}
+		finally {
+			if (flushExecutor != null) {
+				flushExecutor.shutdown();
+				flushExecutor = null;
+			}
+			try {
+				if (mutator != null) {
+					mutator.close();
+					mutator = null;
+				}
+			}
+			catch (final IOException e) {
+				LOGGER.warn(
+						"Unable to close BufferedMutator",
+						e);
+			}
+		}
+		checkFailure();
+	}
+
 	public void write(
 			final Iterable<RowMutations> iterable,
 			final String columnFamily )
@@ -147,8 +315,7 @@ public class HBaseWriter implements
 			throws IOException {
 		addColumnFamilyIfNotExist(columnFamily);
 
-		getBufferedMutator().mutate(
-				puts);
+		buffer(puts);
 	}
 
 	private void addColumnFamilyIfNotExist(
@@ -266,29 +433,22 @@ public class HBaseWriter implements
 	public void delete(
 			final Delete delete )
 			throws IOException {
-		getBufferedMutator().mutate(
-				delete);
+		buffer(Collections.singletonList(delete));
 	}
 
 	public void delete(
 			final List<Delete> deletes )
 			throws IOException {
-		getBufferedMutator().mutate(
-				deletes);
+		buffer(deletes);
 	}
 
 	@Override
-	public void flush() {
-		try {
-			if (mutator != null) {
-				mutator.flush();
-			}
-		}
-		catch (final IOException e) {
-			LOGGER.warn(
-					"Unable to flush BufferedMutator",
-					e);
-		}
+	public synchronized void flush() {
+		flushAsync();
+		// wait for every outstanding flush
+		flushPermits.acquireUninterruptibly(MAX_FLUSHES_IN_FLIGHT);
+		flushPermits.release(MAX_FLUSHES_IN_FLIGHT);
+		checkFailure();
 	}
 
 }
@@ -1,35 +1,88 @@
 package mil.nga.giat.geowave.datastore.hbase.metadata;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Iterator;
+import java.util.Random;
 
 import org.apache.commons.lang.NotImplementedException;
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.client.Get;
+import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.RowMutations;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.client.Table;
 import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.StringUtils;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
 import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatistics;
+import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsCache;
 import mil.nga.giat.geowave.core.store.adapter.statistics.DataStatisticsStore;
+import mil.nga.giat.geowave.datastore.hbase.io.HBaseWriter;
 import mil.nga.giat.geowave.datastore.hbase.operations.BasicHBaseOperations;
 import mil.nga.giat.geowave.datastore.hbase.util.HBaseUtils;
 
+/**
+ * The LRU cache of the persistence is not used for statistics because they
+ * change with each new entry and may be updated by other instances of GeoWave.
+ * Instead, if a cache time to live is given, statistics read by ID are cached
+ * in a {@link DataStatisticsCache} that is invalidated by a version of each
+ * adapter's statistics, written with every update of them.
+ */
 public class HBaseDataStatisticsStore extends
 		AbstractHBasePersistence<DataStatistics<?>> implements
 		DataStatisticsStore
 {
 
 	protected static final String STATISTICS_CF = "STATS";
+	// the version is kept out of the statistics column family so that it is
+	// not read as statistics
+	private static final String STATISTICS_VERSION_CF = "STATS_VERSION";
+	private static final byte[] STATISTICS_VERSION_ROW = StringUtils.stringToBinary("STATS_VERSION");
+	private static final Random VERSION_RANDOM = new Random();
 	private final static Logger LOGGER = Logger.getLogger(HBaseDataStatisticsStore.class);
 
+	private final DataStatisticsCache statisticsCache;
+	private HBaseWriter versionWriter;
+
 	public HBaseDataStatisticsStore(
 			final BasicHBaseOperations operations ) {
+		this(
+				operations,
+				0);
+	}
+
+	/**
+	 * @param operations
+	 *            the operations
+	 * @param statsCacheTtl
+	 *            the time in milliseconds that statistics are cached before
+	 *            checking the version, 0 to disable the cache
+	 */
+	public HBaseDataStatisticsStore(
+			final BasicHBaseOperations operations,
+			final long statsCacheTtl ) {
 		super(
 				operations);
+		if (statsCacheTtl > 0) {
+			statisticsCache = new DataStatisticsCache(
+					statsCacheTtl,
+					new DataStatisticsCache.StatisticsVersionReader() {
+						@Override
+						public Long readVersion(
+								final ByteArrayId adapterId ) {
+							return readStatisticsVersion(adapterId);
+						}
+					});
+		}
+		else {
+			statisticsCache = null;
+		}
 	}
 
 	@Override
@@ -39,14 +92,119 @@ public class HBaseDataStatisticsStore extends
 				statistics.getDataAdapterId(),
 				statistics.getStatisticsId());
 		addObject(statistics);
-
+		statisticsUpdated(statistics.getDataAdapterId());
 	}
 
 	@Override
 	public void incorporateStatistics(
 			final DataStatistics<?> statistics ) {
 		addObject(statistics);
+		statisticsUpdated(statistics.getDataAdapterId());
+	}
+
+	/**
+	 * Invalidate the cached statistics of an adapter and change the adapter's
+	 * version, so that other instances caching the statistics invalidate
+	 * theirs. The version is written whether or not this instance caches
+	 * statistics, as the instances caching them are usually not the ones
+	 * updating them.
+	 *
+	 * @param adapterId
+	 *            the adapter whose statistics were updated
+	 */
+	private void statisticsUpdated(
+			final ByteArrayId adapterId ) {
+		if (statisticsCache != null) {
+			statisticsCache.invalidate(adapterId);
+		}
+		try {
+			final RowMutations mutation = new RowMutations(
+					STATISTICS_VERSION_ROW);
+			final Put row = new Put(
+					STATISTICS_VERSION_ROW);
+			row.addColumn(
+					toBytes(STATISTICS_VERSION_CF),
+					adapterId.getBytes(),
+					ByteBuffer.allocate(
+							8).putLong(
+							VERSION_RANDOM.nextLong()).array());
+			mutation.add(row);
+			synchronized (this) {
+				if (versionWriter == null) {
+					versionWriter = operations.createWriter(
+							getTablename(),
+							METADATA_CFS,
+							true);
+				}
+				// the writer adds the version column family to existing
+				// tables
+				versionWriter.write(
+						mutation,
+						STATISTICS_VERSION_CF);
+				versionWriter.flush();
+			}
+		}
+		catch (final IOException e) {
+			LOGGER.error(
+					"Unable to write statistics version",
+					e);
+		}
+	}
+
+	private Long readStatisticsVersion(
+			final ByteArrayId adapterId ) {
+		try {
+			final Table table = operations.getTable(getTablename());
+			try {
+				final Get get = new Get(
+						STATISTICS_VERSION_ROW);
+				get.addColumn(
+						toBytes(STATISTICS_VERSION_CF),
+						adapterId.getBytes());
+				final Result result = table.get(get);
+				if (result.isEmpty()) {
+					// statistics have not been updated since versions were
+					// introduced, so re-read them once their time to live
+					// has passed
+					return null;
+				}
+				return ByteBuffer.wrap(
+						CellUtil.cloneValue(result.listCells().get(
+								0))).getLong();
+			}
+			finally {
+				table.close();
+			}
+		}
+		catch (final IOException e) {
+			LOGGER.warn(
+					"Unable to read statistics version",
+					e);
+		}
+		return null;
+	}
+
+	@Override
+	protected void addObjectToCache(
+			final ByteArrayId primaryId,
+			final ByteArrayId secondaryId,
+			final DataStatistics<?> object ) {
+		// statistics are cached by the statistics cache, which unlike the LRU
+		// cache is invalidated when other instances update statistics
+	}
 
+	@Override
+	protected Object getObjectFromCache(
+			final ByteArrayId primaryId,
+			final ByteArrayId secondaryId ) {
+		return null;
+	}
+
+	@Override
+	protected boolean deleteObjectFromCache(
+			final ByteArrayId primaryId,
+			final ByteArrayId secondaryId ) {
+		return true;
 	}
 
 	@Override
@@ -69,10 +227,25 @@ public class HBaseDataStatisticsStore extends
 			final ByteArrayId adapterId,
 			final ByteArrayId statisticsId,
 			final String... authorizations ) {
-		return getObject(
-				statisticsId,
+		if (statisticsCache == null) {
+			return getObject(
+					statisticsId,
+					adapterId,
+					authorizations);
+		}
+		return statisticsCache.getDataStatistics(
 				adapterId,
-				authorizations);
+				statisticsId,
+				authorizations,
+				new DataStatisticsCache.StatisticsReader() {
+					@Override
+					public DataStatistics<?> readStatistics() {
+						return getObject(
+								statisticsId,
+								adapterId,
+								authorizations);
+					}
+				});
 	}
 
 	@Override
@@ -86,10 +259,12 @@ public class HBaseDataStatisticsStore extends
 					"No statistics id specified for removeStatistics, ignoring request!");
 			return false;
 		}
-		return deleteObject(
+		final boolean removed = deleteObject(
 				statisticsId,
 				adapterId,
 				authorizations);
+		statisticsUpdated(adapterId);
+		return removed;
 	}
 
 	@Override
@@ -128,7 +303,7 @@ public class HBaseDataStatisticsStore extends
 				null,
 				adapterId,
 				authorizations);
-
+		statisticsUpdated(adapterId);
 	}
 
 	@Override
@@ -18,6 +18,7 @@ public class HBaseDataStatisticsStoreFactory extends
 		}
 		final HBaseRequiredOptions opts = (HBaseRequiredOptions) options;
 		return new HBaseDataStatisticsStore(
-				createOperations(opts));
+				createOperations(opts),
+				(opts.getAdditionalOptions() == null) ? 0 : opts.getAdditionalOptions().getStatsCacheTtl());
 	}
 }
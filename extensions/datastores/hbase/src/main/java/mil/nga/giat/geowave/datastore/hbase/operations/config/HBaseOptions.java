@@ -17,10 +17,16 @@ public class HBaseOptions extends
 	@Parameter(names = "--scanCacheSize")
 	protected int scanCacheSize = HConstants.DEFAULT_HBASE_CLIENT_SCANNER_CACHING;
 
+	@Parameter(names = "--scanParallelism", description = "The maximum number of scans run concurrently, shared by all queries, when a query is scanned as one scan per range")
+	protected int scanParallelism = 16;
+
 	protected boolean disableCustomFilters = false;
 
 	protected boolean disableCoprocessors = false;
 
+	@Parameter(names = "--enableScanObserver", description = "Apply subsampling, filtering and field subsetting in a single pass within a region observer, which must be installed on the table")
+	protected boolean enableScanObserver = false;
+
 	@Parameter(names = "--disableVerifyCoprocessors")
 	protected boolean disableVerifyCoprocessors = false;
 
@@ -61,6 +67,15 @@ public class HBaseOptions extends
 		this.scanCacheSize = scanCacheSize;
 	}
 
+	public int getScanParallelism() {
+		return scanParallelism;
+	}
+
+	public void setScanParallelism(
+			final int scanParallelism ) {
+		this.scanParallelism = scanParallelism;
+	}
+
 	public boolean isEnableCustomFilters() {
 		return !disableCustomFilters && !disableServiceSide;
 	}
@@ -79,6 +94,15 @@ public class HBaseOptions extends
 		this.disableCoprocessors = !enableCoprocessors;
 	}
 
+	public boolean isEnableScanObserver() {
+		return enableScanObserver && isEnableCoprocessors() && isEnableCustomFilters();
+	}
+
+	public void setEnableScanObserver(
+			final boolean enableScanObserver ) {
+		this.enableScanObserver = enableScanObserver;
+	}
+
 	public boolean isVerifyCoprocessors() {
 		return !disableVerifyCoprocessors && !disableServiceSide;
 	}
@@ -0,0 +1,181 @@
+package mil.nga.giat.geowave.datastore.hbase.query;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.KeyValueUtil;
+import org.apache.hadoop.hbase.Tag;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.log4j.Logger;
+
+import mil.nga.giat.geowave.core.index.IndexUtils;
+import mil.nga.giat.geowave.core.index.PersistenceUtils;
+import mil.nga.giat.geowave.core.store.filter.DistributableQueryFilter;
+import mil.nga.giat.geowave.core.store.flatten.BitmaskUtils;
+import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
+
+/**
+ * This filter is created by the {@link GeoWaveScanObserver} once for each
+ * region scanner, and applies subsampling, the distributable filters
+ * (including dedupe) and field subsetting in a single pass over each cell.
+ * The common index values of a cell are decoded at most once, only when there
+ * are distributable filters, and subsampling only advances past a row once
+ * the row has passed the distributable filters. Rows that are subsampled away
+ * are skipped by seeking rather than by reading every cell.
+ *
+ * As this filter is only created on the region server from a scan attribute,
+ * it is not serialized as an HBase filter.
+ */
+public class GeoWaveScanFilter extends
+		HBaseDistributableFilter
+{
+	private final static Logger LOGGER = Logger.getLogger(GeoWaveScanFilter.class);
+	private static final int NO_SUBSAMPLING = -1;
+
+	private Integer skipBitPosition;
+	private byte[] fieldSubsetBitmask;
+	private byte[] nextRow = null;
+	private boolean done = false;
+
+	public GeoWaveScanFilter() {
+		super();
+	}
+
+	/**
+	 * @param model
+	 *            the common index model
+	 * @param filters
+	 *            the distributable filters, or null for none
+	 * @param skipBitPosition
+	 *            the bit position to subsample rows at, or null to return all
+	 *            rows
+	 * @param fieldSubsetBitmask
+	 *            the bitmask of fields to return, or null to return all
+	 *            fields
+	 * @return the scan attribute that the observer creates the filter from
+	 */
+	public static byte[] toScanAttribute(
+			final CommonIndexModel model,
+			final List<DistributableQueryFilter> filters,
+			final Integer skipBitPosition,
+			final byte[] fieldSubsetBitmask ) {
+		final byte[] modelBinary = PersistenceUtils.toBinary(model);
+		final byte[] filtersBinary = ((filters == null) || filters.isEmpty()) ? new byte[0] : PersistenceUtils
+				.toBinary(filters);
+		final byte[] bitmask = (fieldSubsetBitmask == null) ? new byte[0] : fieldSubsetBitmask;
+		final ByteBuffer buf = ByteBuffer.allocate(16 + modelBinary.length + filtersBinary.length + bitmask.length);
+		buf.putInt(modelBinary.length);
+		buf.put(modelBinary);
+		buf.putInt(filtersBinary.length);
+		buf.put(filtersBinary);
+		buf.putInt((skipBitPosition == null) ? NO_SUBSAMPLING : skipBitPosition);
+		buf.putInt(bitmask.length);
+		buf.put(bitmask);
+		return buf.array();
+	}
+
+	/**
+	 * @param scanAttribute
+	 *            the scan attribute created by {@link #toScanAttribute}
+	 * @return the filter, or null if it could not be decoded
+	 */
+	public static GeoWaveScanFilter fromScanAttribute(
+			final byte[] scanAttribute ) {
+		final ByteBuffer buf = ByteBuffer.wrap(scanAttribute);
+		final byte[] modelBinary = new byte[buf.getInt()];
+		buf.get(modelBinary);
+		final byte[] filtersBinary = new byte[buf.getInt()];
+		buf.get(filtersBinary);
+		final int skipBitPosition = buf.getInt();
+		final byte[] bitmask = new byte[buf.getInt()];
+		buf.get(bitmask);
+
+		final GeoWaveScanFilter filter = new GeoWaveScanFilter();
+		if (!filter.init(
+				filtersBinary,
+				modelBinary)) {
+			LOGGER.error("Unable to decode GeoWave scan");
+			return null;
+		}
+		filter.skipBitPosition = (skipBitPosition == NO_SUBSAMPLING) ? null : skipBitPosition;
+		filter.fieldSubsetBitmask = (bitmask.length == 0) ? null : bitmask;
+		return filter;
+	}
+
+	@Override
+	public ReturnCode filterKeyValue(
+			final Cell cell )
+			throws IOException {
+		if ((nextRow != null) && (Bytes.compareTo(
+				cell.getRowArray(),
+				cell.getRowOffset(),
+				cell.getRowLength(),
+				nextRow,
+				0,
+				nextRow.length) < 0)) {
+			return ReturnCode.SEEK_NEXT_USING_HINT;
+		}
+		final ReturnCode returnCode = hasFilters() ? super.filterKeyValue(cell) : ReturnCode.INCLUDE;
+		if ((returnCode == ReturnCode.INCLUDE) && (skipBitPosition != null)) {
+			nextRow = IndexUtils.getNextRowForSkip(
+					CellUtil.cloneRow(cell),
+					skipBitPosition);
+			// there is no row left at this cardinality
+			done = (nextRow == null);
+		}
+		return returnCode;
+	}
+
+	@Override
+	public Cell getNextCellHint(
+			final Cell currentCell ) {
+		return KeyValueUtil.createFirstOnRow(nextRow);
+	}
+
+	@Override
+	public boolean filterAllRemaining()
+			throws IOException {
+		return done;
+	}
+
+	@Override
+	public Cell transformCell(
+			final Cell cell )
+			throws IOException {
+		if (fieldSubsetBitmask == null) {
+			return cell;
+		}
+		final byte[] originalBitmask = CellUtil.cloneQualifier(cell);
+		final byte[] newBitmask = BitmaskUtils.generateANDBitmask(
+				originalBitmask,
+				fieldSubsetBitmask);
+		if (!BitmaskUtils.isAnyBitSet(newBitmask) || Arrays.equals(
+				newBitmask,
+				originalBitmask)) {
+			return cell;
+		}
+		final byte[] newValue = BitmaskUtils.constructNewValue(
+				CellUtil.cloneValue(cell),
+				originalBitmask,
+				newBitmask);
+		if (newValue == null) {
+			return cell;
+		}
+		return new KeyValue(
+				CellUtil.cloneRow(cell),
+				CellUtil.cloneFamily(cell),
+				newBitmask,
+				cell.getTimestamp(),
+				KeyValue.Type.Put,
+				newValue,
+				Tag.asList(
+						cell.getTagsArray(),
+						cell.getTagsOffset(),
+						cell.getTagsLength()));
+	}
+}
@@ -0,0 +1,55 @@
+package mil.nga.giat.geowave.datastore.hbase.query;
+
+import java.io.IOException;
+
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.coprocessor.BaseRegionObserver;
+import org.apache.hadoop.hbase.coprocessor.ObserverContext;
+import org.apache.hadoop.hbase.coprocessor.RegionCoprocessorEnvironment;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.regionserver.RegionScanner;
+import org.apache.log4j.Logger;
+
+/**
+ * This region observer looks for a GeoWave scan attribute when a scanner is
+ * opened and, if one is present, decodes it into a single
+ * {@link GeoWaveScanFilter} for the scanner. The filter's decoded state is
+ * then reused for every cell of the scanner rather than being deserialized as
+ * separate filters for subsampling, filtering and field subsetting.
+ */
+public class GeoWaveScanObserver extends
+		BaseRegionObserver
+{
+	private final static Logger LOGGER = Logger.getLogger(GeoWaveScanObserver.class);
+	public static final String SCAN_ATTRIBUTE = "geowave.scan";
+
+	@Override
+	public RegionScanner preScannerOpen(
+			final ObserverContext<RegionCoprocessorEnvironment> e,
+			final Scan scan,
+			final RegionScanner s )
+			throws IOException {
+		final byte[] scanAttribute = scan.getAttribute(SCAN_ATTRIBUTE);
+		if (scanAttribute == null) {
+			return s;
+		}
+		final GeoWaveScanFilter filter = GeoWaveScanFilter.fromScanAttribute(scanAttribute);
+		if (filter == null) {
+			throw new IOException(
+					"Unable to decode GeoWave scan attribute");
+		}
+		final Filter existingFilter = scan.getFilter();
+		if (existingFilter == null) {
+			scan.setFilter(filter);
+		}
+		else {
+			scan.setFilter(new FilterList(
+					FilterList.Operator.MUST_PASS_ALL,
+					existingFilter,
+					filter));
+		}
+		LOGGER.debug("Applying GeoWave scan filter to region scanner");
+		return s;
+	}
+}
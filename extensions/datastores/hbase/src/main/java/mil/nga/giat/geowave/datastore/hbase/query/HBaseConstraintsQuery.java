@@ -39,6 +39,7 @@ import mil.nga.giat.geowave.core.store.query.Query;
 import mil.nga.giat.geowave.core.store.query.aggregate.Aggregation;
 import mil.nga.giat.geowave.core.store.query.aggregate.CommonIndexAggregation;
 import mil.nga.giat.geowave.datastore.hbase.operations.BasicHBaseOperations;
+import mil.nga.giat.geowave.datastore.hbase.operations.config.HBaseOptions;
 import mil.nga.giat.geowave.datastore.hbase.query.protobuf.AggregationProtos;
 
 public class HBaseConstraintsQuery extends
@@ -110,6 +111,17 @@ public class HBaseConstraintsQuery extends
 		}
 	}
 
+	@Override
+	public void setOptions(
+			final HBaseOptions options ) {
+		super.setOptions(options);
+		if ((options != null) && options.isEnableCustomFilters()) {
+			// distributable filters run within the region servers, so only the
+			// canonical copy of each duplicated entry is returned
+			base.enableServerSideDedupe();
+		}
+	}
+
 	protected boolean isAggregation() {
 		return base.isAggregation();
 	}
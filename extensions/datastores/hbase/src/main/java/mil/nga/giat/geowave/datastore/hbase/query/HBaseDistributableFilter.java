@@ -150,6 +150,10 @@ public class HBaseDistributableFilter extends
 		return true;
 	}
 
+	protected boolean hasFilters() {
+		return !filterList.isEmpty();
+	}
+
 	@Override
 	public ReturnCode filterKeyValue(
 			final Cell cell )
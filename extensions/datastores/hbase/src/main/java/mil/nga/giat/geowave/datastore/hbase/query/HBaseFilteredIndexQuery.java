@@ -2,11 +2,11 @@ package mil.nga.giat.geowave.datastore.hbase.query;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.hadoop.hbase.HConstants;
@@ -18,6 +18,7 @@ import org.apache.hadoop.hbase.filter.MultiRowRangeFilter;
 import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
 import org.apache.log4j.Logger;
 
+import com.google.common.base.Function;
 import com.google.common.collect.Iterators;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
@@ -33,13 +34,17 @@ import mil.nga.giat.geowave.core.store.adapter.RowMergingDataAdapter;
 import mil.nga.giat.geowave.core.store.callback.ScanCallback;
 import mil.nga.giat.geowave.core.store.filter.DistributableQueryFilter;
 import mil.nga.giat.geowave.core.store.filter.QueryFilter;
+import mil.nga.giat.geowave.core.store.flatten.BitmaskUtils;
 import mil.nga.giat.geowave.core.store.index.PrimaryIndex;
 import mil.nga.giat.geowave.core.store.query.FilteredIndexQuery;
+import mil.nga.giat.geowave.core.store.util.ParallelCloseableIterator;
 import mil.nga.giat.geowave.datastore.hbase.operations.BasicHBaseOperations;
+import mil.nga.giat.geowave.datastore.hbase.operations.config.HBaseOptions;
 import mil.nga.giat.geowave.datastore.hbase.util.HBaseEntryIteratorWrapper;
 import mil.nga.giat.geowave.datastore.hbase.util.HBaseUtils;
 import mil.nga.giat.geowave.datastore.hbase.util.HBaseUtils.MultiScannerClosableWrapper;
 import mil.nga.giat.geowave.datastore.hbase.util.MergingEntryIterator;
+import mil.nga.giat.geowave.datastore.hbase.util.ScanResultBatchIterator;
 
 public abstract class HBaseFilteredIndexQuery extends
 		HBaseQuery implements
@@ -49,7 +54,9 @@ public abstract class HBaseFilteredIndexQuery extends
 	protected final ScanCallback<?> scanCallback;
 	protected List<QueryFilter> clientFilters;
 	private final static Logger LOGGER = Logger.getLogger(HBaseFilteredIndexQuery.class);
+	private final static int SCAN_BATCH_SIZE = 100;
 	private boolean hasSkippingFilter = false;
+	private ExecutorService scanExecutor = null;
 
 	public HBaseFilteredIndexQuery(
 			final List<ByteArrayId> adapterIds,
@@ -65,6 +72,17 @@ public abstract class HBaseFilteredIndexQuery extends
 		this.scanCallback = scanCallback;
 	}
 
+	/**
+	 * @param scanExecutor
+	 *            the executor to run the scans of each range concurrently on,
+	 *            if a scan is created per range, or null to run them one after
+	 *            another
+	 */
+	public void setScanExecutor(
+			final ExecutorService scanExecutor ) {
+		this.scanExecutor = scanExecutor;
+	}
+
 	@Override
 	public void setClientFilters(
 			final List<QueryFilter> clientFilters ) {
@@ -137,6 +155,18 @@ public abstract class HBaseFilteredIndexQuery extends
 		if (isBigtable()) {
 			final List<Scan> scanners = getScannerList(limit);
 
+			// a limited query returns the first rows in range order, which
+			// the parallel scans do not preserve
+			if ((scanExecutor != null) && (scanners.size() > 1) && ((limit == null) || (limit <= 0))) {
+				return parallelQuery(
+						operations,
+						adapterStore,
+						tableName,
+						scanners,
+						maxResolutionSubsamplingPerDimension,
+						decodePersistenceEncoding);
+			}
+
 			for (final Scan scanner : scanners) {
 				try {
 					final ResultScanner rs = operations.getScannedResults(
@@ -168,6 +198,7 @@ public abstract class HBaseFilteredIndexQuery extends
 			if (isEnableCustomFilters()) {
 				// Add skipping filter if requested
 				hasSkippingFilter = false;
+				Integer cardinalityToSubsample = null;
 				if (maxResolutionSubsamplingPerDimension != null) {
 					if (maxResolutionSubsamplingPerDimension.length != index
 							.getIndexStrategy()
@@ -177,29 +208,56 @@ public abstract class HBaseFilteredIndexQuery extends
 								+ index.getIndexStrategy().getOrderedDimensionDefinitions().length);
 					}
 					else {
-						final int cardinalityToSubsample = IndexUtils.getBitPositionFromSubsamplingArray(
+						cardinalityToSubsample = IndexUtils.getBitPositionFromSubsamplingArray(
 								index.getIndexStrategy(),
 								maxResolutionSubsamplingPerDimension);
+						hasSkippingFilter = true;
+					}
+				}
 
+				final List<DistributableQueryFilter> distFilters = getDistributableFilters();
+				final boolean hasDistFilters = (distFilters != null) && !distFilters.isEmpty();
+				if (isEnableScanObserver() && (hasSkippingFilter || hasDistFilters || (fieldIds != null))) {
+					// the scan observer applies subsampling, the distributable
+					// filters and field subsetting in a single filter per
+					// region scanner
+					if (options.isVerifyCoprocessors()) {
+						operations.verifyCoprocessor(
+								tableName,
+								GeoWaveScanObserver.class.getName(),
+								options.getCoprocessorJar());
+					}
+					multiScanner.setAttribute(
+							GeoWaveScanObserver.SCAN_ATTRIBUTE,
+							GeoWaveScanFilter.toScanAttribute(
+									index.getIndexModel(),
+									distFilters,
+									cardinalityToSubsample,
+									(fieldIds == null) ? null : BitmaskUtils.generateFieldSubsetBitmask(
+											index.getIndexModel(),
+											fieldIds.getLeft(),
+											fieldIds.getRight())));
+				}
+				else {
+					if (hasSkippingFilter) {
 						final FixedCardinalitySkippingFilter skippingFilter = new FixedCardinalitySkippingFilter(
 								cardinalityToSubsample);
 						filterList.addFilter(skippingFilter);
-						hasSkippingFilter = true;
 					}
-				}
 
-				// Add distributable filters if requested, this has to be last
-				// in the filter list for the dedupe filter to work correctly
-				final List<DistributableQueryFilter> distFilters = getDistributableFilters();
-				if ((distFilters != null) && !distFilters.isEmpty()) {
-					final HBaseDistributableFilter hbdFilter = new HBaseDistributableFilter();
-					hbdFilter.init(
-							distFilters,
-							index.getIndexModel());
+					// Add distributable filters if requested, this has to be
+					// last in the filter list for the dedupe filter to work
+					// correctly
+					if (hasDistFilters) {
+						final HBaseDistributableFilter hbdFilter = new HBaseDistributableFilter();
+						hbdFilter.init(
+								distFilters,
+								index.getIndexModel());
 
-					filterList.addFilter(hbdFilter);
+						filterList.addFilter(hbdFilter);
+					}
 				}
-				else {
+				if (!hasDistFilters) {
 					final List<MultiDimensionalCoordinateRangesArray> coords = getCoordinateRanges();
 					if ((coords != null) && !coords.isEmpty()) {
 						final HBaseNumericIndexStrategyFilter numericIndexFilter = new HBaseNumericIndexStrategyFilter(
@@ -258,46 +316,106 @@ public abstract class HBaseFilteredIndexQuery extends
 		return new CloseableIterator.Empty();
 	}
 
+	// The scans are run concurrently on the scan executor, and their results
+	// are handed off in batches and merged in the order they arrive, so it is
+	// not used for limited queries. Closing the iterator stops the scans that
+	// are running and skips the others.
+	@SuppressWarnings("rawtypes")
+	private CloseableIterator<Object> parallelQuery(
+			final BasicHBaseOperations operations,
+			final AdapterStore adapterStore,
+			final String tableName,
+			final List<Scan> scanners,
+			final double[] maxResolutionSubsamplingPerDimension,
+			final boolean decodePersistenceEncoding ) {
+		// rows that are merged have to stay together
+		final boolean keepMatchingRowsTogether = !getMergingAdapters(
+				adapterStore).isEmpty();
+		final List<CloseableIterator<List<Result>>> scanIterators = new ArrayList<CloseableIterator<List<Result>>>(
+				scanners.size());
+		for (final Scan scanner : scanners) {
+			scanIterators.add(new ScanResultBatchIterator(
+					operations,
+					scanner,
+					tableName,
+					authorizations,
+					SCAN_BATCH_SIZE,
+					keepMatchingRowsTogether));
+		}
+		final ParallelCloseableIterator<List<Result>> parallelIt = new ParallelCloseableIterator<List<Result>>(
+				scanIterators,
+				scanExecutor,
+				Math.max(
+						1,
+						getParallelQueryBufferSize() / SCAN_BATCH_SIZE));
+		final Iterator it = initIterator(
+				adapterStore,
+				Iterators.concat(Iterators.transform(
+						parallelIt,
+						new Function<List<Result>, Iterator<Result>>() {
+							@Override
+							public Iterator<Result> apply(
+									final List<Result> batch ) {
+								return batch.iterator();
+							}
+						})),
+				maxResolutionSubsamplingPerDimension,
+				decodePersistenceEncoding);
+
+		return new CloseableIteratorWrapper(
+				parallelIt,
+				it);
+	}
+
+	private int getParallelQueryBufferSize() {
+		if (options != null) {
+			return options.getParallelQueryBufferSize();
+		}
+		return new HBaseOptions().getParallelQueryBufferSize();
+	}
+
 	private boolean isEnableCustomFilters() {
 		return (options != null && options.isEnableCustomFilters());
 	}
 
+	private boolean isEnableScanObserver() {
+		return (options != null && options.isEnableScanObserver());
+	}
+
 	private boolean isBigtable() {
 		return (options != null && options.isBigTable());
 	}
 
 	// Bigtable does not support MultiRowRangeFilters. This method returns a
-	// single scan per range
+	// single scan per range, after merging ranges that overlap or are adjacent
 	protected List<Scan> getScannerList(
 			final Integer limit ) {
 
-		List<ByteArrayRange> ranges = getRanges();
-		if ((ranges == null) || ranges.isEmpty()) {
-			ranges = Collections.singletonList(new ByteArrayRange(
-					null,
-					null));
+		final List<ByteArrayRange> ranges = getRanges();
+		final List<Scan> scanners = new ArrayList<Scan>();
+		if ((ranges == null) || ranges.isEmpty() || hasUnboundedRange(ranges)) {
+			scanners.add(createStandardScanner(limit));
+			return scanners;
 		}
 
-		final List<Scan> scanners = new ArrayList<Scan>();
-		if ((ranges != null) && (ranges.size() > 0)) {
-			for (final ByteArrayRange range : ranges) {
-				final Scan scanner = createStandardScanner(limit);
+		for (final RowRange rowRange : HBaseUtils.coalesceRowRanges(ranges)) {
+			final Scan scanner = createStandardScanner(limit);
+			scanner.setStartRow(rowRange.getStartRow());
+			scanner.setStopRow(rowRange.getStopRow());
+			scanners.add(scanner);
+		}
 
-				if (range.getStart() != null) {
-					scanner.setStartRow(range.getStart().getBytes());
-					if (!range.isSingleValue()) {
-						scanner.setStopRow(HBaseUtils.getNextPrefix(range.getEnd().getBytes()));
-					}
-					else {
-						scanner.setStopRow(HBaseUtils.getNextPrefix(range.getStart().getBytes()));
-					}
-				}
+		return scanners;
+	}
 
-				scanners.add(scanner);
+	private static boolean hasUnboundedRange(
+			final List<ByteArrayRange> ranges ) {
+		for (final ByteArrayRange range : ranges) {
+			if (range.getStart() == null) {
+				return true;
 			}
 		}
-
-		return scanners;
+		return false;
 	}
 
 	// Default (not Bigtable) case - use a single multi-row-range filter
@@ -455,16 +573,7 @@ public abstract class HBaseFilteredIndexQuery extends
 				: new mil.nga.giat.geowave.core.store.filter.FilterList<QueryFilter>(
 						filters);
 
-		final Map<ByteArrayId, RowMergingDataAdapter> mergingAdapters = new HashMap<ByteArrayId, RowMergingDataAdapter>();
-		for (final ByteArrayId adapterId : adapterIds) {
-			final DataAdapter adapter = adapterStore.getAdapter(adapterId);
-			if ((adapter instanceof RowMergingDataAdapter)
-					&& (((RowMergingDataAdapter) adapter).getTransform() != null)) {
-				mergingAdapters.put(
-						adapterId,
-						(RowMergingDataAdapter) adapter);
-			}
-		}
+		final Map<ByteArrayId, RowMergingDataAdapter> mergingAdapters = getMergingAdapters(adapterStore);
 
 		if (mergingAdapters.isEmpty()) {
 			return new HBaseEntryIteratorWrapper(
@@ -492,6 +601,21 @@ public abstract class HBaseFilteredIndexQuery extends
 		}
 	}
 
+	protected Map<ByteArrayId, RowMergingDataAdapter> getMergingAdapters(
+			final AdapterStore adapterStore ) {
+		final Map<ByteArrayId, RowMergingDataAdapter> mergingAdapters = new HashMap<ByteArrayId, RowMergingDataAdapter>();
+		for (final ByteArrayId adapterId : adapterIds) {
+			final DataAdapter adapter = adapterStore.getAdapter(adapterId);
+			if ((adapter instanceof RowMergingDataAdapter)
+					&& (((RowMergingDataAdapter) adapter).getTransform() != null)) {
+				mergingAdapters.put(
+						adapterId,
+						(RowMergingDataAdapter) adapter);
+			}
+		}
+		return mergingAdapters;
+	}
+
 	protected List<QueryFilter> getAllFiltersList() {
 		// This method is so that it can be overridden to also add distributed
 		// filter list
@@ -5,6 +5,8 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
@@ -20,6 +22,8 @@ import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.client.ResultScanner;
 import org.apache.hadoop.hbase.client.RowMutations;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.log4j.Logger;
 
 import mil.nga.giat.geowave.core.index.ByteArrayId;
@@ -121,25 +125,90 @@ public class HBaseUtils
 				prefix).getStopRow();
 	}
 
+	/**
+	 * Converts ranges into row ranges that stop before the row following every
+	 * row prefixed by the end of the range, sorted by their start rows, and
+	 * merges the row ranges that overlap or are adjacent so that each row is
+	 * scanned at most once and with as few scans as possible. An empty stop
+	 * row means that the row range is not bounded.
+	 *
+	 * @param ranges
+	 *            the ranges, each must have a start
+	 * @return the coalesced row ranges
+	 */
+	public static List<RowRange> coalesceRowRanges(
+			final List<ByteArrayRange> ranges ) {
+		final List<byte[][]> rowRanges = new ArrayList<byte[][]>(
+				ranges.size());
+		for (final ByteArrayRange range : ranges) {
+			final byte[] startRow = range.getStart().getBytes();
+			rowRanges.add(new byte[][] {
+				startRow,
+				getNextPrefix(range.isSingleValue() ? startRow : range.getEnd().getBytes())
+			});
+		}
+		Collections.sort(
+				rowRanges,
+				new Comparator<byte[][]>() {
+					@Override
+					public int compare(
+							final byte[][] o1,
+							final byte[][] o2 ) {
+						return Bytes.compareTo(
+								o1[0],
+								o2[0]);
+					}
+				});
+		final List<RowRange> coalescedRanges = new ArrayList<RowRange>();
+		byte[] startRow = null;
+		byte[] stopRow = null;
+		for (final byte[][] rowRange : rowRanges) {
+			if (startRow == null) {
+				startRow = rowRange[0];
+				stopRow = rowRange[1];
+			}
+			else if ((stopRow.length == 0) || (Bytes.compareTo(
+					rowRange[0],
+					stopRow) <= 0)) {
+				if ((stopRow.length > 0) && ((rowRange[1].length == 0) || (Bytes.compareTo(
+						rowRange[1],
+						stopRow) > 0))) {
+					stopRow = rowRange[1];
+				}
+			}
+			else {
+				coalescedRanges.add(new RowRange(
+						startRow,
+						true,
+						stopRow,
+						false));
+				startRow = rowRange[0];
+				stopRow = rowRange[1];
+			}
+		}
+		if (startRow != null) {
+			coalescedRanges.add(new RowRange(
+					startRow,
+					true,
+					stopRow,
+					false));
+		}
+		return coalescedRanges;
+	}
+
 	public static <T> DataStoreEntryInfo write(
 			final WritableDataAdapter<T> writableAdapter,
 			final PrimaryIndex index,
 			final T entry,
 			final HBaseWriter writer,
 			final VisibilityWriter<T> customFieldVisibilityWriter ) {
-		final DataStoreEntryInfo ingestInfo = DataStoreUtils.getIngestInfo(
+		final List<RowMutations> mutations = new ArrayList<RowMutations>();
+		final DataStoreEntryInfo ingestInfo = encode(
 				writableAdapter,
 				index,
 				entry,
-				customFieldVisibilityWriter);
-
-		final List<RowMutations> mutations = buildMutations(
-				writableAdapter.getAdapterId().getBytes(),
-				ingestInfo,
-				index,
-				writableAdapter,
-				(writableAdapter instanceof RowMergingDataAdapter)
-						&& (((RowMergingDataAdapter) writableAdapter).getTransform() != null));
+				customFieldVisibilityWriter,
+				mutations);
 
 		try {
 			writer.write(
@@ -155,6 +224,35 @@ public class HBaseUtils
 		return ingestInfo;
 	}
 
+	/**
+	 * Encode an entry into the row mutations for an index without writing them
+	 *
+	 * @param mutations
+	 *            the list to add the row mutations of the entry to
+	 * @return the ingest info of the entry
+	 */
+	public static <T> DataStoreEntryInfo encode(
+			final WritableDataAdapter<T> writableAdapter,
+			final PrimaryIndex index,
+			final T entry,
+			final VisibilityWriter<T> customFieldVisibilityWriter,
+			final List<RowMutations> mutations ) {
+		final DataStoreEntryInfo ingestInfo = DataStoreUtils.getIngestInfo(
+				writableAdapter,
+				index,
+				entry,
+				customFieldVisibilityWriter);
+
+		mutations.addAll(buildMutations(
+				writableAdapter.getAdapterId().getBytes(),
+				ingestInfo,
+				index,
+				writableAdapter,
+				(writableAdapter instanceof RowMergingDataAdapter)
+						&& (((RowMergingDataAdapter) writableAdapter).getTransform() != null)));
+		return ingestInfo;
+	}
+
 	public static String getQualifiedTableName(
 			final String tableNamespace,
 			final String unqualifiedTableName ) {
@@ -361,10 +459,8 @@ public class HBaseUtils
 
 		final IndexedAdapterPersistenceEncoding encodedRow = new IndexedAdapterPersistenceEncoding(
 				adapterId,
-				new ByteArrayId(
-						rowId.getDataId()),
-				new ByteArrayId(
-						rowId.getInsertionId()),
+				rowId.getDataByteArrayId(),
+				rowId.getInsertionByteArrayId(),
 				rowId.getNumberOfDuplicates(),
 				indexData,
 				unknownData,
@@ -384,8 +480,7 @@ public class HBaseUtils
 								index) : encodedRow,
 						new DataStoreEntryInfo(
 								rowId.getDataId(),
-								Arrays.asList(new ByteArrayId(
-										rowId.getInsertionId())),
+								Arrays.asList(rowId.getInsertionByteArrayId()),
 								Arrays.asList(new ByteArrayId(
 										row.getRow())),
 								fieldInfoList));
@@ -0,0 +1,137 @@
+package mil.nga.giat.geowave.datastore.hbase.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.log4j.Logger;
+
+import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.entities.GeowaveRowId;
+import mil.nga.giat.geowave.datastore.hbase.operations.BasicHBaseOperations;
+
+/**
+ * This iterator opens a scan when it is first iterated, so that the scan is
+ * opened by the thread that drains it, and returns the scan's results in
+ * batches to amortize handing them off between threads. If rows are to be
+ * merged, consecutive rows with matching row IDs are never split across
+ * batches so that they stay adjacent when the batches of concurrent scans are
+ * interleaved.
+ */
+public class ScanResultBatchIterator implements
+		CloseableIterator<List<Result>>
+{
+	private final static Logger LOGGER = Logger.getLogger(ScanResultBatchIterator.class);
+
+	private final BasicHBaseOperations operations;
+	private final Scan scan;
+	private final String tableName;
+	private final String[] authorizations;
+	private final int batchSize;
+	private final boolean keepMatchingRowsTogether;
+
+	private ResultScanner scanner;
+	private Iterator<Result> results;
+	private Result peekedResult;
+	private boolean closed = false;
+
+	public ScanResultBatchIterator(
+			final BasicHBaseOperations operations,
+			final Scan scan,
+			final String tableName,
+			final String[] authorizations,
+			final int batchSize,
+			final boolean keepMatchingRowsTogether ) {
+		this.operations = operations;
+		this.scan = scan;
+		this.tableName = tableName;
+		this.authorizations = authorizations;
+		this.batchSize = Math.max(
+				1,
+				batchSize);
+		this.keepMatchingRowsTogether = keepMatchingRowsTogether;
+	}
+
+	private void open() {
+		if (results != null) {
+			return;
+		}
+		try {
+			scanner = operations.getScannedResults(
+					scan,
+					tableName,
+					authorizations);
+		}
+		catch (final IOException e) {
+			LOGGER.warn(
+					"Could not get the results from scanner",
+					e);
+		}
+		results = (scanner == null) ? Collections.<Result> emptyIterator() : scanner.iterator();
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (closed) {
+			return false;
+		}
+		open();
+		return (peekedResult != null) || results.hasNext();
+	}
+
+	@Override
+	public List<Result> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final List<Result> batch = new ArrayList<Result>();
+		Result result = (peekedResult != null) ? peekedResult : results.next();
+		peekedResult = null;
+		batch.add(result);
+		if (!keepMatchingRowsTogether) {
+			while ((batch.size() < batchSize) && results.hasNext()) {
+				batch.add(results.next());
+			}
+			return batch;
+		}
+		GeowaveRowId rowId = new GeowaveRowId(
+				result.getRow());
+		while (results.hasNext()) {
+			result = results.next();
+			final GeowaveRowId nextRowId = new GeowaveRowId(
+					result.getRow());
+			if (!HBaseUtils.rowIdsMatch(
+					rowId,
+					nextRowId)) {
+				if (batch.size() >= batchSize) {
+					peekedResult = result;
+					break;
+				}
+				rowId = nextRowId;
+			}
+			batch.add(result);
+		}
+		return batch;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException(
+				"Remove is not supported on a scan");
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		if (scanner != null) {
+			scanner.close();
+			scanner = null;
+		}
+	}
+}
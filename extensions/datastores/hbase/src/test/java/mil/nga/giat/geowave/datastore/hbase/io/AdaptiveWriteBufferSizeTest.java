@@ -0,0 +1,78 @@
+package mil.nga.giat.geowave.datastore.hbase.io;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class AdaptiveWriteBufferSizeTest
+{
+	@Test
+	public void testInitialSizeIsClamped() {
+		assertEquals(
+				AdaptiveWriteBufferSize.MIN_BUFFER_SIZE,
+				new AdaptiveWriteBufferSize(
+						1).getBufferSize());
+		assertEquals(
+				AdaptiveWriteBufferSize.MAX_BUFFER_SIZE,
+				new AdaptiveWriteBufferSize(
+						Long.MAX_VALUE).getBufferSize());
+		assertEquals(
+				2 * 1024 * 1024,
+				new AdaptiveWriteBufferSize(
+						2 * 1024 * 1024).getBufferSize());
+	}
+
+	@Test
+	public void testGrowsAdditively() {
+		final AdaptiveWriteBufferSize bufferSize = new AdaptiveWriteBufferSize(
+				2 * 1024 * 1024);
+		// a full buffer flushed within the target latency grows the buffer
+		bufferSize.onFlush(
+				2 * 1024 * 1024,
+				AdaptiveWriteBufferSize.TARGET_FLUSH_MILLIS);
+		assertEquals(
+				(2 * 1024 * 1024) + AdaptiveWriteBufferSize.BUFFER_SIZE_INCREMENT,
+				bufferSize.getBufferSize());
+
+		// a partial buffer does not
+		bufferSize.onFlush(
+				1024,
+				1);
+		assertEquals(
+				(2 * 1024 * 1024) + AdaptiveWriteBufferSize.BUFFER_SIZE_INCREMENT,
+				bufferSize.getBufferSize());
+
+		// up to the maximum
+		for (int i = 0; i < 100; i++) {
+			bufferSize.onFlush(
+					bufferSize.getBufferSize(),
+					1);
+		}
+		assertEquals(
+				AdaptiveWriteBufferSize.MAX_BUFFER_SIZE,
+				bufferSize.getBufferSize());
+	}
+
+	@Test
+	public void testHalvesOnSlowFlush() {
+		final AdaptiveWriteBufferSize bufferSize = new AdaptiveWriteBufferSize(
+				8 * 1024 * 1024);
+		// a slow flush shrinks the buffer even if it was not full
+		bufferSize.onFlush(
+				1024,
+				AdaptiveWriteBufferSize.TARGET_FLUSH_MILLIS + 1);
+		assertEquals(
+				4 * 1024 * 1024,
+				bufferSize.getBufferSize());
+
+		// down to the minimum
+		for (int i = 0; i < 100; i++) {
+			bufferSize.onFlush(
+					bufferSize.getBufferSize(),
+					AdaptiveWriteBufferSize.TARGET_FLUSH_MILLIS + 1);
+		}
+		assertEquals(
+				AdaptiveWriteBufferSize.MIN_BUFFER_SIZE,
+				bufferSize.getBufferSize());
+	}
+}
@@ -0,0 +1,160 @@
+package mil.nga.giat.geowave.datastore.hbase.query;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeSet;
+
+import org.apache.hadoop.hbase.Cell;
+import org.apache.hadoop.hbase.CellUtil;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.filter.Filter.ReturnCode;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.geotime.ingest.SpatialDimensionalityTypeProvider;
+import mil.nga.giat.geowave.core.store.filter.DedupeFilter;
+import mil.nga.giat.geowave.core.store.filter.DistributableQueryFilter;
+import mil.nga.giat.geowave.core.store.flatten.BitmaskUtils;
+import mil.nga.giat.geowave.core.store.index.CommonIndexModel;
+
+public class GeoWaveScanFilterTest
+{
+	private static final byte[] FAMILY = new byte[] {
+		'f'
+	};
+
+	@Test
+	public void testRoundTrip()
+			throws IOException {
+		final CommonIndexModel model = new SpatialDimensionalityTypeProvider().createPrimaryIndex().getIndexModel();
+		final byte[] fieldSubsetBitmask = BitmaskUtils.generateCompositeBitmask(0);
+		final GeoWaveScanFilter filter = GeoWaveScanFilter.fromScanAttribute(GeoWaveScanFilter.toScanAttribute(
+				model,
+				Collections.<DistributableQueryFilter> singletonList(new DedupeFilter()),
+				7,
+				fieldSubsetBitmask));
+		assertNotNull(filter);
+		assertEquals(
+				model,
+				filter.model);
+		assertTrue(filter.hasFilters());
+
+		// only the first of the two fields of the cell is kept
+		final byte[] firstValue = new byte[] {
+			1,
+			2
+		};
+		final byte[] secondValue = new byte[] {
+			3
+		};
+		final ByteBuffer value = ByteBuffer.allocate(8 + firstValue.length + secondValue.length);
+		value.putInt(firstValue.length);
+		value.put(firstValue);
+		value.putInt(secondValue.length);
+		value.put(secondValue);
+		final Cell transformed = filter.transformCell(new KeyValue(
+				new byte[] {
+					1
+				},
+				FAMILY,
+				BitmaskUtils.generateCompositeBitmask(new TreeSet<Integer>(
+						Arrays.asList(
+								0,
+								1))),
+				value.array()));
+		assertArrayEquals(
+				fieldSubsetBitmask,
+				CellUtil.cloneQualifier(transformed));
+		assertArrayEquals(
+				firstValue,
+				CellUtil.cloneValue(transformed));
+	}
+
+	@Test
+	public void testSubsamplingRoundTrip()
+			throws IOException {
+		final CommonIndexModel model = new SpatialDimensionalityTypeProvider().createPrimaryIndex().getIndexModel();
+		// subsample at a cardinality of one byte
+		final GeoWaveScanFilter filter = GeoWaveScanFilter.fromScanAttribute(GeoWaveScanFilter.toScanAttribute(
+				model,
+				null,
+				7,
+				null));
+		assertNotNull(filter);
+		assertFalse(filter.hasFilters());
+
+		final Cell cell = createCell(new byte[] {
+			1,
+			2,
+			3
+		});
+		assertEquals(
+				ReturnCode.INCLUDE,
+				filter.filterKeyValue(cell));
+		assertArrayEquals(
+				new byte[] {
+					2
+				},
+				CellUtil.cloneRow(filter.getNextCellHint(cell)));
+		// the rest of the rows with the same first byte are skipped
+		assertEquals(
+				ReturnCode.SEEK_NEXT_USING_HINT,
+				filter.filterKeyValue(createCell(new byte[] {
+					1,
+					5
+				})));
+		assertFalse(filter.filterAllRemaining());
+	}
+
+	@Test
+	public void testEmptyRoundTrip()
+			throws IOException {
+		final CommonIndexModel model = new SpatialDimensionalityTypeProvider().createPrimaryIndex().getIndexModel();
+		final GeoWaveScanFilter filter = GeoWaveScanFilter.fromScanAttribute(GeoWaveScanFilter.toScanAttribute(
+				model,
+				null,
+				null,
+				null));
+		assertNotNull(filter);
+		assertFalse(filter.hasFilters());
+
+		// without subsampling every row is included
+		final Cell cell = createCell(new byte[] {
+			1,
+			2,
+			3
+		});
+		assertEquals(
+				ReturnCode.INCLUDE,
+				filter.filterKeyValue(cell));
+		assertEquals(
+				ReturnCode.INCLUDE,
+				filter.filterKeyValue(createCell(new byte[] {
+					1,
+					5
+				})));
+		assertFalse(filter.filterAllRemaining());
+		// and without field subsetting every cell is unchanged
+		assertTrue(filter.transformCell(cell) == cell);
+	}
+
+	private static Cell createCell(
+			final byte[] row ) {
+		return new KeyValue(
+				row,
+				FAMILY,
+				new byte[] {
+					1
+				},
+				new byte[] {
+					0
+				});
+	}
+}
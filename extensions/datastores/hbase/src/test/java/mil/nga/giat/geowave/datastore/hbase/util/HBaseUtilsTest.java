@@ -0,0 +1,97 @@
+package mil.nga.giat.geowave.datastore.hbase.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.hbase.filter.MultiRowRangeFilter.RowRange;
+import org.junit.Test;
+
+import mil.nga.giat.geowave.core.index.ByteArrayId;
+import mil.nga.giat.geowave.core.index.ByteArrayRange;
+
+public class HBaseUtilsTest
+{
+	@Test
+	public void testCoalesceRowRanges() {
+		final List<RowRange> rowRanges = HBaseUtils.coalesceRowRanges(Arrays.asList(
+				// out of order, to be sorted by start row
+				createRange(
+						"f",
+						"g"),
+				createRange(
+						"a",
+						"b"),
+				// adjacent to the stop row of [a, c)
+				new ByteArrayRange(
+						new ByteArrayId(
+								"c"),
+						new ByteArrayId(
+								"c"),
+						true),
+				// within [f, h)
+				createRange(
+						"fa",
+						"fz"),
+				// every row prefixed by 0xff is not bounded
+				new ByteArrayRange(
+						new ByteArrayId(
+								"x"),
+						new ByteArrayId(
+								new byte[] {
+									(byte) 0xff
+								})),
+				createRange(
+						"y",
+						"z")));
+		assertEquals(
+				3,
+				rowRanges.size());
+		assertRowRange(
+				"a",
+				"d",
+				rowRanges.get(0));
+		assertRowRange(
+				"f",
+				"h",
+				rowRanges.get(1));
+		assertRowRange(
+				"x",
+				"",
+				rowRanges.get(2));
+	}
+
+	@Test
+	public void testCoalesceNoRanges() {
+		assertTrue(HBaseUtils.coalesceRowRanges(
+				Arrays.<ByteArrayRange> asList()).isEmpty());
+	}
+
+	private static ByteArrayRange createRange(
+			final String start,
+			final String end ) {
+		return new ByteArrayRange(
+				new ByteArrayId(
+						start),
+				new ByteArrayId(
+						end));
+	}
+
+	private static void assertRowRange(
+			final String expectedStartRow,
+			final String expectedStopRow,
+			final RowRange rowRange ) {
+		assertArrayEquals(
+				expectedStartRow.getBytes(),
+				rowRange.getStartRow());
+		assertTrue(rowRange.isStartRowInclusive());
+		assertArrayEquals(
+				expectedStopRow.getBytes(),
+				rowRange.getStopRow());
+		assertFalse(rowRange.isStopRowInclusive());
+	}
+}
@@ -1,10 +1,12 @@
 package mil.nga.giat.geowave.service;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
@@ -35,4 +37,17 @@ public interface InfoService
 	public Response getAdapters(
 			@PathParam("storeName")
 			final String storeName );
+
+	// explains a cql query on the given adapter, and optionally profiles it
+	@GET
+	@Produces(MediaType.APPLICATION_JSON)
+	@Path("/explain/{storeName}/{adapterId}")
+	public Response explainQuery(
+			@PathParam("storeName")
+			final String storeName,
+			@PathParam("adapterId")
+			final String adapterId,
+			@QueryParam("cql")
+			final String cql,
+			@DefaultValue("false") @QueryParam("profile") boolean profile );
 }
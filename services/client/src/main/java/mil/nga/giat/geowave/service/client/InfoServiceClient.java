@@ -40,4 +40,18 @@ public class InfoServiceClient
 		resp.bufferEntity();
 		return JSONObject.fromObject(resp.readEntity(String.class));
 	}
+
+	public JSONObject explainQuery(
+			final String storeName,
+			final String adapterId,
+			final String cql,
+			final boolean profile ) {
+		final Response resp = infoService.explainQuery(
+				storeName,
+				adapterId,
+				cql,
+				profile);
+		resp.bufferEntity();
+		return JSONObject.fromObject(resp.readEntity(String.class));
+	}
 }
@@ -6,10 +6,12 @@ import java.util.Properties;
 
 import javax.servlet.ServletConfig;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
@@ -17,11 +19,19 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
 import org.apache.log4j.Logger;
+import org.geotools.filter.text.cql2.CQLException;
 
+import mil.nga.giat.geowave.adapter.vector.GeotoolsFeatureDataAdapter;
+import mil.nga.giat.geowave.adapter.vector.query.cql.CQLQuery;
+import mil.nga.giat.geowave.core.index.ByteArrayId;
 import mil.nga.giat.geowave.core.store.CloseableIterator;
+import mil.nga.giat.geowave.core.store.DataStore;
 import mil.nga.giat.geowave.core.store.adapter.DataAdapter;
 import mil.nga.giat.geowave.core.store.index.Index;
 import mil.nga.giat.geowave.core.store.operations.remote.options.DataStorePluginOptions;
+import mil.nga.giat.geowave.core.store.query.Query;
+import mil.nga.giat.geowave.core.store.query.QueryExplanation;
+import mil.nga.giat.geowave.core.store.query.QueryOptions;
 import mil.nga.giat.geowave.service.InfoService;
 import mil.nga.giat.geowave.service.ServiceUtils;
 import net.sf.json.JSONArray;
@@ -180,4 +190,74 @@ public class InfoServiceImpl implements
 			return Response.serverError().build();
 		}
 	}
+
+	// explains a cql query on the given adapter, and optionally profiles it
+	@Override
+	@GET
+	@Produces(MediaType.APPLICATION_JSON)
+	@Path("/explain/{storeName}/{adapterId}")
+	public Response explainQuery(
+			@PathParam("storeName")
+			final String storeName,
+			@PathParam("adapterId")
+			final String adapterId,
+			@QueryParam("cql")
+			final String cql,
+			@DefaultValue("false") @QueryParam("profile") boolean profile ) {
+		if ((storeName == null) || storeName.isEmpty() || (adapterId == null) || adapterId.isEmpty()
+				|| (cql == null) || cql.isEmpty()) {
+			throw new WebApplicationException(
+					Response.status(
+							Status.BAD_REQUEST).entity(
+							"Explain Query Failed - Missing Store Name, Adapter ID or CQL").build());
+		}
+		// Store
+		final String namespace = DataStorePluginOptions.getStoreNamespace(storeName);
+		final DataStorePluginOptions dataStorePlugin = new DataStorePluginOptions();
+		if (!dataStorePlugin.load(
+				serviceProperties,
+				namespace)) {
+			throw new WebApplicationException(
+					Response.status(
+							Status.BAD_REQUEST).entity(
+							"Explain Query Failed - Invalid Store").build());
+		}
+		final DataAdapter<?> adapter = dataStorePlugin.createAdapterStore().getAdapter(
+				new ByteArrayId(
+						adapterId));
+		if (!(adapter instanceof GeotoolsFeatureDataAdapter)) {
+			throw new WebApplicationException(
+					Response.status(
+							Status.BAD_REQUEST).entity(
+							"Explain Query Failed - Invalid Feature Adapter").build());
+		}
+		final Query query;
+		try {
+			query = CQLQuery.createOptimalQuery(
+					cql,
+					(GeotoolsFeatureDataAdapter) adapter,
+					null,
+					null);
+		}
+		catch (final CQLException e) {
+			LOGGER.warn(
+					"Unable to parse CQL '" + cql + "'",
+					e);
+			throw new WebApplicationException(
+					Response.status(
+							Status.BAD_REQUEST).entity(
+							"Explain Query Failed - Invalid CQL").build());
+		}
+		final DataStore dataStore = dataStorePlugin.createDataStore();
+		final QueryOptions options = new QueryOptions(
+				adapter);
+		final QueryExplanation explanation = profile ? dataStore.profile(
+				options,
+				query) : dataStore.explain(
+				options,
+				query);
+		return Response.ok(
+				explanation.toJSONObject().toString(
+						defaultIndentation)).build();
+	}
 }
\ No newline at end of file